@@ -0,0 +1,383 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Network-free fixtures shared by the benchmarks: the bundled {@code bench-app} chart,
+ * a generated umbrella chart and a generated repository {@code index.yaml}. Everything
+ * is written to a temp directory during {@code @Setup}, so no benchmark touches the
+ * network or depends on a developer's Helm cache.
+ */
+final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Copies a chart bundled under {@code src/main/resources/charts} to a temp directory
+	 * (works from exploded classes and the shaded jar).
+	 * @param name the chart directory name, e.g. {@code bench-app}
+	 * @return the chart directory
+	 */
+	static Path bundledChart(String name) throws Exception {
+		ClassLoader cl = BenchmarkFixtures.class.getClassLoader();
+		URL marker = cl.getResource("charts/" + name + "/Chart.yaml");
+		if (marker == null) {
+			throw new IllegalStateException("bundled chart 'charts/" + name + "' not found on the classpath");
+		}
+		Path dest = Files.createTempDirectory("jhelm-bench-chart");
+		if ("jar".equals(marker.getProtocol())) {
+			String s = marker.toString();
+			URI jarUri = URI.create(s.substring("jar:".length(), s.indexOf("!/")));
+			try (FileSystem fs = FileSystems.newFileSystem(Path.of(jarUri))) {
+				copyTree(fs.getPath("/charts/" + name), dest);
+			}
+		}
+		else {
+			copyTree(Path.of(marker.toURI()).getParent(), dest);
+		}
+		return dest;
+	}
+
+	/**
+	 * Generates a GitLab-scale umbrella chart: {@code subcharts} application subcharts,
+	 * each with a Deployment, Service and ConfigMap built almost entirely from a shared,
+	 * define-heavy library chart ({@code bench-defs}: nested {@code include} chains,
+	 * {@code dict} arguments, {@code toYaml}), plus umbrella values that override every
+	 * subchart and a {@code global} section. Each subchart is enabled through a
+	 * dependency {@code condition}, so condition evaluation and value slicing run for
+	 * every one of them.
+	 * @param subcharts how many application subcharts to generate
+	 * @return the umbrella chart directory
+	 */
+	static Path umbrellaChart(int subcharts) throws IOException {
+		Path root = Files.createTempDirectory("jhelm-bench-umbrella");
+		StringBuilder chartYaml = new StringBuilder("""
+				apiVersion: v2
+				name: bench-umbrella
+				description: Generated umbrella chart for the jhelm benchmarks (not a real app).
+				version: 1.0.0
+				appVersion: "1.0.0"
+				dependencies:
+				  - name: bench-defs
+				    version: 0.1.0
+				    repository: ""
+				""");
+		StringBuilder values = new StringBuilder("""
+				global:
+				  imageRegistry: registry.example.com
+				  labels:
+				    team: bench
+				""");
+		for (int i = 1; i <= subcharts; i++) {
+			String name = subchartName(i);
+			chartYaml.append("  - name: ").append(name).append('\n');
+			chartYaml.append("    version: 1.0.").append(i).append('\n');
+			chartYaml.append("    repository: \"\"\n");
+			chartYaml.append("    condition: ").append(name).append(".enabled\n");
+			values.append(name).append(":\n");
+			values.append("  enabled: true\n");
+			values.append("  replicaCount: ").append(1 + (i % 3)).append('\n');
+			values.append("  image:\n    repository: example/").append(name).append('\n');
+			values.append("    tag: \"1.0.").append(i).append("\"\n");
+			values.append("  env:\n");
+			for (int e = 1; e <= 6; e++) {
+				values.append("    - name: setting_").append(e).append('\n');
+				values.append("      value: \"").append(name).append('-').append(e).append("\"\n");
+			}
+			values.append("  config:\n");
+			for (int c = 1; c <= 10; c++) {
+				values.append("    key_").append(c).append(": value-").append(i).append('-').append(c).append('\n');
+			}
+			writeSubchart(root.resolve("charts").resolve(name), name, i);
+		}
+		write(root.resolve("Chart.yaml"), chartYaml);
+		write(root.resolve("values.yaml"), values);
+		write(root.resolve("templates/configmap.yaml"), """
+				apiVersion: v1
+				kind: ConfigMap
+				metadata:
+				  name: {{ include "bench-defs.fullname" . }}
+				  labels:
+				    {{- include "bench-defs.labels" . | nindent 4 }}
+				data:
+				  registry: {{ .Values.global.imageRegistry | quote }}
+				""");
+		writeLibrary(root.resolve("charts/bench-defs"));
+		return root;
+	}
+
+	/**
+	 * Writes a synthetic repository {@code index.yaml} shaped like a public Helm repo's
+	 * (per-version metadata, digests, URLs, maintainers, keywords).
+	 * @param file the file to write
+	 * @param charts how many charts the index lists
+	 * @param versions how many versions each chart has
+	 */
+	static void writeIndex(Path file, int charts, int versions) throws IOException {
+		try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			out.write("apiVersion: v1\nentries:\n");
+			for (int c = 0; c < charts; c++) {
+				String name = "chart-" + c;
+				out.write("  " + name + ":\n");
+				for (int v = versions; v > 0; v--) {
+					String version = (c % 7) + "." + (v / 10) + "." + (v % 10);
+					out.write("  - apiVersion: v2\n");
+					out.write("    appVersion: \"" + version + "\"\n");
+					out.write("    created: \"2024-01-" + (10 + (v % 18)) + "T10:00:00.000000000Z\"\n");
+					out.write("    description: Synthetic chart " + name + " for the index parsing benchmark\n");
+					out.write("    digest: " + "%064x".formatted((long) c * 1_000 + v) + "\n");
+					out.write("    home: https://charts.example.com/" + name + "\n");
+					out.write("    keywords:\n    - bench\n    - " + name + "\n");
+					out.write("    maintainers:\n    - email: team@example.com\n      name: Bench Team\n");
+					out.write("    name: " + name + "\n");
+					out.write("    sources:\n    - https://github.com/example/" + name + "\n");
+					out.write("    urls:\n    - https://charts.example.com/" + name + "-" + version + ".tgz\n");
+					out.write("    version: " + version + "\n");
+				}
+			}
+			out.write("generated: \"2024-01-31T10:00:00Z\"\n");
+		}
+	}
+
+	static String subchartName(int i) {
+		return "svc-%02d".formatted(i);
+	}
+
+	private static void writeSubchart(Path dir, String name, int i) throws IOException {
+		write(dir.resolve("Chart.yaml"), """
+				apiVersion: v2
+				name: @NAME@
+				version: 1.0.@I@
+				appVersion: "1.0.@I@"
+				""".replace("@NAME@", name).replace("@I@", Integer.toString(i)));
+		write(dir.resolve("values.yaml"), """
+				nameOverride: ""
+				fullnameOverride: ""
+				replicaCount: 1
+				image:
+				  repository: example/app
+				  tag: ""
+				  pullPolicy: IfNotPresent
+				service:
+				  type: ClusterIP
+				  port: 80
+				  targetPort: 8080
+				podAnnotations:
+				  bench.example.com/scrape: "true"
+				  bench.example.com/port: "9090"
+				podSecurityContext:
+				  runAsNonRoot: true
+				  fsGroup: 1000
+				resources:
+				  limits:
+				    cpu: 500m
+				    memory: 256Mi
+				  requests:
+				    cpu: 100m
+				    memory: 64Mi
+				env: []
+				config: {}
+				""");
+		write(dir.resolve("templates/deployment.yaml"), """
+				apiVersion: apps/v1
+				kind: Deployment
+				metadata:
+				  name: {{ include "bench-defs.fullname" . }}
+				  labels:
+				    {{- include "bench-defs.labels" . | nindent 4 }}
+				spec:
+				  replicas: {{ .Values.replicaCount }}
+				  selector:
+				    matchLabels:
+				      {{- include "bench-defs.selectorLabels" . | nindent 6 }}
+				  template:
+				    metadata:
+				      labels:
+				        {{- include "bench-defs.labels" . | nindent 8 }}
+				      annotations:
+				        {{- include "bench-defs.annotations" . | nindent 8 }}
+				    spec:
+				      {{- include "bench-defs.podSpec" . | nindent 6 }}
+				""");
+		write(dir.resolve("templates/service.yaml"), """
+				apiVersion: v1
+				kind: Service
+				metadata:
+				  name: {{ include "bench-defs.fullname" . }}
+				  labels:
+				    {{- include "bench-defs.labels" . | nindent 4 }}
+				spec:
+				  type: {{ .Values.service.type }}
+				  ports:
+				    - port: {{ .Values.service.port }}
+				      targetPort: {{ .Values.service.targetPort }}
+				      name: http
+				  selector:
+				    {{- include "bench-defs.selectorLabels" . | nindent 4 }}
+				""");
+		write(dir.resolve("templates/configmap.yaml"), """
+				apiVersion: v1
+				kind: ConfigMap
+				metadata:
+				  name: {{ include "bench-defs.fullname" . }}-config
+				  labels:
+				    {{- include "bench-defs.labels" . | nindent 4 }}
+				data:
+				  {{- range $key, $value := .Values.config }}
+				  {{ include "bench-defs.util.key" $key }}: {{ $value | quote }}
+				  {{- end }}
+				""");
+	}
+
+	private static void writeLibrary(Path dir) throws IOException {
+		write(dir.resolve("Chart.yaml"), """
+				apiVersion: v2
+				name: bench-defs
+				type: library
+				version: 0.1.0
+				""");
+		write(dir.resolve("values.yaml"), "{}\n");
+		write(dir.resolve("templates/_names.tpl"), """
+				{{- define "bench-defs.name" -}}
+				{{- default .Chart.Name .Values.nameOverride | trunc 63 | trimSuffix "-" -}}
+				{{- end -}}
+
+				{{- define "bench-defs.fullname" -}}
+				{{- if .Values.fullnameOverride -}}
+				{{- .Values.fullnameOverride | trunc 63 | trimSuffix "-" -}}
+				{{- else -}}
+				{{- printf "%s-%s" .Release.Name (include "bench-defs.name" .) | trunc 63 | trimSuffix "-" -}}
+				{{- end -}}
+				{{- end -}}
+
+				{{- define "bench-defs.chart" -}}
+				{{- printf "%s-%s" .Chart.Name .Chart.Version | replace "+" "_" | trunc 63 | trimSuffix "-" -}}
+				{{- end -}}
+				""");
+		write(dir.resolve("templates/_labels.tpl"), """
+				{{- define "bench-defs.labels" -}}
+				helm.sh/chart: {{ include "bench-defs.chart" . }}
+				{{ include "bench-defs.selectorLabels" . }}
+				app.kubernetes.io/version: {{ .Chart.AppVersion | quote }}
+				app.kubernetes.io/managed-by: {{ .Release.Service }}
+				{{- with .Values.global }}
+				{{- range $key, $value := .labels }}
+				{{ $key }}: {{ $value | quote }}
+				{{- end }}
+				{{- end }}
+				{{- end -}}
+
+				{{- define "bench-defs.selectorLabels" -}}
+				app.kubernetes.io/name: {{ include "bench-defs.name" . }}
+				app.kubernetes.io/instance: {{ .Release.Name }}
+				{{- end -}}
+
+				{{- define "bench-defs.annotations" -}}
+				bench.example.com/revision: {{ .Release.Revision | quote }}
+				{{- range $key, $value := .Values.podAnnotations }}
+				{{ $key }}: {{ $value | quote }}
+				{{- end }}
+				{{- end -}}
+				""");
+		write(dir.resolve("templates/_pod.tpl"), """
+				{{- define "bench-defs.image" -}}
+				{{- $registry := .Values.global.imageRegistry | default "docker.io" -}}
+				{{- printf "%s/%s:%s" $registry .Values.image.repository (.Values.image.tag | default .Chart.AppVersion) -}}
+				{{- end -}}
+
+				{{- define "bench-defs.env" -}}
+				{{- range .Values.env }}
+				- name: {{ .name | upper }}
+				  value: {{ .value | quote }}
+				{{- end }}
+				{{- end -}}
+
+				{{- define "bench-defs.probe" -}}
+				httpGet:
+				  path: {{ .path }}
+				  port: {{ .port }}
+				initialDelaySeconds: 5
+				periodSeconds: 10
+				{{- end -}}
+
+				{{- define "bench-defs.container" -}}
+				name: {{ include "bench-defs.name" . }}
+				image: {{ include "bench-defs.image" . | quote }}
+				imagePullPolicy: {{ .Values.image.pullPolicy }}
+				ports:
+				  - name: http
+				    containerPort: {{ .Values.service.targetPort }}
+				env:
+				  {{- include "bench-defs.env" . | nindent 2 }}
+				livenessProbe:
+				  {{- include "bench-defs.probe" (dict "path" "/healthz" "port" .Values.service.targetPort) | nindent 2 }}
+				readinessProbe:
+				  {{- include "bench-defs.probe" (dict "path" "/ready" "port" .Values.service.targetPort) | nindent 2 }}
+				resources:
+				  {{- toYaml .Values.resources | nindent 2 }}
+				{{- end -}}
+
+				{{- define "bench-defs.podSpec" -}}
+				serviceAccountName: {{ include "bench-defs.fullname" . }}
+				securityContext:
+				  {{- toYaml .Values.podSecurityContext | nindent 2 }}
+				containers:
+				  - {{- include "bench-defs.container" . | nindent 4 }}
+				{{- end -}}
+				""");
+		// A chain of small helpers (util.key -> util.1 -> ... -> util.8) plus unused
+		// fillers, the shape of a bitnami-style "common" library: most defines are parsed
+		// on every render, few are called.
+		StringBuilder util = new StringBuilder("""
+				{{- define "bench-defs.util.key" -}}
+				{{- include "bench-defs.util.1" . -}}
+				{{- end -}}
+				""");
+		for (int i = 1; i <= 40; i++) {
+			util.append("\n{{- define \"bench-defs.util.").append(i).append("\" -}}\n");
+			if (i < 8) {
+				util.append("{{- include \"bench-defs.util.").append(i + 1).append("\" (. | lower) -}}\n");
+			}
+			else {
+				util.append("{{- . | replace \"_\" \"-\" | trunc 63 | trimSuffix \"-\" -}}\n");
+			}
+			util.append("{{- end -}}\n");
+		}
+		write(dir.resolve("templates/_util.tpl"), util);
+	}
+
+	private static void write(Path file, CharSequence content) throws IOException {
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+	}
+
+	private static void copyTree(Path src, Path dest) throws IOException {
+		try (var walk = Files.walk(src)) {
+			List<Path> entries = walk.toList();
+			for (Path p : entries) {
+				// relativize/rebuild via String so a jar-FS source path lands on the
+				// default FS
+				Path target = dest.resolve(src.relativize(p).toString());
+				if (Files.isDirectory(p)) {
+					Files.createDirectories(target);
+				}
+				else {
+					Files.createDirectories(target.getParent());
+					Files.copy(p, target, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+		}
+	}
+
+}
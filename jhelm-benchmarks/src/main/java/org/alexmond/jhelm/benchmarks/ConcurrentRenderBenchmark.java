@@ -0,0 +1,65 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.model.ReleaseContext;
+import org.alexmond.jhelm.core.service.ChartLoader;
+import org.alexmond.jhelm.core.service.Engine;
+
+/**
+ * Multi-threaded render throughput: several benchmark threads share one warm
+ * {@link Engine}, the way a server shares its engine bean across requests. The engine's
+ * render pool is sized to the thread count, so the score shows how far concurrent renders
+ * scale (shared registry and parse cache contention, allocation pressure) rather than
+ * queueing on a single render thread. Compare the score with {@code -t 1} to read the
+ * scaling factor; override the thread count with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class ConcurrentRenderBenchmark {
+
+	// Upper bound on benchmark threads (-t); the render pool is sized to it.
+	private static final int MAX_THREADS = 64;
+
+	private Chart chart;
+
+	private final Map<String, Object> userValues = Map.of("replicaCount", 5, "image", Map.of("tag", "2.0.0-bench"));
+
+	private final ReleaseContext release = ReleaseContext.builder()
+		.name("bench")
+		.namespace("default")
+		.revision(1)
+		.build();
+
+	private Engine engine;
+
+	@Setup
+	public void setup() throws Exception {
+		Path chartDir = BenchmarkFixtures.bundledChart("bench-app");
+		this.chart = new ChartLoader().load(chartDir.toFile());
+		this.engine = new Engine();
+		this.engine.setRenderThreads(MAX_THREADS);
+		this.engine.render(this.chart, this.userValues, this.release);
+	}
+
+	/** One render per op on the shared engine, from every benchmark thread at once. */
+	@Benchmark
+	public String render() {
+		return this.engine.render(this.chart, this.userValues, this.release);
+	}
+
+}
@@ -0,0 +1,62 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.alexmond.gotmpl4j.Function;
+import org.alexmond.jhelm.core.util.ValuesLoader;
+import org.alexmond.jhelm.gotemplate.helm.functions.ConversionFunctions;
+
+/**
+ * {@code toYaml}/{@code fromYaml} benchmarks: the template functions charts call on
+ * whole values subtrees ({@code toYaml .Values.resources | nindent}) and on rendered
+ * snippets ({@code fromYaml (include ...)}), invoked directly on the umbrella chart's
+ * values (see {@link BenchmarkFixtures#umbrellaChart}) so the numbers isolate the
+ * conversion from template execution.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ConversionBenchmark {
+
+	@Param("40")
+	public int subcharts;
+
+	private Function toYaml;
+
+	private Function fromYaml;
+
+	private Map<String, Object> values;
+
+	private String yaml;
+
+	@Setup
+	public void setup() throws Exception {
+		Map<String, Function> functions = ConversionFunctions.getFunctions();
+		this.toYaml = functions.get("toYaml");
+		this.fromYaml = functions.get("fromYaml");
+		this.values = ValuesLoader
+			.load(BenchmarkFixtures.umbrellaChart(this.subcharts).resolve("values.yaml").toFile());
+		this.yaml = (String) this.toYaml.invoke(new Object[] { this.values });
+	}
+
+	@Benchmark
+	public Object toYaml() {
+		return this.toYaml.invoke(new Object[] { this.values });
+	}
+
+	@Benchmark
+	public Object fromYaml() {
+		return this.fromYaml.invoke(new Object[] { this.yaml });
+	}
+
+}
@@ -0,0 +1,117 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.model.HelmReleaseCodec;
+import org.alexmond.jhelm.core.model.Release;
+import org.alexmond.jhelm.core.model.ReleaseContext;
+import org.alexmond.jhelm.core.model.ReleaseStatus;
+import org.alexmond.jhelm.core.service.ChartLoader;
+import org.alexmond.jhelm.core.service.Engine;
+
+/**
+ * Release storage codec benchmarks: {@link HelmReleaseCodec} to and from Helm's release
+ * JSON, with and without the gzip layer every {@code sh.helm.release.v1} Secret adds. The
+ * release embeds the generated umbrella chart (see {@link BenchmarkFixtures#umbrellaChart})
+ * and its rendered manifest, so the payload is the size a real umbrella release stores;
+ * every {@code list}, {@code status}, {@code upgrade} and {@code rollback} decodes one or
+ * more of these.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ReleaseCodecBenchmark {
+
+	@Param("40")
+	public int subcharts;
+
+	private final HelmReleaseCodec codec = new HelmReleaseCodec();
+
+	private Release release;
+
+	private byte[] json;
+
+	private byte[] gzipped;
+
+	@Setup
+	public void setup() throws Exception {
+		Chart chart = new ChartLoader().load(BenchmarkFixtures.umbrellaChart(this.subcharts).toFile());
+		Map<String, Object> values = Map.of("global", Map.of("imageRegistry", "mirror.example.com"));
+		ReleaseContext context = ReleaseContext.builder().name("bench").namespace("default").revision(1).build();
+		String manifest = new Engine().render(chart, values, context);
+		OffsetDateTime deployed = OffsetDateTime.of(2024, 1, 31, 10, 0, 0, 0, ZoneOffset.UTC);
+		this.release = Release.builder()
+			.name("bench")
+			.namespace("default")
+			.version(1)
+			.chart(chart)
+			.config(Release.MapConfig.builder().values(values).build())
+			.info(Release.ReleaseInfo.builder()
+				.firstDeployed(deployed)
+				.lastDeployed(deployed)
+				.description("Install complete")
+				.status(ReleaseStatus.DEPLOYED)
+				.build())
+			.manifest(manifest)
+			.build();
+		this.json = this.codec.toJson(this.release);
+		this.gzipped = gzip(this.json);
+	}
+
+	/** Release to Helm JSON only. */
+	@Benchmark
+	public byte[] toJson() {
+		return this.codec.toJson(this.release);
+	}
+
+	/** Helm JSON to release only. */
+	@Benchmark
+	public Release fromJson() {
+		return this.codec.fromJson(this.json);
+	}
+
+	/** The full storage write: JSON then gzip. */
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return gzip(this.codec.toJson(this.release));
+	}
+
+	/** The full storage read: gunzip then JSON. */
+	@Benchmark
+	public Release decode() throws IOException {
+		return this.codec.fromJson(gunzip(this.gzipped));
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] gunzip(byte[] data) throws IOException {
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+			return gzip.readAllBytes();
+		}
+	}
+
+}
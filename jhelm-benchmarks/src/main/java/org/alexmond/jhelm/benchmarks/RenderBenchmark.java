@@ -1,14 +1,6 @@
 package org.alexmond.jhelm.benchmarks;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URL;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -16,6 +8,7 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -41,15 +34,27 @@ import org.alexmond.jhelm.core.service.Engine;
  * amortises.
  *
  * <p>
+ * {@link #loadChart} times loading {@code bench-app} from disk;
+ * {@link #loadUmbrellaChart} and {@link #loadUmbrellaChartSequential} load a generated
+ * umbrella chart ({@link #umbrellaSubcharts} subcharts, see
+ * {@link BenchmarkFixtures#umbrellaChart}) with and without the concurrent loader.
+ *
+ * <p>
  * Run: {@code java -jar jhelm-benchmarks/target/benchmarks.jar RenderBenchmark -prof gc}.
+ * The other hot paths have their own benchmarks (see the module README).
  */
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @State(Scope.Benchmark)
 public class RenderBenchmark {
 
+	@Param("40")
+	public int umbrellaSubcharts;
+
 	private Path chartDir;
 
+	private Path umbrellaDir;
+
 	private Chart chart;
 
 	private final Map<String, Object> userValues = Map.of("replicaCount", 5, "image", Map.of("tag", "2.0.0-bench"));
@@ -62,10 +67,14 @@ public class RenderBenchmark {
 
 	private Engine warmEngine;
 
+	private final ChartLoader sequentialLoader = new ChartLoader();
+
 	@Setup
 	public void setup() throws Exception {
-		this.chartDir = materializeChart();
+		this.chartDir = BenchmarkFixtures.bundledChart("bench-app");
 		this.chart = new ChartLoader().load(this.chartDir.toFile());
+		this.umbrellaDir = BenchmarkFixtures.umbrellaChart(this.umbrellaSubcharts);
+		this.sequentialLoader.setParallel(false);
 		this.warmEngine = new Engine(); // default parse cache on, shared registry
 		// Warm the reflection/parse caches so steady-state numbers exclude first-render
 		// warmup.
@@ -92,45 +101,16 @@ public class RenderBenchmark {
 		return new ChartLoader().load(this.chartDir.toFile());
 	}
 
-	// --- bundled-chart materialisation (works from exploded classes and the shaded jar)
-	// ---
-
-	private static Path materializeChart() throws Exception {
-		ClassLoader cl = RenderBenchmark.class.getClassLoader();
-		URL marker = cl.getResource("charts/bench-app/Chart.yaml");
-		if (marker == null) {
-			throw new IllegalStateException("bundled chart 'charts/bench-app' not found on the classpath");
-		}
-		Path dest = Files.createTempDirectory("jhelm-bench-chart");
-		if ("jar".equals(marker.getProtocol())) {
-			String s = marker.toString();
-			URI jarUri = URI.create(s.substring("jar:".length(), s.indexOf("!/")));
-			try (FileSystem fs = FileSystems.newFileSystem(Path.of(jarUri))) {
-				copyTree(fs.getPath("/charts/bench-app"), dest);
-			}
-		}
-		else {
-			copyTree(Path.of(marker.toURI()).getParent(), dest);
-		}
-		return dest;
+	/** Concurrent load of the generated umbrella chart (the default loader). */
+	@Benchmark
+	public Chart loadUmbrellaChart() {
+		return new ChartLoader().load(this.umbrellaDir.toFile());
 	}
 
-	private static void copyTree(Path src, Path dest) throws IOException {
-		try (var walk = Files.walk(src)) {
-			List<Path> entries = walk.toList();
-			for (Path p : entries) {
-				// relativize/rebuild via String so a jar-FS source path lands on the
-				// default FS
-				Path target = dest.resolve(src.relativize(p).toString());
-				if (Files.isDirectory(p)) {
-					Files.createDirectories(target);
-				}
-				else {
-					Files.createDirectories(target.getParent());
-					Files.copy(p, target, StandardCopyOption.REPLACE_EXISTING);
-				}
-			}
-		}
+	/** The same umbrella load on the calling thread only — the baseline for the above. */
+	@Benchmark
+	public Chart loadUmbrellaChartSequential() {
+		return this.sequentialLoader.load(this.umbrellaDir.toFile());
 	}
 
 }
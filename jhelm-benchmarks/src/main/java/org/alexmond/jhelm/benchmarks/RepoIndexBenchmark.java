@@ -0,0 +1,108 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.alexmond.jhelm.core.service.RepoManager;
+
+/**
+ * Repository index benchmarks over a synthetic multi-MB {@code index.yaml} (see
+ * {@link BenchmarkFixtures#writeIndex}) placed in a temp repository cache, so
+ * {@link RepoManager} reads it as it would a {@code helm repo update}d index, with no
+ * network. {@link #parseIndex} is the cold path the first lookup after an update pays
+ * when no compact sidecar exists yet (a fresh manager parses the YAML and writes the
+ * sidecar); {@link #openIndex} is a fresh manager mapping the existing sidecar; the
+ * other two are lookups against an already-open index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class RepoIndexBenchmark {
+
+	private static final String REPO = "bench";
+
+	@Param("500")
+	public int charts;
+
+	@Param("20")
+	public int versions;
+
+	private Path configPath;
+
+	private Path cacheDir;
+
+	private RepoManager warm;
+
+	@Setup
+	public void setup() throws IOException {
+		Path home = Files.createTempDirectory("jhelm-bench-repo");
+		this.configPath = home.resolve("repositories.yaml");
+		this.cacheDir = Files.createDirectories(home.resolve("cache"));
+		BenchmarkFixtures.writeIndex(this.cacheDir.resolve(REPO + "-index.yaml"), this.charts, this.versions);
+		this.warm = newManager();
+		this.warm.listCharts(REPO);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.warm.close();
+	}
+
+	/**
+	 * Cold lookup without a sidecar: parses the whole index, writes the compact form,
+	 * then resolves one chart.
+	 */
+	@Benchmark
+	public List<RepoManager.ChartVersion> parseIndex() throws IOException {
+		Files.deleteIfExists(this.cacheDir.resolve(REPO + "-index.idx"));
+		return coldLookup();
+	}
+
+	/** Cold lookup with a sidecar: maps the compact index, then resolves one chart. */
+	@Benchmark
+	public List<RepoManager.ChartVersion> openIndex() throws IOException {
+		return coldLookup();
+	}
+
+	/** Warm lookup of every version of one chart. */
+	@Benchmark
+	public List<RepoManager.ChartVersion> chartVersions() throws IOException {
+		return this.warm.getChartVersions(REPO, "chart-" + (this.charts / 2));
+	}
+
+	/** Warm listing of the latest version of every chart ({@code helm search repo}). */
+	@Benchmark
+	public List<RepoManager.ChartVersion> listCharts() throws IOException {
+		return this.warm.listCharts(REPO);
+	}
+
+	private List<RepoManager.ChartVersion> coldLookup() throws IOException {
+		RepoManager repos = newManager();
+		try {
+			return repos.getChartVersions(REPO, "chart-" + (this.charts / 2));
+		}
+		finally {
+			repos.close();
+		}
+	}
+
+	private RepoManager newManager() {
+		RepoManager repos = new RepoManager(this.configPath.toString());
+		repos.setRepositoryCacheOverride(this.cacheDir.toString());
+		return repos;
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.alexmond.jhelm.core.service.SchemaValidator;
+import org.alexmond.jhelm.core.util.ValuesLoader;
+
+/**
+ * {@link SchemaValidator} benchmarks: the umbrella chart's values (see
+ * {@link BenchmarkFixtures#umbrellaChart}) validated against a {@code values.schema.json}
+ * that constrains every subchart section (types, {@code required}, bounds, lengths,
+ * patterns, {@code enum}). {@link #validate} is the per-render cost with the compiled
+ * schema cached; {@link #validateFreshValidator} includes compiling the schema.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SchemaValidatorBenchmark {
+
+	@Param("40")
+	public int subcharts;
+
+	private final SchemaValidator validator = new SchemaValidator();
+
+	private String schema;
+
+	private Map<String, Object> values;
+
+	@Setup
+	public void setup() throws Exception {
+		this.values = ValuesLoader
+			.load(BenchmarkFixtures.umbrellaChart(this.subcharts).resolve("values.yaml").toFile());
+		this.schema = schema(this.subcharts);
+		this.validator.validate("bench-umbrella", this.schema, this.values);
+	}
+
+	/** Validation against the cached compiled schema. */
+	@Benchmark
+	public SchemaValidator validate() {
+		this.validator.validate("bench-umbrella", this.schema, this.values);
+		return this.validator;
+	}
+
+	/** Validation through a new validator, so the schema is parsed and compiled too. */
+	@Benchmark
+	public SchemaValidator validateFreshValidator() {
+		SchemaValidator fresh = new SchemaValidator();
+		fresh.validate("bench-umbrella", this.schema, this.values);
+		return fresh;
+	}
+
+	private static String schema(int subcharts) {
+		StringBuilder properties = new StringBuilder("""
+				"global": {
+				  "type": "object",
+				  "properties": {
+				    "imageRegistry": { "type": "string", "pattern": "^[a-z0-9.-]+$" },
+				    "labels": { "type": "object" }
+				  }
+				}""");
+		for (int i = 1; i <= subcharts; i++) {
+			properties.append(",\n\"").append(BenchmarkFixtures.subchartName(i)).append("\": ").append("""
+					{
+					  "type": "object",
+					  "required": ["enabled", "image"],
+					  "properties": {
+					    "enabled": { "type": "boolean" },
+					    "replicaCount": { "type": "integer", "minimum": 1, "maximum": 10 },
+					    "image": {
+					      "type": "object",
+					      "required": ["repository"],
+					      "properties": {
+					        "repository": { "type": "string", "minLength": 1, "maxLength": 128 },
+					        "tag": { "type": "string", "pattern": "^[0-9]+\\\\.[0-9]+\\\\.[0-9]+$" },
+					        "pullPolicy": { "enum": ["Always", "IfNotPresent", "Never"] }
+					      }
+					    },
+					    "env": { "type": "array" },
+					    "config": { "type": "object" }
+					  }
+					}""");
+		}
+		return "{\n\"$schema\": \"http://json-schema.org/draft-07/schema#\",\n\"type\": \"object\",\n"
+				+ "\"properties\": {\n" + properties + "\n}\n}\n";
+	}
+
+}
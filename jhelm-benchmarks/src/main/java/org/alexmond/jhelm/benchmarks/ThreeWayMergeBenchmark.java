@@ -0,0 +1,101 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import org.alexmond.jhelm.core.util.ThreeWayJsonMerge;
+
+/**
+ * {@link ThreeWayJsonMerge} benchmark: the patch an upgrade computes per resource from
+ * the previous release's rendering, the new rendering and the live object. The resource
+ * is a Deployment with several containers and long {@code env} lists; the new rendering
+ * changes an image, the replica count and drops an env entry, and the live object carries
+ * the controller-set fields (status, defaults, metadata) a cluster adds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ThreeWayMergeBenchmark {
+
+	private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+	private JsonNode original;
+
+	private JsonNode modified;
+
+	private JsonNode current;
+
+	@Setup
+	public void setup() {
+		this.original = MAPPER.valueToTree(deployment("1.0.0", 3, 30));
+		this.modified = MAPPER.valueToTree(deployment("1.1.0", 5, 29));
+		ObjectNode live = MAPPER.valueToTree(deployment("1.0.0", 3, 30));
+		ObjectNode metadata = (ObjectNode) live.get("metadata");
+		metadata.put("uid", "8c7f6a2e-0000-4000-8000-000000000001");
+		metadata.put("resourceVersion", "123456");
+		metadata.put("generation", 7);
+		metadata.put("creationTimestamp", "2024-01-31T10:00:00Z");
+		ObjectNode spec = (ObjectNode) live.get("spec");
+		spec.put("revisionHistoryLimit", 10);
+		spec.put("progressDeadlineSeconds", 600);
+		ObjectNode status = live.putObject("status");
+		status.put("observedGeneration", 7);
+		status.put("replicas", 3);
+		status.put("readyReplicas", 3);
+		status.put("availableReplicas", 3);
+		this.current = live;
+	}
+
+	@Benchmark
+	public ObjectNode threeWayMergePatch() {
+		return ThreeWayJsonMerge.threeWayMergePatch(this.original, this.modified, this.current);
+	}
+
+	private static Map<String, Object> deployment(String tag, int replicas, int envVars) {
+		Map<String, Object> labels = new LinkedHashMap<>();
+		for (int i = 0; i < 10; i++) {
+			labels.put("bench.example.com/label-" + i, "value-" + i);
+		}
+		List<Object> containers = new ArrayList<>();
+		for (int c = 0; c < 3; c++) {
+			List<Object> env = new ArrayList<>();
+			for (int e = 0; e < envVars; e++) {
+				env.add(Map.of("name", "SETTING_" + e, "value", "container-" + c + "-" + e));
+			}
+			Map<String, Object> container = new LinkedHashMap<>();
+			container.put("name", "app-" + c);
+			container.put("image", "registry.example.com/app-" + c + ":" + tag);
+			container.put("ports", List.of(Map.of("name", "http", "containerPort", 8080 + c)));
+			container.put("env", env);
+			container.put("resources", Map.of("limits", Map.of("cpu", "500m", "memory", "256Mi"), "requests",
+					Map.of("cpu", "100m", "memory", "64Mi")));
+			containers.add(container);
+		}
+		Map<String, Object> podSpec = Map.of("containers", containers, "serviceAccountName", "bench");
+		Map<String, Object> spec = new LinkedHashMap<>();
+		spec.put("replicas", replicas);
+		spec.put("selector", Map.of("matchLabels", Map.of("app", "bench")));
+		spec.put("template", Map.of("metadata", Map.of("labels", labels), "spec", podSpec));
+		Map<String, Object> deployment = new LinkedHashMap<>();
+		deployment.put("apiVersion", "apps/v1");
+		deployment.put("kind", "Deployment");
+		deployment.put("metadata", Map.of("name", "bench", "namespace", "default", "labels", labels));
+		deployment.put("spec", spec);
+		return deployment;
+	}
+
+}
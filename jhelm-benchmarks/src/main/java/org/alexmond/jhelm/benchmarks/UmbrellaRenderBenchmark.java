@@ -0,0 +1,97 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.model.ReleaseContext;
+import org.alexmond.jhelm.core.service.ChartLoader;
+import org.alexmond.jhelm.core.service.CompiledChart;
+import org.alexmond.jhelm.core.service.Engine;
+
+/**
+ * Umbrella-chart render benchmarks: a generated chart with {@link #subcharts}
+ * application subcharts sharing one define-heavy library chart (see
+ * {@link BenchmarkFixtures#umbrellaChart}). This is the GitLab-scale shape where template
+ * collection, value slicing and condition evaluation per subchart dominate, which the
+ * small {@code bench-app} in {@link RenderBenchmark} barely exercises.
+ *
+ * <p>
+ * {@link #render} is the sequential steady state, {@link #renderParallelSubcharts} the
+ * same render with the subchart pool enabled, and {@link #renderCompiled} replays a
+ * {@link CompiledChart} instead of parsing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class UmbrellaRenderBenchmark {
+
+	@Param("40")
+	public int subcharts;
+
+	private Path chartDir;
+
+	private Chart chart;
+
+	private final Map<String, Object> userValues = Map.of("global", Map.of("imageRegistry", "mirror.example.com"));
+
+	private final ReleaseContext release = ReleaseContext.builder()
+		.name("bench")
+		.namespace("default")
+		.revision(1)
+		.build();
+
+	private Engine engine;
+
+	private Engine parallelEngine;
+
+	private CompiledChart compiled;
+
+	@Setup
+	public void setup() throws Exception {
+		this.chartDir = BenchmarkFixtures.umbrellaChart(this.subcharts);
+		this.chart = new ChartLoader().load(this.chartDir.toFile());
+		this.engine = new Engine();
+		this.parallelEngine = new Engine();
+		this.parallelEngine.setSubchartThreads(Math.max(2, Runtime.getRuntime().availableProcessors()));
+		this.compiled = this.engine.compile(this.chart);
+		// Warm the parse caches so steady-state numbers exclude first-render warmup.
+		this.engine.render(this.chart, this.userValues, this.release);
+		this.parallelEngine.render(this.chart, this.userValues, this.release);
+	}
+
+	/** Steady-state sequential render of the whole umbrella. */
+	@Benchmark
+	public String render() {
+		return this.engine.render(this.chart, this.userValues, this.release);
+	}
+
+	/** The same render with subcharts executed on the subchart pool. */
+	@Benchmark
+	public String renderParallelSubcharts() {
+		return this.parallelEngine.render(this.chart, this.userValues, this.release);
+	}
+
+	/** Render replaying the recorded parse plan instead of parsing templates. */
+	@Benchmark
+	public String renderCompiled() {
+		return this.engine.render(this.compiled, this.userValues, this.release);
+	}
+
+	/** Chart load of the umbrella from disk (every subchart and the library). */
+	@Benchmark
+	public Chart loadChart() {
+		return new ChartLoader().load(this.chartDir.toFile());
+	}
+
+}
@@ -0,0 +1,78 @@
+package org.alexmond.jhelm.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.alexmond.jhelm.core.util.ValuesLoader;
+
+/**
+ * Values benchmarks over the generated umbrella chart's {@code values.yaml} (a section
+ * per subchart plus {@code global}, see {@link BenchmarkFixtures#umbrellaChart}):
+ * {@link ValuesLoader#load(File)} (YAML parse with Helm's scalar rules), and merging a
+ * user override that touches every subchart section, both with the non-mutating
+ * {@link ValuesLoader#merge} the actions use and the in-place
+ * {@link ValuesLoader#deepMerge}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ValuesBenchmark {
+
+	@Param("40")
+	public int subcharts;
+
+	private File valuesFile;
+
+	private Map<String, Object> defaults;
+
+	private Map<String, Object> overrides;
+
+	@Setup
+	public void setup() throws Exception {
+		this.valuesFile = BenchmarkFixtures.umbrellaChart(this.subcharts).resolve("values.yaml").toFile();
+		this.defaults = ValuesLoader.load(this.valuesFile);
+		this.overrides = new LinkedHashMap<>();
+		this.overrides.put("global", Map.of("imageRegistry", "mirror.example.com"));
+		for (int i = 1; i <= this.subcharts; i++) {
+			this.overrides.put(BenchmarkFixtures.subchartName(i),
+					Map.of("replicaCount", 3, "image", Map.of("tag", "2.0." + i)));
+		}
+	}
+
+	/** Parse of the umbrella {@code values.yaml}. */
+	@Benchmark
+	public Map<String, Object> load() throws IOException {
+		return ValuesLoader.load(this.valuesFile);
+	}
+
+	/** Non-mutating merge: copies only the paths both sides define. */
+	@Benchmark
+	public Map<String, Object> merge() {
+		return ValuesLoader.merge(this.defaults, this.overrides);
+	}
+
+	/**
+	 * In-place merge into a shallow copy of the defaults. It writes into the defaults'
+	 * nested maps, but re-merging the same overrides is idempotent, so each op measures
+	 * the same traversal.
+	 */
+	@Benchmark
+	public Map<String, Object> deepMerge() {
+		Map<String, Object> merged = new LinkedHashMap<>(this.defaults);
+		ValuesLoader.deepMerge(merged, this.overrides);
+		return merged;
+	}
+
+}
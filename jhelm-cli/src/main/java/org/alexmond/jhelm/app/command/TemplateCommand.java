@@ -2,13 +2,18 @@ package org.alexmond.jhelm.app.command;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
 import org.alexmond.jhelm.app.output.CliOutput;
@@ -18,6 +23,7 @@ import org.alexmond.jhelm.core.config.JhelmCoreProperties;
 import org.alexmond.jhelm.core.service.ConfigServerValuesLoader;
 import org.alexmond.jhelm.app.plugin.HelmPostRendererResolver;
 import org.alexmond.jhelm.core.service.ExternalCommandPostRenderer;
+import org.alexmond.jhelm.core.util.ManifestFilter;
 import org.alexmond.jhelm.core.util.RenderedManifest;
 import org.alexmond.jhelm.core.util.ValuesOverrides;
 import org.alexmond.jhelm.core.util.ValuesProfiles;
@@ -118,6 +124,8 @@ public class TemplateCommand implements Callable<Integer> {
 			description = "set .Release.IsUpgrade instead of .Release.IsInstall when rendering")
 	private boolean isUpgrade;
 
+	private boolean stdoutIsTerminal = System.console() != null;
+
 	/**
 	 * Creates the command.
 	 * @param templateAction the action that renders chart templates
@@ -151,6 +159,10 @@ public class TemplateCommand implements Callable<Integer> {
 					dependencyUpdateAction.update(localChart, List.of(), false);
 				}
 			}
+			if (postRenderers.isEmpty()) {
+				renderStreaming(overrides, profiles);
+				return CommandLine.ExitCode.OK;
+			}
 			String manifest = templateAction.render(chartPath, name, namespace, overrides, profiles, kubeVersion,
 					apiVersions, isUpgrade, includeCrds);
 			for (String renderer : postRenderers) {
@@ -178,6 +190,28 @@ public class TemplateCommand implements Callable<Integer> {
 		}
 	}
 
+	// Without post-renderers (which need the whole manifest) documents are filtered and
+	// written out as the engine renders them, so the manifest is never held in memory.
+	// Redirected stdout is the exception: a render that fails midway must not leave a
+	// truncated manifest in a file or pipe that something may apply, so documents are held
+	// until the render succeeds. A terminal streams, followed by the error on stderr.
+	private void renderStreaming(Map<String, Object> overrides, ValuesProfiles profiles) {
+		StdoutWriter stdout = (outputDir != null) ? null : new StdoutWriter(!stdoutIsTerminal);
+		Consumer<RenderedManifest.Document> out = (stdout != null) ? stdout : new OutputDirWriter(Path.of(outputDir));
+		ManifestFilter filter = new ManifestFilter(skipTests, showOnly, out);
+		templateAction.render(chartPath, name, namespace, overrides, profiles, kubeVersion, apiVersions, isUpgrade,
+				includeCrds, filter::accept);
+		filter.finish();
+		if (stdout != null) {
+			stdout.finish();
+		}
+	}
+
+	// Lets tests choose the stdout kind instead of inheriting it from System.console().
+	void setStdoutTerminal(boolean stdoutIsTerminal) {
+		this.stdoutIsTerminal = stdoutIsTerminal;
+	}
+
 	// Writes each rendered document into <outputDir>/<chart>/templates/<file>, grouping
 	// documents by their source template (as `helm template --output-dir` does), and
 	// prints one
@@ -193,4 +227,78 @@ public class TemplateCommand implements Callable<Integer> {
 		}
 	}
 
+	// Prints documents in the layout of RenderedManifest.join, either as they arrive or,
+	// when holding them, only once finish() is reached after a successful render.
+	private static final class StdoutWriter implements Consumer<RenderedManifest.Document> {
+
+		private final List<RenderedManifest.Document> held;
+
+		private boolean first = true;
+
+		private StdoutWriter(boolean hold) {
+			this.held = hold ? new ArrayList<>() : null;
+		}
+
+		@Override
+		public void accept(RenderedManifest.Document document) {
+			if (held != null) {
+				held.add(document);
+			}
+			else {
+				print(document);
+			}
+		}
+
+		private void finish() {
+			if (held != null) {
+				held.forEach(this::print);
+			}
+			// The buffered form prints the joined manifest with println.
+			CliOutput.println("");
+		}
+
+		private void print(RenderedManifest.Document document) {
+			if (!first) {
+				CliOutput.print("---\n");
+			}
+			first = false;
+			CliOutput.println(document.text());
+		}
+
+	}
+
+	// Streaming form of writeToDir: a template's documents arrive together, so each file
+	// is created by its first document and appended to by the rest.
+	private static final class OutputDirWriter implements Consumer<RenderedManifest.Document> {
+
+		private final Path base;
+
+		private final Set<Path> written = new HashSet<>();
+
+		private OutputDirWriter(Path base) {
+			this.base = base;
+		}
+
+		@Override
+		public void accept(RenderedManifest.Document document) {
+			String source = (document.source() != null) ? document.source() : "";
+			Path target = source.isEmpty() ? base.resolve("manifest.yaml") : base.resolve(source);
+			try {
+				if (written.add(target)) {
+					Files.createDirectories(target.getParent());
+					Files.writeString(target, document.text() + "\n", StandardCharsets.UTF_8);
+					CliOutput.println("wrote " + target);
+				}
+				else {
+					Files.writeString(target, "---\n" + document.text() + "\n", StandardCharsets.UTF_8,
+							StandardOpenOption.APPEND);
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+	}
+
 }
@@ -94,6 +94,14 @@ public final class CliOutput {
 		System.out.println(text);
 	}
 
+	/**
+	 * Prints text to stdout without a line terminator.
+	 * @param text the text to print
+	 */
+	public static void print(String text) {
+		System.out.print(text);
+	}
+
 	/**
 	 * Prints a formatted string to stdout.
 	 * @param format the format string
@@ -16,6 +16,8 @@ import org.alexmond.jhelm.core.config.JhelmSecurityProperties;
 import org.alexmond.jhelm.core.config.JhelmCoreProperties;
 import org.alexmond.jhelm.core.config.ConfigServerProperties;
 import org.alexmond.jhelm.core.service.ConfigServerValuesLoader;
+import org.alexmond.jhelm.core.service.ManifestSink;
+import org.alexmond.jhelm.core.util.RenderedManifest;
 import org.alexmond.jhelm.core.util.ValuesProfiles;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +36,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -53,6 +56,7 @@ class TemplateCommandTest {
 		templateCommand = new TemplateCommand(templateAction, new JhelmCoreProperties(),
 				new ConfigServerValuesLoader(new ConfigServerProperties(), null), dependencyUpdateAction,
 				HelmPostRendererResolver.fileOnly(new JhelmSecurityPolicy(new JhelmSecurityProperties())));
+		templateCommand.setStdoutTerminal(false);
 	}
 
 	@Test
@@ -108,10 +112,15 @@ class TemplateCommandTest {
 			    "helm.sh/hook": test
 			""";
 
+	// Without post-renderers the command renders through the streaming overload.
 	private void stubRender(String manifest) {
-		when(templateAction.render(anyString(), anyString(), anyString(), anyMap(), any(), any(), anyList(),
-				anyBoolean(), anyBoolean()))
-			.thenReturn(manifest);
+		doAnswer((invocation) -> {
+			ManifestSink sink = invocation.getArgument(9);
+			RenderedManifest.parse(manifest).forEach(sink::accept);
+			return null;
+		}).when(templateAction)
+			.render(anyString(), anyString(), anyString(), anyMap(), any(), any(), anyList(), anyBoolean(), anyBoolean(),
+					any(ManifestSink.class));
 	}
 
 	@Test
@@ -123,7 +132,7 @@ class TemplateCommandTest {
 		new CommandLine(templateCommand).execute("r", "/chart", "--is-upgrade", "--include-crds");
 
 		verify(templateAction).render(anyString(), anyString(), anyString(), anyMap(), any(), any(), anyList(),
-				isUpgrade.capture(), includeCrds.capture());
+				isUpgrade.capture(), includeCrds.capture(), any(ManifestSink.class));
 		assertEquals(true, isUpgrade.getValue());
 		assertEquals(true, includeCrds.getValue());
 	}
@@ -137,7 +146,7 @@ class TemplateCommandTest {
 		new CommandLine(templateCommand).execute("r", "/chart");
 
 		verify(templateAction).render(anyString(), anyString(), anyString(), anyMap(), any(), any(), anyList(),
-				isUpgrade.capture(), includeCrds.capture());
+				isUpgrade.capture(), includeCrds.capture(), any(ManifestSink.class));
 		assertEquals(false, isUpgrade.getValue());
 		assertEquals(false, includeCrds.getValue());
 	}
@@ -169,6 +178,51 @@ class TemplateCommandTest {
 		assertTrue(out.contains("kind: Deployment"), out);
 	}
 
+	@Test
+	void testStreamedStdoutMatchesJoinedManifest() {
+		stubRender(MULTI_DOC);
+		String out = captureStdout(() -> new CommandLine(templateCommand).execute("r", "/chart"));
+		assertEquals(RenderedManifest.join(RenderedManifest.parse(MULTI_DOC)) + "\n", out.replace("\r\n", "\n"));
+	}
+
+	@Test
+	void testStreamedTerminalStdoutMatchesJoinedManifest() {
+		stubRender(MULTI_DOC);
+		templateCommand.setStdoutTerminal(true);
+		String out = captureStdout(() -> new CommandLine(templateCommand).execute("r", "/chart"));
+		assertEquals(RenderedManifest.join(RenderedManifest.parse(MULTI_DOC)) + "\n", out.replace("\r\n", "\n"));
+	}
+
+	@Test
+	void testFailedRenderPrintsNoPartialManifestToRedirectedStdout() {
+		stubFailingRender(MULTI_DOC);
+		int[] exitCode = new int[1];
+		String out = captureStdout(() -> exitCode[0] = new CommandLine(templateCommand).execute("r", "/chart"));
+		assertEquals(CommandLine.ExitCode.SOFTWARE, exitCode[0]);
+		assertEquals("", out);
+	}
+
+	@Test
+	void testFailedRenderOnATerminalKeepsTheDocumentsAlreadyStreamed() {
+		stubFailingRender(MULTI_DOC);
+		templateCommand.setStdoutTerminal(true);
+		int[] exitCode = new int[1];
+		String out = captureStdout(() -> exitCode[0] = new CommandLine(templateCommand).execute("r", "/chart"));
+		assertEquals(CommandLine.ExitCode.SOFTWARE, exitCode[0]);
+		assertTrue(out.contains("kind: ConfigMap"), out);
+	}
+
+	// Delivers the first document of the manifest, then fails as a broken template would.
+	private void stubFailingRender(String manifest) {
+		doAnswer((invocation) -> {
+			ManifestSink sink = invocation.getArgument(9);
+			sink.accept(RenderedManifest.parse(manifest).get(0));
+			throw new IllegalStateException("template: mychart/templates/deployment.yaml: boom");
+		}).when(templateAction)
+			.render(anyString(), anyString(), anyString(), anyMap(), any(), any(), anyList(), anyBoolean(), anyBoolean(),
+					any(ManifestSink.class));
+	}
+
 	@Test
 	void testOutputDirWritesPerSourceFiles(@TempDir Path dir) throws Exception {
 		stubRender(MULTI_DOC);
@@ -198,10 +252,9 @@ class TemplateCommandTest {
 				new ConfigServerValuesLoader(new ConfigServerProperties(), null), dependencyUpdateAction,
 				HelmPostRendererResolver.fileOnly(new JhelmSecurityPolicy(new JhelmSecurityProperties())));
 		ArgumentCaptor<ValuesProfiles> captor = ArgumentCaptor.forClass(ValuesProfiles.class);
-		when(templateAction.render(anyString(), anyString(), anyString(), anyMap(), captor.capture(), any(), anyList(),
-				anyBoolean(), anyBoolean()))
-			.thenReturn("---\n");
 		new CommandLine(command).execute(args);
+		verify(templateAction).render(anyString(), anyString(), anyString(), anyMap(), captor.capture(), any(),
+				anyList(), anyBoolean(), anyBoolean(), any(ManifestSink.class));
 		return captor.getValue();
 	}
 
@@ -3,6 +3,7 @@ package org.alexmond.jhelm.core;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.alexmond.jhelm.core.cache.ChartCache;
 import org.alexmond.jhelm.core.cache.TemplateCache;
 import org.alexmond.jhelm.core.config.ConfigServerProperties;
 import org.alexmond.jhelm.core.config.JhelmAccessMode;
@@ -298,7 +299,8 @@ public class JhelmCoreAutoConfiguration {
 	/**
 	 * Provides the template parse cache, enabled unless
 	 * {@code jhelm.template-cache-enabled} is set to {@code false}.
-	 * @param props the jhelm core configuration properties (supplies the max cache size)
+	 * @param props the jhelm core configuration properties (supplies the cache size and
+	 * weight bounds)
 	 * @param metrics optional metrics for recording cache statistics
 	 * @return the template cache bean
 	 */
@@ -306,7 +308,22 @@ public class JhelmCoreAutoConfiguration {
 	@ConditionalOnMissingBean
 	@ConditionalOnProperty(name = "jhelm.template-cache-enabled", havingValue = "true", matchIfMissing = true)
 	public TemplateCache templateCache(JhelmCoreProperties props, ObjectProvider<JhelmMetrics> metrics) {
-		return new TemplateCache(props.getTemplateCacheMaxSize(), metrics.getIfAvailable());
+		return new TemplateCache(props.getTemplateCacheMaxSize(), props.getTemplateCacheMaxWeight(),
+				metrics.getIfAvailable());
+	}
+
+	/**
+	 * Provides the cache of loaded repository charts, enabled unless
+	 * {@code jhelm.chart-cache-enabled} is set to {@code false}.
+	 * @param props the jhelm core configuration properties (supplies the cache size)
+	 * @param chartLoader loads charts on a cache miss
+	 * @return the chart cache bean
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(name = "jhelm.chart-cache-enabled", havingValue = "true", matchIfMissing = true)
+	public ChartCache chartCache(JhelmCoreProperties props, ChartLoader chartLoader) {
+		return new ChartCache(chartLoader, props.getChartCacheMaxSize());
 	}
 
 	/**
@@ -323,7 +340,10 @@ public class JhelmCoreAutoConfiguration {
 	 * Provides the template rendering engine wired with the cache, validator and metrics.
 	 * When a {@link KubernetesProvider} is on the context (jhelm-kube present), it is
 	 * wired in so the {@code lookup} template function queries the live cluster as Helm
-	 * does; otherwise {@code lookup} falls back to the empty-map stub.
+	 * does; otherwise {@code lookup} falls back to the empty-map stub. The render pool is
+	 * sized by {@code jhelm.engine.render-threads} and the subchart pool by
+	 * {@code jhelm.engine.subchart-threads}.
+	 * @param props the jhelm core configuration properties (supplies the pool sizes)
 	 * @param templateCache optional template parse cache
 	 * @param schemaValidator the values schema validator
 	 * @param metrics optional metrics for instrumentation
@@ -333,11 +353,14 @@ public class JhelmCoreAutoConfiguration {
 	 */
 	@Bean
 	@ConditionalOnMissingBean
-	public Engine engine(ObjectProvider<TemplateCache> templateCache, SchemaValidator schemaValidator,
-			ObjectProvider<JhelmMetrics> metrics, ObjectProvider<KubernetesProvider> kubernetesProvider,
+	public Engine engine(JhelmCoreProperties props, ObjectProvider<TemplateCache> templateCache,
+			SchemaValidator schemaValidator, ObjectProvider<JhelmMetrics> metrics,
+			ObjectProvider<KubernetesProvider> kubernetesProvider,
 			ObjectProvider<JhelmTemplateFunctionProvider> templateFunctionPlugins,
 			ObjectProvider<PluginLoader> pluginLoader) {
 		Engine engine = new Engine(templateCache.getIfAvailable(), schemaValidator, metrics.getIfAvailable());
+		engine.setRenderThreads(props.getEngine().getRenderThreads());
+		engine.setSubchartThreads(props.getEngine().getSubchartThreads());
 		engine.setKubernetesProvider(kubernetesProvider.getIfAvailable());
 		engine.setPluginFunctions(JhelmTemplateFunctionAdapter.collect(mergePlugins(JhelmTemplateFunctionProvider.class,
 				templateFunctionPlugins.stream().toList(), pluginLoader.getIfAvailable())));
@@ -346,12 +369,15 @@ public class JhelmCoreAutoConfiguration {
 
 	/**
 	 * Provides the chart loader that reads charts from disk.
+	 * @param props core properties supplying {@code chart-load-parallel}
 	 * @return the chart loader bean
 	 */
 	@Bean
 	@ConditionalOnMissingBean
-	public ChartLoader chartLoader() {
-		return new ChartLoader();
+	public ChartLoader chartLoader(JhelmCoreProperties props) {
+		ChartLoader chartLoader = new ChartLoader();
+		chartLoader.setParallel(props.isChartLoadParallel());
+		return chartLoader;
 	}
 
 	/**
@@ -20,6 +20,7 @@ import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ReleaseStatus;
 import org.alexmond.jhelm.core.service.KubeService;
 import org.alexmond.jhelm.core.util.ManifestDocuments;
+import org.alexmond.jhelm.core.util.ManifestScanner;
 import org.alexmond.jhelm.core.util.ValuesLoader;
 
 /**
@@ -110,19 +111,16 @@ public class GetAction {
 		if (release.getManifest() == null || release.getManifest().isEmpty()) {
 			return "";
 		}
-		String[] docs = ManifestDocuments.split(release.getManifest());
+		String manifest = release.getManifest();
 		StringBuilder hooks = new StringBuilder();
-		for (String doc : docs) {
-			if (doc.isBlank()) {
-				continue;
-			}
-			if (doc.contains("helm.sh/hook")) {
+		ManifestDocuments.forEach(manifest, (start, end) -> {
+			if (ManifestScanner.contains(manifest, "helm.sh/hook", start, end)) {
 				if (!hooks.isEmpty()) {
 					hooks.append("---\n");
 				}
-				hooks.append(doc.trim()).append('\n');
+				ManifestScanner.appendTrimmed(hooks, manifest, start, end).append('\n');
 			}
-		}
+		});
 		return hooks.toString();
 	}
 
@@ -5,6 +5,7 @@ import org.alexmond.jhelm.core.exception.KubernetesOperationException;
 import java.util.List;
 
 import lombok.RequiredArgsConstructor;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.service.KubeService;
 
@@ -18,14 +19,15 @@ public class HistoryAction {
 	private final KubeService kubeService;
 
 	/**
-	 * Returns the revision history of a named release.
+	 * Returns the revision history of a named release. Revisions are decoded as
+	 * {@link DecodeProfile#SUMMARY}: history shows no manifest or chart content.
 	 * @param name the release name
 	 * @param namespace the release namespace
 	 * @return the list of stored revisions, oldest first
 	 * @throws KubernetesOperationException if the release history cannot be read
 	 */
 	public List<Release> history(String name, String namespace) {
-		return kubeService.getReleaseHistory(name, namespace);
+		return kubeService.getReleaseHistory(name, namespace, DecodeProfile.SUMMARY);
 	}
 
 }
@@ -81,11 +81,12 @@ public class InstallAction {
 					"chart '" + chart.getMetadata().getName() + "' is a library chart and cannot be installed");
 		}
 		Map<String, Object> overrideValues = options.getValues();
-		Map<String, Object> values = new HashMap<>(chart.getValues());
-		if (overrideValues != null) {
-			ValuesLoader.deepMerge(values, overrideValues);
+		Map<String, Object> values = ValuesLoader.merge(chart.getValues(), overrideValues);
+		if (this.valueEncryptor.isEnabled()) {
+			// merge shares nested maps with the chart defaults and the overrides (persisted
+			// as the release config) and decryption rewrites them in place; decrypt a copy.
+			values = this.valueEncryptor.decryptValues(ValuesLoader.copy(values));
 		}
-		this.valueEncryptor.decryptValues(values);
 
 		String defaultDescription = options.isDryRun() ? "Dry run complete" : "Install complete";
 		String description = (options.getDescription() != null && !options.getDescription().isBlank())
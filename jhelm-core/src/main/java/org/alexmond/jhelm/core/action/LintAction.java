@@ -2,7 +2,6 @@ package org.alexmond.jhelm.core.action;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -125,10 +124,7 @@ public class LintAction {
 		if (chart.getValuesSchema() == null || chart.getValuesSchema().isBlank()) {
 			return;
 		}
-		Map<String, Object> values = new HashMap<>(chart.getValues());
-		if (overrideValues != null) {
-			ValuesLoader.deepMerge(values, overrideValues);
-		}
+		Map<String, Object> values = ValuesLoader.merge(chart.getValues(), overrideValues);
 		try {
 			schemaValidator.validate(chart.getMetadata().getName(), chart.getValuesSchema(), values);
 		}
@@ -144,10 +140,7 @@ public class LintAction {
 		if ("library".equals(chart.getMetadata().getType())) {
 			return;
 		}
-		Map<String, Object> values = new HashMap<>(chart.getValues());
-		if (overrideValues != null) {
-			ValuesLoader.deepMerge(values, overrideValues);
-		}
+		Map<String, Object> values = ValuesLoader.merge(chart.getValues(), overrideValues);
 
 		ReleaseContext releaseContext = ReleaseContext.builder()
 			.name("RELEASE-NAME")
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import lombok.RequiredArgsConstructor;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
 import org.alexmond.jhelm.core.service.KubeService;
@@ -14,7 +15,9 @@ public class StatusAction {
 	private final KubeService kubeService;
 
 	public Optional<Release> status(String name, String namespace) {
-		return kubeService.getRelease(name, namespace);
+		// Status reports on the deployed resources, so the manifest is kept and the
+		// chart's templates and files are not decoded.
+		return kubeService.getRelease(name, namespace, DecodeProfile.MANIFEST);
 	}
 
 	public List<ResourceStatus> getResourceStatuses(Release release) {
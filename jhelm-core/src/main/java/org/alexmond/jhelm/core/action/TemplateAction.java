@@ -1,6 +1,7 @@
 package org.alexmond.jhelm.core.action;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,8 +14,10 @@ import org.alexmond.jhelm.core.model.Chart;
 import org.alexmond.jhelm.core.model.ReleaseContext;
 import org.alexmond.jhelm.core.service.ChartLoader;
 import org.alexmond.jhelm.core.service.Engine;
+import org.alexmond.jhelm.core.service.ManifestSink;
 import org.alexmond.jhelm.core.service.PostRenderProcessor;
 import org.alexmond.jhelm.core.service.ValueEncryptor;
+import org.alexmond.jhelm.core.util.ManifestFilter;
 import org.alexmond.jhelm.core.util.RenderedManifest;
 import org.alexmond.jhelm.core.util.ValuesLoader;
 import org.alexmond.jhelm.core.util.ValuesProfiles;
@@ -102,21 +105,32 @@ public class TemplateAction {
 	public String render(String chartPath, String releaseName, String namespace, Map<String, Object> overrides,
 			ValuesProfiles profiles, String kubeVersion, List<String> apiVersions, boolean isUpgrade,
 			boolean includeCrds) {
-		Chart chart = this.chartLoader.load(new File(chartPath), profiles);
-
-		Map<String, Object> values = new HashMap<>(chart.getValues());
-		ValuesLoader.deepMerge(values, overrides);
-		this.valueEncryptor.decryptValues(values);
-
-		ReleaseContext releaseContext = ReleaseContext.builder()
-			.name(releaseName)
-			.namespace(namespace)
-			.install(!isUpgrade)
-			.upgrade(isUpgrade)
-			.revision(1)
-			.build();
+		return render(this.chartLoader.load(new File(chartPath), profiles), releaseName, namespace, overrides,
+				kubeVersion, apiVersions, isUpgrade, includeCrds);
+	}
 
-		String manifest = engine.render(chart, values, releaseContext, new Capabilities(kubeVersion, apiVersions));
+	/**
+	 * Renders an already-loaded chart with the full set of {@code helm template}
+	 * controls. The chart's values are not written to, so one loaded chart (a cached
+	 * one, say) may be rendered any number of times, concurrently included.
+	 * @param chart the loaded chart, with any value profiles already applied
+	 * @param releaseName the release name ({@code .Release.Name})
+	 * @param namespace the release namespace
+	 * @param overrides value overrides merged over the chart defaults
+	 * @param kubeVersion the {@code .Capabilities.KubeVersion} override, or {@code null}
+	 * for the engine default
+	 * @param apiVersions extra API group/versions for
+	 * {@code .Capabilities.APIVersions.Has}
+	 * @param isUpgrade render with {@code .Release.IsUpgrade=true} instead of install
+	 * posture
+	 * @param includeCrds prepend the chart's {@code crds/} manifests
+	 * @return the rendered manifest
+	 */
+	public String render(Chart chart, String releaseName, String namespace, Map<String, Object> overrides,
+			String kubeVersion, List<String> apiVersions, boolean isUpgrade, boolean includeCrds) {
+		ReleaseContext releaseContext = releaseContext(releaseName, namespace, isUpgrade);
+		String manifest = engine.render(chart, renderValues(chart, overrides), releaseContext,
+				new Capabilities(kubeVersion, apiVersions));
 		if (includeCrds) {
 			manifest = renderCrds(chart) + manifest;
 		}
@@ -133,6 +147,78 @@ public class TemplateAction {
 		return manifest;
 	}
 
+	/**
+	 * Streaming form of {@link #render(String, String, String, Map, ValuesProfiles,
+	 * String, List, boolean, boolean)}: hands each document to {@code sink} as soon as it is rendered instead of building
+	 * the manifest string. The chart's {@code crds/} manifests, when included, come
+	 * first, one document per file. Post-render processors transform the manifest as a
+	 * whole, so when any are configured the manifest is rendered and processed first
+	 * and its documents handed on afterwards.
+	 * @param chartPath path to the chart directory or archive
+	 * @param releaseName the release name ({@code .Release.Name})
+	 * @param namespace the release namespace
+	 * @param overrides value overrides merged over the chart defaults
+	 * @param profiles the active value profiles
+	 * @param kubeVersion the {@code .Capabilities.KubeVersion} override, or {@code null}
+	 * for the engine default
+	 * @param apiVersions extra API group/versions for
+	 * {@code .Capabilities.APIVersions.Has}
+	 * @param isUpgrade render with {@code .Release.IsUpgrade=true} instead of install
+	 * posture
+	 * @param includeCrds emit the chart's {@code crds/} manifests first
+	 * @param sink receives the rendered documents in manifest order
+	 */
+	public void render(String chartPath, String releaseName, String namespace, Map<String, Object> overrides,
+			ValuesProfiles profiles, String kubeVersion, List<String> apiVersions, boolean isUpgrade,
+			boolean includeCrds, ManifestSink sink) {
+		if (!postRenderProcessors.isEmpty()) {
+			RenderedManifest.parse(render(chartPath, releaseName, namespace, overrides, profiles, kubeVersion,
+					apiVersions, isUpgrade, includeCrds))
+				.forEach(sink::accept);
+			return;
+		}
+		Chart chart = this.chartLoader.load(new File(chartPath), profiles);
+		if (includeCrds) {
+			crdDocuments(chart).forEach(sink::accept);
+		}
+		ReleaseContext releaseContext = releaseContext(releaseName, namespace, isUpgrade);
+		engine.render(chart, renderValues(chart, overrides), releaseContext, new Capabilities(kubeVersion, apiVersions),
+				sink);
+	}
+
+	/**
+	 * Streaming form of {@link #renderWithControls(String, String, String, Map, boolean,
+	 * boolean, boolean, List)}, for callers that write documents out as they arrive (the
+	 * CLI). Test hooks are dropped as documents stream past; with {@code showOnly} only
+	 * the matching documents are held, and they are handed on in request order once
+	 * rendering completes.
+	 * @param chartPath path to the chart directory or archive
+	 * @param releaseName the release name ({@code .Release.Name})
+	 * @param namespace the release namespace
+	 * @param overrides value overrides merged over the chart defaults
+	 * @param profiles the active value profiles
+	 * @param kubeVersion the {@code .Capabilities.KubeVersion} override, or {@code null}
+	 * for the engine default
+	 * @param apiVersions extra API group/versions for
+	 * {@code .Capabilities.APIVersions.Has}
+	 * @param isUpgrade render with {@code .Release.IsUpgrade=true} instead of install
+	 * posture
+	 * @param includeCrds emit the chart's {@code crds/} manifests first
+	 * @param skipTests drop documents carrying a {@code helm.sh/hook: test} annotation
+	 * @param showOnly keep only documents from these template paths (empty/{@code null} =
+	 * all)
+	 * @param sink receives the selected documents
+	 * @throws IllegalArgumentException if a {@code showOnly} template matches nothing
+	 */
+	public void renderWithControls(String chartPath, String releaseName, String namespace,
+			Map<String, Object> overrides, ValuesProfiles profiles, String kubeVersion, List<String> apiVersions,
+			boolean isUpgrade, boolean includeCrds, boolean skipTests, List<String> showOnly, ManifestSink sink) {
+		ManifestFilter filter = new ManifestFilter(skipTests, showOnly, sink::accept);
+		render(chartPath, releaseName, namespace, overrides, profiles, kubeVersion, apiVersions, isUpgrade,
+				includeCrds, filter::accept);
+		filter.finish();
+	}
+
 	/**
 	 * Renders a chart and applies the {@code helm template} manifest-level controls in
 	 * one call, so REST and MCP callers get the same behaviour as the CLI without
@@ -153,8 +239,34 @@ public class TemplateAction {
 	public String renderWithControls(String chartPath, String releaseName, String namespace,
 			Map<String, Object> overrides, boolean isUpgrade, boolean includeCrds, boolean skipTests,
 			List<String> showOnly) {
-		String manifest = render(chartPath, releaseName, namespace, overrides, ValuesProfiles.none(), null, List.of(),
-				isUpgrade, includeCrds);
+		return applyControls(render(chartPath, releaseName, namespace, overrides, ValuesProfiles.none(), null,
+				List.of(), isUpgrade, includeCrds), skipTests, showOnly);
+	}
+
+	/**
+	 * As {@link #renderWithControls(String, String, String, Map, boolean, boolean,
+	 * boolean, List)}, for an already-loaded chart such as one served from a
+	 * {@link org.alexmond.jhelm.core.cache.ChartCache ChartCache}.
+	 * @param chart the loaded chart
+	 * @param releaseName the release name ({@code .Release.Name})
+	 * @param namespace the release namespace
+	 * @param overrides value overrides merged over the chart defaults
+	 * @param isUpgrade render with {@code .Release.IsUpgrade=true} instead of install
+	 * posture
+	 * @param includeCrds prepend the chart's {@code crds/} manifests
+	 * @param skipTests drop documents carrying a {@code helm.sh/hook: test} annotation
+	 * @param showOnly keep only documents from these template paths (empty/{@code null} =
+	 * all); errors if a requested template matches nothing
+	 * @return the rendered, filtered manifest
+	 */
+	public String renderWithControls(Chart chart, String releaseName, String namespace,
+			Map<String, Object> overrides, boolean isUpgrade, boolean includeCrds, boolean skipTests,
+			List<String> showOnly) {
+		return applyControls(render(chart, releaseName, namespace, overrides, null, List.of(), isUpgrade, includeCrds),
+				skipTests, showOnly);
+	}
+
+	private static String applyControls(String manifest, boolean skipTests, List<String> showOnly) {
 		if (skipTests) {
 			manifest = RenderedManifest.skipTests(manifest);
 		}
@@ -164,22 +276,51 @@ public class TemplateAction {
 		return manifest;
 	}
 
+	private Map<String, Object> renderValues(Chart chart, Map<String, Object> overrides) {
+		Map<String, Object> values = ValuesLoader.merge(chart.getValues(), overrides);
+		if (this.valueEncryptor.isEnabled()) {
+			// merge shares the chart's nested maps and decryption rewrites them in place;
+			// copy first so a chart rendered more than once keeps its {cipher} defaults.
+			values = this.valueEncryptor.decryptValues(ValuesLoader.copy(values));
+		}
+		return values;
+	}
+
+	private static ReleaseContext releaseContext(String releaseName, String namespace, boolean isUpgrade) {
+		return ReleaseContext.builder()
+			.name(releaseName)
+			.namespace(namespace)
+			.install(!isUpgrade)
+			.upgrade(isUpgrade)
+			.revision(1)
+			.build();
+	}
+
 	// Emits the chart's crds/ manifests as un-templated documents, each with a Helm-style
 	// `# Source: <chart>/crds/<file>` marker, matching `helm template --include-crds`.
 	// CRDs are
 	// raw YAML in Helm — they are not run through the template engine.
 	private String renderCrds(Chart chart) {
 		StringBuilder sb = new StringBuilder();
+		for (RenderedManifest.Document crd : crdDocuments(chart)) {
+			sb.append(crd.text()).append("\n---\n");
+		}
+		return sb.toString();
+	}
+
+	// One document per non-empty crds/ file (a multi-document file stays one document).
+	private static List<RenderedManifest.Document> crdDocuments(Chart chart) {
+		List<RenderedManifest.Document> docs = new ArrayList<>();
 		String chartName = chart.getMetadata().getName();
 		for (Chart.Crd crd : chart.getCrds()) {
 			String data = crd.getData().strip();
 			if (data.isEmpty()) {
 				continue;
 			}
-			sb.append("# Source: ").append(chartName).append("/crds/").append(crd.getName()).append('\n');
-			sb.append(data).append("\n---\n");
+			String source = chartName + "/crds/" + crd.getName();
+			docs.add(new RenderedManifest.Document(source, "# Source: " + source + "\n" + data));
 		}
-		return sb.toString();
+		return docs;
 	}
 
 }
@@ -73,7 +73,11 @@ public class UpgradeAction {
 		ResolvedValues resolved = resolveValues(currentRelease, newChart, options.getValues(),
 				options.getValueStrategy());
 		Map<String, Object> renderValues = resolved.render();
-		this.valueEncryptor.decryptValues(renderValues);
+		if (this.valueEncryptor.isEnabled()) {
+			// The merged render values share nested maps with the chart defaults and the
+			// persisted config and decryption rewrites them in place; decrypt a copy.
+			renderValues = this.valueEncryptor.decryptValues(ValuesLoader.copy(renderValues));
+		}
 		Map<String, Object> configValues = resolved.config();
 
 		String defaultDescription = options.isDryRun() ? "Dry run complete" : "Upgrade complete";
@@ -224,29 +228,22 @@ public class UpgradeAction {
 
 		switch (strategy) {
 			case RESET -> {
-				Map<String, Object> render = new HashMap<>(newDefaults);
-				ValuesLoader.deepMerge(render, over);
+				Map<String, Object> render = ValuesLoader.merge(newDefaults, over);
 				return new ResolvedValues(render, new HashMap<>(over));
 			}
 			case RESET_THEN_REUSE -> {
-				Map<String, Object> merged = new HashMap<>(prior);
-				ValuesLoader.deepMerge(merged, over);
-				Map<String, Object> render = new HashMap<>(newDefaults);
-				ValuesLoader.deepMerge(render, merged);
+				Map<String, Object> merged = ValuesLoader.merge(prior, over);
+				Map<String, Object> render = ValuesLoader.merge(newDefaults, merged);
 				return new ResolvedValues(render, merged);
 			}
 			case REUSE -> {
-				Map<String, Object> merged = new HashMap<>(prior);
-				ValuesLoader.deepMerge(merged, over);
-				Map<String, Object> render = new HashMap<>(oldDefaults);
-				ValuesLoader.deepMerge(render, prior);
-				ValuesLoader.deepMerge(render, over);
+				Map<String, Object> merged = ValuesLoader.merge(prior, over);
+				Map<String, Object> render = ValuesLoader.merge(ValuesLoader.merge(oldDefaults, prior), over);
 				return new ResolvedValues(render, merged);
 			}
 			default -> {
 				Map<String, Object> userLayer = over.isEmpty() ? prior : over;
-				Map<String, Object> render = new HashMap<>(newDefaults);
-				ValuesLoader.deepMerge(render, userLayer);
+				Map<String, Object> render = ValuesLoader.merge(newDefaults, userLayer);
 				return new ResolvedValues(render, new HashMap<>(userLayer));
 			}
 		}
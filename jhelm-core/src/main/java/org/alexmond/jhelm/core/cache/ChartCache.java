@@ -0,0 +1,102 @@
+package org.alexmond.jhelm.core.cache;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.service.ChartLoader;
+
+/**
+ * Size-bounded LRU cache of loaded charts, keyed by the directory each was loaded from.
+ * It is meant for the read-only, content-addressed trees that
+ * {@link org.alexmond.jhelm.core.service.RepoManager#pullCached(String, String)} returns:
+ * such a directory never changes once written, so its loaded {@link Chart} can be
+ * reused for as long as it stays cached, and a repeated template request skips
+ * {@link ChartLoader} parsing altogether. Do not use it for directories that may be
+ * edited.
+ *
+ * <p>
+ * Cached charts are shared between callers and must not be modified;
+ * {@link org.alexmond.jhelm.core.action.TemplateAction} renders a loaded chart without
+ * writing into it. Charts are loaded with no value profiles.
+ */
+@Slf4j
+public class ChartCache {
+
+	/**
+	 * Default maximum number of loaded charts.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 32;
+
+	private final ChartLoader chartLoader;
+
+	private final int maxSize;
+
+	// Access-ordered and size-capped, guarded by its own monitor. Loading happens
+	// outside the lock, so two threads missing on the same chart both load it; the
+	// second result simply replaces the first.
+	private final Map<Path, Chart> charts;
+
+	/**
+	 * Creates a cache holding at most {@code maxSize} charts.
+	 * @param chartLoader loads charts on a miss
+	 * @param maxSize the maximum number of cached charts
+	 */
+	public ChartCache(ChartLoader chartLoader, int maxSize) {
+		this.chartLoader = chartLoader;
+		this.maxSize = maxSize;
+		this.charts = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Path, Chart> eldest) {
+				return size() > ChartCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the chart loaded from {@code chartDir}, loading and caching it on a miss.
+	 * @param chartDir a read-only chart directory
+	 * @return the loaded chart, shared with other callers
+	 * @throws org.alexmond.jhelm.core.exception.ChartLoadException if the chart cannot be
+	 * loaded
+	 */
+	public Chart load(Path chartDir) {
+		Path key = chartDir.toAbsolutePath().normalize();
+		Chart chart;
+		synchronized (this.charts) {
+			chart = this.charts.get(key);
+		}
+		if (chart != null) {
+			if (log.isDebugEnabled()) {
+				log.debug("Chart cache hit for {}", key);
+			}
+			return chart;
+		}
+		chart = this.chartLoader.load(key.toFile());
+		synchronized (this.charts) {
+			this.charts.put(key, chart);
+		}
+		return chart;
+	}
+
+	/**
+	 * @return the number of cached charts
+	 */
+	public int size() {
+		synchronized (this.charts) {
+			return this.charts.size();
+		}
+	}
+
+	/**
+	 * Drops every cached chart.
+	 */
+	public void clear() {
+		synchronized (this.charts) {
+			this.charts.clear();
+		}
+	}
+
+}
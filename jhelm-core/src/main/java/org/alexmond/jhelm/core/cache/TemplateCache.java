@@ -1,42 +1,110 @@
 package org.alexmond.jhelm.core.cache;
 
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import lombok.extern.slf4j.Slf4j;
 import org.alexmond.jhelm.core.metrics.JhelmMetrics;
 import org.alexmond.gotmpl4j.parse.Node;
 
 /**
- * LRU cache for parsed template ASTs. Keyed by template name and content hash to avoid
- * re-parsing identical template content across multiple render calls.
+ * Concurrent cache for parsed template ASTs. Keyed by template name and content hash to
+ * avoid re-parsing identical template content across multiple render calls.
+ *
+ * <p>
+ * Bounded both by entry count and by total weight, where an entry's weight is the length
+ * of the template text it was parsed from (a cheap proxy for AST size). Eviction follows
+ * W-TinyLFU: new entries land in a small LRU admission window, and an entry leaving the
+ * window only displaces the main region's least-recently-used entry if a frequency sketch
+ * has seen it at least as often. One-off templates therefore cannot flush the hot set.
+ *
+ * <p>
+ * Reads never block: {@link #get(String)} is a {@link ConcurrentHashMap} lookup that
+ * records the access in a lossy buffer. Writes and the buffered access reordering run
+ * under a single eviction lock, which readers only ever {@code tryLock}.
  */
+// Access-order links are identity-compared by design (CompareObjectsWithEquals).
 @Slf4j
+@SuppressWarnings("PMD.CompareObjectsWithEquals")
 public final class TemplateCache {
 
-	private final Map<String, Map<String, Node>> cache;
+	/**
+	 * Default maximum total weight: 8 MiB of template text.
+	 */
+	public static final long DEFAULT_MAX_WEIGHT = 8L * 1024 * 1024;
+
+	// Pending reads beyond this are dropped: losing a recency/frequency hint is harmless,
+	// blocking a render on the buffer is not.
+	private static final int READ_BUFFER_MAX = 128;
+
+	// Readers try to drain once this many accesses are pending.
+	private static final int READ_BUFFER_DRAIN_THRESHOLD = 32;
+
+	private static final int WINDOW = 1;
+
+	private static final int MAIN = 2;
+
+	private final ConcurrentHashMap<String, Entry> data = new ConcurrentHashMap<>();
 
 	private final int maxSize;
 
+	private final long maxWeight;
+
+	private final int windowMaxSize;
+
 	private final JhelmMetrics metrics;
 
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final Queue<Entry> readBuffer = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger pendingReads = new AtomicInteger();
+
+	// Guarded by evictionLock.
+	private final AccessOrder window = new AccessOrder();
+
+	// Guarded by evictionLock.
+	private final AccessOrder main = new AccessOrder();
+
+	// Guarded by evictionLock.
+	private final FrequencySketch sketch;
+
+	// Written under evictionLock; volatile so the gauges and accessors read it lock-free.
+	private volatile long weightedSize;
+
+	private volatile long evictionCount;
+
 	public TemplateCache(int maxSize) {
 		this(maxSize, null);
 	}
 
 	public TemplateCache(int maxSize, JhelmMetrics metrics) {
+		this(maxSize, DEFAULT_MAX_WEIGHT, metrics);
+	}
+
+	/**
+	 * Creates a cache bounded by both entry count and total weight.
+	 * @param maxSize the maximum number of entries
+	 * @param maxWeight the maximum summed weight (template text length) of all entries
+	 * @param metrics optional metrics for hit/miss, eviction and load statistics, or
+	 * {@code null}
+	 */
+	public TemplateCache(int maxSize, long maxWeight, JhelmMetrics metrics) {
 		this.maxSize = maxSize;
+		this.maxWeight = maxWeight;
 		this.metrics = metrics;
-		this.cache = Collections.synchronizedMap(new LinkedHashMap<>(maxSize, 0.75f, true) {
-			@Override
-			protected boolean removeEldestEntry(Map.Entry<String, Map<String, Node>> eldest) {
-				return size() > TemplateCache.this.maxSize;
-			}
-		});
+		// W-TinyLFU's 1% admission window, at least one entry.
+		this.windowMaxSize = Math.max(1, maxSize / 100);
+		this.sketch = new FrequencySketch(maxSize);
 		if (metrics != null) {
 			metrics.registerCacheSizeGauge(this::size);
+			metrics.registerCacheWeightGauge(this::weightedSize);
 		}
 	}
 
@@ -46,44 +114,373 @@ public final class TemplateCache {
 	 * @return the cached node map, or {@code null} on a miss
 	 */
 	public Map<String, Node> get(String key) {
-		Map<String, Node> cached = cache.get(key);
-		if (cached != null) {
+		Entry entry = data.get(key);
+		if (entry != null) {
 			if (log.isDebugEnabled()) {
 				log.debug("Template cache hit for key: {}", key);
 			}
 			if (metrics != null) {
 				metrics.recordCacheHit();
 			}
+			recordRead(entry);
+			return entry.nodes;
 		}
-		else {
-			if (metrics != null) {
-				metrics.recordCacheMiss();
-			}
+		if (metrics != null) {
+			metrics.recordCacheMiss();
 		}
-		return cached;
+		return null;
 	}
 
 	/**
-	 * Store a defensive copy of the given nodes under the given key.
+	 * Store a defensive copy of the given nodes under the given key, with unit weight.
 	 * @param key the cache key
 	 * @param nodes the nodes to cache
 	 */
 	public void put(String key, Map<String, Node> nodes) {
-		cache.put(key, new HashMap<>(nodes));
+		put(key, nodes, 1);
+	}
+
+	/**
+	 * Store a defensive copy of the given nodes under the given key.
+	 * @param key the cache key
+	 * @param nodes the nodes to cache
+	 * @param weight the entry's weight, typically the length of the parsed template text
+	 */
+	public void put(String key, Map<String, Node> nodes, int weight) {
+		Entry entry = new Entry(key, new HashMap<>(nodes), Math.max(1, weight));
+		evictionLock.lock();
+		try {
+			drainReadBuffer();
+			Entry previous = data.put(key, entry);
+			if (previous != null) {
+				unlink(previous);
+			}
+			entry.region = WINDOW;
+			window.addLast(entry);
+			weightedSize += entry.weight;
+			sketch.increment(entry.hash);
+			evict();
+		}
+		finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Runs the loader for a key that just missed, stores its result and records the load
+	 * time. The loader runs outside the eviction lock, so concurrent renders missing on
+	 * the same key each load independently rather than waiting on one another.
+	 * @param key the cache key
+	 * @param weight the entry's weight, typically the length of the parsed template text
+	 * @param loader produces the nodes to cache
+	 * @return the loaded nodes
+	 */
+	public Map<String, Node> load(String key, int weight, Supplier<Map<String, Node>> loader) {
+		long start = System.nanoTime();
+		Map<String, Node> nodes = loader.get();
+		if (metrics != null) {
+			metrics.recordCacheLoad(System.nanoTime() - start);
+		}
+		put(key, nodes, weight);
+		return nodes;
 	}
 
 	/**
 	 * Return the number of entries currently in the cache.
 	 */
 	public int size() {
-		return cache.size();
+		return data.size();
+	}
+
+	/**
+	 * Return the summed weight of all entries currently in the cache.
+	 * @return the weighted size
+	 */
+	public long weightedSize() {
+		return weightedSize;
+	}
+
+	/**
+	 * Return how many entries have been evicted to respect the size or weight bound.
+	 * Entries removed by {@link #clear()} or replaced by {@code put} are not counted.
+	 * @return the eviction count
+	 */
+	public long evictionCount() {
+		return evictionCount;
 	}
 
 	/**
 	 * Clear all cached entries.
 	 */
 	public void clear() {
-		cache.clear();
+		evictionLock.lock();
+		try {
+			drainReadBuffer();
+			data.clear();
+			window.clear();
+			main.clear();
+			weightedSize = 0;
+		}
+		finally {
+			evictionLock.unlock();
+		}
+	}
+
+	private void recordRead(Entry entry) {
+		if (pendingReads.incrementAndGet() > READ_BUFFER_MAX) {
+			pendingReads.decrementAndGet();
+		}
+		else {
+			readBuffer.offer(entry);
+		}
+		if (pendingReads.get() >= READ_BUFFER_DRAIN_THRESHOLD && evictionLock.tryLock()) {
+			try {
+				drainReadBuffer();
+			}
+			finally {
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	// Replays buffered reads: bump the key's frequency and move it to its region's MRU
+	// end. Entries evicted or replaced since the read are skipped.
+	private void drainReadBuffer() {
+		Entry entry;
+		while ((entry = readBuffer.poll()) != null) {
+			pendingReads.decrementAndGet();
+			sketch.increment(entry.hash);
+			if (entry.region == WINDOW) {
+				window.moveToLast(entry);
+			}
+			else if (entry.region == MAIN) {
+				main.moveToLast(entry);
+			}
+		}
+	}
+
+	private void evict() {
+		// Entries overflowing the admission window move to the main region's MRU end;
+		// they are the admission candidates, oldest first.
+		Entry candidate = null;
+		while (window.size > windowMaxSize) {
+			Entry demoted = window.removeFirst();
+			demoted.region = MAIN;
+			main.addLast(demoted);
+			if (candidate == null) {
+				candidate = demoted;
+			}
+		}
+		while (data.size() > maxSize || weightedSize > maxWeight) {
+			Entry victim = main.head;
+			if (victim == null) {
+				// Everything left is in the window (e.g. one entry heavier than the
+				// bound).
+				remove(window.head);
+				continue;
+			}
+			if (candidate == null || candidate == victim) {
+				if (candidate == victim) {
+					candidate = victim.next;
+				}
+				remove(victim);
+				continue;
+			}
+			// TinyLFU admission: the candidate displaces the LRU victim unless the victim
+			// has been used more often. Ties admit the candidate, so a cache with no
+			// repeated use behaves as plain LRU.
+			if (sketch.frequency(candidate.hash) < sketch.frequency(victim.hash)) {
+				Entry rejected = candidate;
+				candidate = candidate.next;
+				remove(rejected);
+			}
+			else {
+				remove(victim);
+			}
+		}
+	}
+
+	private void remove(Entry entry) {
+		data.remove(entry.key, entry);
+		unlink(entry);
+		evictionCount++;
+		if (metrics != null) {
+			metrics.recordCacheEviction();
+		}
+	}
+
+	private void unlink(Entry entry) {
+		if (entry.region == WINDOW) {
+			window.remove(entry);
+		}
+		else if (entry.region == MAIN) {
+			main.remove(entry);
+		}
+		entry.region = 0;
+		weightedSize -= entry.weight;
+	}
+
+	/**
+	 * A cached node map plus its links in the window or main access order (guarded by the
+	 * eviction lock).
+	 */
+	private static final class Entry {
+
+		private final String key;
+
+		private final int hash;
+
+		private final Map<String, Node> nodes;
+
+		private final int weight;
+
+		// 0 once removed; read racily by drainReadBuffer only under the lock.
+		private int region;
+
+		private Entry prev;
+
+		private Entry next;
+
+		Entry(String key, Map<String, Node> nodes, int weight) {
+			this.key = key;
+			this.hash = spread(key.hashCode());
+			this.nodes = nodes;
+			this.weight = weight;
+		}
+
+		private static int spread(int h) {
+			int x = h * 0x9E3779B9;
+			return x ^ (x >>> 16);
+		}
+
+	}
+
+	/**
+	 * Intrusive doubly linked list in access order, least recently used at the head.
+	 */
+	private static final class AccessOrder {
+
+		private Entry head;
+
+		private Entry tail;
+
+		private int size;
+
+		void addLast(Entry entry) {
+			entry.prev = tail;
+			entry.next = null;
+			if (tail == null) {
+				head = entry;
+			}
+			else {
+				tail.next = entry;
+			}
+			tail = entry;
+			size++;
+		}
+
+		Entry removeFirst() {
+			Entry first = head;
+			remove(first);
+			return first;
+		}
+
+		void moveToLast(Entry entry) {
+			if (entry != tail) {
+				remove(entry);
+				addLast(entry);
+			}
+		}
+
+		void remove(Entry entry) {
+			if (entry.prev == null) {
+				head = entry.next;
+			}
+			else {
+				entry.prev.next = entry.next;
+			}
+			if (entry.next == null) {
+				tail = entry.prev;
+			}
+			else {
+				entry.next.prev = entry.prev;
+			}
+			entry.prev = null;
+			entry.next = null;
+			size--;
+		}
+
+		void clear() {
+			head = null;
+			tail = null;
+			size = 0;
+		}
+
+	}
+
+	/**
+	 * Count-min sketch of 4-bit access counters over four rows, halved every
+	 * {@code 10 * width} increments so that frequencies age and a formerly hot template
+	 * can be displaced.
+	 */
+	private static final class FrequencySketch {
+
+		private static final int[] SEEDS = { 0x97CB3127, 0xB3A8C8D3, 0x8A1B4F6D, 0xC2B2AE35 };
+
+		private static final int MAX_COUNT = 15;
+
+		private final byte[][] rows;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int additions;
+
+		FrequencySketch(int maximum) {
+			int width = Integer.highestOneBit(Math.max(16, maximum) - 1) << 1;
+			this.rows = new byte[SEEDS.length][width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * width;
+		}
+
+		void increment(int hash) {
+			boolean added = false;
+			for (int i = 0; i < rows.length; i++) {
+				int index = index(hash, i);
+				if (rows[i][index] < MAX_COUNT) {
+					rows[i][index]++;
+					added = true;
+				}
+			}
+			if (added && ++additions >= sampleSize) {
+				reset();
+			}
+		}
+
+		int frequency(int hash) {
+			int min = MAX_COUNT;
+			for (int i = 0; i < rows.length; i++) {
+				min = Math.min(min, rows[i][index(hash, i)]);
+			}
+			return min;
+		}
+
+		private int index(int hash, int row) {
+			int x = hash * SEEDS[row];
+			x ^= x >>> 15;
+			return x & mask;
+		}
+
+		private void reset() {
+			for (byte[] row : rows) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] = (byte) (row[i] >>> 1);
+				}
+			}
+			additions /= 2;
+		}
+
 	}
 
 }
@@ -18,6 +18,9 @@ public class JhelmCoreProperties {
 	/** Value-profile settings (Spring-Boot-style value profiles). */
 	private final Profiles profiles = new Profiles();
 
+	/** Render-engine settings. */
+	private final Engine engine = new Engine();
+
 	/**
 	 * Path to the Helm repository configuration file. Bound at the {@code jhelm} root as
 	 * {@code jhelm.config-path}; {@code jhelm.core.config-path} is also accepted as a
@@ -52,10 +55,60 @@ public class JhelmCoreProperties {
 	private boolean templateCacheEnabled = true;
 
 	/**
-	 * Maximum number of parsed templates in the LRU cache. Defaults to 256.
+	 * Maximum number of parsed templates in the cache. Defaults to 256.
 	 */
 	private int templateCacheMaxSize = 256;
 
+	/**
+	 * Maximum total weight of the template cache, measured as the summed length (in
+	 * characters) of the cached templates' source text. Defaults to 8 MiB.
+	 */
+	private long templateCacheMaxWeight = 8L * 1024 * 1024;
+
+	/**
+	 * Whether to keep loaded repository charts in memory, keyed by archive digest, so
+	 * repeated REST template and show requests for a chart version skip loading it.
+	 * Defaults to {@code true}.
+	 */
+	private boolean chartCacheEnabled = true;
+
+	/**
+	 * Maximum number of loaded charts in the chart cache. Defaults to 32.
+	 */
+	private int chartCacheMaxSize = 32;
+
+	/**
+	 * Whether chart directories are loaded concurrently, reading {@code Chart.yaml},
+	 * values, templates, files and each subchart on its own virtual thread. Defaults to
+	 * {@code true}.
+	 */
+	private boolean chartLoadParallel = true;
+
+	/**
+	 * Render-engine settings.
+	 */
+	@Getter
+	@Setter
+	public static class Engine {
+
+		/**
+		 * Maximum number of chart renders the shared engine runs in parallel, each on its
+		 * own large-stack render thread. Renders beyond this queue. Defaults to 1
+		 * (serialised); servers rendering many charts concurrently should set it to about
+		 * the number of available cores.
+		 */
+		private int renderThreads = 1;
+
+		/**
+		 * Maximum number of charts of one umbrella render whose templates execute in
+		 * parallel. Output keeps the sequential ordering; a render whose templates mutate
+		 * {@code .Release} falls back to sequential rendering. Defaults to 1 (subcharts
+		 * render sequentially).
+		 */
+		private int subchartThreads = 1;
+
+	}
+
 	/**
 	 * Value-profile settings. Profiles gate {@code spring.config.activate.on-profile}
 	 * documents and select {@code values-<profile>.yaml} sidecar files.
@@ -5,6 +5,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 
@@ -25,6 +26,16 @@ public class JhelmMetrics {
 
 	private final Counter cacheMissCounter;
 
+	private final Counter cacheEvictionCounter;
+
+	private final Timer cacheLoadTimer;
+
+	private final Counter indexHitCounter;
+
+	private final Counter indexMissCounter;
+
+	private final Timer indexParseTimer;
+
 	/**
 	 * Creates the metrics service and registers the render timer and cache counters on
 	 * the given registry.
@@ -43,6 +54,23 @@ public class JhelmMetrics {
 			.description("Template cache requests")
 			.tag("result", "miss")
 			.register(registry);
+		this.cacheEvictionCounter = Counter.builder(PREFIX + ".cache.evictions")
+			.description("Template cache entries evicted by the size or weight bound")
+			.register(registry);
+		this.cacheLoadTimer = Timer.builder(PREFIX + ".cache.load")
+			.description("Time spent parsing a template after a cache miss")
+			.register(registry);
+		this.indexHitCounter = Counter.builder(PREFIX + ".repo.index.requests")
+			.description("Repository index lookups")
+			.tag("result", "hit")
+			.register(registry);
+		this.indexMissCounter = Counter.builder(PREFIX + ".repo.index.requests")
+			.description("Repository index lookups")
+			.tag("result", "miss")
+			.register(registry);
+		this.indexParseTimer = Timer.builder(PREFIX + ".repo.index.parse")
+			.description("Time spent parsing a repository index.yaml into its compact form")
+			.register(registry);
 	}
 
 	/**
@@ -77,6 +105,116 @@ public class JhelmMetrics {
 		cacheMissCounter.increment();
 	}
 
+	/**
+	 * Record a template cache eviction.
+	 */
+	public void recordCacheEviction() {
+		cacheEvictionCounter.increment();
+	}
+
+	/**
+	 * Record the time taken to load (parse) a template after a cache miss.
+	 * @param durationNanos the duration in nanoseconds
+	 */
+	public void recordCacheLoad(long durationNanos) {
+		cacheLoadTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Record a repository index lookup served by an already-open index.
+	 */
+	public void recordIndexHit() {
+		indexHitCounter.increment();
+	}
+
+	/**
+	 * Record a repository index lookup that had to open or build the index.
+	 */
+	public void recordIndexMiss() {
+		indexMissCounter.increment();
+	}
+
+	/**
+	 * Record the time taken to parse a repository {@code index.yaml} into its compact
+	 * form.
+	 * @param durationNanos the duration in nanoseconds
+	 */
+	public void recordIndexParse(long durationNanos) {
+		indexParseTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Record one repository index update: its duration on {@code jhelm.repo.update} and
+	 * the bytes downloaded on {@code jhelm.repo.update.bytes}, both tagged with the repo.
+	 * @param repo the repository name
+	 * @param outcome "updated", "not-modified" or "error"
+	 * @param durationNanos the duration in nanoseconds
+	 * @param bytes the bytes downloaded (0 when the index was not modified)
+	 */
+	public void recordRepoUpdate(String repo, String outcome, long durationNanos, long bytes) {
+		Timer.builder(PREFIX + ".repo.update")
+			.description("Repository index update duration")
+			.tag("repo", repo)
+			.tag("outcome", outcome)
+			.register(registry)
+			.record(durationNanos, TimeUnit.NANOSECONDS);
+		DistributionSummary.builder(PREFIX + ".repo.update.bytes")
+			.description("Repository index bytes downloaded by an update")
+			.baseUnit("bytes")
+			.tag("repo", repo)
+			.register(registry)
+			.record(bytes);
+	}
+
+	/**
+	 * Record one dependency download of {@code dependency update}/{@code build} on
+	 * {@code jhelm.dependency.download}; its count per outcome is the build's progress.
+	 * @param outcome "success" or "error"
+	 * @param durationNanos the duration in nanoseconds, extraction included
+	 */
+	public void recordDependencyDownload(String outcome, long durationNanos) {
+		Timer.builder(PREFIX + ".dependency.download")
+			.description("Chart dependency download duration")
+			.tag("outcome", outcome)
+			.register(registry)
+			.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Record one completed OCI blob transfer: its duration on
+	 * {@code jhelm.oci.blob.transfer} and its size on {@code jhelm.oci.blob.bytes}, so
+	 * throughput is their ratio.
+	 * @param direction "upload" or "download"
+	 * @param bytes the blob size in bytes
+	 * @param durationNanos the duration in nanoseconds, retries included
+	 */
+	public void recordOciBlobTransfer(String direction, long bytes, long durationNanos) {
+		Timer.builder(PREFIX + ".oci.blob.transfer")
+			.description("OCI blob transfer duration")
+			.tag("direction", direction)
+			.register(registry)
+			.record(durationNanos, TimeUnit.NANOSECONDS);
+		DistributionSummary.builder(PREFIX + ".oci.blob.bytes")
+			.description("OCI blob bytes transferred")
+			.baseUnit("bytes")
+			.tag("direction", direction)
+			.register(registry)
+			.record(bytes);
+	}
+
+	/**
+	 * Count one resumed OCI blob transfer on {@code jhelm.oci.blob.retries}: a chunk
+	 * upload retried or a download continued with a range request.
+	 * @param direction "upload" or "download"
+	 */
+	public void recordOciBlobRetry(String direction) {
+		Counter.builder(PREFIX + ".oci.blob.retries")
+			.description("OCI blob transfers resumed after a failure")
+			.tag("direction", direction)
+			.register(registry)
+			.increment();
+	}
+
 	/**
 	 * Register a gauge that tracks the current template cache size.
 	 * @param sizeSupplier supplies the current cache size
@@ -87,6 +225,17 @@ public class JhelmMetrics {
 			.register(registry);
 	}
 
+	/**
+	 * Register a gauge that tracks the current template cache weight (summed template
+	 * text length of the cached entries).
+	 * @param weightSupplier supplies the current cache weight
+	 */
+	public void registerCacheWeightGauge(Supplier<Number> weightSupplier) {
+		io.micrometer.core.instrument.Gauge.builder(PREFIX + ".cache.weight", weightSupplier)
+			.description("Current template cache weight")
+			.register(registry);
+	}
+
 	/**
 	 * Create a timer for the given Kubernetes operation.
 	 * @param operation the operation name (e.g. "apply", "delete", "store")
@@ -5,10 +5,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.alexmond.jhelm.core.util.ContentDigests;
 
 /**
  * In-memory representation of a loaded Helm chart: its {@link ChartMetadata}, default
@@ -74,6 +78,39 @@ public class Chart {
 
 		private String data;
 
+		/**
+		 * SHA-256 (hex) of {@link #data}, set by the chart loader so renders key the
+		 * parse cache by content without rehashing. Computed on first access when absent
+		 * and reset whenever the data changes; not part of the stored release.
+		 */
+		@JsonIgnore
+		@EqualsAndHashCode.Exclude
+		@ToString.Exclude
+		private String digest;
+
+		/**
+		 * Replaces the template text and drops the digest of the old text.
+		 * @param data the new template text
+		 */
+		public void setData(String data) {
+			this.data = data;
+			this.digest = null;
+		}
+
+		/**
+		 * Returns the content digest of {@link #data}, computing it on first use.
+		 * @return the hex SHA-256 of the template text, or {@code null} when there is no
+		 * text
+		 */
+		@JsonIgnore
+		public String getDigest() {
+			if (digest == null && data != null) {
+				// Benign race: concurrent renders compute the same value.
+				digest = ContentDigests.sha256(data);
+			}
+			return digest;
+		}
+
 	}
 
 	/**
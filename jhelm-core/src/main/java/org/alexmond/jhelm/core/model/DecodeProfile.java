@@ -0,0 +1,53 @@
+package org.alexmond.jhelm.core.model;
+
+/**
+ * How much of a stored release {@link HelmReleaseCodec} decodes.
+ *
+ * <p>
+ * The embedded chart's templates, files and values schema are usually most of a release
+ * payload, yet only rendering needs them. Read paths that show a release rather than
+ * re-deploy it ask for less, and the decoder skips the rest of the payload without
+ * building it.
+ * </p>
+ */
+public enum DecodeProfile {
+
+	/**
+	 * Name, revision, info, config and chart metadata and values: what {@code list} and
+	 * {@code history} show. No manifest and no chart templates, files or schema.
+	 */
+	SUMMARY(false, false),
+	/**
+	 * {@link #SUMMARY} plus the rendered manifest, for {@code status}. ({@code get} and
+	 * {@code get manifest} share one action that decodes {@link #FULL}.)
+	 */
+	MANIFEST(true, false),
+	/** The whole release, for upgrade, rollback and anything that re-renders the chart. */
+	FULL(true, true);
+
+	private final boolean manifest;
+
+	private final boolean chartContent;
+
+	DecodeProfile(boolean manifest, boolean chartContent) {
+		this.manifest = manifest;
+		this.chartContent = chartContent;
+	}
+
+	/**
+	 * Whether the rendered manifest is decoded.
+	 * @return {@code true} if the release's {@code manifest} is kept
+	 */
+	public boolean includesManifest() {
+		return this.manifest;
+	}
+
+	/**
+	 * Whether the chart's templates, files and values schema are decoded.
+	 * @return {@code true} if the chart content is kept
+	 */
+	public boolean includesChartContent() {
+		return this.chartContent;
+	}
+
+}
@@ -1,9 +1,13 @@
 package org.alexmond.jhelm.core.model;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Set;
 import java.util.function.Consumer;
 
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.node.ArrayNode;
@@ -33,6 +37,9 @@ import tools.jackson.databind.node.ObjectNode;
  */
 public final class HelmReleaseCodec {
 
+	// Helm-shaped chart fields that only rendering needs.
+	private static final Set<String> CHART_CONTENT = Set.of("templates", "files", "schema");
+
 	private final JsonMapper mapper = JsonMapper.builder().build();
 
 	/**
@@ -62,6 +69,74 @@ public final class HelmReleaseCodec {
 		return this.mapper.treeToValue(tree, Release.class);
 	}
 
+	/**
+	 * Deserializes as much of a release payload as {@code profile} asks for. Profiles
+	 * without {@link DecodeProfile#includesChartContent() chart content} read the payload
+	 * with a streaming parser and skip what they leave out (the manifest, or the
+	 * templates, files and schema of the chart and its subcharts) token by token, so it
+	 * is neither built into a tree nor base64-decoded; skipped fields come back empty.
+	 * @param json the release-payload JSON, typically a gunzipping stream
+	 * @param profile how much of the release to decode
+	 * @return the decoded release
+	 */
+	public Release fromJson(InputStream json, DecodeProfile profile) {
+		if (profile.includesChartContent()) {
+			JsonNode tree = this.mapper.readTree(json);
+			if (tree instanceof ObjectNode root && root.get("chart") instanceof ObjectNode chart) {
+				chartFromHelm(chart);
+			}
+			return this.mapper.treeToValue(tree, Release.class);
+		}
+		try (JsonParser parser = this.mapper.createParser(json)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				JsonNode tree = this.mapper.readTree(parser);
+				return this.mapper.treeToValue(tree, Release.class);
+			}
+			ObjectNode root = this.mapper.createObjectNode();
+			while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+				String field = parser.currentName();
+				JsonToken value = parser.nextToken();
+				if ("manifest".equals(field) && !profile.includesManifest()) {
+					parser.skipChildren();
+				}
+				else if ("chart".equals(field) && value == JsonToken.START_OBJECT) {
+					root.set(field, readChartSkippingContent(parser));
+				}
+				else {
+					root.set(field, this.mapper.readTree(parser));
+				}
+			}
+			return this.mapper.treeToValue(root, Release.class);
+		}
+	}
+
+	// Reads the chart object the parser is on, skipping templates, files and schema here
+	// and in every subchart.
+	private ObjectNode readChartSkippingContent(JsonParser parser) {
+		ObjectNode chart = this.mapper.createObjectNode();
+		while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+			String field = parser.currentName();
+			JsonToken value = parser.nextToken();
+			if (CHART_CONTENT.contains(field)) {
+				parser.skipChildren();
+			}
+			else if ("dependencies".equals(field) && value == JsonToken.START_ARRAY) {
+				ArrayNode dependencies = this.mapper.createArrayNode();
+				for (JsonToken item = parser.nextToken(); item != null && item != JsonToken.END_ARRAY;
+						item = parser.nextToken()) {
+					JsonNode dependency = (item == JsonToken.START_OBJECT) ? readChartSkippingContent(parser)
+							: this.mapper.readTree(parser);
+					dependencies.add(dependency);
+				}
+				chart.set(field, dependencies);
+			}
+			else {
+				chart.set(field, this.mapper.readTree(parser));
+			}
+		}
+		return chart;
+	}
+
 	private void chartToHelm(ObjectNode chart) {
 		base64DataItems(chart, "templates");
 		renameAndBase64(chart, "valuesSchema", "schema");
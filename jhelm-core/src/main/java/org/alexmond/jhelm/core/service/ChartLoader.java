@@ -3,36 +3,92 @@ package org.alexmond.jhelm.core.service;
 import tools.jackson.dataformat.yaml.YAMLMapper;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.alexmond.jhelm.core.exception.ChartLoadException;
 import org.alexmond.jhelm.core.model.Chart;
 import org.alexmond.jhelm.core.model.ChartMetadata;
 import org.alexmond.jhelm.core.model.Dependency;
+import org.alexmond.jhelm.core.util.ContentDigests;
 import org.alexmond.jhelm.core.util.ValuesLoader;
 import org.alexmond.jhelm.core.util.ValuesProfiles;
 
 /**
- * Loads a Helm chart from a directory on disk into an in-memory {@link Chart}, reading
- * {@code Chart.yaml} metadata, {@code values.yaml}, templates, CRDs, subchart
- * dependencies and arbitrary non-template files exposed via the {@code .Files} object.
+ * Loads a Helm chart from a directory on disk, or straight from a {@code .tgz} archive,
+ * into an in-memory {@link Chart}, reading {@code Chart.yaml} metadata,
+ * {@code values.yaml}, templates, CRDs, subchart dependencies and arbitrary non-template
+ * files exposed via the {@code .Files} object.
+ *
+ * <p>
+ * A chart directory is loaded concurrently by default: {@code Chart.yaml},
+ * {@code values.yaml}, the template, CRD and {@code .Files} trees and every
+ * {@code charts/<name>/} subchart (recursively) and {@code charts/*.tgz} subchart
+ * archive are read on their own virtual threads, so an umbrella chart's file I/O and
+ * YAML parsing overlap. Directory listings are sorted by name, so the loaded chart is
+ * the same whichever order the reads finish in.
  */
 @Slf4j
 @Component
 public class ChartLoader {
 
+	/**
+	 * Maximum total uncompressed bytes an archive loaded in memory may expand to. Far
+	 * below the limit {@link RepoManager#untar(File, File)} enforces on disk, since the
+	 * whole archive is held on the heap; larger archives are meant to be extracted.
+	 */
+	public static final long MAX_IN_MEMORY_ARCHIVE_BYTES = 32L << 20; // 32 MiB
+
 	private final YAMLMapper yamlMapper = YAMLMapper.builder().build();
 
+	private volatile boolean parallel = true;
+
+	/**
+	 * Sets whether chart directories are loaded on virtual threads (the default) or
+	 * entirely on the calling thread. Either way the loaded chart is the same.
+	 * @param parallel {@code true} to load a chart's files and subcharts concurrently
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * @return whether chart directories are loaded concurrently
+	 */
+	public boolean isParallel() {
+		return this.parallel;
+	}
+
 	/**
 	 * Finds the first subdirectory inside a parent directory. Charts extracted from .tgz
 	 * archives create a single subdirectory (e.g. {@code parent/nginx/}).
@@ -70,6 +126,15 @@ public class ChartLoader {
 	 * or a chart file cannot be read
 	 */
 	public Chart load(File chartDir, ValuesProfiles profiles) {
+		if (!this.parallel) {
+			return load(chartDir, profiles, Runnable::run);
+		}
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			return load(chartDir, profiles, executor);
+		}
+	}
+
+	private Chart load(File chartDir, ValuesProfiles profiles, Executor executor) {
 		if (!chartDir.exists() || !chartDir.isDirectory()) {
 			throw new ChartLoadException("Chart directory does not exist", chartDir.getPath(),
 					"Verify the path is correct and points to a valid Helm chart directory");
@@ -83,7 +148,7 @@ public class ChartLoader {
 		}
 
 		try {
-			return loadFromDir(chartDir, metadataFile, profiles);
+			return loadFromDir(chartDir, metadataFile, profiles, executor);
 		}
 		catch (IOException ex) {
 			throw new ChartLoadException("Failed to load chart", ex, chartDir.getPath(),
@@ -91,7 +156,167 @@ public class ChartLoader {
 		}
 	}
 
-	private Chart loadFromDir(File chartDir, File metadataFile, ValuesProfiles profiles) throws IOException {
+	/**
+	 * Loads a chart straight from a gzipped tar archive (what {@code helm package}
+	 * writes), without extracting it to disk. The archive is read into memory up to
+	 * {@link #MAX_IN_MEMORY_ARCHIVE_BYTES} uncompressed, and under the entry limit
+	 * {@link RepoManager#untar(File, File)} enforces, counted across the archive and every
+	 * subchart archive nested in it. Subcharts are loaded as from a directory: from
+	 * {@code charts/<name>/} directories and from {@code charts/*.tgz} archives, except an
+	 * archive of a chart version also present as a directory. Value profiles do not
+	 * apply.
+	 * @param tgz the archive, read to its end but not closed
+	 * @return the fully populated chart
+	 * @throws ChartLoadException if the stream is not a chart archive or exceeds the
+	 * limits, the chart has no {@code Chart.yaml}, or a chart file cannot be read
+	 */
+	public Chart load(InputStream tgz) {
+		return loadInMemory(tgz).orElseThrow(() -> new ChartLoadException(
+				"Chart archive expands beyond " + MAX_IN_MEMORY_ARCHIVE_BYTES + " bytes", ARCHIVE_SOURCE,
+				"Extract the archive to disk and load the chart directory instead"));
+	}
+
+	/**
+	 * Loads a chart from a gzipped tar archive in memory, as {@link #load(InputStream)}
+	 * does, unless it expands beyond {@link #MAX_IN_MEMORY_ARCHIVE_BYTES}. Reading stops
+	 * as soon as the limit is crossed, so an oversized archive is never fully buffered;
+	 * the caller then extracts it to disk instead.
+	 * @param tgz the archive, not closed
+	 * @return the chart, or empty if the archive is too large to load in memory
+	 * @throws ChartLoadException if the stream is not a chart archive or has too many
+	 * entries, the chart has no {@code Chart.yaml}, or a chart file cannot be read
+	 */
+	public Optional<Chart> loadInMemory(InputStream tgz) {
+		try {
+			return Optional.of(loadArchive(tgz, new ArchiveLimits(), ARCHIVE_SOURCE));
+		}
+		catch (InMemoryLimitExceededException ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("{}", ex.getMessage());
+			}
+			return Optional.empty();
+		}
+		catch (IOException ex) {
+			throw new ChartLoadException("Failed to load chart archive", ex, ARCHIVE_SOURCE,
+					"Verify the archive is a gzipped tar holding one chart directory, as 'helm package' writes");
+		}
+	}
+
+	/**
+	 * Loads a chart from a gzipped tar archive held in memory; see
+	 * {@link #load(InputStream)}. The buffer's position is left unchanged.
+	 * @param tgz the archive bytes, from the buffer's position to its limit
+	 * @return the fully populated chart
+	 * @throws ChartLoadException if the bytes are not a chart archive or exceed the
+	 * limits, the chart has no {@code Chart.yaml}, or a chart file cannot be read
+	 */
+	public Chart load(ByteBuffer tgz) {
+		ByteBuffer source = tgz.duplicate();
+		if (source.hasArray()) {
+			return load(new ByteArrayInputStream(source.array(), source.arrayOffset() + source.position(),
+					source.remaining()));
+		}
+		byte[] bytes = new byte[source.remaining()];
+		source.get(bytes);
+		return load(new ByteArrayInputStream(bytes));
+	}
+
+	// Every part of the chart is read as its own task; with a direct executor the tasks
+	// simply run in order on the calling thread.
+	private Chart loadFromDir(File chartDir, File metadataFile, ValuesProfiles profiles, Executor executor)
+			throws IOException {
+		CompletableFuture<ChartMetadata> metadata = async(() -> loadMetadata(chartDir, metadataFile), executor);
+
+		// Load values.yaml (supports multi-document files separated by ---)
+		CompletableFuture<Map<String, Object>> values = async(() -> {
+			File valuesFile = new File(chartDir, "values.yaml");
+			return valuesFile.exists() ? ValuesLoader.load(valuesFile, profiles) : new LinkedHashMap<>();
+		}, executor);
+
+		// Load templates
+		CompletableFuture<List<Chart.Template>> templates = async(() -> {
+			File templatesDir = new File(chartDir, "templates");
+			List<Chart.Template> loaded = new ArrayList<>();
+			if (templatesDir.exists() && templatesDir.isDirectory()) {
+				loadTemplatesRecursive(templatesDir, "", loaded);
+			}
+			return loaded;
+		}, executor);
+
+		// Load dependencies (subcharts)
+		List<File> subchartDirs = subchartDirs(chartDir);
+		List<CompletableFuture<Chart>> subcharts = new ArrayList<>(subchartDirs.size());
+		for (File subchartDir : subchartDirs) {
+			subcharts.add(CompletableFuture.supplyAsync(() -> load(subchartDir, ValuesProfiles.none(), executor),
+					executor));
+		}
+
+		// Load README and values.schema.json
+		CompletableFuture<String> readme = async(() -> readIfExists(new File(chartDir, "README.md")), executor);
+		CompletableFuture<String> valuesSchema = async(() -> readIfExists(new File(chartDir, "values.schema.json")),
+				executor);
+
+		// Load CRDs
+		CompletableFuture<List<Chart.Crd>> crds = async(() -> {
+			File crdsDir = new File(chartDir, "crds");
+			List<Chart.Crd> loaded = new ArrayList<>();
+			if (crdsDir.exists() && crdsDir.isDirectory()) {
+				loadCrdsRecursive(crdsDir, "", loaded);
+			}
+			return loaded;
+		}, executor);
+
+		// Load non-template files (for .Files object)
+		CompletableFuture<Map<String, String>> chartFiles = async(() -> {
+			Map<String, String> loaded = new LinkedHashMap<>();
+			loadChartFiles(chartDir, loaded);
+			return loaded;
+		}, executor);
+
+		ChartMetadata chartMetadata = join(metadata);
+		List<Chart> dependencies = new ArrayList<>();
+		for (int i = 0; i < subchartDirs.size(); i++) {
+			String dirName = subchartDirs.get(i).getName();
+			Chart subchart = join(subcharts.get(i));
+			if (!dirName.equals(subchart.getMetadata().getName())) {
+				subchart.setAlias(dirName);
+			}
+			dependencies.add(subchart);
+			addAliasInstances(dependencies, subchart, chartMetadata.getDependencies());
+		}
+		List<File> subchartArchives = new ArrayList<>();
+		for (File archive : subchartArchives(chartDir)) {
+			if (!isUnpacked(archive.getName(), dependencies)) {
+				subchartArchives.add(archive);
+			}
+		}
+		List<CompletableFuture<Chart>> archived = new ArrayList<>(subchartArchives.size());
+		for (File archive : subchartArchives) {
+			archived.add(async(() -> {
+				try (InputStream in = Files.newInputStream(archive.toPath())) {
+					return loadArchive(in, new ArchiveLimits(), archive.getPath());
+				}
+			}, executor));
+		}
+		for (CompletableFuture<Chart> archive : archived) {
+			Chart subchart = join(archive);
+			dependencies.add(subchart);
+			addAliasInstances(dependencies, subchart, chartMetadata.getDependencies());
+		}
+
+		return Chart.builder()
+			.metadata(chartMetadata)
+			.values(join(values))
+			.valuesSchema(join(valuesSchema))
+			.templates(join(templates))
+			.dependencies(dependencies)
+			.readme(join(readme))
+			.crds(join(crds))
+			.files(join(chartFiles))
+			.build();
+	}
+
+	private ChartMetadata loadMetadata(File chartDir, File metadataFile) throws IOException {
 		ChartMetadata metadata = yamlMapper.readValue(metadataFile, ChartMetadata.class);
 
 		// For apiVersion v1 charts, dependencies live in requirements.yaml rather than
@@ -106,79 +331,93 @@ public class ChartLoader {
 				}
 			}
 		}
+		return metadata;
+	}
 
-		// Load values.yaml (supports multi-document files separated by ---)
-		File valuesFile = new File(chartDir, "values.yaml");
-		Map<String, Object> values = new LinkedHashMap<>();
-		if (valuesFile.exists()) {
-			values = ValuesLoader.load(valuesFile, profiles);
-		}
+	private static String readIfExists(File file) throws IOException {
+		return file.exists() ? Files.readString(file.toPath()) : null;
+	}
 
-		// Load templates
-		File templatesDir = new File(chartDir, "templates");
-		List<Chart.Template> templates = new ArrayList<>();
-		if (templatesDir.exists() && templatesDir.isDirectory()) {
-			loadTemplatesRecursive(templatesDir, "", templates);
+	private static List<File> subchartDirs(File chartDir) {
+		File chartsDir = new File(chartDir, "charts");
+		if (!chartsDir.isDirectory()) {
+			return List.of();
 		}
+		return Arrays.stream(listSorted(chartsDir)).filter(File::isDirectory).toList();
+	}
 
-		// Load dependencies (subcharts)
-		List<Chart> dependencies = loadDependencies(chartDir, metadata.getDependencies());
-
-		// Load README
-		String readme = null;
-		File readmeFile = new File(chartDir, "README.md");
-		if (readmeFile.exists()) {
-			readme = Files.readString(readmeFile.toPath());
+	private static List<File> subchartArchives(File chartDir) {
+		File chartsDir = new File(chartDir, "charts");
+		if (!chartsDir.isDirectory()) {
+			return List.of();
 		}
+		return Arrays.stream(listSorted(chartsDir))
+			.filter((file) -> file.isFile() && file.getName().endsWith(".tgz"))
+			.toList();
+	}
 
-		// Load values.schema.json
-		String valuesSchema = null;
-		File valuesSchemaFile = new File(chartDir, "values.schema.json");
-		if (valuesSchemaFile.exists()) {
-			valuesSchema = Files.readString(valuesSchemaFile.toPath());
+	// The subchart rule both loaders share: every charts/<name>/ directory, then every
+	// charts/*.tgz archive in name order, except an archive of a chart version already
+	// loaded from a directory. `dependency update` and `package` leave both
+	// charts/<name>/ and charts/<name>-<version>.tgz, which must load as one subchart.
+	private static boolean isUnpacked(String archiveName, List<Chart> unpacked) {
+		for (Chart subchart : unpacked) {
+			ChartMetadata metadata = subchart.getMetadata();
+			if (archiveName.equals(metadata.getName() + "-" + metadata.getVersion() + ".tgz")) {
+				return true;
+			}
 		}
+		return false;
+	}
 
-		// Load CRDs
-		File crdsDir = new File(chartDir, "crds");
-		List<Chart.Crd> crds = new ArrayList<>();
-		if (crdsDir.exists() && crdsDir.isDirectory()) {
-			loadCrdsRecursive(crdsDir, "", crds);
+	// File.listFiles order is up to the file system; sort it so templates, files and
+	// subcharts always load in the same order.
+	private static File[] listSorted(File dir) {
+		File[] files = dir.listFiles();
+		if (files == null) {
+			return new File[0];
 		}
+		Arrays.sort(files, Comparator.comparing(File::getName));
+		return files;
+	}
 
-		// Load non-template files (for .Files object)
-		Map<String, String> chartFiles = new LinkedHashMap<>();
-		loadChartFiles(chartDir, chartFiles);
-
-		return Chart.builder()
-			.metadata(metadata)
-			.values(values)
-			.valuesSchema(valuesSchema)
-			.templates(templates)
-			.dependencies(dependencies)
-			.readme(readme)
-			.crds(crds)
-			.files(chartFiles)
-			.build();
+	private static <T> CompletableFuture<T> async(IoSupplier<T> task, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return task.get();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}, executor);
 	}
 
-	private List<Chart> loadDependencies(File chartDir, List<Dependency> metaDeps) throws IOException {
-		File chartsDir = new File(chartDir, "charts");
-		List<Chart> dependencies = new ArrayList<>();
-		if (!chartsDir.exists() || !chartsDir.isDirectory()) {
-			return dependencies;
-		}
-		File[] subchartDirs = chartsDir.listFiles(File::isDirectory);
-		if (subchartDirs != null) {
-			for (File subchartDir : subchartDirs) {
-				Chart subchart = load(subchartDir);
-				if (!subchartDir.getName().equals(subchart.getMetadata().getName())) {
-					subchart.setAlias(subchartDir.getName());
-				}
-				dependencies.add(subchart);
-				addAliasInstances(dependencies, subchart, metaDeps);
+	// Rethrows a task's failure as it was thrown: IOExceptions checked again,
+	// ChartLoadExceptions from subcharts unchanged.
+	private static <T> T join(CompletableFuture<T> future) throws IOException {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof UncheckedIOException io) {
+				throw io.getCause();
 			}
+			if (cause instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw ex;
 		}
-		return dependencies;
+	}
+
+	@FunctionalInterface
+	private interface IoSupplier<T> {
+
+		T get() throws IOException;
+
 	}
 
 	/**
@@ -215,26 +454,26 @@ public class ChartLoader {
 	}
 
 	private void loadTemplatesRecursive(File dir, String path, List<Chart.Template> templates) throws IOException {
-		File[] files = dir.listFiles();
-		if (files == null) {
-			return;
-		}
-		for (File file : files) {
+		for (File file : listSorted(dir)) {
 			String name = path.isEmpty() ? file.getName() : path + "/" + file.getName();
 			if (file.isDirectory()) {
 				loadTemplatesRecursive(file, name, templates);
 			}
-			else if (name.endsWith(".yaml") || name.endsWith(".yml") || name.endsWith(".tpl") || name.endsWith(".txt")
-					|| name.endsWith(".json")) {
-				Chart.Template template = Chart.Template.builder()
-					.name(name)
-					.data(Files.readString(file.toPath()))
-					.build();
-				templates.add(template);
+			else if (isTemplate(name)) {
+				templates.add(template(name, Files.readString(file.toPath())));
 			}
 		}
 	}
 
+	private static boolean isTemplate(String name) {
+		return name.endsWith(".yaml") || name.endsWith(".yml") || name.endsWith(".tpl") || name.endsWith(".txt")
+				|| name.endsWith(".json");
+	}
+
+	private static Chart.Template template(String name, String data) {
+		return Chart.Template.builder().name(name).data(data).digest(ContentDigests.sha256(data)).build();
+	}
+
 	// Dirs whose files are NOT exposed via .Files. Helm excludes only templates/ and
 	// charts/ — crds/ files ARE included in .Files (Helm's loader routes them to the
 	// default/Files case), so templates can read them: e.g. projectcapsule/capsule wraps
@@ -255,11 +494,7 @@ public class ChartLoader {
 	}
 
 	private void loadChartFiles(File chartDir, Map<String, String> chartFiles) throws IOException {
-		File[] entries = chartDir.listFiles();
-		if (entries == null) {
-			return;
-		}
-		for (File entry : entries) {
+		for (File entry : listSorted(chartDir)) {
 			if (entry.isDirectory() && !EXCLUDED_DIRS.contains(entry.getName())) {
 				loadFilesRecursive(entry, entry.getName(), chartFiles);
 			}
@@ -271,11 +506,7 @@ public class ChartLoader {
 	}
 
 	private void loadFilesRecursive(File dir, String path, Map<String, String> chartFiles) throws IOException {
-		File[] files = dir.listFiles();
-		if (files == null) {
-			return;
-		}
-		for (File file : files) {
+		for (File file : listSorted(dir)) {
 			String name = path + "/" + file.getName();
 			if (file.isDirectory()) {
 				loadFilesRecursive(file, name, chartFiles);
@@ -296,20 +527,216 @@ public class ChartLoader {
 	}
 
 	private void loadCrdsRecursive(File dir, String path, List<Chart.Crd> crds) throws IOException {
-		File[] files = dir.listFiles();
-		if (files == null) {
-			return;
-		}
-		for (File file : files) {
+		for (File file : listSorted(dir)) {
 			String name = path.isEmpty() ? file.getName() : path + "/" + file.getName();
 			if (file.isDirectory()) {
 				loadCrdsRecursive(file, name, crds);
 			}
-			else if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+			else if (isCrd(name)) {
 				Chart.Crd crd = Chart.Crd.builder().name(name).data(Files.readString(file.toPath())).build();
 				crds.add(crd);
 			}
 		}
 	}
 
+	private static boolean isCrd(String name) {
+		return name.endsWith(".yaml") || name.endsWith(".yml");
+	}
+
+	private static final String ARCHIVE_SOURCE = "<chart archive>";
+
+	private Chart loadArchive(InputStream tgz, ArchiveLimits limits, String source) throws IOException {
+		return loadFromFiles(readArchive(tgz, limits), source, limits);
+	}
+
+	// Reads every regular file of the archive into memory, keyed by its path inside the
+	// chart (the archive's top-level directory removed) and sorted by that path.
+	private static Map<String, byte[]> readArchive(InputStream tgz, ArchiveLimits limits) throws IOException {
+		Map<String, byte[]> files = new TreeMap<>();
+		// The JDK's GZIPInputStream, for the same leniency towards non-spec gzip extra
+		// fields as RepoManager.untar. The caller's stream is left open.
+		InputStream unclosed = new FilterInputStream(tgz) {
+			@Override
+			public void close() {
+			}
+		};
+		try (TarArchiveInputStream tar = new TarArchiveInputStream(
+				new GZIPInputStream(new BufferedInputStream(unclosed)))) {
+			TarArchiveEntry entry;
+			while ((entry = tar.getNextEntry()) != null) {
+				limits.countEntry();
+				if (!entry.isFile() || !tar.canReadEntryData(entry)) {
+					continue;
+				}
+				String name = pathInChart(entry.getName());
+				if (name != null) {
+					files.put(name, limits.read(tar, entry.getSize()));
+				}
+			}
+		}
+		return files;
+	}
+
+	// Strips the archive's top-level chart directory, as Helm's archive loader does.
+	// Returns null for an entry outside any directory.
+	private static String pathInChart(String entryName) throws IOException {
+		List<String> parts = new ArrayList<>();
+		for (String part : entryName.replace('\\', '/').split("/")) {
+			if ("..".equals(part)) {
+				throw new IOException("Path traversal detected in chart archive: " + entryName);
+			}
+			if (!part.isEmpty() && !".".equals(part)) {
+				parts.add(part);
+			}
+		}
+		return (parts.size() > 1) ? String.join("/", parts.subList(1, parts.size())) : null;
+	}
+
+	// The in-memory counterpart of loadFromDir, over the files of one chart keyed by
+	// their path inside it.
+	private Chart loadFromFiles(Map<String, byte[]> files, String source, ArchiveLimits limits) throws IOException {
+		byte[] metadataFile = files.get("Chart.yaml");
+		if (metadataFile == null) {
+			throw new ChartLoadException("Chart.yaml not found", source,
+					"A chart archive holds one chart directory with a Chart.yaml at its root");
+		}
+		ChartMetadata metadata = yamlMapper.readValue(metadataFile, ChartMetadata.class);
+		byte[] requirementsFile = files.get("requirements.yaml");
+		if ((metadata.getDependencies() == null || metadata.getDependencies().isEmpty()) && requirementsFile != null) {
+			ChartMetadata reqMeta = yamlMapper.readValue(requirementsFile, ChartMetadata.class);
+			if (reqMeta.getDependencies() != null) {
+				metadata.setDependencies(reqMeta.getDependencies());
+			}
+		}
+
+		byte[] valuesFile = files.get("values.yaml");
+		Map<String, Object> values = (valuesFile != null) ? ValuesLoader.parse(text(valuesFile))
+				: new LinkedHashMap<>();
+		byte[] readmeFile = files.get("README.md");
+		byte[] valuesSchemaFile = files.get("values.schema.json");
+
+		List<Chart.Template> templates = new ArrayList<>();
+		List<Chart.Crd> crds = new ArrayList<>();
+		Map<String, String> chartFiles = new LinkedHashMap<>();
+		Map<String, Map<String, byte[]>> subchartDirs = new TreeMap<>();
+		Map<String, byte[]> subchartArchives = new TreeMap<>();
+		for (Map.Entry<String, byte[]> file : files.entrySet()) {
+			String name = file.getKey();
+			int slash = name.indexOf('/');
+			String dir = (slash >= 0) ? name.substring(0, slash) : null;
+			String rest = name.substring(slash + 1);
+			if ("templates".equals(dir)) {
+				if (isTemplate(rest)) {
+					templates.add(template(rest, text(file.getValue())));
+				}
+			}
+			else if ("charts".equals(dir)) {
+				int subSlash = rest.indexOf('/');
+				if (subSlash > 0) {
+					subchartDirs.computeIfAbsent(rest.substring(0, subSlash), (k) -> new TreeMap<>())
+						.put(rest.substring(subSlash + 1), file.getValue());
+				}
+				else if (rest.endsWith(".tgz")) {
+					subchartArchives.put(rest, file.getValue());
+				}
+			}
+			else {
+				if ("crds".equals(dir) && isCrd(rest)) {
+					crds.add(Chart.Crd.builder().name(rest).data(text(file.getValue())).build());
+				}
+				if (dir != null || (!EXCLUDED_FILES.contains(name) && !isValuesProfileSidecar(name))) {
+					readTextFile(file.getValue(), name, chartFiles);
+				}
+			}
+		}
+
+		List<Chart> dependencies = new ArrayList<>();
+		for (Map.Entry<String, Map<String, byte[]>> subchartDir : subchartDirs.entrySet()) {
+			Chart subchart = loadFromFiles(subchartDir.getValue(), source + "/charts/" + subchartDir.getKey(), limits);
+			if (!subchartDir.getKey().equals(subchart.getMetadata().getName())) {
+				subchart.setAlias(subchartDir.getKey());
+			}
+			dependencies.add(subchart);
+			addAliasInstances(dependencies, subchart, metadata.getDependencies());
+		}
+		for (Map.Entry<String, byte[]> subchartArchive : subchartArchives.entrySet()) {
+			if (isUnpacked(subchartArchive.getKey(), dependencies)) {
+				continue;
+			}
+			Chart subchart = loadArchive(new ByteArrayInputStream(subchartArchive.getValue()), limits,
+					source + "/charts/" + subchartArchive.getKey());
+			dependencies.add(subchart);
+			addAliasInstances(dependencies, subchart, metadata.getDependencies());
+		}
+
+		return Chart.builder()
+			.metadata(metadata)
+			.values(values)
+			.valuesSchema((valuesSchemaFile != null) ? text(valuesSchemaFile) : null)
+			.templates(templates)
+			.dependencies(dependencies)
+			.readme((readmeFile != null) ? text(readmeFile) : null)
+			.crds(crds)
+			.files(chartFiles)
+			.build();
+	}
+
+	private void readTextFile(byte[] data, String name, Map<String, String> chartFiles) throws IOException {
+		try {
+			chartFiles.put(name, text(data));
+		}
+		catch (MalformedInputException ex) {
+			log.debug("Skipping binary file: {}", name);
+		}
+	}
+
+	// Strict UTF-8, failing on malformed input as Files.readString does.
+	private static String text(byte[] data) throws CharacterCodingException {
+		return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(data)).toString();
+	}
+
+	// The entry limit of RepoManager.untar and the in-memory size limit, counted across
+	// an archive and the subchart archives nested in it.
+	private static final class ArchiveLimits {
+
+		private long totalBytes;
+
+		private int entryCount;
+
+		void countEntry() throws IOException {
+			if (++this.entryCount > RepoManager.MAX_UNTAR_ENTRIES) {
+				throw new IOException("chart archive has too many entries (> " + RepoManager.MAX_UNTAR_ENTRIES
+						+ "): possible decompression bomb");
+			}
+		}
+
+		// The entry's declared size presizes the buffer, within what is left of the limit,
+		// so it does not grow by doubling.
+		byte[] read(InputStream in, long size) throws IOException {
+			long left = MAX_IN_MEMORY_ARCHIVE_BYTES - this.totalBytes;
+			ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.max(0, Math.min(size, left + 1)));
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				this.totalBytes += read;
+				if (this.totalBytes > MAX_IN_MEMORY_ARCHIVE_BYTES) {
+					throw new InMemoryLimitExceededException();
+				}
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+
+	}
+
+	// Thrown by ArchiveLimits.read once an archive outgrows what is loaded in memory.
+	private static final class InMemoryLimitExceededException extends IOException {
+
+		InMemoryLimitExceededException() {
+			super("chart archive expands beyond " + MAX_IN_MEMORY_ARCHIVE_BYTES
+					+ " bytes; too large to load in memory");
+		}
+
+	}
+
 }
@@ -0,0 +1,82 @@
+package org.alexmond.jhelm.core.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.alexmond.gotmpl4j.parse.Node;
+import org.alexmond.jhelm.core.model.Chart;
+
+/**
+ * A chart prepared once by {@link Engine#compile(Chart)} so that repeated renders skip
+ * template parsing. Holds the chart together with its recorded parse plan: every parse
+ * the engine performs while rendering the chart (helpers and their {@code define} blocks
+ * in the collect pass, then each manifest template in render order), each with the exact
+ * change it made to the render's named-template namespace.
+ *
+ * <p>
+ * {@link Engine#render(CompiledChart, Map, org.alexmond.jhelm.core.model.ReleaseContext)}
+ * replays those changes instead of parsing. Values only decide which subcharts are
+ * rendered, so a render whose values enable the same subcharts replays the whole plan;
+ * one that diverges (a different subchart set) replays the common prefix and parses the
+ * rest as an uncompiled render would. Either way the output is identical to
+ * {@link Engine#render(Chart, Map, org.alexmond.jhelm.core.model.ReleaseContext)}.
+ *
+ * <p>
+ * Dependency aliases are applied to the chart once, at compile time. Still computed per
+ * render, because it depends on the values: the template collection walk (which prunes
+ * condition-disabled subcharts) and its sort into render order, and the chart-prefixed
+ * aliases of each subchart's {@code define} names. None of these parse.
+ *
+ * <p>
+ * Immutable and safe to share between threads; tied to the engine that compiled it (the
+ * parsed nodes are bound to that engine's function set). Do not modify the chart after
+ * compiling it.
+ */
+public final class CompiledChart {
+
+	private final Engine engine;
+
+	private final Chart chart;
+
+	private final List<ParseStep> plan;
+
+	CompiledChart(Engine engine, Chart chart, List<ParseStep> plan) {
+		this.engine = engine;
+		this.chart = chart;
+		this.plan = List.copyOf(plan);
+	}
+
+	/**
+	 * Returns the chart this artifact was compiled from.
+	 * @return the chart
+	 */
+	public Chart getChart() {
+		return chart;
+	}
+
+	/**
+	 * Returns how many template parses a matching render replays instead of running.
+	 * @return the number of recorded parse steps
+	 */
+	public int getParseStepCount() {
+		return plan.size();
+	}
+
+	Engine getEngine() {
+		return engine;
+	}
+
+	List<ParseStep> getPlan() {
+		return plan;
+	}
+
+	/**
+	 * One recorded parse: the template it parsed (name and content digest), the
+	 * named-template entries it added or replaced, and the content digest the render's
+	 * parse memo held for the name afterwards ({@code null} if none).
+	 */
+	record ParseStep(String name, String digest, Map<String, Node> delta, String memoDigest) {
+
+	}
+
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.alexmond.jhelm.core.model.Capabilities;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
 
@@ -41,6 +42,11 @@ public class DelegatingKubeService implements KubeService {
 		return resolver.resolve().getRelease(name, namespace);
 	}
 
+	@Override
+	public Optional<Release> getRelease(String name, String namespace, DecodeProfile profile) {
+		return resolver.resolve().getRelease(name, namespace, profile);
+	}
+
 	@Override
 	public List<Release> listReleases(String namespace) {
 		return resolver.resolve().listReleases(namespace);
@@ -56,6 +62,11 @@ public class DelegatingKubeService implements KubeService {
 		return resolver.resolve().getReleaseHistory(name, namespace);
 	}
 
+	@Override
+	public List<Release> getReleaseHistory(String name, String namespace, DecodeProfile profile) {
+		return resolver.resolve().getReleaseHistory(name, namespace, profile);
+	}
+
 	@Override
 	public void deleteReleaseHistory(String name, String namespace) {
 		resolver.resolve().deleteReleaseHistory(name, namespace);
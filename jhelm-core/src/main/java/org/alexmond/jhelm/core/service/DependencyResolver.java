@@ -6,10 +6,26 @@ import org.alexmond.jhelm.core.model.ChartLock.LockDependency;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alexmond.jhelm.core.metrics.JhelmMetrics;
 import org.alexmond.jhelm.core.model.ChartLock;
 import org.alexmond.jhelm.core.model.ChartMetadata;
 import org.alexmond.jhelm.core.model.Dependency;
@@ -24,12 +40,21 @@ import org.alexmond.jhelm.core.model.Dependency;
  * <li>Dependency tag filtering</li>
  * <li>Chart.lock generation</li>
  * </ul>
+ * <p>
+ * Dependencies are resolved and downloaded concurrently, each on its own virtual thread,
+ * with at most {@link RepoManager#UPDATE_PARALLELISM} requests in flight per repository
+ * host (the connection pool's per-route limit). Lock entries that name the same chart
+ * version, such as one chart aliased several times, are downloaded once.
  */
 @Slf4j
 public class DependencyResolver {
 
 	private final RepoManager repoManager;
 
+	// One permit pool per repository host, shared by every resolve and download of this
+	// resolver.
+	private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
 	/**
 	 * Creates a resolver that fetches and caches dependency charts through the given
 	 * repository manager.
@@ -55,20 +80,25 @@ public class DependencyResolver {
 			return ChartLock.builder().dependencies(new ArrayList<>()).digest(digest).build();
 		}
 
-		List<LockDependency> lockDependencies = new ArrayList<>();
-
-		for (Dependency dep : metadata.getDependencies()) {
-			// Check if dependency should be included based on conditions and tags
-			if (!shouldIncludeDependency(dep, values, enabledTags)) {
-				if (log.isInfoEnabled()) {
-					log.info("Skipping dependency {} due to condition/tag evaluation", dep.getName());
+		List<Future<LockDependency>> resolutions = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (Dependency dep : metadata.getDependencies()) {
+				// Check if dependency should be included based on conditions and tags
+				if (!shouldIncludeDependency(dep, values, enabledTags)) {
+					if (log.isInfoEnabled()) {
+						log.info("Skipping dependency {} due to condition/tag evaluation", dep.getName());
+					}
+					continue;
 				}
-				continue;
-			}
 
-			// Resolve the dependency version
-			LockDependency lockDep = resolveDependency(dep);
-			lockDependencies.add(lockDep);
+				// Resolve the dependency version
+				resolutions
+					.add(executor.submit(() -> withHostPermit(dep.getRepository(), () -> resolveDependency(dep))));
+			}
+		}
+		List<LockDependency> lockDependencies = new ArrayList<>(resolutions.size());
+		for (Future<LockDependency> resolution : resolutions) {
+			lockDependencies.add(await(resolution, "resolving dependencies"));
 		}
 
 		// Generate digest
@@ -285,7 +315,13 @@ public class DependencyResolver {
 	}
 
 	/**
-	 * Downloads and extracts dependencies to the charts/ directory.
+	 * Downloads and extracts dependencies to the charts/ directory. Each distinct chart
+	 * version is pulled once, on its own virtual thread, into a staging directory under
+	 * the system temp directory (never inside the chart, whose {@code charts/} the loader
+	 * reads) and then moved into place as {@code charts/<name>/}, or {@code charts/<alias>/} when it is
+	 * the only entry for that version and declares an alias. A chart aliased several
+	 * times is kept once under its name; the loader instantiates it once per alias.
+	 * Every download runs to completion before the first failure is thrown.
 	 * @param chartDir the chart directory
 	 * @param lockDependencies the locked dependencies to download
 	 * @throws IOException if download or extraction fails
@@ -294,34 +330,176 @@ public class DependencyResolver {
 		File chartsDir = new File(chartDir, "charts");
 		chartsDir.mkdirs();
 
+		Map<String, List<LockDependency>> downloads = new LinkedHashMap<>();
 		for (LockDependency dep : lockDependencies) {
-			if (log.isInfoEnabled()) {
-				log.info("Downloading dependency {}-{} from {}", dep.getName(), dep.getVersion(), dep.getRepository());
+			String key = dep.getRepository() + "|" + dep.getName() + "|" + dep.getVersion();
+			downloads.computeIfAbsent(key, (k) -> new ArrayList<>()).add(dep);
+		}
+		int total = downloads.size();
+		AtomicInteger completed = new AtomicInteger();
+		List<Future<Void>> pending = new ArrayList<>(total);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (List<LockDependency> entries : downloads.values()) {
+				pending.add(executor.submit(() -> {
+					download(chartsDir, entries);
+					if (log.isInfoEnabled()) {
+						LockDependency dep = entries.get(0);
+						log.info("Downloaded dependency {}-{} ({}/{})", dep.getName(), dep.getVersion(),
+								completed.incrementAndGet(), total);
+					}
+					return null;
+				}));
 			}
+		}
+		for (Future<Void> download : pending) {
+			await(download, "downloading dependencies");
+		}
+	}
 
-			String repoName = dep.getRepository();
-
-			// Handle repository aliases
-			if (repoName != null && repoName.startsWith("@")) {
-				repoName = repoName.substring(1);
+	private void download(File chartsDir, List<LockDependency> entries) throws IOException {
+		LockDependency dep = entries.get(0);
+		if (log.isInfoEnabled()) {
+			log.info("Downloading dependency {}-{} from {}", dep.getName(), dep.getVersion(), dep.getRepository());
+			if (entries.size() > 1) {
+				log.info("Dependency {}-{} is declared {} times; downloading it once", dep.getName(), dep.getVersion(),
+						entries.size());
 			}
+		}
 
-			// Download the chart (extracts to charts/<name>/)
-			repoManager.pull(dep.getName(), repoName, dep.getVersion(), chartsDir.getAbsolutePath());
+		String repoName = dep.getRepository();
+
+		// Handle repository aliases
+		if (repoName != null && repoName.startsWith("@")) {
+			repoName = repoName.substring(1);
+		}
+
+		// A staging directory of its own, so concurrent pulls of charts that extract to
+		// the same name cannot interleave. Outside the chart, which may be read-only.
+		Path staging = Files.createTempDirectory("jhelm-dependency-");
+		long start = System.nanoTime();
+		String outcome = "error";
+		try {
+			String pullRepo = repoName;
+			withHostPermit(dep.getRepository(), () -> {
+				repoManager.pull(dep.getName(), pullRepo, dep.getVersion(), staging.toString());
+				return null;
+			});
+			Path extracted = ChartLoader.findChartDir(staging);
+			if (extracted.equals(staging)) {
+				throw new IOException(
+						"Dependency " + dep.getName() + "-" + dep.getVersion() + " did not extract a chart directory");
+			}
 
 			// Rename to alias directory if an alias is declared
-			if (dep.getAlias() != null && !dep.getAlias().isEmpty() && !dep.getAlias().equals(dep.getName())) {
-				File extracted = new File(chartsDir, dep.getName());
-				File aliasDir = new File(chartsDir, dep.getAlias());
-				if (extracted.exists() && !aliasDir.exists()) {
-					if (!extracted.renameTo(aliasDir)) {
-						if (log.isWarnEnabled()) {
-							log.warn("Failed to rename {} to alias {}", dep.getName(), dep.getAlias());
-						}
+			String dirName = dep.getName();
+			if (entries.size() == 1 && dep.getAlias() != null && !dep.getAlias().isEmpty()) {
+				dirName = dep.getAlias();
+			}
+			Path target = chartsDir.toPath().resolve(dirName);
+			RepoManager.deleteTree(target);
+			moveIntoPlace(extracted, target);
+			try (var archives = Files.list(staging)) {
+				for (Path archive : archives.toList()) {
+					Files.move(archive, chartsDir.toPath().resolve(archive.getFileName()),
+							StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			outcome = "success";
+		}
+		finally {
+			RepoManager.deleteTree(staging);
+			JhelmMetrics metrics = repoManager.getMetrics();
+			if (metrics != null) {
+				metrics.recordDependencyDownload(outcome, System.nanoTime() - start);
+			}
+		}
+	}
+
+	// Renames a staged chart into charts/, or copies it when the temp directory is on
+	// another file system, where a directory with entries cannot be moved.
+	private static void moveIntoPlace(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target);
+		}
+		catch (DirectoryNotEmptyException | AtomicMoveNotSupportedException ex) {
+			try (var paths = Files.walk(source)) {
+				for (Path path : paths.toList()) {
+					Path copy = target.resolve(source.relativize(path).toString());
+					if (Files.isDirectory(path)) {
+						Files.createDirectories(copy);
 					}
+					else {
+						Files.copy(path, copy);
+					}
+				}
+			}
+			catch (IOException copyFailure) {
+				RepoManager.deleteTree(target);
+				throw copyFailure;
+			}
+		}
+	}
+
+	// Runs a request against a dependency's repository while holding one of that host's
+	// permits. Named repositories (repo or @repo) are keyed by name.
+	private <T> T withHostPermit(String repository, IoCallable<T> request) throws IOException {
+		Semaphore permits = hostPermits.computeIfAbsent(hostKey(repository),
+				(k) -> new Semaphore(RepoManager.UPDATE_PARALLELISM));
+		permits.acquireUninterruptibly();
+		try {
+			return request.call();
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	private static String hostKey(String repository) {
+		if (repository == null) {
+			return "";
+		}
+		if (repository.contains("://")) {
+			try {
+				String host = URI.create(repository).getHost();
+				if (host != null) {
+					return host;
 				}
 			}
+			catch (IllegalArgumentException ex) {
+				// fall through to the raw repository string
+			}
+		}
+		return repository.startsWith("@") ? repository.substring(1) : repository;
+	}
+
+	// Waits for one task and rethrows its failure as the IOException it was thrown as.
+	private static <T> T await(Future<T> task, String what) throws IOException {
+		try {
+			return task.get();
 		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException io) {
+				throw io;
+			}
+			if (ex.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw new IOException(ex.getCause());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while " + what, ex);
+		}
+	}
+
+	@FunctionalInterface
+	private interface IoCallable<T> {
+
+		T call() throws IOException;
+
 	}
 
 }
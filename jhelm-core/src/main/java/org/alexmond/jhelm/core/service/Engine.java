@@ -14,8 +14,8 @@ import org.alexmond.jhelm.gotemplate.helm.functions.KubernetesFunctions;
 import org.alexmond.jhelm.gotemplate.helm.functions.KubernetesProvider;
 
 import java.io.StringWriter;
-import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -23,13 +23,15 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.alexmond.jhelm.core.model.Capabilities;
 import org.alexmond.jhelm.core.model.Chart;
@@ -39,6 +41,9 @@ import org.alexmond.jhelm.core.model.ReleaseContext;
 import org.alexmond.jhelm.core.model.Values;
 import org.alexmond.jhelm.core.model.VersionSet;
 import org.alexmond.jhelm.core.util.ChartVersions;
+import org.alexmond.jhelm.core.util.ContentDigests;
+import org.alexmond.jhelm.core.util.CopyOnWriteValues;
+import org.alexmond.jhelm.core.util.ManifestSplitter;
 
 /**
  * Renders a Helm {@link Chart} to Kubernetes manifests by driving the Go template engine.
@@ -47,6 +52,17 @@ import org.alexmond.jhelm.core.util.ChartVersions;
  * dependencies, and validates values against the chart's JSON schema. Optionally backed
  * by a {@link TemplateCache} for parse reuse and a {@link JhelmMetrics} for
  * instrumentation.
+ *
+ * <p>
+ * An engine is safe to share between threads. All per-render state (the parsed-node
+ * namespace, collision bookkeeping and parse memo) lives in a {@link RenderSession} built
+ * for each render, so concurrent {@code render} calls run in parallel on a bounded pool
+ * of large-stack threads sized by {@link #setRenderThreads(int)}; only the thread-safe
+ * {@link TemplateCache} and {@link GoTemplateRegistry} are shared.
+ *
+ * <p>
+ * Charts rendered repeatedly can be prepared once with {@link #compile(Chart)}; rendering
+ * the resulting {@link CompiledChart} replays its recorded template parses.
  */
 @Slf4j
 public class Engine {
@@ -89,23 +105,21 @@ public class Engine {
 	// cache path is exercised against real library charts (guards #726 from regressing).
 	private static final int DEFAULT_TEMPLATE_CACHE_SIZE = 256;
 
-	private final Map<String, String> namedTemplates = new HashMap<>();
-
-	private final Map<String, String> templateVersions = new HashMap<>();
-
 	private final TemplateCache templateCache;
 
 	private final SchemaValidator schemaValidator;
 
 	private final JhelmMetrics metrics;
 
-	private GoTemplate factory;
+	// Told of each template parse actually run (replays and parse-cache hits excluded),
+	// so tests can prove a compiled render parses nothing. Null outside tests.
+	private Runnable parseListener;
 
 	// Shared function registry, built once per engine. It runs the ServiceLoader
 	// discovery
 	// and builds the template-INDEPENDENT function set (Sprig's ~260 functions) and the
 	// reflection/dispatch caches a single time, then every per-render GoTemplate is built
-	// from it (see doRender) so those are reused instead of rebuilt each render. The
+	// from it (see newSession) so those are reused instead of rebuilt each render. The
 	// template-DEPENDENT Helm provider (include/tpl/required, which close over the
 	// specific
 	// template) is re-bound per render instance by the registry, so rendering is
@@ -124,11 +138,6 @@ public class Engine {
 	// autoconfig.
 	private Map<String, Function> pluginFunctions = Map.of();
 
-	// Per-render record of the text hash last parsed under each template name, so the
-	// render pass can skip re-parsing a template the collect pass already parsed (see
-	// parseWithCache). Reset each render in doRender alongside the factory.
-	private final Map<String, Integer> parsedTextHash = new HashMap<>();
-
 	/**
 	 * Creates an engine with a default template cache (parse reuse enabled) and no
 	 * metrics, using a default schema validator.
@@ -188,7 +197,95 @@ public class Engine {
 		this.pluginFunctions = (pluginFunctions != null) ? Map.copyOf(pluginFunctions) : Map.of();
 	}
 
-	private void parseWithCache(String name, String text) {
+	/**
+	 * Sets how many renders this engine runs in parallel. Each render gets its own
+	 * {@link RenderSession}, so renders are independent and a server sharing one engine
+	 * bean scales with the pool; further calls queue until a render thread frees up.
+	 * Defaults to {@code 1} (renders are serialised, as before the pool existed).
+	 * @param renderThreads the maximum number of concurrent renders (at least 1)
+	 * @throws IllegalArgumentException if {@code renderThreads} is less than 1
+	 */
+	public void setRenderThreads(int renderThreads) {
+		if (renderThreads < 1) {
+			throw new IllegalArgumentException("renderThreads must be at least 1, got " + renderThreads);
+		}
+		resize(renderExecutor, renderThreads);
+	}
+
+	/**
+	 * Returns the maximum number of renders this engine runs in parallel.
+	 * @return the render pool size
+	 */
+	public int getRenderThreads() {
+		return renderExecutor.getMaximumPoolSize();
+	}
+
+	/**
+	 * Sets how many threads render the subcharts of one umbrella chart concurrently.
+	 * Above {@code 1}, each chart's templates are still parsed in the sequential order,
+	 * but their execution is fanned out over this pool and the output is reassembled in
+	 * the exact sequential order (subcharts before their parent). A render whose
+	 * templates mutate {@code .Release} (the only object shared across charts) is
+	 * detected and rendered again sequentially. Defaults to {@code 1} (sequential).
+	 * @param subchartThreads the maximum number of concurrently executing charts per
+	 * render (at least 1)
+	 * @throws IllegalArgumentException if {@code subchartThreads} is less than 1
+	 */
+	public void setSubchartThreads(int subchartThreads) {
+		if (subchartThreads < 1) {
+			throw new IllegalArgumentException("subchartThreads must be at least 1, got " + subchartThreads);
+		}
+		resize(subchartExecutor, subchartThreads);
+	}
+
+	/**
+	 * Returns how many threads render the subcharts of one chart concurrently.
+	 * @return the subchart pool size; {@code 1} means subcharts render sequentially
+	 */
+	public int getSubchartThreads() {
+		return subchartExecutor.getMaximumPoolSize();
+	}
+
+	private static void resize(ThreadPoolExecutor executor, int threads) {
+		// ThreadPoolExecutor rejects core > max, so grow the max first and shrink the
+		// core first.
+		if (threads > executor.getMaximumPoolSize()) {
+			executor.setMaximumPoolSize(threads);
+			executor.setCorePoolSize(threads);
+		}
+		else {
+			executor.setCorePoolSize(threads);
+			executor.setMaximumPoolSize(threads);
+		}
+	}
+
+	private void parseWithCache(RenderSession session, String name, String text, String digest) {
+		// Content-addressed: the loader-computed SHA-256 of the text, so distinct bodies
+		// never share a memo or cache entry (a 32-bit hashCode could collide) and a
+		// library template vendored into many charts maps to one cache entry.
+		String textDigest = (digest != null) ? digest : ContentDigests.sha256(text);
+		// Rendering a CompiledChart: apply the recorded effect of this exact parse
+		// instead of parsing (define-bearing helpers included, which the template cache
+		// never serves).
+		if (session.replay(name, textDigest)) {
+			return;
+		}
+		Map<String, Node> before = session.isRecording() ? new HashMap<>(session.factory.getRootNodes()) : null;
+		try {
+			parseLive(session, name, text, textDigest);
+		}
+		catch (RuntimeException ex) {
+			session.stopRecording();
+			throw ex;
+		}
+		if (before != null) {
+			session.record(name, textDigest, before);
+		}
+	}
+
+	private void parseLive(RenderSession session, String name, String text, String textDigest) {
+		GoTemplate factory = session.factory;
+		Map<String, String> parsedDigest = session.parsedDigest;
 		// The collect pass (collectNamedTemplates) parses every template into the factory
 		// under its helm-style key; the render pass then re-parses the same (name, text)
 		// before executing it — the single hottest render path. When the identical text
@@ -202,8 +299,8 @@ public class Engine {
 		// resolution. The `define` check is a cheap superset guard: a false positive only
 		// costs a redundant parse, never correctness.
 		boolean hasDefine = text.contains("define");
-		Integer prevHash = parsedTextHash.get(name);
-		if (prevHash != null && prevHash == text.hashCode() && !hasDefine && factory.getRootNodes().containsKey(name)) {
+		String prevDigest = parsedDigest.get(name);
+		if (textDigest.equals(prevDigest) && !hasDefine && factory.getRootNodes().containsKey(name)) {
 			return;
 		}
 		// A `define` registers a GLOBAL named template as a side effect of parsing. The
@@ -220,27 +317,37 @@ public class Engine {
 		// Only
 		// define-free templates (whose delta is just their own root node) are cached.
 		if (templateCache == null || hasDefine) {
+			if (parseListener != null) {
+				parseListener.run();
+			}
 			factory.parse(name, text);
-			parsedTextHash.put(name, text.hashCode());
+			parsedDigest.put(name, textDigest);
 			return;
 		}
-		String cacheKey = name + "|" + text.hashCode();
+		// The name stays in the key: the cached delta is keyed by the template's name in
+		// the parse namespace, so it can only be replayed under that same name.
+		String cacheKey = name + "|" + textDigest;
 		Map<String, Node> cached = templateCache.get(cacheKey);
 		if (cached != null) {
 			factory.getRootNodes().putAll(cached);
 			return;
 		}
-		Map<String, Node> before = new LinkedHashMap<>(factory.getRootNodes());
-		factory.parse(name, text);
-		Map<String, Node> after = factory.getRootNodes();
-		Map<String, Node> added = new LinkedHashMap<>();
-		for (Map.Entry<String, Node> entry : after.entrySet()) {
-			if (!before.containsKey(entry.getKey())) {
-				added.put(entry.getKey(), entry.getValue());
+		// Weighted by text length so the cache's weight bound tracks AST size.
+		templateCache.load(cacheKey, text.length(), () -> {
+			Map<String, Node> before = new LinkedHashMap<>(factory.getRootNodes());
+			if (parseListener != null) {
+				parseListener.run();
 			}
-		}
-		templateCache.put(cacheKey, added);
-		parsedTextHash.put(name, text.hashCode());
+			factory.parse(name, text);
+			Map<String, Node> added = new LinkedHashMap<>();
+			for (Map.Entry<String, Node> entry : factory.getRootNodes().entrySet()) {
+				if (!before.containsKey(entry.getKey())) {
+					added.put(entry.getKey(), entry.getValue());
+				}
+			}
+			return added;
+		});
+		parsedDigest.put(name, textDigest);
 	}
 
 	/**
@@ -253,27 +360,35 @@ public class Engine {
 	 */
 	private static final long RENDER_STACK_SIZE = 32L * 1024 * 1024;
 
-	// Splits the rendered manifest on a "---" that starts a line (optionally followed by
-	// whitespace / an inline comment). Compiled once — cleanManifest runs on every
-	// render.
-	private static final Pattern DOC_SPLIT = Pattern.compile("(?m)^---[ \\t]*");
-
-	// Renders run on a large-stack thread (deeply nested tpl/include chains overflow the
-	// default ~512KB stack). The thread is REUSED across renders via a single-thread
-	// executor
+	// Release context of the throwaway render that records a CompiledChart's parse plan.
+	// Parsing never depends on .Release, so any valid context records the same plan.
+	private static final ReleaseContext COMPILE_RELEASE = ReleaseContext.builder()
+		.name("compile")
+		.namespace("default")
+		.install(true)
+		.revision(1)
+		.build();
+
+	// Renders run on large-stack threads (deeply nested tpl/include chains overflow the
+	// default ~512KB stack). The threads are REUSED across renders via a fixed pool
 	// instead of being spawned + joined per render — that per-render Thread create + join
-	// was
-	// the dominant render-time allocation (jvmlens, #721). Single-thread also serialises
-	// this
-	// engine's renders, which is required regardless because doRender mutates per-render
-	// engine state (factory, namedTemplates, parsedTextHash). allowCoreThreadTimeOut lets
-	// an
-	// idle engine (tests, one-shot CLI) reclaim the thread instead of leaking it.
-	private final ExecutorService renderExecutor = newRenderExecutor();
-
-	private static ExecutorService newRenderExecutor() {
+	// was the dominant render-time allocation (jvmlens, #721). The pool starts at one
+	// thread and is resized by setRenderThreads; renders beyond the pool size queue.
+	// Concurrency is safe because each render owns its RenderSession. allowCoreThread
+	// TimeOut lets an idle engine (tests, one-shot CLI) reclaim its threads instead of
+	// leaking them.
+	private final ThreadPoolExecutor renderExecutor = newRenderExecutor("jhelm-render-");
+
+	// Executes the per-chart render units of a parallel subchart render (see
+	// setSubchartThreads). Separate from renderExecutor so a render thread blocked on its
+	// units can never starve them; same large stacks, since units run the templates.
+	private final ThreadPoolExecutor subchartExecutor = newRenderExecutor("jhelm-subchart-");
+
+	private static ThreadPoolExecutor newRenderExecutor(String threadPrefix) {
+		AtomicInteger threadCount = new AtomicInteger();
 		ThreadFactory factory = (runnable) -> {
-			Thread thread = new Thread(null, runnable, "jhelm-render", RENDER_STACK_SIZE);
+			Thread thread = new Thread(null, runnable, threadPrefix + threadCount.incrementAndGet(),
+					RENDER_STACK_SIZE);
 			thread.setDaemon(true);
 			return thread;
 		};
@@ -285,8 +400,9 @@ public class Engine {
 
 	/**
 	 * Renders the chart's templates to a single concatenated manifest string. Rendering
-	 * runs on a reused large-stack thread to accommodate deeply nested {@code tpl}/
-	 * {@code include} chains.
+	 * runs on one of the engine's reused large-stack render threads to accommodate deeply
+	 * nested {@code tpl}/{@code include} chains; concurrent calls render in parallel up
+	 * to {@link #getRenderThreads()}.
 	 * @param chart the chart to render
 	 * @param values the user-supplied values merged over the chart defaults, exposed as
 	 * {@code .Values}
@@ -314,9 +430,136 @@ public class Engine {
 	public String render(Chart chart, Map<String, Object> values, ReleaseContext release, Capabilities capabilities) {
 		Map<String, Object> releaseInfo = release.toMap();
 		Capabilities caps = (capabilities != null) ? capabilities : Capabilities.DEFAULT;
+		return submitRender(chart, () -> {
+			StringBuilder manifest = new StringBuilder();
+			doRender(() -> newSession(true), chart, values, releaseInfo, caps, ManifestSink.joining(manifest));
+			return manifest.toString();
+		});
+	}
+
+	/**
+	 * Renders a chart, handing each manifest document to {@code sink} as soon as the
+	 * template that produced it has run instead of building the whole manifest string.
+	 * The documents are exactly those of {@link #render(Chart, Map, ReleaseContext)},
+	 * in the same order. With parallel subchart rendering enabled
+	 * ({@link #setSubchartThreads(int)}) and dependencies present, documents are handed
+	 * on once all charts have executed.
+	 * @param chart the chart to render
+	 * @param values the merged values for this render
+	 * @param release the release context ({@code .Release})
+	 * @param capabilities the {@code .Capabilities} override
+	 * @param sink receives the documents, on the render thread
+	 * @throws TemplateRenderException if a template fails to parse or execute
+	 * @throws SchemaValidationException if the values violate the chart's JSON schema
+	 */
+	public void render(Chart chart, Map<String, Object> values, ReleaseContext release, Capabilities capabilities,
+			ManifestSink sink) {
+		Map<String, Object> releaseInfo = release.toMap();
+		Capabilities caps = (capabilities != null) ? capabilities : Capabilities.DEFAULT;
+		submitRender(chart, () -> {
+			doRender(() -> newSession(true), chart, values, releaseInfo, caps, sink);
+			return null;
+		});
+	}
+
+	/**
+	 * Prepares a chart for repeated rendering. Runs one render of the chart with its
+	 * default values (output discarded) and records every template parse it performs, so
+	 * that {@link #render(CompiledChart, Map, ReleaseContext)} can skip parsing. A chart
+	 * whose defaults do not render (e.g. a {@code required} value) still compiles; the
+	 * plan then covers the parses made before the failure.
+	 * @param chart the chart to compile; treat it as read-only afterwards
+	 * @return the compiled chart, bound to this engine
+	 */
+	public CompiledChart compile(Chart chart) {
+		return submitRender(chart, () -> {
+			// No cluster-backed lookup while compiling: the output is discarded.
+			RenderSession session = newSession(false);
+			session.startRecording();
+			try {
+				renderPass(session, chart, new HashMap<>(), COMPILE_RELEASE.toMap(), Capabilities.DEFAULT,
+						(document) -> {
+						});
+			}
+			catch (RuntimeException ex) {
+				if (log.isDebugEnabled()) {
+					log.debug("Compile render of chart '{}' stopped early: {}", chart.getMetadata().getName(),
+							ex.getMessage());
+				}
+			}
+			return new CompiledChart(this, chart, session.recorded);
+		});
+	}
+
+	void setParseListenerForTest(Runnable parseListener) {
+		this.parseListener = parseListener;
+	}
+
+	/**
+	 * Renders a compiled chart. Equivalent to {@link #render(Chart, Map, ReleaseContext)}
+	 * on {@link CompiledChart#getChart()}, but template parses recorded at compile time
+	 * are replayed rather than repeated.
+	 * @param compiled the chart compiled by this engine
+	 * @param values the user-supplied values merged over the chart defaults
+	 * @param release the release context ({@code .Release})
+	 * @return the rendered manifests joined into one document
+	 * @throws IllegalArgumentException if the chart was compiled by another engine
+	 * @throws TemplateRenderException if a template fails to parse or execute
+	 * @throws SchemaValidationException if the values violate the chart's JSON schema
+	 */
+	public String render(CompiledChart compiled, Map<String, Object> values, ReleaseContext release) {
+		return render(compiled, values, release, Capabilities.DEFAULT);
+	}
+
+	/**
+	 * Renders a compiled chart with an explicit {@code .Capabilities} override.
+	 * @param compiled the chart compiled by this engine
+	 * @param values the merged values for this render
+	 * @param release the release context ({@code .Release})
+	 * @param capabilities the {@code .Capabilities} override
+	 * @return the rendered manifest
+	 * @throws IllegalArgumentException if the chart was compiled by another engine
+	 */
+	public String render(CompiledChart compiled, Map<String, Object> values, ReleaseContext release,
+			Capabilities capabilities) {
+		StringBuilder manifest = new StringBuilder();
+		render(compiled, values, release, capabilities, ManifestSink.joining(manifest));
+		return manifest.toString();
+	}
+
+	/**
+	 * Renders a compiled chart, handing each manifest document to {@code sink} (see
+	 * {@link #render(Chart, Map, ReleaseContext, Capabilities, ManifestSink)}).
+	 * @param compiled the chart compiled by this engine
+	 * @param values the merged values for this render
+	 * @param release the release context ({@code .Release})
+	 * @param capabilities the {@code .Capabilities} override
+	 * @param sink receives the documents, on the render thread
+	 * @throws IllegalArgumentException if the chart was compiled by another engine
+	 */
+	public void render(CompiledChart compiled, Map<String, Object> values, ReleaseContext release,
+			Capabilities capabilities, ManifestSink sink) {
+		if (compiled.getEngine() != this) {
+			throw new IllegalArgumentException("CompiledChart was compiled by a different Engine");
+		}
+		Chart chart = compiled.getChart();
+		Map<String, Object> releaseInfo = release.toMap();
+		Capabilities caps = (capabilities != null) ? capabilities : Capabilities.DEFAULT;
+		submitRender(chart, () -> {
+			Supplier<RenderSession> sessions = () -> {
+				RenderSession session = newSession(true);
+				session.replayFrom(compiled.getPlan());
+				return session;
+			};
+			doRender(sessions, chart, values, releaseInfo, caps, sink);
+			return null;
+		});
+	}
+
+	private <T> T submitRender(Chart chart, Callable<T> render) {
 		long startNanos = System.nanoTime();
 		try {
-			return renderExecutor.submit(() -> doRender(chart, values, releaseInfo, caps)).get();
+			return renderExecutor.submit(render).get();
 		}
 		catch (ExecutionException ex) {
 			// Unwrap so the render failure propagates exactly as if doRender ran inline.
@@ -340,50 +583,79 @@ public class Engine {
 		}
 	}
 
-	private String doRender(Chart chart, Map<String, Object> values, Map<String, Object> releaseInfo,
-			Capabilities capabilities) {
-		namedTemplates.clear();
-		templateVersions.clear();
-		parsedTextHash.clear();
-		// Build a fresh template per render (its parsed-node namespace is per-render),
-		// but
-		// from the shared registry so the ServiceLoader discovery, Sprig's function set,
-		// and
-		// the reflection/dispatch caches are reused instead of rebuilt each render. Helm
-		// renders a nil/absent value as "" (missingkey=zero), not Go's "<no value>". When
-		// a
-		// live Kubernetes provider is wired, override the stub `lookup` with the
-		// cluster-backed one so `lookup` returns real resources (incl. Secret/ConfigMap
-		// data)
-		// during install/upgrade, as Helm does — withFunctions is applied on top of the
-		// registry-supplied providers, so the override wins.
-		GoTemplate.Builder builder = GoTemplate.builder().registry(this.templateRegistry);
-		Map<String, Function> overrides = new HashMap<>(this.pluginFunctions);
-		if (this.kubernetesProvider != null) {
-			// Added after the plugin functions so the built-in lookup can never be
-			// clobbered by a plugin function named "lookup".
-			overrides.put("lookup", KubernetesFunctions.getFunctions(this.kubernetesProvider).get("lookup"));
-		}
-		if (!overrides.isEmpty()) {
-			builder.withFunctions(overrides);
+	private void doRender(Supplier<RenderSession> sessions, Chart chart, Map<String, Object> values,
+			Map<String, Object> releaseInfo, Capabilities capabilities, ManifestSink sink) {
+		if (getSubchartThreads() > 1 && !chart.getDependencies().isEmpty()) {
+			RenderSession session = sessions.get();
+			session.parallel = true;
+			if (renderPass(session, chart, values, releaseInfo, capabilities, sink)) {
+				return;
+			}
+			// A template mutated .Release, which sequential rendering shares across
+			// charts; the isolated parallel output may differ, so render again in order.
+			if (log.isDebugEnabled()) {
+				log.debug("Chart '{}' mutates .Release; re-rendering its subcharts sequentially",
+						chart.getMetadata().getName());
+			}
 		}
-		this.factory = builder.build().option("missingkey=zero");
+		renderPass(sessions.get(), chart, values, releaseInfo, capabilities, sink);
+	}
+
+	/**
+	 * One render of the chart tree in the given session: collect pass, then the
+	 * subchart-first render pass. In a parallel session the render pass only plans
+	 * (parses in order and queues each chart's template execution); the queued units are
+	 * then joined in plan order.
+	 * @return {@code true} once the documents have been handed to {@code sink}, or
+	 * {@code false} (nothing handed on) if a parallel session detected a mutation of
+	 * {@code .Release} and the result must not be used
+	 */
+	private boolean renderPass(RenderSession session, Chart chart, Map<String, Object> values,
+			Map<String, Object> releaseInfo, Capabilities capabilities, ManifestSink sink) {
 
 		// Apply aliases from dependency metadata before collecting templates, so that
 		// subchart .Chart.Name and template registration keys use the alias consistently.
-		applyAliasesFromMetadata(chart);
+		// A compiled chart already had them applied by its compile render.
+		if (!session.isCompiled()) {
+			applyAliasesFromMetadata(chart);
+		}
 
 		// Collect all named templates (define blocks) first. Pass the render values so
 		// templates from condition-disabled subcharts are pruned (as Helm does) and don't
 		// pollute the global define namespace.
-		collectNamedTemplates(chart, values);
+		collectNamedTemplates(session, chart, values);
 
 		try {
 			// Using a shared set for the whole rendering process to avoid redundant work
 			// and loops
 			Set<String> renderedCharts = new HashSet<>();
-			String rendered = renderWithSubcharts(chart, values, releaseInfo, renderedCharts, 0, capabilities);
-			return cleanManifest(rendered);
+			// Template output is cut into documents as it is produced, so only the
+			// document in progress is ever held, never the whole manifest.
+			ManifestSplitter splitter = new ManifestSplitter(sink::accept);
+			if (session.parallel) {
+				try {
+					renderWithSubcharts(session, chart, values, releaseInfo, renderedCharts, 0, capabilities,
+							splitter);
+				}
+				catch (RuntimeException ex) {
+					// Sequentially, any failure in an earlier chart's templates would
+					// have surfaced first.
+					awaitUnits(session);
+					throw ex;
+				}
+				awaitUnits(session);
+				if (session.releaseMutated(releaseInfo)) {
+					return false;
+				}
+				for (RenderUnit unit : session.units) {
+					unit.writeTo(splitter);
+				}
+			}
+			else {
+				renderWithSubcharts(session, chart, values, releaseInfo, renderedCharts, 0, capabilities, splitter);
+			}
+			splitter.finish();
+			return true;
 		}
 		catch (StackOverflowError ex) {
 			// Fail loudly instead of returning an error string as the manifest: a
@@ -397,6 +669,43 @@ public class Engine {
 		}
 	}
 
+	/**
+	 * Starts a render: a fresh template set (the per-render parsed-node namespace) plus
+	 * empty collision and parse bookkeeping.
+	 * @param clusterLookup whether {@code lookup} is backed by the live Kubernetes
+	 * provider (when one is configured)
+	 * @return the new session, owned by the calling render thread
+	 */
+	private RenderSession newSession(boolean clusterLookup) {
+		return new RenderSession(newFactory(clusterLookup));
+	}
+
+	private GoTemplate newFactory(boolean clusterLookup) {
+		// Build a fresh template per render (its parsed-node namespace is per-render),
+		// but
+		// from the shared registry so the ServiceLoader discovery, Sprig's function set,
+		// and
+		// the reflection/dispatch caches are reused instead of rebuilt each render. Helm
+		// renders a nil/absent value as "" (missingkey=zero), not Go's "<no value>". When
+		// a
+		// live Kubernetes provider is wired, override the stub `lookup` with the
+		// cluster-backed one so `lookup` returns real resources (incl. Secret/ConfigMap
+		// data)
+		// during install/upgrade, as Helm does — withFunctions is applied on top of the
+		// registry-supplied providers, so the override wins.
+		GoTemplate.Builder builder = GoTemplate.builder().registry(this.templateRegistry);
+		Map<String, Function> overrides = new HashMap<>(this.pluginFunctions);
+		if (clusterLookup && this.kubernetesProvider != null) {
+			// Added after the plugin functions so the built-in lookup can never be
+			// clobbered by a plugin function named "lookup".
+			overrides.put("lookup", KubernetesFunctions.getFunctions(this.kubernetesProvider).get("lookup"));
+		}
+		if (!overrides.isEmpty()) {
+			builder.withFunctions(overrides);
+		}
+		return builder.build().option("missingkey=zero");
+	}
+
 	/**
 	 * Builds the {@code .Capabilities} object for the render context. Uses the supplied
 	 * kube-version override when present (else {@link #DEFAULT_KUBE_VERSION}) and
@@ -462,64 +771,8 @@ public class Engine {
 		return digits.toString();
 	}
 
-	/**
-	 * Clean up the manifest by removing empty YAML documents and trailing separators
-	 */
-	private String cleanManifest(String manifest) {
-		if (manifest == null || manifest.isEmpty()) {
-			return manifest;
-		}
-
-		String normalized = manifest.trim();
-
-		// Split on YAML document separators the way Helm does. Helm's splitter
-		// (regexp "(?:^|\\s*\\n)---\\s*") treats any line that begins with "---" as a
-		// separator and consumes the trailing whitespace, so an inline "--- # comment"
-		// (e.g. yugabyte's templates/secrets.yaml) is a separator whose comment becomes
-		// the next document's content — the preceding resource is terminated cleanly.
-		// Splitting only on a "---" alone on its own line glued such inline separators
-		// onto the previous document (producing "------ # comment"), corrupting it so it
-		// no longer parsed as a resource. The "---" must be at column 0; an indented
-		// "---" inside a block scalar is content, not a separator (Helm behaves the
-		// same).
-		String[] docs = DOC_SPLIT.split(normalized);
-		StringBuilder cleaned = new StringBuilder();
-
-		for (String doc : docs) {
-			String trimmed = doc.strip();
-			// Skip empty documents and comment-only documents (no resource content).
-			if (trimmed.isEmpty() || isCommentOnly(trimmed)) {
-				continue;
-			}
-			if (cleaned.length() > 0) {
-				cleaned.append("\n---\n");
-			}
-			cleaned.append(trimmed);
-		}
-
-		// Add final newline if there's content
-		if (cleaned.length() > 0) {
-			cleaned.append('\n');
-		}
-
-		return cleaned.toString();
-	}
-
-	/**
-	 * @return {@code true} if every non-blank line of the document is a YAML comment, so
-	 * the document carries no resource content and can be dropped
-	 */
-	private boolean isCommentOnly(String doc) {
-		for (String line : doc.split("\n")) {
-			String stripped = line.strip();
-			if (!stripped.isEmpty() && !stripped.startsWith("#")) {
-				return false;
-			}
-		}
-		return true;
-	}
-
-	private void collectNamedTemplates(Chart chart, Map<String, Object> values) {
+	private void collectNamedTemplates(RenderSession session, Chart chart, Map<String, Object> values) {
+		GoTemplate factory = session.factory;
 		// First pass: collect all templates without parsing, to have them available for
 		// definitions
 		// Also track which chart each template belongs to for proper namespacing
@@ -532,8 +785,8 @@ public class Engine {
 		// two subcharts define the same named template the last one in that order wins.
 		// Parsing in the same order makes jhelm's define resolution match Helm's.
 		Map<String, String> templateFullPath = new HashMap<>();
-		collectAllTemplates(chart, allTemplates, templateToChartName, templateFullPath, chart.getMetadata().getName(),
-				values);
+		collectAllTemplates(session, chart, allTemplates, templateToChartName, templateFullPath,
+				chart.getMetadata().getName(), values);
 
 		// Second pass: parse each template. Helper files (.tpl) are parsed first so their
 		// defines are present; within each group templates are parsed in Helm's full-path
@@ -583,12 +836,12 @@ public class Engine {
 				// exactly the defines this file adds — and nothing else.
 				boolean mayDefine = name.contains("_helpers") || name.endsWith(".tpl");
 				Set<String> beforeKeys = mayDefine ? new HashSet<>(factory.getRootNodes().keySet()) : null;
-				parseWithCache(name, allTemplates.get(name));
+				parseWithCache(session, name, allTemplates.get(name), session.templateDigests.get(name));
 				if (log.isDebugEnabled()) {
 					log.debug("Parsed template: {} (from chart: {})", name, chartName);
 				}
 				if (beforeKeys != null) {
-					createChartPrefixedAliases(chartName, beforeKeys);
+					createChartPrefixedAliases(factory, chartName, beforeKeys);
 				}
 			}
 			catch (Exception ex) {
@@ -615,7 +868,7 @@ public class Engine {
 	 * @param chartName the chart whose helper file was just parsed
 	 * @param beforeKeys the {@code rootNodes} key set captured before parsing that file
 	 */
-	private void createChartPrefixedAliases(String chartName, Set<String> beforeKeys) {
+	private void createChartPrefixedAliases(GoTemplate factory, String chartName, Set<String> beforeKeys) {
 		Map<String, Node> rootNodes = factory.getRootNodes();
 		List<String> newlyAdded = new ArrayList<>();
 		for (String key : rootNodes.keySet()) {
@@ -639,16 +892,17 @@ public class Engine {
 		}
 	}
 
-	private void collectAllTemplates(Chart chart, Map<String, String> templates,
+	private void collectAllTemplates(RenderSession session, Chart chart, Map<String, String> templates,
 			Map<String, String> templateToChartName, Map<String, String> templateFullPath, String rootChartName,
 			Map<String, Object> values) {
-		collectAllTemplates(chart, templates, templateToChartName, templateFullPath, rootChartName, rootChartName,
-				values);
+		collectAllTemplates(session, chart, templates, templateToChartName, templateFullPath, rootChartName,
+				rootChartName, values);
 	}
 
-	private void collectAllTemplates(Chart chart, Map<String, String> templates,
+	private void collectAllTemplates(RenderSession session, Chart chart, Map<String, String> templates,
 			Map<String, String> templateToChartName, Map<String, String> templateFullPath, String rootChartName,
 			String pathPrefix, Map<String, Object> inheritedValues) {
+		Map<String, String> templateVersions = session.templateVersions;
 		String chartName = chart.getMetadata().getName();
 		String chartVersion = chart.getMetadata().getVersion();
 
@@ -672,6 +926,7 @@ public class Engine {
 							t.getName(), displaced);
 				}
 				templates.put(helmStyleKey, t.getData());
+				session.templateDigests.put(helmStyleKey, t.getDigest());
 				templateToChartName.put(helmStyleKey, chartName);
 				templateFullPath.put(helmStyleKey, fullPath);
 				templateVersions.put(helmStyleKey, chartVersion);
@@ -712,7 +967,7 @@ public class Engine {
 			@SuppressWarnings("unchecked")
 			Map<String, Object> subchartValues = (sliced instanceof Map) ? (Map<String, Object>) sliced
 					: new HashMap<>();
-			collectAllTemplates(subchart, templates, templateToChartName, templateFullPath, rootChartName,
+			collectAllTemplates(session, subchart, templates, templateToChartName, templateFullPath, rootChartName,
 					pathPrefix + "/charts/" + subchart.getMetadata().getName(), subchartValues);
 		}
 	}
@@ -747,20 +1002,21 @@ public class Engine {
 		return ChartVersions.compare(v1, v2);
 	}
 
-	private String renderWithSubcharts(Chart chart, Map<String, Object> values, Map<String, Object> releaseInfo,
-			Set<String> renderedCharts, int depth, Capabilities capabilities) {
+	private void renderWithSubcharts(RenderSession session, Chart chart, Map<String, Object> values,
+			Map<String, Object> releaseInfo, Set<String> renderedCharts, int depth, Capabilities capabilities,
+			ManifestSplitter out) {
 		String chartKey = chart.getMetadata().getName() + ":" + chart.getMetadata().getVersion();
 		if (renderedCharts.contains(chartKey)) {
 			if (log.isDebugEnabled()) {
 				log.debug("Chart {} already rendered in this path, skipping to avoid recursion", chartKey);
 			}
-			return "";
+			return;
 		}
 		if (depth > 3) { // Even further reduced depth
 			if (log.isWarnEnabled()) {
 				log.warn("Subchart nesting depth too high (>3) for chart {}", chartKey);
 			}
-			return "";
+			return;
 		}
 		renderedCharts.add(chartKey);
 
@@ -776,59 +1032,50 @@ public class Engine {
 		// .Values.<subchartName>.*
 		mergeSubchartDefaults(chart, mergedValues);
 
-		// Normalise the merged values to match Helm's value model (deep copy —
-		// mergeValues
-		// shares nested map references with the cached chart values):
-		// * Numbers become Double, because Helm loads values via JSON where every number
-		// is a float64. Interpolated directly this changes large ints (>=1e6) to Go's
-		// scientific notation (`1000000` -> `1e+06`); `int`/`len` results stay Long and
-		// render plain.
-		// * Null map entries are pruned for a subchart (depth > 0) but kept for the
-		// top-level release chart, mirroring Helm's coalesce ("a null key removes it",
-		// applied while coalescing subcharts).
-		// Unpruned view (null tombstones retained) for slicing down to subcharts. A
-		// parent's null override must survive to DELETE the subchart's same-named default
-		// (Helm's coalesce nil-deletion). Pruning before slicing drops the tombstone and
-		// lets the subchart re-introduce its default — e.g. signoz nulls
-		// clickhouse.zookeeper.image.registry to drop bitnami zookeeper's docker.io. The
-		// subchart prunes the null itself when it renders. This is the ONE pass that
-		// boxes
-		// numbers to Double.
-		Map<String, Object> subchartSliceValues = prepareRenderValues(mergedValues, null, false, true);
-		// Pruned view for THIS chart's own rendering: Helm removes null keys while
-		// coalescing a subchart (depth > 0); the top-level release chart keeps them.
-		// Derived
-		// from the boxed slice view above (not a second walk of mergedValues) — it clones
-		// the
-		// container maps/lists (kept independent because subchartSliceValues is mutated
-		// below
-		// with each subchart's merged global) but REUSES the already-boxed immutable
-		// leaves,
-		// so numbers are boxed once per render instead of twice.
-		Map<String, Object> renderValues = prepareRenderValues(subchartSliceValues, chartValues, depth > 0, false);
-
-		// Validate merged values against the chart's JSON Schema (if present)
+		// Helm removes null keys while coalescing a subchart (depth > 0) — "a null key
+		// removes it" — while the top-level release chart keeps them. The unpruned
+		// mergedValues stay the source for slicing down to subcharts: a parent's null
+		// override must survive to DELETE the subchart's same-named default (Helm's
+		// coalesce nil-deletion), e.g. signoz nulls clickhouse.zookeeper.image.registry
+		// to drop bitnami zookeeper's docker.io. The subchart prunes it when it renders.
+		Map<String, Object> ownValues = (depth > 0) ? CopyOnWriteValues.pruneDeletedNulls(mergedValues, chartValues)
+				: mergedValues;
+		// mergeValues shares nested maps with the cached chart values and the caller's
+		// overrides, which templates must not mutate. Rather than deep-copying the tree,
+		// templates read it through a copy-on-write view that also turns numbers into
+		// Double (Helm loads values via JSON, where every number is a float64;
+		// interpolated directly, `1000000` renders as Go's `1e+06`).
+		Map<String, Object> renderValues = CopyOnWriteValues.view(ownValues);
+
+		// Validate merged values against the chart's JSON Schema (if present). A parallel
+		// render validates on the subchart pool, as a unit of its own so a failure still
+		// surfaces in render order; it reads a view of its own, as views are not
+		// thread-safe.
 		if (chart.getValuesSchema() != null) {
-			try {
-				schemaValidator.validate(chart.getMetadata().getName(), chart.getValuesSchema(), renderValues);
+			if (session.parallel) {
+				RenderUnit validation = new RenderUnit(chart, null);
+				validation.check = () -> validateValues(chart, CopyOnWriteValues.view(ownValues));
+				submitUnit(session, validation);
 			}
-			catch (SchemaValidationException ex) {
-				throw new TemplateRenderException("Values schema validation failed: " + ex.getMessage(), ex,
-						chart.getMetadata().getName(), null);
+			else {
+				validateValues(chart, renderValues);
 			}
 		}
 
 		// Wrap as Helm's chartutil.Values so `.Values.AsMap` resolves (gotohelm charts
 		// such as redpanda's console/operator read the raw map via {{ .Values.AsMap }}).
-		mergedValues = new Values(renderValues);
+		Values chartRenderValues = new Values(renderValues);
 
 		// Helm's .Chart.IsRoot: true only for the top-level release chart (depth 0).
 		chart.getMetadata().setRoot(depth == 0);
 
+		// Parallel units each get their own .Release so one chart's `set` cannot race
+		// another's reads; the copies are checked for mutation after the join.
+		Map<String, Object> chartRelease = session.parallel ? session.isolatedRelease(releaseInfo) : releaseInfo;
 		Map<String, Object> context = new HashMap<>();
-		context.put("Values", mergedValues);
+		context.put("Values", chartRenderValues);
 		context.put("Chart", chart.getMetadata());
-		context.put("Release", releaseInfo);
+		context.put("Release", chartRelease);
 
 		// Add standard Helm objects
 		context.put("Capabilities", buildCapabilities(capabilities));
@@ -844,18 +1091,16 @@ public class Engine {
 		for (Chart dep : chart.getDependencies()) {
 			String depKey = (dep.getAlias() != null) ? dep.getAlias() : dep.getMetadata().getName();
 			@SuppressWarnings("unchecked")
-			Map<String, Object> subchartValues = (Map<String, Object>) mergedValues.getOrDefault(depKey,
+			Map<String, Object> subchartValues = (Map<String, Object>) chartRenderValues.getOrDefault(depKey,
 					new HashMap<>());
 			Map<String, Object> subchartContext = new HashMap<>();
 			subchartContext.put("Chart", dep.getMetadata());
 			subchartContext.put("Values", new Values(subchartValues));
-			subchartContext.put("Release", releaseInfo);
+			subchartContext.put("Release", chartRelease);
 			subcharts.put(depKey, subchartContext);
 		}
 		context.put("Subcharts", subcharts);
 
-		StringBuilder sb = new StringBuilder();
-
 		// Render subcharts first, then this chart's own templates, so that when an
 		// umbrella
 		// and a subchart emit a resource with the SAME name (e.g. grafana/oncall: the
@@ -864,8 +1109,8 @@ public class Engine {
 		// resource is the one that survives a kind+name dedup — matching Helm, whose
 		// manifest orders charts/<sub>/... before templates/... within each kind.
 		// Subchart
-		// values are sliced from subchartSliceValues (computed before any rendering), so
-		// order does not affect them.
+		// values are sliced from mergedValues, which templates never write to, so order
+		// does not affect them.
 		List<Dependency> parentDepMeta = (chart.getMetadata() != null) ? chart.getMetadata().getDependencies() : null;
 		for (Chart subchart : chart.getDependencies()) {
 			// Use alias as lookup key when set (alias takes precedence over chart name)
@@ -878,7 +1123,7 @@ public class Engine {
 			// subchart is skipped.
 			Dependency depMeta = findDependencyMetadata(parentDepMeta, subchart);
 			if (depMeta != null && depMeta.getCondition() != null && !depMeta.getCondition().isEmpty()) {
-				if (!evaluateDependencyCondition(depMeta.getCondition(), mergedValues)) {
+				if (!evaluateDependencyCondition(depMeta.getCondition(), chartRenderValues)) {
 					if (log.isDebugEnabled()) {
 						log.debug("Subchart {} disabled by condition '{}'", subchartName, depMeta.getCondition());
 					}
@@ -887,11 +1132,13 @@ public class Engine {
 			}
 
 			// Subcharts are only rendered if enabled in Values. Slice from the unpruned
-			// view so a parent's null override reaches the subchart and deletes its
-			// default.
+			// values so a parent's null override reaches the subchart and deletes its
+			// default. The slice is shared with the parent's tree: copy before adding to
+			// it.
+			Object slice = mergedValues.get(subchartName);
 			@SuppressWarnings("unchecked")
-			Map<String, Object> subchartOverrides = (Map<String, Object>) subchartSliceValues.getOrDefault(subchartName,
-					new HashMap<>());
+			Map<String, Object> subchartOverrides = (slice instanceof Map) ? (Map<String, Object>) slice
+					: new HashMap<>();
 
 			if (log.isDebugEnabled()) {
 				log.debug("Subchart {}: overrides={}, enabled={}", subchartName, subchartOverrides,
@@ -910,34 +1157,37 @@ public class Engine {
 
 			// In Helm, global values are deep-merged: parent globals override subchart
 			// globals
-			if (mergedValues.containsKey("global")) {
+			if (ownValues.containsKey("global")) {
 				@SuppressWarnings("unchecked")
-				Map<String, Object> parentGlobal = (Map<String, Object>) mergedValues.get("global");
+				Map<String, Object> parentGlobal = (Map<String, Object>) ownValues.get("global");
 				@SuppressWarnings("unchecked")
 				Map<String, Object> subGlobal = (Map<String, Object>) subchartOverrides.getOrDefault("global",
 						new HashMap<>());
+				subchartOverrides = new HashMap<>(subchartOverrides);
 				subchartOverrides.put("global", mergeValues(subGlobal, parentGlobal));
 			}
 
 			if (log.isDebugEnabled()) {
 				log.debug("Rendering subchart: {}", subchartName);
 			}
-			sb.append(renderWithSubcharts(subchart, subchartOverrides, releaseInfo, renderedCharts, depth + 1,
-					capabilities));
+			renderWithSubcharts(session, subchart, subchartOverrides, releaseInfo, renderedCharts, depth + 1,
+					capabilities, out);
 		}
 
 		// This chart's own templates render last (see the ordering note above).
-		renderChartTemplates(chart, context, sb);
-
-		return sb.toString();
+		renderChartTemplates(session, chart, context, out);
 	}
 
-	private void renderChartTemplates(Chart chart, Map<String, Object> context, StringBuilder sb) {
+	private void renderChartTemplates(RenderSession session, Chart chart, Map<String, Object> context,
+			ManifestSplitter out) {
 		// Library charts only provide named templates via include — do not render
 		// their .yaml files as standalone resources
 		if ("library".equals(chart.getMetadata().getType())) {
 			return;
 		}
+		// In a parallel session the templates are parsed here, in render order, and
+		// executed later as one unit against the namespace each would have seen.
+		RenderUnit unit = session.parallel ? new RenderUnit(chart, context) : null;
 		// Helm 4 executes templates in reverse alphabetical order so that
 		// zzz_*.yaml setup templates (e.g. istiod's zzz_profile.yaml which
 		// merges _internal_defaults into .Values) run before other templates.
@@ -954,55 +1204,163 @@ public class Engine {
 			if (base.startsWith("_") || "NOTES.txt".equals(base)) {
 				continue;
 			}
+			String helmStyleName = chart.getMetadata().getName() + "/templates/" + t.getName();
+			String rendered = null;
 			try {
-				String helmStyleName = chart.getMetadata().getName() + "/templates/" + t.getName();
-				parseWithCache(helmStyleName, t.getData());
-				StringWriter writer = new StringWriter();
-
-				// Share context across all template executions within a chart so that
-				// cross-template mutations via set $ "Values" propagate (Go Helm
-				// behavior)
-				@SuppressWarnings("unchecked")
-				Map<String, Object> templateMap = new HashMap<>((Map<String, Object>) context.get("Template"));
-				templateMap.put("Name", helmStyleName);
-				context.put("Template", templateMap);
-
-				factory.execute(helmStyleName, context, writer);
-				String rendered = writer.toString();
-				if (rendered != null && !rendered.isBlank()) {
-					// Emit a Helm-style source marker so the manifest records which
-					// template
-					// produced each document (enables `--show-only` / `--output-dir` and
-					// matches `helm template` output).
-					sb.append("# Source: ").append(helmStyleName).append('\n');
-					if (!rendered.trim().endsWith("---")) {
-						sb.append(rendered);
-						if (!rendered.endsWith("\n")) {
-							sb.append('\n');
-						}
-						sb.append("---\n");
-					}
-					else {
-						sb.append(rendered);
-					}
+				parseWithCache(session, helmStyleName, t.getData(), t.getDigest());
+				if (unit != null) {
+					unit.add(t, helmStyleName, session.namespaceSnapshot());
+				}
+				else {
+					rendered = executeTemplate(session.factory, helmStyleName, context);
 				}
 			}
-			catch (StackOverflowError ex) {
-				// Fail loudly instead of silently dropping the template from the
-				// manifest.
-				String chartName = chart.getMetadata().getName();
-				throw new TemplateRenderException("recursive template inclusion or too deep nesting while rendering "
-						+ "template '" + t.getName() + "' of chart '" + chartName + "'", ex, chartName, t.getName());
-			}
-			catch (Exception ex) {
-				String chartName = chart.getMetadata().getName();
-				if (log.isDebugEnabled()) {
-					log.debug("Failed to render chart '{}', template '{}': {}", chartName, t.getName(),
-							ex.getMessage());
+			catch (StackOverflowError | Exception ex) {
+				TemplateRenderException failure = renderFailure(chart, t, ex);
+				if (unit != null) {
+					// Run the templates planned before the failure first: sequentially,
+					// their errors would surface before this one.
+					unit.failure = failure;
+					submitUnit(session, unit);
 				}
-				throw new TemplateRenderException("Rendering failed: " + ex.getMessage(), ex, chartName, t.getName());
+				throw failure;
+			}
+			// Outside the try: a failure in the caller's sink is not a template error.
+			if (rendered != null) {
+				out.append(helmStyleName, rendered);
 			}
 		}
+		if (unit != null) {
+			submitUnit(session, unit);
+		}
+	}
+
+	/**
+	 * Executes one parsed template.
+	 * @return its output behind a {@code # Source:} marker and terminated by a
+	 * {@code ---} separator, or {@code null} if it rendered nothing
+	 */
+	private String executeTemplate(GoTemplate factory, String helmStyleName, Map<String, Object> context) {
+		StringWriter writer = new StringWriter();
+
+		// Share context across all template executions within a chart so that
+		// cross-template mutations via set $ "Values" propagate (Go Helm
+		// behavior)
+		@SuppressWarnings("unchecked")
+		Map<String, Object> templateMap = new HashMap<>((Map<String, Object>) context.get("Template"));
+		templateMap.put("Name", helmStyleName);
+		context.put("Template", templateMap);
+
+		factory.execute(helmStyleName, context, writer);
+		String rendered = writer.toString();
+		if (rendered == null || rendered.isBlank()) {
+			return null;
+		}
+		// Emit a Helm-style source marker so the manifest records which
+		// template
+		// produced each document (enables `--show-only` / `--output-dir` and
+		// matches `helm template` output).
+		StringBuilder sb = new StringBuilder(helmStyleName.length() + rendered.length() + 16);
+		sb.append("# Source: ").append(helmStyleName).append('\n');
+		if (!rendered.trim().endsWith("---")) {
+			sb.append(rendered);
+			if (!rendered.endsWith("\n")) {
+				sb.append('\n');
+			}
+			sb.append("---\n");
+		}
+		else {
+			sb.append(rendered);
+		}
+		return sb.toString();
+	}
+
+	private static TemplateRenderException renderFailure(Chart chart, Chart.Template t, Throwable ex) {
+		String chartName = chart.getMetadata().getName();
+		if (ex instanceof StackOverflowError) {
+			// Fail loudly instead of silently dropping the template from the
+			// manifest.
+			return new TemplateRenderException("recursive template inclusion or too deep nesting while rendering "
+					+ "template '" + t.getName() + "' of chart '" + chartName + "'", ex, chartName, t.getName());
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Failed to render chart '{}', template '{}': {}", chartName, t.getName(), ex.getMessage());
+		}
+		return new TemplateRenderException("Rendering failed: " + ex.getMessage(), ex, chartName, t.getName());
+	}
+
+	private void validateValues(Chart chart, Map<String, Object> values) {
+		try {
+			schemaValidator.validate(chart.getMetadata().getName(), chart.getValuesSchema(), values);
+		}
+		catch (SchemaValidationException ex) {
+			throw new TemplateRenderException("Values schema validation failed: " + ex.getMessage(), ex,
+					chart.getMetadata().getName(), null);
+		}
+	}
+
+	private void submitUnit(RenderSession session, RenderUnit unit) {
+		unit.output = subchartExecutor.submit(() -> executeUnit(unit));
+		session.units.add(unit);
+	}
+
+	// Runs on a subchart thread: runs the unit's check, or executes its templates in
+	// order, each against the namespace snapshot taken right after its parse, on a
+	// private template set.
+	private List<String> executeUnit(RenderUnit unit) {
+		if (unit.check != null) {
+			unit.check.run();
+			return List.of();
+		}
+		GoTemplate factory = newFactory(true);
+		Map<String, Node> loaded = null;
+		List<String> output = new ArrayList<>(unit.templates.size());
+		for (int i = 0; i < unit.templates.size(); i++) {
+			Chart.Template t = unit.templates.get(i);
+			Map<String, Node> namespace = unit.namespaces.get(i);
+			if (namespace != loaded) {
+				factory.getRootNodes().clear();
+				factory.getRootNodes().putAll(namespace);
+				loaded = namespace;
+			}
+			try {
+				output.add(executeTemplate(factory, unit.helmStyleNames.get(i), unit.context));
+			}
+			catch (StackOverflowError | Exception ex) {
+				throw renderFailure(unit.chart, t, ex);
+			}
+		}
+		if (unit.failure != null) {
+			throw unit.failure;
+		}
+		return output;
+	}
+
+	// Waits for the queued units in plan order (subcharts before their parent, the
+	// order the sequential render writes them in). The first failure in that order is
+	// rethrown as it would have been sequentially.
+	private void awaitUnits(RenderSession session) {
+		try {
+			for (RenderUnit unit : session.units) {
+				unit.rendered = unit.output.get();
+			}
+		}
+		catch (ExecutionException ex) {
+			session.units.forEach((unit) -> unit.output.cancel(true));
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(cause);
+		}
+		catch (InterruptedException ex) {
+			session.units.forEach((unit) -> unit.output.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Subchart render interrupted", ex);
+		}
 	}
 
 	/**
@@ -1194,14 +1552,13 @@ public class Engine {
 		Map<String, Object> current = map;
 		for (int i = 0; i < parts.length - 1; i++) {
 			Object next = current.get(parts[i]);
-			if (!(next instanceof Map<?, ?>)) {
-				Map<String, Object> newMap = new HashMap<>();
-				current.put(parts[i], newMap);
-				current = newMap;
-			}
-			else {
-				current = (Map<String, Object>) next;
-			}
+			// Copy each nested map on the way down instead of writing into it: below the
+			// top level these are the chart's own (cached) default maps, which concurrent
+			// renders of the same chart share and must never mutate.
+			Map<String, Object> copy = (next instanceof Map<?, ?>) ? new HashMap<>((Map<String, Object>) next)
+					: new HashMap<>();
+			current.put(parts[i], copy);
+			current = copy;
 		}
 		String lastKey = parts[parts.length - 1];
 		current.putIfAbsent(lastKey, value);
@@ -1294,72 +1651,6 @@ public class Engine {
 		return true;
 	}
 
-	/**
-	 * Returns a deep copy of the merged values normalised to Helm's value model: every
-	 * integer-typed number becomes a {@code Double} (Helm loads values via JSON, where
-	 * all numbers are {@code float64}), and — when {@code pruneNulls} is set (subchart
-	 * render) — null-valued map entries are dropped (Helm's "a null key removes it"
-	 * coalesce rule; the top-level chart keeps its nulls). Null elements inside lists are
-	 * preserved, as Helm only prunes table keys. A copy is made because
-	 * {@link #mergeValues} shares nested map references with cached chart values, which
-	 * must not be mutated.
-	 * @param values the merged values map
-	 * @param pruneNulls whether to drop null map entries (true for subcharts)
-	 * @return a normalised deep copy
-	 */
-	@SuppressWarnings("unchecked")
-	private Map<String, Object> prepareRenderValues(Map<String, Object> values, Map<String, Object> chartDefaults,
-			boolean pruneNulls, boolean boxNumbers) {
-		return (Map<String, Object>) prepareValueNode(values, chartDefaults, pruneNulls, boxNumbers);
-	}
-
-	@SuppressWarnings("unchecked")
-	private Object prepareValueNode(Object node, Object defaultNode, boolean pruneNulls, boolean boxNumbers) {
-		if (node instanceof Map) {
-			Map<String, Object> src = (Map<String, Object>) node;
-			Map<String, Object> defMap = (defaultNode instanceof Map) ? (Map<String, Object>) defaultNode : null;
-			Map<String, Object> out = new LinkedHashMap<>();
-			for (Map.Entry<String, Object> entry : src.entrySet()) {
-				Object value = entry.getValue();
-				// Helm's coalesce deletes a null only when the chart's own defaults
-				// declare
-				// that key (coalesceValues iterates c.Values, deleting matching null
-				// overrides). A standalone null — a --values null for a key the
-				// (sub)chart
-				// never declared — is never visited and is kept (#491). The blanket prune
-				// here previously dropped those too.
-				boolean deletesDefault = defMap != null && defMap.containsKey(entry.getKey());
-				if (pruneNulls && value == null && deletesDefault) {
-					continue;
-				}
-				Object dv = (defMap != null) ? defMap.get(entry.getKey()) : null;
-				out.put(entry.getKey(), prepareValueNode(value, dv, pruneNulls, boxNumbers));
-			}
-			return out;
-		}
-		if (node instanceof List) {
-			List<Object> src = (List<Object>) node;
-			List<Object> out = new ArrayList<>(src.size());
-			for (Object item : src) {
-				out.add(prepareValueNode(item, null, pruneNulls, boxNumbers));
-			}
-			return out;
-		}
-		// Helm's values numbers are all float64; integer types become Double so a direct
-		// interpolation matches Go's float formatting. Double/Float and BigDecimal are
-		// left
-		// as-is (already floating), and booleans/strings are untouched. When boxNumbers
-		// is
-		// false the leaf is already a prepared (boxed) value from an earlier pass — reuse
-		// it
-		// as-is (leaves are immutable, so sharing them across the two views is safe).
-		if (boxNumbers && (node instanceof Integer || node instanceof Long || node instanceof Short
-				|| node instanceof Byte || node instanceof BigInteger)) {
-			return ((Number) node).doubleValue();
-		}
-		return node;
-	}
-
 	private Map<String, Object> mergeValues(Map<String, Object> defaults, Map<String, Object> overrides) {
 		if (defaults == null) {
 			return new HashMap<>(overrides);
@@ -1387,4 +1678,221 @@ public class Engine {
 		return merged;
 	}
 
+	/**
+	 * Mutable state of a single render. Every render builds its own session (see
+	 * {@link #newSession(boolean)}), so renders running in parallel on the pool never
+	 * share a parsed-node namespace or collision bookkeeping; the engine itself holds
+	 * only configuration and the thread-safe {@link TemplateCache} /
+	 * {@link GoTemplateRegistry}.
+	 */
+	private static final class RenderSession {
+
+		// The per-render template set; its root-node map is the render's global define
+		// namespace.
+		private final GoTemplate factory;
+
+		// Chart version that owns each collected helm-style template key, so a collision
+		// keeps the template from the higher chart version (see collectAllTemplates).
+		private final Map<String, String> templateVersions = new HashMap<>();
+
+		// Content digest of each collected helm-style template key, carried from
+		// Chart.Template so the collect pass's parse reuses the loader's digest.
+		// Version-qualified collision extras have none and are digested on parse.
+		private final Map<String, String> templateDigests = new HashMap<>();
+
+		// Content digest last parsed under each template name, so the render pass can
+		// skip re-parsing a template the collect pass already parsed (see
+		// parseWithCache).
+		private final Map<String, String> parsedDigest = new HashMap<>();
+
+		// Parses recorded while compiling a chart (see Engine#compile); null when not
+		// recording or once a parse fails or removes a namespace entry.
+		private List<CompiledChart.ParseStep> recorded;
+
+		private boolean recording;
+
+		// Plan replayed while rendering a CompiledChart; null once the render diverges
+		// from it, after which every parse runs live.
+		private List<CompiledChart.ParseStep> replayPlan;
+
+		private int replayIndex;
+
+		// Rendering a CompiledChart, whose compile render already applied the chart's
+		// dependency aliases. Stays set after the replay diverges.
+		private boolean compiled;
+
+		// Parallel subchart render (see setSubchartThreads): the render pass only plans,
+		// queueing each chart's template execution in units, joined in order afterwards.
+		private boolean parallel;
+
+		private final List<RenderUnit> units = new ArrayList<>();
+
+		// The per-chart .Release copies handed out in a parallel render, checked against
+		// the original after the join.
+		private final List<Map<String, Object>> releases = new ArrayList<>();
+
+		// Last namespace snapshot, reused while the namespace is unchanged so a chart's
+		// units share one copy instead of one per template.
+		private Map<String, Node> snapshot;
+
+		private RenderSession(GoTemplate factory) {
+			this.factory = factory;
+		}
+
+		void startRecording() {
+			this.recorded = new ArrayList<>();
+			this.recording = true;
+		}
+
+		boolean isRecording() {
+			return recording;
+		}
+
+		// Keeps the plan recorded so far: replaying a prefix is still exact.
+		void stopRecording() {
+			this.recording = false;
+		}
+
+		// Identity, not equals: a re-parse that yields an equal-looking node still
+		// replaces it, and replay must replace it too.
+		@SuppressWarnings("PMD.CompareObjectsWithEquals")
+		void record(String name, String digest, Map<String, Node> before) {
+			Map<String, Node> after = factory.getRootNodes();
+			if (!after.keySet().containsAll(before.keySet())) {
+				// A replayed delta can only add or replace entries.
+				stopRecording();
+				return;
+			}
+			Map<String, Node> delta = new HashMap<>();
+			for (Map.Entry<String, Node> entry : after.entrySet()) {
+				if (before.get(entry.getKey()) != entry.getValue()) {
+					delta.put(entry.getKey(), entry.getValue());
+				}
+			}
+			recorded.add(new CompiledChart.ParseStep(name, digest, Collections.unmodifiableMap(delta),
+					parsedDigest.get(name)));
+		}
+
+		void replayFrom(List<CompiledChart.ParseStep> plan) {
+			this.replayPlan = plan;
+			this.replayIndex = 0;
+			this.compiled = true;
+		}
+
+		boolean isCompiled() {
+			return compiled;
+		}
+
+		// Applies the next recorded step if it is this very parse. The namespace before
+		// this call matches the one at record time (every earlier step matched), so the
+		// recorded delta leaves it exactly as a live parse would.
+		boolean replay(String name, String digest) {
+			if (replayPlan == null) {
+				return false;
+			}
+			if (replayIndex < replayPlan.size()) {
+				CompiledChart.ParseStep step = replayPlan.get(replayIndex);
+				if (step.name().equals(name) && step.digest().equals(digest)) {
+					replayIndex++;
+					factory.getRootNodes().putAll(step.delta());
+					if (step.memoDigest() != null) {
+						parsedDigest.put(name, step.memoDigest());
+					}
+					return true;
+				}
+			}
+			replayPlan = null;
+			return false;
+		}
+
+		Map<String, Object> isolatedRelease(Map<String, Object> releaseInfo) {
+			Map<String, Object> copy = new LinkedHashMap<>(releaseInfo);
+			releases.add(copy);
+			return copy;
+		}
+
+		boolean releaseMutated(Map<String, Object> releaseInfo) {
+			for (Map<String, Object> copy : releases) {
+				if (!copy.equals(releaseInfo)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		// Identity, not equals: a re-parse replaces a node with an equal-looking one.
+		@SuppressWarnings("PMD.CompareObjectsWithEquals")
+		Map<String, Node> namespaceSnapshot() {
+			Map<String, Node> current = factory.getRootNodes();
+			if (snapshot != null && snapshot.size() == current.size()) {
+				boolean unchanged = true;
+				for (Map.Entry<String, Node> entry : current.entrySet()) {
+					if (snapshot.get(entry.getKey()) != entry.getValue()) {
+						unchanged = false;
+						break;
+					}
+				}
+				if (unchanged) {
+					return snapshot;
+				}
+			}
+			snapshot = Collections.unmodifiableMap(new LinkedHashMap<>(current));
+			return snapshot;
+		}
+
+	}
+
+	/**
+	 * One chart's template executions in a parallel subchart render: the templates to run
+	 * in order, each with the define namespace it was parsed into, and the chart's
+	 * context (shared by its templates, so {@code set $ "Values"} still propagates within
+	 * the chart).
+	 */
+	private static final class RenderUnit {
+
+		private final Chart chart;
+
+		private final Map<String, Object> context;
+
+		private final List<Chart.Template> templates = new ArrayList<>();
+
+		private final List<String> helmStyleNames = new ArrayList<>();
+
+		private final List<Map<String, Node>> namespaces = new ArrayList<>();
+
+		// Parse failure that ended planning of this chart; thrown once the templates
+		// planned before it have run.
+		private TemplateRenderException failure;
+
+		// Set instead of templates for a unit that only runs a check (values schema
+		// validation) in its place in the render order.
+		private Runnable check;
+
+		// The execution on the subchart pool, and its result once awaited: each
+		// template's output (null where it rendered nothing).
+		private Future<List<String>> output;
+
+		private List<String> rendered;
+
+		private RenderUnit(Chart chart, Map<String, Object> context) {
+			this.chart = chart;
+			this.context = context;
+		}
+
+		void add(Chart.Template template, String helmStyleName, Map<String, Node> namespace) {
+			templates.add(template);
+			helmStyleNames.add(helmStyleName);
+			namespaces.add(namespace);
+		}
+
+		void writeTo(ManifestSplitter out) {
+			for (int i = 0; i < rendered.size(); i++) {
+				if (rendered.get(i) != null) {
+					out.append(helmStyleNames.get(i), rendered.get(i));
+				}
+			}
+		}
+
+	}
+
 }
@@ -7,6 +7,7 @@ import org.alexmond.jhelm.core.exception.KubernetesOperationException;
 import org.alexmond.jhelm.core.exception.ReleaseStorageException;
 import org.alexmond.jhelm.core.exception.WaitTimeoutException;
 import org.alexmond.jhelm.core.model.Capabilities;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
 
@@ -38,7 +39,24 @@ public interface KubeService {
 	Optional<Release> getRelease(String name, String namespace);
 
 	/**
-	 * Returns the latest revision of every release in a namespace.
+	 * Returns the latest revision of a release, decoding only what {@code profile} asks
+	 * for; fields the profile leaves out come back empty. The default implementation
+	 * decodes the whole release.
+	 * @param name the release name
+	 * @param namespace the namespace to look in
+	 * @param profile how much of the release to decode
+	 * @return the latest release revision, or {@link Optional#empty()} if not found
+	 * @throws KubernetesOperationException if the Kubernetes API cannot be reached
+	 */
+	default Optional<Release> getRelease(String name, String namespace, DecodeProfile profile) {
+		return getRelease(name, namespace);
+	}
+
+	/**
+	 * Returns the latest revision of every release in a namespace. Listed releases are
+	 * decoded as {@link DecodeProfile#SUMMARY}: no manifest, and a chart with metadata and
+	 * values but no templates, files or schema; {@link #getRelease(String, String)}
+	 * returns the full release.
 	 * @param namespace the namespace to list
 	 * @return the releases found, or an empty list if there are none
 	 * @throws KubernetesOperationException if the Kubernetes API cannot be reached
@@ -47,7 +65,7 @@ public interface KubeService {
 
 	/**
 	 * Returns the latest revision of every release across all namespaces (Helm
-	 * {@code list --all-namespaces}).
+	 * {@code list --all-namespaces}), as summaries like {@link #listReleases(String)}.
 	 * @return the releases found, or an empty list if there are none
 	 * @throws KubernetesOperationException if the Kubernetes API cannot be reached
 	 */
@@ -80,6 +98,19 @@ public interface KubeService {
 	 */
 	List<Release> getReleaseHistory(String name, String namespace);
 
+	/**
+	 * Returns all stored revisions of a release, newest first, decoding only what
+	 * {@code profile} asks for. The default implementation decodes every revision whole.
+	 * @param name the release name
+	 * @param namespace the namespace to look in
+	 * @param profile how much of each revision to decode
+	 * @return the release history, or an empty list if the release is unknown
+	 * @throws KubernetesOperationException if the Kubernetes API cannot be reached
+	 */
+	default List<Release> getReleaseHistory(String name, String namespace, DecodeProfile profile) {
+		return getReleaseHistory(name, namespace);
+	}
+
 	/**
 	 * Deletes every stored revision of a release.
 	 * @param name the release name
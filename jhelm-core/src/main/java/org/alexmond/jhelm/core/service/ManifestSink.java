@@ -0,0 +1,49 @@
+package org.alexmond.jhelm.core.service;
+
+import java.util.Map;
+
+import org.alexmond.jhelm.core.model.Capabilities;
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.model.ReleaseContext;
+import org.alexmond.jhelm.core.util.RenderedManifest;
+
+/**
+ * Receives the documents of a render one at a time, as
+ * {@link Engine#render(Chart, Map, ReleaseContext, Capabilities, ManifestSink)} produces
+ * them, so a caller can write or apply a manifest without holding all of it in memory.
+ *
+ * <p>
+ * Documents arrive in manifest order and are exactly those of the string
+ * {@link Engine#render(Chart, Map, ReleaseContext) render}: joining their text with
+ * {@code "\n---\n"} and a trailing newline reproduces it. The engine calls the sink from
+ * its render thread, one document at a time; an exception thrown by the sink aborts the
+ * render and propagates to the caller unchanged. A render that fails may already have
+ * delivered the documents rendered before the failure.
+ */
+@FunctionalInterface
+public interface ManifestSink {
+
+	/**
+	 * Accepts the next document of the manifest.
+	 * @param document the document: the template it was rendered from and its cleaned
+	 * text (including its {@code # Source:} marker when it is the template's first
+	 * document)
+	 */
+	void accept(RenderedManifest.Document document);
+
+	/**
+	 * Returns a sink that collects documents into the manifest string the string
+	 * {@code render} returns.
+	 * @param manifest the builder to append to
+	 * @return the joining sink
+	 */
+	static ManifestSink joining(StringBuilder manifest) {
+		return (document) -> {
+			if (!manifest.isEmpty()) {
+				manifest.append("---\n");
+			}
+			manifest.append(document.text()).append('\n');
+		};
+	}
+
+}
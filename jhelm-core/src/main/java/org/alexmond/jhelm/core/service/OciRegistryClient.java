@@ -7,16 +7,29 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import lombok.extern.slf4j.Slf4j;
+import org.alexmond.jhelm.core.metrics.JhelmMetrics;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.classic.methods.HttpPatch;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
@@ -24,12 +37,22 @@ import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.FileEntity;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.json.JsonMapper;
 
 /**
  * Low-level OCI (Open Container Initiative) registry client for pulling and pushing Helm
  * chart blobs via the OCI distribution API.
+ *
+ * <p>
+ * Bearer tokens are cached per registry, repository, scope and credentials until
+ * shortly before the {@code expires_in} the token endpoint reported, so consecutive
+ * pulls from one repository share a token instead of fetching one each.
+ *
+ * <p>
+ * Blobs larger than one chunk are uploaded from disk in chunks and downloads are
+ * streamed to disk; either transfer resumes where it stopped when it fails midway.
  */
 @Slf4j
 class OciRegistryClient {
@@ -40,6 +63,48 @@ class OciRegistryClient {
 
 	private final boolean blockPrivateNetworks;
 
+	// The distribution spec's default token lifetime, for token responses that omit
+	// expires_in.
+	private static final long DEFAULT_TOKEN_TTL_SECONDS = 60;
+
+	// A cached token is dropped this long before its reported expiry, so it is never
+	// sent just as it lapses.
+	private static final long TOKEN_EXPIRY_MARGIN_SECONDS = 10;
+
+	private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+
+	private LongSupplier nanoClock = System::nanoTime;
+
+	// Blobs up to this size are uploaded in one PUT, larger ones in PATCH chunks of it.
+	static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	// Retries of failed chunks or interrupted downloads, per blob transfer.
+	static final int MAX_TRANSFER_RETRIES = 3;
+
+	private static final String UPLOAD = "upload";
+
+	private static final String DOWNLOAD = "download";
+
+	// The committed range reported for an upload in progress, "0-<last byte>".
+	private static final Pattern UPLOAD_RANGE = Pattern.compile("^(?:bytes=)?\\d+-(\\d+)$");
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	// Optional metrics; blob transfers and retries are recorded when set.
+	private JhelmMetrics metrics;
+
+	private record CachedToken(String token, long expiresAt) {
+	}
+
+	/**
+	 * A manifest and its digest: the registry's {@code Docker-Content-Digest}, or the
+	 * SHA-256 of the bytes served when the registry sent none.
+	 * @param body the manifest as a JSON tree, or {@code null} for an empty response
+	 * @param digest the manifest digest, {@code sha256:<hex>}
+	 */
+	record Manifest(JsonNode body, String digest) {
+	}
+
 	OciRegistryClient(CloseableHttpClient httpClient) {
 		this(httpClient, false);
 	}
@@ -84,8 +149,21 @@ class OciRegistryClient {
 		UrlSecurity.validateFetchUrl(URI.create(url), blockPrivateNetworks);
 	}
 
+	void setClockForTest(LongSupplier nanoClock) {
+		this.nanoClock = nanoClock;
+	}
+
+	void setChunkSizeForTest(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	void setMetrics(JhelmMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	/**
-	 * Fetches a bearer token from the registry's token endpoint.
+	 * Returns a bearer token from the registry's token endpoint, reusing a cached one
+	 * for the same registry, repository, scope and credentials while it is still valid.
 	 * @param registry the registry hostname
 	 * @param path the repository path
 	 * @param auth optional Basic auth credentials
@@ -93,6 +171,21 @@ class OciRegistryClient {
 	 * @return the bearer token, or {@code null} if unavailable
 	 */
 	String fetchToken(String registry, String path, String auth, String scope) throws IOException {
+		String key = registry + "|" + path + "|" + scope + "|" + ((auth != null) ? auth : "");
+		CachedToken cached = this.tokens.get(key);
+		if (cached != null && cached.expiresAt() - this.nanoClock.getAsLong() > 0) {
+			return cached.token();
+		}
+		CachedToken fetched = requestToken(registry, path, auth, scope);
+		if (fetched == null) {
+			this.tokens.remove(key);
+			return null;
+		}
+		this.tokens.put(key, fetched);
+		return fetched.token();
+	}
+
+	private CachedToken requestToken(String registry, String path, String auth, String scope) throws IOException {
 		String tokenService = registry;
 		String tokenUrlPrefix = "https://" + registry + "/v2/token";
 		if ("registry-1.docker.io".equals(registry)) {
@@ -120,10 +213,20 @@ class OciRegistryClient {
 				if (entity != null) {
 					try (InputStream in = entity.getContent()) {
 						JsonNode node = jsonMapper.readTree(in);
+						String token = null;
 						if (node.has("token")) {
-							return node.get("token").asString();
+							token = node.get("token").asString();
+						}
+						else if (node.has("access_token")) {
+							token = node.get("access_token").asString();
 						}
-						return node.has("access_token") ? node.get("access_token").asString() : null;
+						if (token == null) {
+							return null;
+						}
+						long ttl = node.has("expires_in") ? node.get("expires_in").asLong()
+								: DEFAULT_TOKEN_TTL_SECONDS;
+						long valid = Math.max(ttl - TOKEN_EXPIRY_MARGIN_SECONDS, 0);
+						return new CachedToken(token, this.nanoClock.getAsLong() + TimeUnit.SECONDS.toNanos(valid));
 					}
 				}
 				return null;
@@ -259,6 +362,17 @@ class OciRegistryClient {
 	 * @return the manifest as a JSON tree
 	 */
 	JsonNode getManifest(String manifestUrl, String token, String accept) throws IOException {
+		return fetchManifest(manifestUrl, token, accept).body();
+	}
+
+	/**
+	 * Fetches a manifest from the registry together with its digest.
+	 * @param manifestUrl full URL to the manifest endpoint
+	 * @param token bearer token for authentication
+	 * @param accept optional Accept header value
+	 * @return the manifest and its digest
+	 */
+	Manifest fetchManifest(String manifestUrl, String token, String accept) throws IOException {
 		validateOciUrl(manifestUrl);
 		HttpGet httpGet = new HttpGet(manifestUrl);
 		if (token != null) {
@@ -270,15 +384,61 @@ class OciRegistryClient {
 
 		return httpClient.execute(httpGet, (response) -> {
 			HttpEntity entity = response.getEntity();
-			if (entity != null) {
-				try (InputStream in = entity.getContent()) {
-					return jsonMapper.readTree(in);
-				}
+			if (entity == null) {
+				return new Manifest(null, null);
 			}
-			return null;
+			byte[] bytes;
+			try (InputStream in = entity.getContent()) {
+				bytes = in.readAllBytes();
+			}
+			Header digest = response.getFirstHeader("Docker-Content-Digest");
+			return new Manifest(jsonMapper.readTree(bytes),
+					(digest != null && digest.getValue() != null) ? digest.getValue() : sha256Digest(bytes));
 		});
 	}
 
+	/**
+	 * Asks the registry for the current digest of a manifest with a {@code HEAD}
+	 * request, without downloading it.
+	 * @param manifestUrl full URL to the manifest endpoint
+	 * @param token bearer token for authentication
+	 * @param accept optional Accept header value; use the one the manifest was fetched
+	 * with, since the digest depends on the media type served
+	 * @return the {@code Docker-Content-Digest}, or {@code null} if the registry did not
+	 * answer 200 with one
+	 */
+	String headManifestDigest(String manifestUrl, String token, String accept) {
+		validateOciUrl(manifestUrl);
+		HttpHead head = new HttpHead(manifestUrl);
+		if (token != null) {
+			head.setHeader("Authorization", "Bearer " + token);
+		}
+		if (accept != null) {
+			head.setHeader("Accept", accept);
+		}
+		try {
+			return httpClient.execute(head, (response) -> {
+				Header digest = response.getFirstHeader("Docker-Content-Digest");
+				return (response.getCode() == 200 && digest != null) ? digest.getValue() : null;
+			});
+		}
+		catch (IOException ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Manifest HEAD for {} failed: {}", manifestUrl, ex.getMessage());
+			}
+			return null;
+		}
+	}
+
+	private static String sha256Digest(byte[] bytes) {
+		try {
+			return "sha256:" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not available", ex);
+		}
+	}
+
 	/**
 	 * Checks whether a manifest represents an OCI image index (multi-platform).
 	 */
@@ -329,15 +489,39 @@ class OciRegistryClient {
 	private static final int MAX_BLOB_REDIRECTS = 10;
 
 	/**
-	 * Downloads a blob to a local file, following redirects.
+	 * Downloads a blob to a local file, following redirects. A transfer cut off midway
+	 * is resumed with a {@code Range} request from the bytes already written, up to
+	 * {@link #MAX_TRANSFER_RETRIES} times; a server that ignores the range and answers
+	 * {@code 200} sends the blob from the start again.
 	 */
 	void downloadBlob(String urlStr, String token, File destFile) throws IOException {
-		downloadBlob(urlStr, token, destFile, MAX_BLOB_REDIRECTS);
-	}
-
-	private void downloadBlob(String urlStr, String token, File destFile, int redirectsLeft) throws IOException {
 		destFile.getParentFile().mkdirs();
+		long start = System.nanoTime();
+		int retries = 0;
+		while (true) {
+			try {
+				downloadBlob(urlStr, token, destFile, (retries > 0) ? destFile.length() : 0, MAX_BLOB_REDIRECTS);
+				break;
+			}
+			catch (InterruptedTransferException ex) {
+				if (++retries > MAX_TRANSFER_RETRIES) {
+					throw ex;
+				}
+				recordRetry(DOWNLOAD);
+				if (log.isWarnEnabled()) {
+					log.warn("Blob download from {} interrupted ({}); resuming at byte {}", urlStr,
+							ex.getCause().getMessage(), destFile.length());
+				}
+			}
+		}
+		recordTransfer(DOWNLOAD, destFile.length(), start);
+		if (log.isInfoEnabled()) {
+			log.info("OCI Blob downloaded successfully to {}", destFile.getAbsolutePath());
+		}
+	}
 
+	private void downloadBlob(String urlStr, String token, File destFile, long offset, int redirectsLeft)
+			throws IOException {
 		// SSRF guard on the initial URL and every redirect target: a registry-controlled
 		// Location could otherwise point at file://, localhost, or the cloud-metadata IP.
 		try {
@@ -351,6 +535,9 @@ class OciRegistryClient {
 		if (token != null) {
 			httpGet.setHeader("Authorization", "Bearer " + token);
 		}
+		if (offset > 0) {
+			httpGet.setHeader("Range", "bytes=" + offset + "-");
+		}
 
 		httpClient.execute(httpGet, (response) -> {
 			int status = response.getCode();
@@ -365,21 +552,37 @@ class OciRegistryClient {
 				// Drop the bearer token on redirect — the target is often a different
 				// host
 				// (e.g. a signed CDN URL) that must not receive our registry credentials.
-				downloadBlob(location.getValue(), null, destFile, redirectsLeft - 1);
+				downloadBlob(location.getValue(), null, destFile, offset, redirectsLeft - 1);
 				return null;
 			}
+			if (offset > 0 && status != 200 && status != 206) {
+				throw new IOException("Failed to resume OCI blob download from " + urlStr + ": HTTP " + status);
+			}
 
 			HttpEntity entity = response.getEntity();
 			if (entity != null) {
-				try (InputStream in = entity.getContent(); FileOutputStream fos = new FileOutputStream(destFile)) {
-					in.transferTo(fos);
+				boolean append = offset > 0 && status == 206;
+				try (InputStream in = entity.getContent();
+						FileOutputStream fos = new FileOutputStream(destFile, append)) {
+					try {
+						in.transferTo(fos);
+					}
+					catch (IOException ex) {
+						throw new InterruptedTransferException(ex);
+					}
 				}
 			}
 			return null;
 		});
-		if (log.isInfoEnabled()) {
-			log.info("OCI Blob downloaded successfully to {}", destFile.getAbsolutePath());
+	}
+
+	// A blob transfer that failed after it started, so it can be resumed.
+	private static final class InterruptedTransferException extends IOException {
+
+		InterruptedTransferException(IOException cause) {
+			super(cause.getMessage(), cause);
 		}
+
 	}
 
 	/**
@@ -404,9 +607,78 @@ class OciRegistryClient {
 	}
 
 	/**
-	 * Uploads a blob to the registry using the two-step initiate + PUT flow.
+	 * Uploads an in-memory blob to the registry using the two-step initiate + PUT flow.
+	 * Meant for small blobs such as the chart config; stream larger ones from disk with
+	 * {@link #uploadBlob(String, String, String, String, Path)}.
 	 */
 	void uploadBlob(String registry, String path, String token, String digest, byte[] content) throws IOException {
+		long start = System.nanoTime();
+		String uploadUrl = initiateUpload(registry, path, token);
+		completeUpload(uploadUrl, token, digest, new ByteArrayEntity(content, ContentType.APPLICATION_OCTET_STREAM));
+		recordTransfer(UPLOAD, content.length, start);
+	}
+
+	/**
+	 * Uploads a blob streamed from a file. A blob no larger than one chunk goes up in a
+	 * single {@code PUT}; a larger one is sent as a series of {@code PATCH} chunks and
+	 * closed with an empty {@code PUT}, so at most one chunk is held in memory. A failed
+	 * chunk is retried from the offset the registry reports it has committed, up to
+	 * {@link #MAX_TRANSFER_RETRIES} times for the whole upload.
+	 * @param registry the registry hostname
+	 * @param path the repository path
+	 * @param token bearer token for authentication
+	 * @param digest the blob digest, {@code sha256:<hex>}
+	 * @param file the blob contents
+	 */
+	void uploadBlob(String registry, String path, String token, String digest, Path file) throws IOException {
+		long start = System.nanoTime();
+		long size = Files.size(file);
+		String uploadUrl = initiateUpload(registry, path, token);
+		if (size <= this.chunkSize) {
+			completeUpload(uploadUrl, token, digest,
+					new FileEntity(file.toFile(), ContentType.APPLICATION_OCTET_STREAM));
+			recordTransfer(UPLOAD, size, start);
+			return;
+		}
+
+		byte[] chunk = new byte[this.chunkSize];
+		long offset = 0;
+		int retries = 0;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (offset < size) {
+				int length = readChunk(channel, offset, chunk);
+				try {
+					uploadUrl = patchChunk(registry, uploadUrl, token, chunk, length, offset);
+					offset += length;
+				}
+				catch (IOException ex) {
+					if (++retries > MAX_TRANSFER_RETRIES) {
+						throw ex;
+					}
+					recordRetry(UPLOAD);
+					UploadStatus status = uploadStatus(registry, uploadUrl, token);
+					if (status.committed() < 0) {
+						// The registry's answer does not say where to resume, so the blob
+						// starts over in a new session.
+						uploadUrl = initiateUpload(registry, path, token);
+						offset = 0;
+					}
+					else {
+						uploadUrl = status.location();
+						offset = status.committed();
+					}
+					if (log.isWarnEnabled()) {
+						log.warn("Blob chunk upload failed ({}); resuming at byte {} of {}", ex.getMessage(), offset,
+								size);
+					}
+				}
+			}
+		}
+		completeUpload(uploadUrl, token, digest, null);
+		recordTransfer(UPLOAD, size, start);
+	}
+
+	private String initiateUpload(String registry, String path, String token) throws IOException {
 		String initiateUrl = "https://" + registry + "/v2/" + path + "/blobs/uploads/";
 		validateOciUrl(initiateUrl);
 		HttpPost post = new HttpPost(initiateUrl);
@@ -414,7 +686,7 @@ class OciRegistryClient {
 			post.setHeader("Authorization", "Bearer " + token);
 		}
 
-		String uploadUrl = httpClient.execute(post, (response) -> {
+		return httpClient.execute(post, (response) -> {
 			int status = response.getCode();
 			if (status != 202) {
 				throw new IOException("Failed to initiate blob upload: HTTP " + status);
@@ -423,19 +695,74 @@ class OciRegistryClient {
 			if (location == null) {
 				throw new IOException("No Location header in upload initiation response");
 			}
-			String loc = location.getValue();
-			return loc.startsWith("http") ? loc : "https://" + registry + loc;
+			return resolveLocation(registry, location.getValue());
 		});
+	}
 
-		String putUrl = uploadUrl.contains("?") ? uploadUrl + "&digest=" + digest : uploadUrl + "?digest=" + digest;
+	// Sends one chunk and returns the upload URL to continue with.
+	private String patchChunk(String registry, String uploadUrl, String token, byte[] chunk, int length, long offset)
+			throws IOException {
 		// The upload URL comes from the registry's Location header and may point at a
 		// different host — re-validate before sending credentials/content there.
+		validateOciUrl(uploadUrl);
+		HttpPatch patch = new HttpPatch(uploadUrl);
+		if (token != null) {
+			patch.setHeader("Authorization", "Bearer " + token);
+		}
+		patch.setHeader("Content-Range", offset + "-" + (offset + length - 1));
+		patch.setEntity(new ByteArrayEntity(chunk, 0, length, ContentType.APPLICATION_OCTET_STREAM));
+
+		return httpClient.execute(patch, (response) -> {
+			int status = response.getCode();
+			if (status != 202) {
+				throw new IOException("Failed to upload blob chunk at byte " + offset + ": HTTP " + status);
+			}
+			Header location = response.getFirstHeader("Location");
+			return (location != null) ? resolveLocation(registry, location.getValue()) : uploadUrl;
+		});
+	}
+
+	// Asks the registry how much of an upload it holds, from the Range header of a GET
+	// on the upload URL ("0-<last byte>", absent when nothing was committed). The
+	// reference registry also answers "0-0" for an empty upload, which cannot be told
+	// apart from one committed byte; that is reported as -1.
+	private UploadStatus uploadStatus(String registry, String uploadUrl, String token) throws IOException {
+		validateOciUrl(uploadUrl);
+		HttpGet get = new HttpGet(uploadUrl);
+		if (token != null) {
+			get.setHeader("Authorization", "Bearer " + token);
+		}
+		return httpClient.execute(get, (response) -> {
+			int status = response.getCode();
+			if (status != 204 && status != 200) {
+				throw new IOException("Failed to read blob upload status: HTTP " + status);
+			}
+			Header location = response.getFirstHeader("Location");
+			String next = (location != null) ? resolveLocation(registry, location.getValue()) : uploadUrl;
+			Header range = response.getFirstHeader("Range");
+			if (range == null || range.getValue() == null) {
+				return new UploadStatus(next, 0);
+			}
+			Matcher matcher = UPLOAD_RANGE.matcher(range.getValue());
+			if (!matcher.find()) {
+				throw new IOException("Malformed blob upload Range: " + range.getValue());
+			}
+			long last = Long.parseLong(matcher.group(1));
+			return new UploadStatus(next, (last == 0) ? -1 : last + 1);
+		});
+	}
+
+	// Closes an upload with PUT ?digest=, carrying the whole blob or, after chunks, none.
+	private void completeUpload(String uploadUrl, String token, String digest, HttpEntity body) throws IOException {
+		String putUrl = uploadUrl.contains("?") ? uploadUrl + "&digest=" + digest : uploadUrl + "?digest=" + digest;
 		validateOciUrl(putUrl);
 		HttpPut put = new HttpPut(putUrl);
 		if (token != null) {
 			put.setHeader("Authorization", "Bearer " + token);
 		}
-		put.setEntity(new ByteArrayEntity(content, ContentType.APPLICATION_OCTET_STREAM));
+		if (body != null) {
+			put.setEntity(body);
+		}
 
 		httpClient.execute(put, (response) -> {
 			int status = response.getCode();
@@ -446,6 +773,39 @@ class OciRegistryClient {
 		});
 	}
 
+	private static String resolveLocation(String registry, String location) {
+		return location.startsWith("http") ? location : "https://" + registry + location;
+	}
+
+	private static int readChunk(FileChannel channel, long offset, byte[] chunk) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(chunk);
+		long position = offset;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				break;
+			}
+			position += read;
+		}
+		return buffer.position();
+	}
+
+	// The bytes committed, or -1 when the registry's answer is ambiguous.
+	private record UploadStatus(String location, long committed) {
+	}
+
+	private void recordTransfer(String direction, long bytes, long start) {
+		if (this.metrics != null) {
+			this.metrics.recordOciBlobTransfer(direction, bytes, System.nanoTime() - start);
+		}
+	}
+
+	private void recordRetry(String direction) {
+		if (this.metrics != null) {
+			this.metrics.recordOciBlobRetry(direction);
+		}
+	}
+
 	/**
 	 * Pushes a manifest to the registry.
 	 */
@@ -0,0 +1,364 @@
+package org.alexmond.jhelm.core.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.alexmond.jhelm.core.util.ChartVersions;
+
+/**
+ * A repository's {@code index.yaml} in a compact, read-only binary form: the sidecar
+ * file {@code <repo>-index.idx} kept next to the YAML in the repository cache.
+ *
+ * <p>
+ * The file holds a chart table sorted by name (looked up by binary search), one version
+ * table per chart sorted newest first by {@link ChartVersions#compare(String, String)}
+ * (the order Helm's {@code SortEntries} gives), and a pool of interned UTF-8 strings
+ * the tables point into. Only a version's version, appVersion, description, first URL
+ * and digest are kept — all that listing, searching and pulling need. The file is
+ * memory-mapped, so an open index costs almost no heap however large the source YAML
+ * was, and a lookup decodes only the strings it returns. Reads use absolute offsets, so
+ * one index may be shared by many threads.
+ *
+ * <p>
+ * The header records the size and modification time of the YAML it was built from;
+ * {@link #isCurrentFor(File)} tells a caller when the YAML has since been replaced and
+ * the sidecar must be rebuilt.
+ */
+public final class RepoIndex {
+
+	private static final int MAGIC = 0x4A484958; // "JHIX"
+
+	private static final int FORMAT_VERSION = 1;
+
+	// magic, format, source length, source mtime, chart count, version count, and the
+	// offsets of the chart table, version table and string pool
+	private static final int HEADER_BYTES = 44;
+
+	// name, first version, version count
+	private static final int CHART_BYTES = 12;
+
+	// version, appVersion, description, url, digest
+	private static final int VERSION_BYTES = 20;
+
+	private static final int NULL_REF = -1;
+
+	private final ByteBuffer buffer;
+
+	private final long sourceLength;
+
+	private final long sourceModified;
+
+	private final int chartCount;
+
+	private final int chartTable;
+
+	private final int versionTable;
+
+	private final int strings;
+
+	private RepoIndex(ByteBuffer buffer) throws IOException {
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not a repository index file");
+		}
+		if (buffer.getInt(4) != FORMAT_VERSION) {
+			throw new IOException("Unsupported repository index format " + buffer.getInt(4));
+		}
+		this.buffer = buffer;
+		this.sourceLength = buffer.getLong(8);
+		this.sourceModified = buffer.getLong(16);
+		this.chartCount = buffer.getInt(24);
+		this.chartTable = buffer.getInt(32);
+		this.versionTable = buffer.getInt(36);
+		this.strings = buffer.getInt(40);
+	}
+
+	/**
+	 * Maps an index file into memory. The file may be replaced afterwards (the mapping
+	 * keeps the old contents) but must not be rewritten in place.
+	 * @param file the {@code .idx} file
+	 * @return the opened index
+	 * @throws IOException if the file cannot be read or is not an index of this format
+	 */
+	public static RepoIndex open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new RepoIndex(mapped);
+		}
+	}
+
+	/**
+	 * Tells whether this index was built from the current contents of {@code source},
+	 * judged by its size and modification time.
+	 * @param source the {@code index.yaml} the index was built from
+	 * @return whether the index is still current
+	 */
+	public boolean isCurrentFor(File source) {
+		return source.isFile() && source.length() == this.sourceLength
+				&& source.lastModified() == this.sourceModified;
+	}
+
+	/**
+	 * @return the number of charts in the index
+	 */
+	public int chartCount() {
+		return this.chartCount;
+	}
+
+	/**
+	 * @param chart a chart position, {@code 0 <= chart < chartCount()}
+	 * @return the chart's name; positions are in name order
+	 */
+	public String chartName(int chart) {
+		return string(this.buffer.getInt(chartRecord(chart)));
+	}
+
+	/**
+	 * @param chartName the chart name
+	 * @return the chart's position, or {@code -1} if the index does not list it
+	 */
+	public int findChart(String chartName) {
+		int low = 0;
+		int high = this.chartCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = chartName(mid).compareTo(chartName);
+			if (cmp < 0) {
+				low = mid + 1;
+			}
+			else if (cmp > 0) {
+				high = mid - 1;
+			}
+			else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param chart a chart position
+	 * @return the number of versions listed for it (at least one)
+	 */
+	public int versionCount(int chart) {
+		return this.buffer.getInt(chartRecord(chart) + 8);
+	}
+
+	/**
+	 * @param chart a chart position
+	 * @param index a version position, {@code 0} being the newest
+	 * @return the version entry
+	 */
+	public Entry version(int chart, int index) {
+		int record = this.versionTable + (this.buffer.getInt(chartRecord(chart) + 4) + index) * VERSION_BYTES;
+		return new Entry(string(this.buffer.getInt(record)), string(this.buffer.getInt(record + 4)),
+				string(this.buffer.getInt(record + 8)), string(this.buffer.getInt(record + 12)),
+				string(this.buffer.getInt(record + 16)));
+	}
+
+	/**
+	 * @param chartName the chart name
+	 * @return every version of the chart, newest first; empty if the index does not list
+	 * it
+	 */
+	public List<Entry> versions(String chartName) {
+		int chart = findChart(chartName);
+		if (chart < 0) {
+			return List.of();
+		}
+		int count = versionCount(chart);
+		List<Entry> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(version(chart, i));
+		}
+		return result;
+	}
+
+	/**
+	 * Finds one version of a chart, decoding only version strings until it matches.
+	 * @param chartName the chart name
+	 * @param version the exact version string
+	 * @return the entry, or {@code null} if the index does not list that version
+	 */
+	public Entry find(String chartName, String version) {
+		int chart = findChart(chartName);
+		if (chart < 0) {
+			return null;
+		}
+		int first = this.versionTable + this.buffer.getInt(chartRecord(chart) + 4) * VERSION_BYTES;
+		int count = versionCount(chart);
+		for (int i = 0; i < count; i++) {
+			if (version.equals(string(this.buffer.getInt(first + i * VERSION_BYTES)))) {
+				return version(chart, i);
+			}
+		}
+		return null;
+	}
+
+	private int chartRecord(int chart) {
+		return this.chartTable + chart * CHART_BYTES;
+	}
+
+	private String string(int ref) {
+		if (ref == NULL_REF) {
+			return null;
+		}
+		int at = this.strings + ref;
+		int length = this.buffer.getInt(at);
+		byte[] bytes = new byte[length];
+		this.buffer.get(at + 4, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * One chart version as the index lists it.
+	 *
+	 * @param version the chart version
+	 * @param appVersion the app version (may be {@code null})
+	 * @param description the description (may be {@code null})
+	 * @param url the first download URL, possibly relative to the repo (may be
+	 * {@code null})
+	 * @param digest the archive digest (may be {@code null})
+	 */
+	public record Entry(String version, String appVersion, String description, String url, String digest) {
+	}
+
+	/**
+	 * Collects index entries in any order and writes them as an index file.
+	 */
+	public static final class Builder {
+
+		private final Map<String, List<Row>> charts = new TreeMap<>();
+
+		private final Map<String, Integer> refs = new HashMap<>();
+
+		private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+
+		private final DataOutputStream poolOut = new DataOutputStream(this.pool);
+
+		private int versionCount;
+
+		/**
+		 * Adds one version of a chart. Strings repeated across entries (a description
+		 * shared by every version, say) are stored once.
+		 * @param chartName the chart name
+		 * @param version the chart version
+		 * @param appVersion the app version (may be {@code null})
+		 * @param description the description (may be {@code null})
+		 * @param url the first download URL (may be {@code null})
+		 * @param digest the archive digest (may be {@code null})
+		 * @return this builder
+		 * @throws IOException never in practice; the pool is written to memory
+		 */
+		public Builder add(String chartName, String version, String appVersion, String description, String url,
+				String digest) throws IOException {
+			int[] row = { ref(version), ref(appVersion), ref(description), ref(url), ref(digest) };
+			this.charts.computeIfAbsent(chartName, (k) -> new ArrayList<>()).add(new Row(version, row));
+			ref(chartName);
+			this.versionCount++;
+			return this;
+		}
+
+		/**
+		 * Adds one version of a chart, as {@link RepoIndexReader} reads it.
+		 * @param chartName the chart name
+		 * @param entry the version
+		 * @throws IOException never in practice; the pool is written to memory
+		 */
+		public void add(String chartName, Entry entry) throws IOException {
+			add(chartName, entry.version(), entry.appVersion(), entry.description(), entry.url(), entry.digest());
+		}
+
+		/**
+		 * Writes the index to {@code target}, replacing it atomically where the file
+		 * system allows, so a reader never maps a half-written file.
+		 * @param target the {@code .idx} file
+		 * @param source the {@code index.yaml} the entries came from, whose size and
+		 * modification time are recorded for {@link RepoIndex#isCurrentFor(File)}
+		 * @throws IOException if the file cannot be written
+		 */
+		public void write(Path target, File source) throws IOException {
+			int chartTable = HEADER_BYTES;
+			int versionTable = chartTable + this.charts.size() * CHART_BYTES;
+			int strings = versionTable + this.versionCount * VERSION_BYTES;
+			Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(),
+					".tmp");
+			try {
+				try (OutputStream fileOut = Files.newOutputStream(tmp);
+						DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+					out.writeInt(MAGIC);
+					out.writeInt(FORMAT_VERSION);
+					out.writeLong(source.length());
+					out.writeLong(source.lastModified());
+					out.writeInt(this.charts.size());
+					out.writeInt(this.versionCount);
+					out.writeInt(chartTable);
+					out.writeInt(versionTable);
+					out.writeInt(strings);
+					int first = 0;
+					for (Map.Entry<String, List<Row>> chart : this.charts.entrySet()) {
+						out.writeInt(this.refs.get(chart.getKey()));
+						out.writeInt(first);
+						out.writeInt(chart.getValue().size());
+						first += chart.getValue().size();
+					}
+					for (List<Row> rows : this.charts.values()) {
+						rows.sort((a, b) -> ChartVersions.compare(b.version(), a.version()));
+						for (Row row : rows) {
+							for (int ref : row.refs()) {
+								out.writeInt(ref);
+							}
+						}
+					}
+					this.pool.writeTo(out);
+				}
+				try {
+					Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			finally {
+				Files.deleteIfExists(tmp);
+			}
+		}
+
+		private int ref(String value) throws IOException {
+			if (value == null) {
+				return NULL_REF;
+			}
+			Integer ref = this.refs.get(value);
+			if (ref == null) {
+				ref = this.pool.size();
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				this.poolOut.writeInt(bytes.length);
+				this.poolOut.write(bytes);
+				this.refs.put(value, ref);
+			}
+			return ref;
+		}
+
+		private record Row(String version, int[] refs) {
+		}
+
+	}
+
+}
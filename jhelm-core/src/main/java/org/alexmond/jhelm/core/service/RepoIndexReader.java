@@ -0,0 +1,249 @@
+package org.alexmond.jhelm.core.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.api.lowlevel.Parse;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.events.ScalarEvent;
+
+/**
+ * Reads a repository {@code index.yaml} as a stream of snakeyaml-engine parser events,
+ * without building the document tree. Memory use is bounded by the entries a caller
+ * keeps, not by the size of the file: {@link #read(File, EntryHandler)} hands every
+ * chart version to a handler (the compact {@link RepoIndex} is built this way in one
+ * pass), and {@link #versions(File, String)} keeps only one chart's versions and stops
+ * reading once it has them.
+ *
+ * <p>
+ * Only the fields the compact index keeps are decoded — {@code version},
+ * {@code appVersion}, {@code description}, the first of {@code urls} and {@code digest};
+ * everything else is skipped event by event. Scalars are taken as written, so a version
+ * such as {@code 1.10} stays {@code "1.10"}; a plain {@code null}, {@code ~} or empty
+ * scalar reads as {@code null}.
+ */
+public final class RepoIndexReader {
+
+	private static final Set<String> NULLS = Set.of("", "~", "null", "Null", "NULL");
+
+	// The whole index is streamed, so the code-point limit that guards tree loading
+	// against huge documents does not apply.
+	private static final LoadSettings SETTINGS = LoadSettings.builder().setCodePointLimit(Integer.MAX_VALUE).build();
+
+	private RepoIndexReader() {
+	}
+
+	/**
+	 * Receives chart versions in file order.
+	 */
+	@FunctionalInterface
+	public interface EntryHandler {
+
+		/**
+		 * Accepts one chart version.
+		 * @param chartName the chart name
+		 * @param entry the version
+		 * @throws IOException if the handler fails
+		 */
+		void accept(String chartName, RepoIndex.Entry entry) throws IOException;
+
+	}
+
+	/**
+	 * Streams every chart version of an index.
+	 * @param indexFile the {@code index.yaml}
+	 * @param handler receives each version
+	 * @throws IOException if the file cannot be read or is not valid YAML
+	 */
+	public static void read(File indexFile, EntryHandler handler) throws IOException {
+		scan(indexFile, null, handler);
+	}
+
+	/**
+	 * Collects one chart's versions, reading the index only as far as that chart.
+	 * @param indexFile the {@code index.yaml}
+	 * @param chartName the chart name
+	 * @return the chart's versions in file order; empty if the index does not list it
+	 * @throws IOException if the file cannot be read or is not valid YAML
+	 */
+	public static List<RepoIndex.Entry> versions(File indexFile, String chartName) throws IOException {
+		List<RepoIndex.Entry> versions = new ArrayList<>();
+		scan(indexFile, chartName, (name, entry) -> versions.add(entry));
+		return versions;
+	}
+
+	private static void scan(File indexFile, String onlyChart, EntryHandler handler) throws IOException {
+		try (Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+			Iterator<Event> events = new Parse(SETTINGS).parseReader(reader).iterator();
+			new Scanner(events, onlyChart, handler).document();
+		}
+		catch (RuntimeException ex) {
+			// snakeyaml-engine reports malformed input with unchecked YamlEngineException
+			throw new IOException("Failed to read repository index " + indexFile + ": " + ex.getMessage(), ex);
+		}
+	}
+
+	// Recursive descent over the event stream: stream > document > root mapping >
+	// entries mapping > per-chart sequence > version mappings.
+	private static final class Scanner {
+
+		private final Iterator<Event> events;
+
+		private final String onlyChart;
+
+		private final EntryHandler handler;
+
+		private Scanner(Iterator<Event> events, String onlyChart, EntryHandler handler) {
+			this.events = events;
+			this.onlyChart = onlyChart;
+			this.handler = handler;
+		}
+
+		void document() throws IOException {
+			Event event = next();
+			while (event.getEventId() == Event.ID.StreamStart || event.getEventId() == Event.ID.DocumentStart) {
+				event = next();
+			}
+			if (event.getEventId() != Event.ID.MappingStart) {
+				return;
+			}
+			while ((event = next()).getEventId() != Event.ID.MappingEnd) {
+				if (event instanceof ScalarEvent key && "entries".equals(key.getValue())) {
+					if (entries()) {
+						return;
+					}
+				}
+				else {
+					skip(event);
+					skip(next());
+				}
+			}
+		}
+
+		// Returns true once the requested chart has been read, so reading can stop.
+		private boolean entries() throws IOException {
+			Event event = next();
+			if (event.getEventId() != Event.ID.MappingStart) {
+				skip(event);
+				return false;
+			}
+			while ((event = next()).getEventId() != Event.ID.MappingEnd) {
+				String chartName = scalar(event);
+				Event value = next();
+				boolean wanted = chartName != null && (this.onlyChart == null || this.onlyChart.equals(chartName));
+				if (!wanted || value.getEventId() != Event.ID.SequenceStart) {
+					skip(value);
+					continue;
+				}
+				while ((event = next()).getEventId() != Event.ID.SequenceEnd) {
+					if (event.getEventId() == Event.ID.MappingStart) {
+						this.handler.accept(chartName, version());
+					}
+					else {
+						skip(event);
+					}
+				}
+				if (this.onlyChart != null) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private RepoIndex.Entry version() throws IOException {
+			String version = null;
+			String appVersion = null;
+			String description = null;
+			String url = null;
+			String digest = null;
+			Event event;
+			while ((event = next()).getEventId() != Event.ID.MappingEnd) {
+				String key = scalar(event);
+				Event value = next();
+				if (key == null) {
+					skip(value);
+					continue;
+				}
+				switch (key) {
+					case "version" -> version = value(value);
+					case "appVersion" -> appVersion = value(value);
+					case "description" -> description = value(value);
+					case "digest" -> digest = value(value);
+					case "urls" -> url = firstUrl(value);
+					default -> skip(value);
+				}
+			}
+			return new RepoIndex.Entry(version, appVersion, description, url, digest);
+		}
+
+		private String firstUrl(Event value) {
+			if (value.getEventId() != Event.ID.SequenceStart) {
+				skip(value);
+				return null;
+			}
+			String first = null;
+			Event event;
+			while ((event = next()).getEventId() != Event.ID.SequenceEnd) {
+				if (first == null && event instanceof ScalarEvent) {
+					first = value(event);
+				}
+				else {
+					skip(event);
+				}
+			}
+			return first;
+		}
+
+		// A scalar's value, null for null scalars and for anything that is not a scalar
+		// (which is skipped).
+		private String value(Event event) {
+			if (event instanceof ScalarEvent scalar) {
+				return (scalar.isPlain() && NULLS.contains(scalar.getValue())) ? null : scalar.getValue();
+			}
+			skip(event);
+			return null;
+		}
+
+		private String scalar(Event event) {
+			if (event instanceof ScalarEvent scalar) {
+				return scalar.getValue();
+			}
+			skip(event);
+			return null;
+		}
+
+		// Skips the rest of the node that starts with event.
+		private void skip(Event event) {
+			if (event.getEventId() != Event.ID.MappingStart && event.getEventId() != Event.ID.SequenceStart) {
+				return;
+			}
+			int depth = 1;
+			while (depth > 0) {
+				Event.ID id = next().getEventId();
+				if (id == Event.ID.MappingStart || id == Event.ID.SequenceStart) {
+					depth++;
+				}
+				else if (id == Event.ID.MappingEnd || id == Event.ID.SequenceEnd) {
+					depth--;
+				}
+			}
+		}
+
+		private Event next() {
+			if (!this.events.hasNext()) {
+				throw new IllegalStateException("unexpected end of index");
+			}
+			return this.events.next();
+		}
+
+	}
+
+}
@@ -12,11 +12,11 @@ import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 
 import java.io.BufferedInputStream;
 import java.util.zip.GZIPInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -25,6 +25,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
@@ -32,13 +33,21 @@ import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.regex.Pattern;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 import tools.jackson.databind.JsonNode;
 
@@ -78,21 +87,33 @@ public class RepoManager {
 	// auto-configuration from jhelm.repository-cache-path. Null -> standard resolution.
 	private String repositoryCacheOverride;
 
-	// Parsed repo indexes (the full entries map of an index.yaml) keyed by repo name.
-	// A repo's index can be tens of MB (e.g. bitnami), so this is bounded by an LRU:
-	// resolving many charts across many repos (the parity suite, or a long-running
-	// server) would otherwise retain every repo's parsed index at once and exhaust the
-	// heap. Access-ordered + size-capped, wrapped synchronized because dependency
-	// resolution hits it from several threads (a stale double-parse is harmless,
-	// corruption is not). Evicted indexes are re-parsed from the on-disk cache file.
-	private static final int INDEX_CACHE_MAX = 16;
+	// Opened repo indexes keyed by repo name: each maps its <repo>-index.idx sidecar
+	// (see RepoIndex), so a cached index costs almost no heap and every configured repo
+	// can stay open, however large its index.yaml. Checked against the YAML on each use
+	// and rebuilt when the YAML has been replaced.
+	private final Map<String, RepoIndex> indexCache = new ConcurrentHashMap<>();
 
-	private final Map<String, Map<?, ?>> indexCache = Collections.synchronizedMap(new LinkedHashMap<>(32, 0.75f, true) {
-		@Override
-		protected boolean removeEldestEntry(Map.Entry<String, Map<?, ?>> eldest) {
-			return size() > INDEX_CACHE_MAX;
-		}
-	});
+	// How many repositories updateAll fetches at once; also the connection pool's
+	// per-route limit, so repos served from one host are not queued behind each other,
+	// and DependencyResolver's per-host limit.
+	static final int UPDATE_PARALLELISM = 8;
+
+	// Resolved OCI tags keyed by registry/path:tag, so a repeated pull of a tag whose
+	// chart layer is already cached costs no request within OCI_TAG_TTL_NANOS and one
+	// manifest HEAD after it.
+	private final Map<String, OciTag> ociTags = new ConcurrentHashMap<>();
+
+	private LongSupplier nanoClock = System::nanoTime;
+
+	// How long a resolved OCI tag is trusted before it is revalidated.
+	static final long OCI_TAG_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+	private static final String OCI_MANIFEST_V1 = "application/vnd.oci.image.manifest.v1+json";
+
+	// Keys of the <repo>-index.validators file kept next to each cached index.
+	private static final String ETAG = "etag";
+
+	private static final String LAST_MODIFIED = "last-modified";
 
 	/**
 	 * Creates a manager for the default Helm repositories.yaml, no OCI auth, TLS
@@ -168,6 +189,7 @@ public class RepoManager {
 	 */
 	public void setMetrics(JhelmMetrics metrics) {
 		this.metrics = metrics;
+		this.ociClient.setMetrics(metrics);
 	}
 
 	/**
@@ -180,6 +202,11 @@ public class RepoManager {
 		this.chartDownloaders = (chartDownloaders != null) ? List.copyOf(chartDownloaders) : List.of();
 	}
 
+	// The metrics service, or null; DependencyResolver records downloads on it too.
+	JhelmMetrics getMetrics() {
+		return metrics;
+	}
+
 	private void recordChartPull(String source, JhelmMetrics.IoRunnable op) throws IOException {
 		if (metrics == null) {
 			op.run();
@@ -193,6 +220,13 @@ public class RepoManager {
 		this.httpClient = client;
 		this.httpClientFactory = new RepoHttpClientFactory(client, insecureSkipTlsVerify, blockPrivateNetworks);
 		this.ociClient = new OciRegistryClient(client, blockPrivateNetworks);
+		this.ociClient.setClockForTest(this.nanoClock);
+		this.ociClient.setMetrics(this.metrics);
+	}
+
+	void setClockForTest(LongSupplier nanoClock) {
+		this.nanoClock = nanoClock;
+		this.ociClient.setClockForTest(nanoClock);
 	}
 
 	/**
@@ -277,6 +311,7 @@ public class RepoManager {
 		httpClient = HttpClients.custom()
 			.setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
 				.setDnsResolver(new SsrfGuardingDnsResolver(blockPrivateNetworks))
+				.setMaxConnPerRoute(UPDATE_PARALLELISM)
 				.build())
 			.build();
 		httpClientFactory = new RepoHttpClientFactory(httpClient, insecureSkipTlsVerify, blockPrivateNetworks);
@@ -447,6 +482,8 @@ public class RepoManager {
 	// escape the cache directory when the index is written.
 	private static final Pattern SAFE_REPO_NAME = Pattern.compile("^[A-Za-z0-9._-]+$");
 
+	private static final Pattern SHA256_HEX = Pattern.compile("^[0-9a-f]{64}$");
+
 	private static void validateRepoName(String repoName) {
 		if (repoName == null || repoName.isBlank() || ".".equals(repoName) || "..".equals(repoName)
 				|| !SAFE_REPO_NAME.matcher(repoName).matches()) {
@@ -460,6 +497,16 @@ public class RepoManager {
 		return new File(getCacheDir(), repoName + "-index.yaml");
 	}
 
+	private File getIndexValidatorsFile(String repoName) {
+		validateRepoName(repoName);
+		return new File(getCacheDir(), repoName + "-index.validators");
+	}
+
+	private File getIndexSidecarFile(String repoName) {
+		validateRepoName(repoName);
+		return new File(getCacheDir(), repoName + "-index.idx");
+	}
+
 	File getChartCacheDir() {
 		File dir = new File(getCacheDir(), "charts");
 		dir.mkdirs();
@@ -471,6 +518,13 @@ public class RepoManager {
 		return new File(getChartCacheDir(), hex + ".tgz");
 	}
 
+	// Extracted chart trees, one read-only directory per archive digest.
+	File getExtractedChartsDir() {
+		File dir = new File(getChartCacheDir(), "extracted");
+		dir.mkdirs();
+		return dir;
+	}
+
 	String computeFileSha256(File file) throws IOException {
 		try {
 			MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -525,7 +579,32 @@ public class RepoManager {
 		}
 	}
 
+	/**
+	 * Refreshes a repository's cached index. The request is conditional on the
+	 * {@code ETag}/{@code Last-Modified} validators saved by the previous update, so an
+	 * unchanged index answers {@code 304 Not Modified} and is neither downloaded nor
+	 * re-parsed.
+	 * @param name the repository name
+	 * @throws IOException if the repository is unknown or its index cannot be fetched
+	 */
 	public void updateRepo(String name) throws IOException {
+		long start = System.nanoTime();
+		String outcome = "error";
+		long bytes = 0;
+		try {
+			bytes = refreshIndex(name);
+			outcome = (bytes < 0) ? "not-modified" : "updated";
+		}
+		finally {
+			if (metrics != null) {
+				metrics.recordRepoUpdate(name, outcome, System.nanoTime() - start, Math.max(bytes, 0));
+			}
+		}
+	}
+
+	// Fetches one repo's index.yaml into the cache; returns the bytes downloaded, or -1
+	// when the server reported the cached copy still current.
+	private long refreshIndex(String name) throws IOException {
 		RepositoryConfig.Repository repo = getRepository(name);
 		String repoUrl = (repo != null) ? repo.getUrl() : null;
 		if (repoUrl == null) {
@@ -536,82 +615,172 @@ public class RepoManager {
 			log.info("Updating repository '{}' from {}", name, indexUrl);
 		}
 
+		File indexFile = getIndexCacheFile(name);
+		File validatorsFile = getIndexValidatorsFile(name);
 		HttpGet httpGet = new HttpGet(indexUrl);
 		httpGet.setHeader("User-Agent", "jhelm");
+		if (indexFile.exists()) {
+			Properties validators = readValidators(validatorsFile);
+			if (validators.getProperty(ETAG) != null) {
+				httpGet.setHeader("If-None-Match", validators.getProperty(ETAG));
+			}
+			if (validators.getProperty(LAST_MODIFIED) != null) {
+				httpGet.setHeader("If-Modified-Since", validators.getProperty(LAST_MODIFIED));
+			}
+		}
 
-		httpClientFactory.executeGet(httpGet, repo, (response) -> {
+		long bytes = httpClientFactory.executeGet(httpGet, repo, (response) -> {
 			int statusCode = response.getCode();
+			if (statusCode == 304 && indexFile.exists()) {
+				return -1L;
+			}
 			if (statusCode != 200) {
 				throw new IOException("Failed to download index from " + indexUrl + ": " + statusCode + " "
 						+ response.getReasonPhrase());
 			}
+			// Drop the old validators first: if the download dies midway they must not
+			// keep answering 304 for an index that was never replaced.
+			Files.deleteIfExists(validatorsFile.toPath());
+			long written = 0;
 			HttpEntity entity = response.getEntity();
 			if (entity != null) {
-				try (InputStream in = entity.getContent();
-						OutputStream out = new FileOutputStream(getIndexCacheFile(name))) {
-					in.transferTo(out);
+				// Downloaded beside the index and renamed over it, so neither a failed
+				// transfer nor a concurrent reader ever sees a partial index.
+				Path partial = Files.createTempFile(getCacheDir().toPath(), "." + name + "-index-", ".tmp");
+				try {
+					try (InputStream in = entity.getContent(); OutputStream out = Files.newOutputStream(partial)) {
+						written = in.transferTo(out);
+					}
+					Files.move(partial, indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+							StandardCopyOption.REPLACE_EXISTING);
+				}
+				finally {
+					Files.deleteIfExists(partial);
 				}
 			}
-			return null;
+			Properties validators = new Properties();
+			putHeader(validators, ETAG, response.getFirstHeader("ETag"));
+			putHeader(validators, LAST_MODIFIED, response.getFirstHeader("Last-Modified"));
+			writeValidators(validatorsFile, validators);
+			return written;
 		});
-		this.indexCache.remove(name);
+		if (bytes < 0) {
+			if (log.isInfoEnabled()) {
+				log.info("Repository '{}' index not modified", name);
+			}
+			return bytes;
+		}
+		// Convert the fresh index now, so the first lookup after an update maps it
+		// instead of parsing the YAML.
+		if (indexFile.exists()) {
+			this.indexCache.put(name, buildIndex(name, indexFile));
+		}
 		if (log.isInfoEnabled()) {
 			log.info("Repository '{}' index updated", name);
 		}
+		return bytes;
 	}
 
+	private static void putHeader(Properties validators, String key, Header header) {
+		if (header != null && header.getValue() != null && !header.getValue().isBlank()) {
+			validators.setProperty(key, header.getValue());
+		}
+	}
+
+	private static Properties readValidators(File file) {
+		Properties validators = new Properties();
+		if (file.isFile()) {
+			try (InputStream in = new FileInputStream(file)) {
+				validators.load(in);
+			}
+			catch (IOException ex) {
+				// Unreadable validators only cost an unconditional download.
+				validators.clear();
+			}
+		}
+		return validators;
+	}
+
+	private static void writeValidators(File file, Properties validators) throws IOException {
+		if (validators.isEmpty()) {
+			Files.deleteIfExists(file.toPath());
+			return;
+		}
+		try (OutputStream out = new FileOutputStream(file)) {
+			validators.store(out, null);
+		}
+	}
+
+	/**
+	 * Updates every configured repository, several at a time: each repo is fetched on its
+	 * own virtual thread, a bounded number at once, through the shared pooled client. A
+	 * repo that fails is logged and skipped.
+	 * @throws IOException if the repository configuration cannot be read
+	 */
 	public void updateAll() throws IOException {
 		RepositoryConfig config = loadConfig();
-		for (RepositoryConfig.Repository r : config.getRepositories()) {
+		Semaphore permits = new Semaphore(UPDATE_PARALLELISM);
+		List<Future<?>> updates = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (RepositoryConfig.Repository r : config.getRepositories()) {
+				updates.add(executor.submit(() -> {
+					permits.acquireUninterruptibly();
+					try {
+						updateRepo(r.getName());
+					}
+					catch (IOException ex) {
+						if (log.isWarnEnabled()) {
+							log.warn("Failed to update repo {}: {}", r.getName(), ex.getMessage());
+						}
+					}
+					finally {
+						permits.release();
+					}
+				}));
+			}
+		}
+		for (Future<?> update : updates) {
 			try {
-				updateRepo(r.getName());
+				update.get();
 			}
-			catch (IOException ex) {
-				if (log.isWarnEnabled()) {
-					log.warn("Failed to update repo {}: {}", r.getName(), ex.getMessage());
+			catch (ExecutionException ex) {
+				if (ex.getCause() instanceof RuntimeException runtime) {
+					throw runtime;
 				}
+				if (ex.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw new IOException(ex.getCause());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while updating repositories", ex);
 			}
 		}
 	}
 
 	public List<ChartVersion> listCharts(String repoName) throws IOException {
-		Map<?, ?> entries = loadIndexEntries(repoName);
-		List<ChartVersion> result = new ArrayList<>();
-		for (Map.Entry<?, ?> entry : entries.entrySet()) {
-			String chartName = String.valueOf(entry.getKey());
-			if (entry.getValue() instanceof List<?> list && !list.isEmpty()) {
-				Object first = list.getFirst();
-				if (first instanceof Map<?, ?> m) {
-					String version = asString(m.get("version"));
-					String appVersion = asString(m.get("appVersion"));
-					String description = asString(m.get("description"));
-					result.add(new ChartVersion(repoName + "/" + chartName, version, appVersion, description));
-				}
-			}
+		RepoIndex index = loadIndex(repoName);
+		List<ChartVersion> result = new ArrayList<>(index.chartCount());
+		for (int chart = 0; chart < index.chartCount(); chart++) {
+			result.add(toChartVersion(repoName, index.chartName(chart), index.version(chart, 0)));
 		}
 		result.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
 		return result;
 	}
 
 	public List<ChartVersion> getChartVersions(String repoName, String chartName) throws IOException {
-		Map<?, ?> entries = loadIndexEntries(repoName);
 		List<ChartVersion> result = new ArrayList<>();
-		Object chartListObj = entries.get(chartName);
-		if (!(chartListObj instanceof List<?> list)) {
-			return result;
-		}
-		for (Object o : list) {
-			if (o instanceof Map<?, ?> m) {
-				String version = asString(m.get("version"));
-				String appVersion = asString(m.get("appVersion"));
-				String description = asString(m.get("description"));
-				result.add(new ChartVersion(repoName + "/" + chartName, version, appVersion, description));
-			}
+		for (RepoIndex.Entry entry : loadIndex(repoName).versions(chartName)) {
+			result.add(toChartVersion(repoName, chartName, entry));
 		}
-		result.sort((a, b) -> safeCompareVersions(b.getChartVersion(), a.getChartVersion()));
 		return result;
 	}
 
+	private static ChartVersion toChartVersion(String repoName, String chartName, RepoIndex.Entry entry) {
+		return new ChartVersion(repoName + "/" + chartName, entry.version(), entry.appVersion(), entry.description());
+	}
+
 	/**
 	 * Finds every version of a chart across <em>all</em> configured repositories.
 	 *
@@ -666,58 +835,102 @@ public class RepoManager {
 		return matches.isEmpty() ? Optional.empty() : Optional.of(matches.getFirst());
 	}
 
-	private Map<?, ?> loadIndexEntries(String repoName) throws IOException {
-		Map<?, ?> cached = this.indexCache.get(repoName);
-		if (cached == null) {
-			cached = parseIndexEntries(repoName);
-			this.indexCache.put(repoName, cached);
+	/**
+	 * Returns a repo's compact index, opening its sidecar or building it from the cached
+	 * {@code index.yaml} when the sidecar is missing or older than the YAML. A repo with
+	 * no cached YAML has its index downloaded into the cache first.
+	 */
+	private RepoIndex loadIndex(String repoName) throws IOException {
+		File indexFile = getIndexCacheFile(repoName);
+		RepoIndex cached = this.indexCache.get(repoName);
+		if (cached != null && cached.isCurrentFor(indexFile)) {
+			if (metrics != null) {
+				metrics.recordIndexHit();
+			}
+			return cached;
+		}
+		if (metrics != null) {
+			metrics.recordIndexMiss();
+		}
+		if (!indexFile.exists()) {
+			downloadIndex(repoName, indexFile);
 		}
-		return cached;
+		RepoIndex index = openIndex(repoName, indexFile);
+		this.indexCache.put(repoName, index);
+		return index;
 	}
 
-	private Map<?, ?> parseIndexEntries(String repoName) throws IOException {
-		File indexFile = getIndexCacheFile(repoName);
-		InputStream indexIn;
-		if (indexFile.exists()) {
-			indexIn = new FileInputStream(indexFile);
-		}
-		else {
-			RepositoryConfig.Repository repo = getRepository(repoName);
-			String repoUrl = (repo != null) ? repo.getUrl() : null;
-			if (repoUrl == null) {
-				throw new IOException("Repository name is required. Found: " + repoName);
+	private RepoIndex openIndex(String repoName, File indexFile) throws IOException {
+		File sidecar = getIndexSidecarFile(repoName);
+		if (sidecar.isFile()) {
+			try {
+				RepoIndex index = RepoIndex.open(sidecar.toPath());
+				if (index.isCurrentFor(indexFile)) {
+					return index;
+				}
 			}
-			String indexUrl = repoUrl.endsWith("/") ? repoUrl + "index.yaml" : repoUrl + "/index.yaml";
-			if (log.isInfoEnabled()) {
-				log.info("Downloading index from {} ...", indexUrl);
+			catch (IOException ex) {
+				if (log.isDebugEnabled()) {
+					log.debug("Rebuilding unreadable index {}: {}", sidecar, ex.getMessage());
+				}
 			}
+		}
+		return buildIndex(repoName, indexFile);
+	}
 
-			HttpGet httpGet = new HttpGet(indexUrl);
-			httpGet.setHeader("User-Agent", "jhelm");
+	private RepoIndex buildIndex(String repoName, File indexFile) throws IOException {
+		long start = System.nanoTime();
+		RepoIndex.Builder builder = new RepoIndex.Builder();
+		RepoIndexReader.read(indexFile, builder::add);
+		if (metrics != null) {
+			metrics.recordIndexParse(System.nanoTime() - start);
+		}
+		File sidecar = getIndexSidecarFile(repoName);
+		builder.write(sidecar.toPath(), indexFile);
+		return RepoIndex.open(sidecar.toPath());
+	}
 
-			byte[] indexData = httpClientFactory.executeGet(httpGet, repo, (response) -> {
-				int statusCode = response.getCode();
-				if (statusCode != 200) {
-					throw new IOException("Failed to download index from " + indexUrl + ": " + statusCode);
-				}
-				HttpEntity entity = response.getEntity();
-				if (entity != null) {
-					return entity.getContent().readAllBytes();
-				}
-				else {
-					throw new IOException("Empty response from " + indexUrl);
-				}
-			});
-			indexIn = new ByteArrayInputStream(indexData);
+	/**
+	 * Looks up the url and digest of one chart version in a repo's cached index, for a
+	 * pull. A repo with no cached {@code index.yaml} yields {@code null} (the chart URL is
+	 * then derived from the repo URL) rather than downloading the index.
+	 */
+	private RepoIndex.Entry findIndexEntry(String repoName, String chartName, String version) throws IOException {
+		if (!getIndexCacheFile(repoName).exists()) {
+			return null;
 		}
-		try (InputStream in = indexIn) {
-			Map<?, ?> root = yamlMapper.readValue(in, Map.class);
-			Object entriesObj = root.get("entries");
-			if (entriesObj instanceof Map<?, ?> entries) {
-				return entries;
-			}
-			return Map.of();
+		RepoIndex.Entry entry = loadIndex(repoName).find(chartName, version);
+		return (entry != null && entry.url() != null) ? entry : null;
+	}
+
+	private void downloadIndex(String repoName, File indexFile) throws IOException {
+		RepositoryConfig.Repository repo = getRepository(repoName);
+		String repoUrl = (repo != null) ? repo.getUrl() : null;
+		if (repoUrl == null) {
+			throw new IOException("Repository name is required. Found: " + repoName);
 		}
+		String indexUrl = repoUrl.endsWith("/") ? repoUrl + "index.yaml" : repoUrl + "/index.yaml";
+		if (log.isInfoEnabled()) {
+			log.info("Downloading index from {} ...", indexUrl);
+		}
+
+		HttpGet httpGet = new HttpGet(indexUrl);
+		httpGet.setHeader("User-Agent", "jhelm");
+
+		byte[] indexData = httpClientFactory.executeGet(httpGet, repo, (response) -> {
+			int statusCode = response.getCode();
+			if (statusCode != 200) {
+				throw new IOException("Failed to download index from " + indexUrl + ": " + statusCode);
+			}
+			HttpEntity entity = response.getEntity();
+			if (entity != null) {
+				return entity.getContent().readAllBytes();
+			}
+			else {
+				throw new IOException("Empty response from " + indexUrl);
+			}
+		});
+		Files.write(indexFile.toPath(), indexData);
 	}
 
 	/**
@@ -732,10 +945,6 @@ public class RepoManager {
 		return ChartVersions.compare(v1, v2);
 	}
 
-	private String asString(Object o) {
-		return (o != null) ? String.valueOf(o) : null;
-	}
-
 	/**
 	 * Unified pull that handles both repo-based and OCI charts. Detects OCI URLs by their
 	 * {@code oci://} prefix.
@@ -850,10 +1059,10 @@ public class RepoManager {
 			.findFirst()
 			.orElseThrow(() -> new IOException("Repository not found: " + searchRepoName));
 
-		String[] indexEntry = lookupChartInIndex(getIndexCacheFile(finalRepoName), finalChartName, version);
-		String chartUrl = resolveChartUrl((indexEntry != null) ? indexEntry[0] : null, repo.getUrl(), finalChartName,
-				version);
-		String chartDigest = (indexEntry != null) ? indexEntry[1] : null;
+		RepoIndex.Entry indexEntry = findIndexEntry(finalRepoName, finalChartName, version);
+		String chartUrl = resolveChartUrl((indexEntry != null) ? indexEntry.url() : null, repo.getUrl(),
+				finalChartName, version);
+		String chartDigest = (indexEntry != null) ? indexEntry.digest() : null;
 		String tgzFileName = finalChartName + "-" + version + ".tgz";
 
 		if (chartDigest != null) {
@@ -887,6 +1096,108 @@ public class RepoManager {
 		}
 	}
 
+	/**
+	 * Pulls a repository chart into the extracted-chart cache and returns its chart
+	 * directory. Each chart version is extracted once, under
+	 * {@code <cache>/charts/extracted/<sha256>/} keyed by the archive digest its
+	 * repository index lists; later calls for the same version are a directory lookup,
+	 * with no download, archive copy or untar. The returned tree is shared and must be
+	 * treated as read-only.
+	 *
+	 * <p>
+	 * Only charts whose digest is known up front are cached this way. For
+	 * {@code oci://} references, repositories without a cached index, and index entries
+	 * without a digest the result is empty, and the caller should
+	 * {@link #pull(String, String, String) pull} into a directory of its own.
+	 * @param chart {@code repo/chartName} or {@code repo/chartName:version}
+	 * @param version optional version; the newest indexed version when {@code null}
+	 * @return the extracted chart directory, or empty if the chart cannot be cached
+	 * @throws IOException if the chart cannot be downloaded or does not match its digest
+	 */
+	public Optional<Path> pullCached(String chart, String version) throws IOException {
+		if (chart.startsWith("oci://")) {
+			return Optional.empty();
+		}
+		String chartRef = chart;
+		String resolvedVersion = version;
+		if (resolvedVersion == null && chartRef.contains(":")) {
+			int colon = chartRef.lastIndexOf(':');
+			resolvedVersion = chartRef.substring(colon + 1);
+			chartRef = chartRef.substring(0, colon);
+		}
+		int slashIndex = chartRef.lastIndexOf('/');
+		if (slashIndex < 0) {
+			return Optional.empty();
+		}
+		String repoName = chartRef.substring(0, slashIndex);
+		String chartName = chartRef.substring(slashIndex + 1);
+		if (!SAFE_REPO_NAME.matcher(repoName).matches()) {
+			return Optional.empty();
+		}
+		if (resolvedVersion == null || resolvedVersion.isBlank()) {
+			resolvedVersion = resolveLatestVersion(chartRef);
+		}
+		RepoIndex.Entry entry = findIndexEntry(repoName, chartName, resolvedVersion);
+		String digest = (entry != null && entry.digest() != null) ? entry.digest().toLowerCase(Locale.ROOT) : null;
+		if (digest != null && digest.startsWith("sha256:")) {
+			digest = digest.substring(7);
+		}
+		// The digest comes from the index and names a directory, so only a bare SHA-256
+		// is accepted.
+		if (digest == null || !SHA256_HEX.matcher(digest).matches()) {
+			return Optional.empty();
+		}
+		File extracted = new File(getExtractedChartsDir(), digest);
+		if (!extracted.isDirectory()) {
+			extractChart(chartRef, resolvedVersion, digest, extracted.toPath());
+		}
+		return Optional.of(ChartLoader.findChartDir(extracted.toPath()));
+	}
+
+	// Pulls into a staging directory beside the target and renames it into place, so a
+	// concurrent reader sees either no tree or a complete one. When two pulls race, the
+	// loser's rename fails (on Linux with a plain FileSystemException, "Directory not
+	// empty") and its copy is discarded.
+	private void extractChart(String chartRef, String version, String digest, Path target) throws IOException {
+		Path staging = Files.createTempDirectory(target.getParent(), digest + ".");
+		try {
+			pull(chartRef, null, version, staging.toString(), false);
+			File tgz = staging.resolve(chartRef.substring(chartRef.lastIndexOf('/') + 1) + "-" + version + ".tgz")
+				.toFile();
+			String actual = computeFileSha256(tgz);
+			if (!digest.equals(actual)) {
+				throw new IOException("Digest mismatch for chart " + chartRef + " " + version + ": index lists sha256:"
+						+ digest + ", archive is sha256:" + actual);
+			}
+			Files.delete(tgz.toPath());
+			try {
+				Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException ex) {
+				if (!Files.isDirectory(target)) {
+					throw ex;
+				}
+				if (log.isDebugEnabled()) {
+					log.debug("Chart sha256:{} was extracted concurrently", digest);
+				}
+			}
+		}
+		finally {
+			deleteTree(staging);
+		}
+	}
+
+	static void deleteTree(Path root) throws IOException {
+		if (!Files.exists(root)) {
+			return;
+		}
+		try (var paths = Files.walk(root)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+
 	// Downloads the chart's detached PGP provenance (.prov) next to the .tgz — the file
 	// Helm's --verify checks and --prov keeps. Unlike pullFromUrl this is a raw fetch (a
 	// .prov is not a gzip archive, so it must not be untarred).
@@ -990,28 +1301,16 @@ public class RepoManager {
 		}
 	}
 
+	// Resolves one chart version in a standalone index file (the throwaway index of a
+	// --repo pull), streaming it only as far as that chart; named repos go through
+	// findIndexEntry instead.
 	String[] lookupChartInIndex(File indexFile, String chartName, String version) throws IOException {
 		if (!indexFile.exists()) {
 			return null;
 		}
-		try (InputStream in = new FileInputStream(indexFile)) {
-			Map<?, ?> root = yamlMapper.readValue(in, Map.class);
-			Map<?, ?> entries = (Map<?, ?>) root.get("entries");
-			if (entries == null) {
-				return null;
-			}
-			List<?> versions = (List<?>) entries.get(chartName);
-			if (versions == null) {
-				return null;
-			}
-			for (Object o : versions) {
-				Map<?, ?> m = (Map<?, ?>) o;
-				if (version.equals(asString(m.get("version")))) {
-					List<?> urls = (List<?>) m.get("urls");
-					if (urls != null && !urls.isEmpty()) {
-						return new String[] { asString(urls.get(0)), asString(m.get("digest")) };
-					}
-				}
+		for (RepoIndex.Entry entry : RepoIndexReader.versions(indexFile, chartName)) {
+			if (version.equals(entry.version()) && entry.url() != null) {
+				return new String[] { entry.url(), entry.digest() };
 			}
 		}
 		return null;
@@ -1118,20 +1417,79 @@ public class RepoManager {
 		String tag = ociParts[2];
 
 		String auth = (registryManager != null) ? registryManager.getAuth(registry) : null;
+		String digest = resolveOciChartDigest(ociUrl, registry, path, tag, auth);
+
+		File cached = getChartCacheFile(digest);
+		if (cached.exists()) {
+			if (log.isInfoEnabled()) {
+				log.info("Using cached OCI chart (digest: {})", digest);
+			}
+			File destFile = new File(destDir, fileName);
+			// As downloadBlob does on a cold pull.
+			destFile.getParentFile().mkdirs();
+			Files.copy(cached.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			untar(destFile, new File(destDir));
+			return;
+		}
+
 		String token = ociClient.fetchToken(registry, path, auth, "pull");
+		String blobUrl = "https://" + registry + "/v2/" + path + "/blobs/" + digest;
+		File destFile = new File(destDir, fileName);
+		ociClient.downloadBlob(blobUrl, token, destFile);
+
+		if (destFile.exists()) {
+			verifyBlobDigest(destFile, digest);
+			File cacheTarget = getChartCacheFile(digest);
+			if (!cacheTarget.exists()) {
+				Files.copy(destFile.toPath(), cacheTarget.toPath());
+			}
+		}
+
+		untar(destFile, new File(destDir));
+	}
 
+	/**
+	 * Resolves an OCI tag to its chart layer digest. A tag resolved less than
+	 * {@link #OCI_TAG_TTL_NANOS} ago is answered from memory; an older one is revalidated
+	 * with a manifest {@code HEAD} and kept if its digest is unchanged. Otherwise the
+	 * manifest is fetched, following an image index to its manifest.
+	 */
+	private String resolveOciChartDigest(String ociUrl, String registry, String path, String tag, String auth)
+			throws IOException {
+		String key = registry + "/" + path + ":" + tag;
 		String manifestUrl = "https://" + registry + "/v2/" + path + "/manifests/" + tag;
-		JsonNode manifest;
+		OciTag known = this.ociTags.get(key);
+		if (known != null && known.expiresAt() - this.nanoClock.getAsLong() > 0) {
+			if (log.isDebugEnabled()) {
+				log.debug("OCI tag {} resolved from cache to {}", key, known.layerDigest());
+			}
+			return known.layerDigest();
+		}
+
+		String token = ociClient.fetchToken(registry, path, auth, "pull");
+		if (known != null
+				&& known.manifestDigest().equals(ociClient.headManifestDigest(manifestUrl, token, known.accept()))) {
+			if (log.isDebugEnabled()) {
+				log.debug("OCI tag {} unchanged at {}", key, known.manifestDigest());
+			}
+			this.ociTags.put(key, known.renewed(this.nanoClock.getAsLong() + OCI_TAG_TTL_NANOS));
+			return known.layerDigest();
+		}
+
+		String accept = OCI_MANIFEST_V1;
+		OciRegistryClient.Manifest tagManifest;
 		try {
-			manifest = ociClient.getManifest(manifestUrl, token, "application/vnd.oci.image.manifest.v1+json");
+			tagManifest = ociClient.fetchManifest(manifestUrl, token, accept);
 		}
 		catch (IOException ex) {
 			if (log.isWarnEnabled()) {
 				log.warn("Failed to get OCI manifest with v1+json, trying without specific accept header: {}",
 						ex.getMessage());
 			}
-			manifest = ociClient.getManifest(manifestUrl, token, null);
+			accept = null;
+			tagManifest = ociClient.fetchManifest(manifestUrl, token, null);
 		}
+		JsonNode manifest = tagManifest.body();
 
 		if (ociClient.isManifestIndex(manifest)) {
 			if (log.isDebugEnabled()) {
@@ -1142,35 +1500,25 @@ public class RepoManager {
 				throw new IOException("No suitable manifest found in OCI index for " + ociUrl);
 			}
 			String specificManifestUrl = "https://" + registry + "/v2/" + path + "/manifests/" + resolvedDigest;
-			manifest = ociClient.getManifest(specificManifestUrl, token, "application/vnd.oci.image.manifest.v1+json");
+			manifest = ociClient.getManifest(specificManifestUrl, token, OCI_MANIFEST_V1);
 		}
 
 		String digest = findChartLayerDigest(manifest, ociUrl);
-
-		File cached = getChartCacheFile(digest);
-		if (cached.exists()) {
-			if (log.isInfoEnabled()) {
-				log.info("Using cached OCI chart (digest: {})", digest);
-			}
-			File destFile = new File(destDir, fileName);
-			Files.copy(cached.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-			untar(destFile, new File(destDir));
-			return;
+		if (tagManifest.digest() != null) {
+			this.ociTags.put(key, new OciTag(accept, tagManifest.digest(), digest,
+					this.nanoClock.getAsLong() + OCI_TAG_TTL_NANOS));
 		}
+		return digest;
+	}
 
-		String blobUrl = "https://" + registry + "/v2/" + path + "/blobs/" + digest;
-		File destFile = new File(destDir, fileName);
-		ociClient.downloadBlob(blobUrl, token, destFile);
+	// A resolved OCI tag: the digest of the manifest the tag pointed to (fetched with
+	// the given Accept header) and the chart layer it names.
+	private record OciTag(String accept, String manifestDigest, String layerDigest, long expiresAt) {
 
-		if (destFile.exists()) {
-			verifyBlobDigest(destFile, digest);
-			File cacheTarget = getChartCacheFile(digest);
-			if (!cacheTarget.exists()) {
-				Files.copy(destFile.toPath(), cacheTarget.toPath());
-			}
+		OciTag renewed(long expiresAt) {
+			return new OciTag(this.accept, this.manifestDigest, this.layerDigest, expiresAt);
 		}
 
-		untar(destFile, new File(destDir));
 	}
 
 	public void pushOci(String chartTgzPath, String ociUrl) throws IOException {
@@ -1189,19 +1537,50 @@ public class RepoManager {
 		if (!chartFile.exists()) {
 			throw new IOException("Chart file not found: " + chartTgzPath);
 		}
-		byte[] chartBytes = Files.readAllBytes(chartFile.toPath());
-		String chartDigestHex = computeBytesSha256(chartBytes);
-		String chartDigest = "sha256:" + chartDigestHex;
+		long chartSize = chartFile.length();
+		String chartDigest = "sha256:" + computeFileSha256(chartFile);
 
 		byte[] configBytes = "{}".getBytes(StandardCharsets.UTF_8);
 		String configDigestHex = computeBytesSha256(configBytes);
 		String configDigest = "sha256:" + configDigestHex;
 
-		if (!ociClient.blobExists(registry, path, token, chartDigest)) {
-			ociClient.uploadBlob(registry, path, token, chartDigest, chartBytes);
+		// The chart layer streams from disk; it and the config are checked and uploaded
+		// side by side.
+		List<Future<?>> uploads = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			uploads.add(executor.submit(() -> {
+				if (!ociClient.blobExists(registry, path, token, chartDigest)) {
+					ociClient.uploadBlob(registry, path, token, chartDigest, chartFile.toPath());
+				}
+				return null;
+			}));
+			uploads.add(executor.submit(() -> {
+				if (!ociClient.blobExists(registry, path, token, configDigest)) {
+					ociClient.uploadBlob(registry, path, token, configDigest, configBytes);
+				}
+				return null;
+			}));
 		}
-		if (!ociClient.blobExists(registry, path, token, configDigest)) {
-			ociClient.uploadBlob(registry, path, token, configDigest, configBytes);
+		for (Future<?> upload : uploads) {
+			try {
+				upload.get();
+			}
+			catch (ExecutionException ex) {
+				if (ex.getCause() instanceof IOException io) {
+					throw io;
+				}
+				if (ex.getCause() instanceof RuntimeException runtime) {
+					throw runtime;
+				}
+				if (ex.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw new IOException(ex.getCause());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while uploading blobs to " + ociUrl, ex);
+			}
 		}
 
 		String manifestJson = """
@@ -1218,9 +1597,10 @@ public class RepoManager {
 				    "digest": "%s",
 				    "size": %d
 				  }]
-				}""".formatted(configDigest, configBytes.length, chartDigest, chartBytes.length);
+				}""".formatted(configDigest, configBytes.length, chartDigest, chartSize);
 
 		ociClient.pushManifest(registry, path, tag, token, manifestJson.getBytes(StandardCharsets.UTF_8));
+		this.ociTags.remove(registry + "/" + path + ":" + tag);
 		if (log.isInfoEnabled()) {
 			log.info("Chart pushed successfully to {}", ociUrl);
 		}
@@ -1261,7 +1641,7 @@ public class RepoManager {
 	/**
 	 * Maximum number of entries a chart archive may contain (decompression-bomb guard).
 	 */
-	private static final int MAX_UNTAR_ENTRIES = 50_000;
+	static final int MAX_UNTAR_ENTRIES = 50_000;
 
 	public void untar(File tgzFile, File destDir) throws IOException {
 		if (log.isInfoEnabled()) {
@@ -1,13 +1,18 @@
 package org.alexmond.jhelm.core.service;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import lombok.extern.slf4j.Slf4j;
 import org.alexmond.jhelm.core.exception.SchemaValidationException;
+import org.alexmond.jhelm.core.util.ContentDigests;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.json.JsonMapper;
@@ -21,12 +26,46 @@ import tools.jackson.databind.json.JsonMapper;
  * A malformed schema is logged as a warning and treated as absent — consistent with real
  * Helm behaviour.
  * </p>
+ * <p>
+ * Each schema is compiled once into a validator tree (patterns precompiled, limits
+ * read) and cached by the SHA-256 of its text, so rendering the same chart again, or a
+ * chart vendored into many umbrellas, skips the JSON parse. The tree walks the values
+ * map directly and visits only the paths the schema declares, instead of converting
+ * the whole values map to a JSON tree. Compiled schemas are immutable, so one validator
+ * may be used from many render threads at once.
+ * </p>
  */
 @Slf4j
 public class SchemaValidator {
 
+	/** Default bound on the number of distinct compiled schemas kept. */
+	public static final int DEFAULT_MAX_CACHED_SCHEMAS = 256;
+
 	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
 
+	// Cached in place of a schema that could not be compiled, so it is not re-parsed on
+	// every render.
+	private static final CompiledSchema MALFORMED = new CompiledSchema();
+
+	private final ConcurrentHashMap<String, CompiledSchema> compiled = new ConcurrentHashMap<>();
+
+	private final int maxCachedSchemas;
+
+	public SchemaValidator() {
+		this(DEFAULT_MAX_CACHED_SCHEMAS);
+	}
+
+	/**
+	 * @param maxCachedSchemas how many distinct compiled schemas to keep; beyond it an
+	 * arbitrary one is dropped for each new one
+	 */
+	public SchemaValidator(int maxCachedSchemas) {
+		if (maxCachedSchemas < 1) {
+			throw new IllegalArgumentException("maxCachedSchemas must be positive: " + maxCachedSchemas);
+		}
+		this.maxCachedSchemas = maxCachedSchemas;
+	}
+
 	/**
 	 * Validates the given values map against the JSON Schema.
 	 * @param chartName chart name used in error messages
@@ -39,123 +78,118 @@ public class SchemaValidator {
 		if (schemaJson == null || schemaJson.isBlank()) {
 			return;
 		}
+		CompiledSchema schema = compiledSchema(chartName, schemaJson);
+		if (schema == MALFORMED) {
+			return;
+		}
 		List<String> errors = new ArrayList<>();
+		schema.validate(plain(values), "$", errors);
+		if (!errors.isEmpty()) {
+			throw new SchemaValidationException(chartName, errors);
+		}
+	}
+
+	/**
+	 * @return the number of compiled schemas currently cached
+	 */
+	public int cachedSchemas() {
+		return compiled.size();
+	}
+
+	private CompiledSchema compiledSchema(String chartName, String schemaJson) {
+		String digest = ContentDigests.sha256(schemaJson);
+		CompiledSchema schema = compiled.get(digest);
+		if (schema != null) {
+			return schema;
+		}
 		try {
-			JsonNode schema = JSON_MAPPER.readTree(schemaJson);
-			JsonNode valuesNode = JSON_MAPPER.valueToTree(values);
-			validateNode(schema, valuesNode, "$", errors);
+			schema = compile(JSON_MAPPER.readTree(schemaJson), "#");
 		}
-		catch (Exception ex) {
+		catch (RuntimeException ex) {
 			if (log.isWarnEnabled()) {
 				log.warn("Could not parse values.schema.json for chart {}: {}", chartName, ex.getMessage());
 			}
-			return;
+			schema = MALFORMED;
 		}
-		if (!errors.isEmpty()) {
-			throw new SchemaValidationException(chartName, errors);
+		if (compiled.size() >= maxCachedSchemas) {
+			Iterator<String> keys = compiled.keySet().iterator();
+			if (keys.hasNext()) {
+				keys.next();
+				keys.remove();
+			}
 		}
+		CompiledSchema raced = compiled.putIfAbsent(digest, schema);
+		return (raced != null) ? raced : schema;
 	}
 
-	private void validateNode(JsonNode schema, JsonNode value, String path, List<String> errors) {
-		if (schema == null || schema.isMissingNode()) {
-			return;
+	private static CompiledSchema compile(JsonNode node, String location) {
+		CompiledSchema schema = new CompiledSchema();
+		if (node == null || node.isMissingNode()) {
+			return schema;
 		}
-		if (schema.has("type") && schema.get("type").isString()) {
-			validateType(schema.get("type").asString(), value, path, errors);
+		if (node.has("type") && node.get("type").isString()) {
+			schema.type = node.get("type").asString();
 		}
-		if (schema.has("required") && value.isObject()) {
-			for (JsonNode req : schema.get("required")) {
-				if (!value.has(req.asString())) {
-					errors.add(path + "." + req.asString() + " is required");
-				}
+		if (node.has("required")) {
+			for (JsonNode req : node.get("required")) {
+				schema.required.add(req.asString());
 			}
 		}
-		if (schema.has("properties") && value.isObject()) {
-			JsonNode props = schema.get("properties");
-			Map<String, JsonNode> propsMap = JSON_MAPPER.convertValue(props, new TypeReference<>() {
+		if (node.has("properties")) {
+			Map<String, JsonNode> props = JSON_MAPPER.convertValue(node.get("properties"), new TypeReference<>() {
 			});
-			for (Map.Entry<String, JsonNode> entry : propsMap.entrySet()) {
-				if (value.has(entry.getKey())) {
-					validateNode(entry.getValue(), value.get(entry.getKey()), path + "." + entry.getKey(), errors);
-				}
+			schema.properties = new LinkedHashMap<>();
+			for (Map.Entry<String, JsonNode> entry : props.entrySet()) {
+				schema.properties.put(entry.getKey(),
+						compile(entry.getValue(), location + "/properties/" + entry.getKey()));
 			}
 		}
-		if (schema.has("enum")) {
-			boolean valid = false;
-			for (JsonNode enumVal : schema.get("enum")) {
-				if (jsonValueEquals(enumVal, value)) {
-					valid = true;
-					break;
-				}
-			}
-			if (!valid) {
-				errors.add(path + ": value " + value + " is not one of the allowed values " + schema.get("enum"));
-			}
+		if (node.has("enum")) {
+			schema.enumNode = node.get("enum");
 		}
-		if (value.isNumber()) {
-			double num = value.doubleValue();
-			if (schema.has("minimum") && num < schema.get("minimum").doubleValue()) {
-				errors.add(path + ": " + num + " must be >= " + schema.get("minimum").doubleValue());
-			}
-			if (schema.has("maximum") && num > schema.get("maximum").doubleValue()) {
-				errors.add(path + ": " + num + " must be <= " + schema.get("maximum").doubleValue());
-			}
+		if (node.has("minimum") && node.get("minimum").isNumber()) {
+			schema.minimum = node.get("minimum").doubleValue();
 		}
-		if (value.isString()) {
-			String text = value.asString();
-			if (schema.has("minLength") && text.length() < schema.get("minLength").asInt()) {
-				errors
-					.add(path + ": string length " + text.length() + " must be >= " + schema.get("minLength").asInt());
-			}
-			if (schema.has("maxLength") && text.length() > schema.get("maxLength").asInt()) {
-				errors
-					.add(path + ": string length " + text.length() + " must be <= " + schema.get("maxLength").asInt());
+		if (node.has("maximum") && node.get("maximum").isNumber()) {
+			schema.maximum = node.get("maximum").doubleValue();
+		}
+		if (node.has("minLength")) {
+			schema.minLength = node.get("minLength").asInt();
+		}
+		if (node.has("maxLength")) {
+			schema.maxLength = node.get("maxLength").asInt();
+		}
+		if (node.has("pattern")) {
+			String patternStr = node.get("pattern").asString();
+			try {
+				schema.pattern = Pattern.compile(patternStr);
 			}
-			if (schema.has("pattern")) {
-				String patternStr = schema.get("pattern").asString();
-				try {
-					if (!Pattern.compile(patternStr).matcher(text).find()) {
-						errors.add(path + ": string does not match pattern " + patternStr);
-					}
-				}
-				catch (PatternSyntaxException ex) {
-					if (log.isWarnEnabled()) {
-						log.warn("Invalid pattern '{}' in schema at {}: {}", patternStr, path, ex.getMessage());
-					}
+			catch (PatternSyntaxException ex) {
+				// An invalid pattern constrains nothing, as before compilation.
+				if (log.isWarnEnabled()) {
+					log.warn("Invalid pattern '{}' in schema at {}: {}", patternStr, location, ex.getMessage());
 				}
 			}
 		}
-	}
-
-	private void validateType(String type, JsonNode value, String path, List<String> errors) {
-		boolean valid = switch (type) {
-			case "string" -> value.isString();
-			case "integer" -> isIntegerValue(value);
-			case "number" -> value.isNumber();
-			case "boolean" -> value.isBoolean();
-			case "array" -> value.isArray();
-			case "object" -> value.isObject();
-			case "null" -> value.isNull();
-			default -> true;
-		};
-		if (!valid) {
-			errors.add(path + ": expected type " + type + " but was " + nodeTypeName(value));
-		}
+		return schema;
 	}
 
 	/**
-	 * Equality for {@code enum}/{@code const} that compares numbers by value, so a schema
-	 * integer like {@code 443} matches a values float64 {@code 443.0} (Helm loads values
-	 * as float64; JSON-Schema enum equality is numeric, not type-strict).
-	 * @param a one node
-	 * @param b the other node
-	 * @return whether they are equal for schema purposes
+	 * Reduces a value to the shapes the validator walks — {@link Map}, {@link List},
+	 * {@link String}, {@link Number}, {@link Boolean} or {@code null} — converting any
+	 * other type the way Jackson would serialize it.
 	 */
-	private static boolean jsonValueEquals(JsonNode a, JsonNode b) {
-		if (a.isNumber() && b.isNumber()) {
-			return a.doubleValue() == b.doubleValue();
+	private static Object plain(Object value) {
+		if (value == null || value instanceof Map || value instanceof List || value instanceof String
+				|| value instanceof Number || value instanceof Boolean) {
+			return value;
 		}
-		return a.equals(b);
+		return JSON_MAPPER.convertValue(value, Object.class);
+	}
+
+	private static boolean isIntegral(Number number) {
+		return number instanceof Integer || number instanceof Long || number instanceof Short
+				|| number instanceof Byte || number instanceof BigInteger;
 	}
 
 	/**
@@ -163,43 +197,184 @@ public class SchemaValidator {
 	 * including a float like {@code 8080.0}. Helm loads values as float64, so chart
 	 * ports/replicas arrive as whole doubles; accept them as integers (the validator must
 	 * not be stricter than Helm's).
-	 * @param value the value node
+	 * @param value the value
 	 * @return whether {@code value} is an integer for schema purposes
 	 */
-	private static boolean isIntegerValue(JsonNode value) {
-		if (value.isIntegralNumber()) {
+	private static boolean isIntegerValue(Object value) {
+		if (!(value instanceof Number number)) {
+			return false;
+		}
+		if (isIntegral(number)) {
 			return true;
 		}
-		if (value.isFloatingPointNumber()) {
-			double d = value.doubleValue();
-			return !Double.isInfinite(d) && !Double.isNaN(d) && d == Math.floor(d);
+		double d = number.doubleValue();
+		return !Double.isInfinite(d) && !Double.isNaN(d) && d == Math.floor(d);
+	}
+
+	/**
+	 * Equality for {@code enum}/{@code const} that compares numbers by value, so a schema
+	 * integer like {@code 443} matches a values float64 {@code 443.0} (Helm loads values
+	 * as float64; JSON-Schema enum equality is numeric, not type-strict).
+	 * @param enumValue the schema's allowed value
+	 * @param value the value
+	 * @return whether they are equal for schema purposes
+	 */
+	private static boolean jsonValueEquals(JsonNode enumValue, Object value) {
+		if (value instanceof Number number) {
+			return enumValue.isNumber() && enumValue.doubleValue() == number.doubleValue();
+		}
+		if (value instanceof String text) {
+			return enumValue.isString() && enumValue.asString().equals(text);
 		}
-		return false;
+		if (value instanceof Boolean bool) {
+			return enumValue.isBoolean() && enumValue.booleanValue() == bool;
+		}
+		if (value == null) {
+			return enumValue.isNull();
+		}
+		return enumValue.equals(JSON_MAPPER.valueToTree(value));
 	}
 
-	private String nodeTypeName(JsonNode node) {
-		if (node.isString()) {
+	private static String typeName(Object value) {
+		if (value instanceof String) {
 			return "string";
 		}
-		if (node.isIntegralNumber()) {
-			return "integer";
+		if (value instanceof Number number) {
+			return isIntegral(number) ? "integer" : "number";
 		}
-		if (node.isFloatingPointNumber()) {
-			return "number";
-		}
-		if (node.isBoolean()) {
+		if (value instanceof Boolean) {
 			return "boolean";
 		}
-		if (node.isArray()) {
+		if (value instanceof List) {
 			return "array";
 		}
-		if (node.isObject()) {
+		if (value instanceof Map) {
 			return "object";
 		}
-		if (node.isNull()) {
-			return "null";
+		return (value == null) ? "null" : "unknown";
+	}
+
+	/**
+	 * Looks a property up the way the JSON tree did: by key, or by the string form of a
+	 * non-string key (YAML allows e.g. integer keys, which JSON turns into strings).
+	 */
+	private static boolean hasProperty(Map<?, ?> map, String key) {
+		if (map.containsKey(key)) {
+			return true;
+		}
+		for (Object k : map.keySet()) {
+			if (!(k instanceof String) && key.equals(String.valueOf(k))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Object property(Map<?, ?> map, String key) {
+		if (map.containsKey(key)) {
+			return map.get(key);
+		}
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			if (!(entry.getKey() instanceof String) && key.equals(String.valueOf(entry.getKey()))) {
+				return entry.getValue();
+			}
 		}
-		return "unknown";
+		return null;
+	}
+
+	/**
+	 * One compiled schema object. Built once by {@link #compile} and only read after.
+	 */
+	private static final class CompiledSchema {
+
+		private String type;
+
+		private final List<String> required = new ArrayList<>();
+
+		private Map<String, CompiledSchema> properties;
+
+		private JsonNode enumNode;
+
+		private Double minimum;
+
+		private Double maximum;
+
+		private Integer minLength;
+
+		private Integer maxLength;
+
+		private Pattern pattern;
+
+		void validate(Object value, String path, List<String> errors) {
+			if (type != null) {
+				validateType(value, path, errors);
+			}
+			if (value instanceof Map<?, ?> object) {
+				for (String req : required) {
+					if (!hasProperty(object, req)) {
+						errors.add(path + "." + req + " is required");
+					}
+				}
+				if (properties != null) {
+					for (Map.Entry<String, CompiledSchema> entry : properties.entrySet()) {
+						String key = entry.getKey();
+						if (hasProperty(object, key)) {
+							entry.getValue().validate(plain(property(object, key)), path + "." + key, errors);
+						}
+					}
+				}
+			}
+			if (enumNode != null) {
+				boolean valid = false;
+				for (JsonNode enumVal : enumNode) {
+					if (jsonValueEquals(enumVal, value)) {
+						valid = true;
+						break;
+					}
+				}
+				if (!valid) {
+					errors.add(path + ": value " + JSON_MAPPER.valueToTree(value) + " is not one of the allowed values "
+							+ enumNode);
+				}
+			}
+			if (value instanceof Number number) {
+				double num = number.doubleValue();
+				if (minimum != null && num < minimum) {
+					errors.add(path + ": " + num + " must be >= " + minimum);
+				}
+				if (maximum != null && num > maximum) {
+					errors.add(path + ": " + num + " must be <= " + maximum);
+				}
+			}
+			if (value instanceof String text) {
+				if (minLength != null && text.length() < minLength) {
+					errors.add(path + ": string length " + text.length() + " must be >= " + minLength);
+				}
+				if (maxLength != null && text.length() > maxLength) {
+					errors.add(path + ": string length " + text.length() + " must be <= " + maxLength);
+				}
+				if (pattern != null && !pattern.matcher(text).find()) {
+					errors.add(path + ": string does not match pattern " + pattern.pattern());
+				}
+			}
+		}
+
+		private void validateType(Object value, String path, List<String> errors) {
+			boolean valid = switch (type) {
+				case "string" -> value instanceof String;
+				case "integer" -> isIntegerValue(value);
+				case "number" -> value instanceof Number;
+				case "boolean" -> value instanceof Boolean;
+				case "array" -> value instanceof List;
+				case "object" -> value instanceof Map;
+				case "null" -> value == null;
+				default -> true;
+			};
+			if (!valid) {
+				errors.add(path + ": expected type " + type + " but was " + typeName(value));
+			}
+		}
+
 	}
 
 }
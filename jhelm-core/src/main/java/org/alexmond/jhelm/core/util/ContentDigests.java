@@ -0,0 +1,35 @@
+package org.alexmond.jhelm.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong content digests for chart text. Used to key caches by what a template says
+ * rather than by its 32-bit {@link String#hashCode()}, so two different bodies can never
+ * share a cache entry and identical bodies (e.g. a library chart vendored into many
+ * charts) always do.
+ */
+public final class ContentDigests {
+
+	private ContentDigests() {
+	}
+
+	/**
+	 * Returns the lowercase hex SHA-256 of the text's UTF-8 bytes.
+	 * @param text the content to digest
+	 * @return the 64-character hex digest
+	 */
+	public static String sha256(String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			// Every JRE is required to provide SHA-256.
+			throw new IllegalStateException("SHA-256 not available", ex);
+		}
+	}
+
+}
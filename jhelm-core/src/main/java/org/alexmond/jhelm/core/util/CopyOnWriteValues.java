@@ -0,0 +1,327 @@
+package org.alexmond.jhelm.core.util;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Copy-on-write views of a merged values tree, so a render no longer deep-copies its
+ * chart's values before templates read them.
+ *
+ * <p>
+ * The merged tree shares its untouched subtrees with the cached chart defaults and the
+ * caller's overrides, which must never be mutated. Instead of copying it, {@link #view}
+ * wraps it: reads go straight through to the shared tree, integer numbers are returned as
+ * {@code Double} (Helm loads values via JSON, where every number is a {@code float64}),
+ * and a container is only copied — one level, its children still views — when a
+ * template writes to it ({@code set}, {@code unset}, {@code merge}...). A template
+ * therefore pays for the nodes it touches rather than for the whole
+ * {@code values.yaml}. A nested view is created once and then reused, so a value a
+ * template {@code set}s is seen by every later read of the same path.
+ *
+ * <p>
+ * Views are not thread-safe: each is confined to the render that created it.
+ */
+public final class CopyOnWriteValues {
+
+	private CopyOnWriteValues() {
+	}
+
+	/**
+	 * Returns a copy-on-write view of a values map.
+	 * @param values the merged values; never mutated through the view
+	 * @return the view
+	 */
+	public static Map<String, Object> view(Map<String, Object> values) {
+		return new MapView(values);
+	}
+
+	/**
+	 * Drops the null entries that delete a chart default, Helm's "a null key removes it"
+	 * coalesce rule: a null is dropped only where the chart's own defaults declare that
+	 * key (a standalone null for a key the chart never declared is kept, #491), and
+	 * nulls inside lists are kept, as Helm only prunes table keys. Maps are copied only
+	 * along the paths to a dropped entry; everything else is shared with the input.
+	 * @param values the merged values
+	 * @param defaults the chart's own default values
+	 * @return the pruned values, or {@code values} itself when nothing was dropped
+	 */
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> pruneDeletedNulls(Map<String, Object> values, Map<String, Object> defaults) {
+		if (values == null || defaults == null) {
+			return values;
+		}
+		Map<String, Object> pruned = null;
+		for (Map.Entry<String, Object> entry : values.entrySet()) {
+			String key = entry.getKey();
+			Object value = entry.getValue();
+			Object replacement = value;
+			if (value == null) {
+				if (defaults.containsKey(key)) {
+					replacement = Removed.INSTANCE;
+				}
+			}
+			else if (value instanceof Map && defaults.get(key) instanceof Map) {
+				replacement = pruneDeletedNulls((Map<String, Object>) value, (Map<String, Object>) defaults.get(key));
+			}
+			if (replacement != value) {
+				if (pruned == null) {
+					pruned = new LinkedHashMap<>(values);
+				}
+				if (replacement == Removed.INSTANCE) {
+					pruned.remove(key);
+				}
+				else {
+					pruned.put(key, replacement);
+				}
+			}
+		}
+		return (pruned != null) ? pruned : values;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object wrap(Object node) {
+		if (node instanceof Map) {
+			return new MapView((Map<String, Object>) node);
+		}
+		if (node instanceof List) {
+			return new ListView((List<Object>) node);
+		}
+		if (node instanceof Integer || node instanceof Long || node instanceof Short || node instanceof Byte
+				|| node instanceof BigInteger) {
+			return ((Number) node).doubleValue();
+		}
+		return node;
+	}
+
+	private static boolean isContainer(Object node) {
+		return node instanceof Map || node instanceof List;
+	}
+
+	private enum Removed {
+
+		INSTANCE
+
+	}
+
+	/**
+	 * A map read through to its source until the first write, which copies the entries
+	 * (as views) into a map of its own.
+	 */
+	private static final class MapView extends AbstractMap<String, Object> {
+
+		private final Map<String, Object> source;
+
+		// Views already handed out for the source's container values, by key.
+		private Map<String, Object> children;
+
+		// This view's own entries once it has been written to; the source is then no
+		// longer consulted.
+		private Map<String, Object> own;
+
+		private Set<Map.Entry<String, Object>> entries;
+
+		MapView(Map<String, Object> source) {
+			this.source = source;
+		}
+
+		@Override
+		public Object get(Object key) {
+			if (own != null) {
+				return own.get(key);
+			}
+			Object value = source.get(key);
+			return (value != null) ? child(key, value) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return (own != null) ? own.containsKey(key) : source.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return (own != null) ? own.size() : source.size();
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			return copy().put(key, value);
+		}
+
+		@Override
+		public Object remove(Object key) {
+			return copy().remove(key);
+		}
+
+		@Override
+		public void clear() {
+			copy().clear();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			if (own != null) {
+				return own.entrySet();
+			}
+			if (entries == null) {
+				entries = new SourceEntries();
+			}
+			return entries;
+		}
+
+		private Object child(Object key, Object value) {
+			if (!isContainer(value)) {
+				return wrap(value);
+			}
+			if (children == null) {
+				children = new HashMap<>();
+			}
+			return children.computeIfAbsent((String) key, (k) -> wrap(value));
+		}
+
+		private Map<String, Object> copy() {
+			if (own == null) {
+				Map<String, Object> copied = new LinkedHashMap<>();
+				for (Map.Entry<String, Object> entry : source.entrySet()) {
+					Object value = entry.getValue();
+					copied.put(entry.getKey(), (value != null) ? child(entry.getKey(), value) : null);
+				}
+				own = copied;
+				children = null;
+				entries = null;
+			}
+			return own;
+		}
+
+		/**
+		 * The source's entries as views; {@code setValue} writes through {@link #put},
+		 * which copies the map, so iterating after a write sees the source unchanged.
+		 */
+		private final class SourceEntries extends AbstractSet<Map.Entry<String, Object>> {
+
+			@Override
+			public int size() {
+				return source.size();
+			}
+
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				Iterator<Map.Entry<String, Object>> it = source.entrySet().iterator();
+				return new Iterator<>() {
+
+					@Override
+					public boolean hasNext() {
+						return it.hasNext();
+					}
+
+					@Override
+					public Map.Entry<String, Object> next() {
+						Map.Entry<String, Object> entry = it.next();
+						Object value = entry.getValue();
+						return new ViewEntry(entry.getKey(), (value != null) ? child(entry.getKey(), value) : null);
+					}
+
+				};
+			}
+
+		}
+
+		private final class ViewEntry extends AbstractMap.SimpleEntry<String, Object> {
+
+			ViewEntry(String key, Object value) {
+				super(key, value);
+			}
+
+			@Override
+			public Object setValue(Object value) {
+				put(getKey(), value);
+				return super.setValue(value);
+			}
+
+		}
+
+	}
+
+	/**
+	 * A list read through to its source until the first write, which copies the
+	 * elements (as views) into a list of its own.
+	 */
+	private static final class ListView extends AbstractList<Object> implements RandomAccess {
+
+		private final List<Object> source;
+
+		// Views already handed out for the source's container elements, by index.
+		private Object[] children;
+
+		private List<Object> own;
+
+		ListView(List<Object> source) {
+			this.source = source;
+		}
+
+		@Override
+		public Object get(int index) {
+			if (own != null) {
+				return own.get(index);
+			}
+			Object value = source.get(index);
+			if (!isContainer(value)) {
+				return wrap(value);
+			}
+			if (children == null) {
+				children = new Object[source.size()];
+			}
+			if (children[index] == null) {
+				children[index] = wrap(value);
+			}
+			return children[index];
+		}
+
+		@Override
+		public int size() {
+			return (own != null) ? own.size() : source.size();
+		}
+
+		@Override
+		public Object set(int index, Object element) {
+			return copy().set(index, element);
+		}
+
+		@Override
+		public void add(int index, Object element) {
+			copy().add(index, element);
+			modCount++;
+		}
+
+		@Override
+		public Object remove(int index) {
+			Object removed = copy().remove(index);
+			modCount++;
+			return removed;
+		}
+
+		private List<Object> copy() {
+			if (own == null) {
+				List<Object> copied = new ArrayList<>(source.size());
+				for (int i = 0; i < source.size(); i++) {
+					copied.add(get(i));
+				}
+				own = copied;
+				children = null;
+			}
+			return own;
+		}
+
+	}
+
+}
@@ -24,74 +24,78 @@ public final class HookParser {
 	 * @param manifest the full rendered YAML manifest (may be null or blank)
 	 * @return list of parsed hooks, empty if none found
 	 */
-	@SuppressWarnings("unchecked")
 	public static List<HelmHook> parseHooks(String manifest) {
 		if (manifest == null || manifest.isBlank()) {
 			return Collections.emptyList();
 		}
 
 		List<HelmHook> hooks = new ArrayList<>();
-		String[] docs = ManifestDocuments.split(manifest);
+		ManifestDocuments.forEach(manifest, (start, end) -> {
+			// Only hook documents are copied out of the manifest and parsed.
+			if (ManifestScanner.contains(manifest, "helm.sh/hook", start, end)) {
+				HelmHook hook = parseHook(manifest.substring(start, end));
+				if (hook != null) {
+					hooks.add(hook);
+				}
+			}
+		});
+		return hooks;
+	}
 
-		for (String doc : docs) {
-			if (doc.isBlank() || !doc.contains("helm.sh/hook")) {
-				continue;
+	@SuppressWarnings("unchecked")
+	private static HelmHook parseHook(String doc) {
+		try {
+			Map<String, Object> parsed = YAML_MAPPER.readValue(doc, Map.class);
+			if (parsed == null) {
+				return null;
 			}
 
-			try {
-				Map<String, Object> parsed = YAML_MAPPER.readValue(doc, Map.class);
-				if (parsed == null) {
-					continue;
-				}
+			Map<String, Object> metadata = (Map<String, Object>) parsed.get("metadata");
+			if (metadata == null) {
+				return null;
+			}
 
-				Map<String, Object> metadata = (Map<String, Object>) parsed.get("metadata");
-				if (metadata == null) {
-					continue;
-				}
+			Map<String, Object> annotations = (Map<String, Object>) metadata.get("annotations");
+			if (annotations == null || !annotations.containsKey("helm.sh/hook")) {
+				return null;
+			}
 
-				Map<String, Object> annotations = (Map<String, Object>) metadata.get("annotations");
-				if (annotations == null || !annotations.containsKey("helm.sh/hook")) {
-					continue;
-				}
+			String hookValue = (String) annotations.get("helm.sh/hook");
+			List<String> phases = Arrays.asList(hookValue.split(","));
 
-				String hookValue = (String) annotations.get("helm.sh/hook");
-				List<String> phases = Arrays.asList(hookValue.split(","));
-
-				int weight = 0;
-				Object weightObj = annotations.get("helm.sh/hook-weight");
-				if (weightObj != null) {
-					try {
-						weight = Integer.parseInt(weightObj.toString().trim());
-					}
-					catch (NumberFormatException ignored) {
-					}
+			int weight = 0;
+			Object weightObj = annotations.get("helm.sh/hook-weight");
+			if (weightObj != null) {
+				try {
+					weight = Integer.parseInt(weightObj.toString().trim());
 				}
-
-				List<String> deletePolicy = Collections.emptyList();
-				Object policyObj = annotations.get("helm.sh/hook-delete-policy");
-				if (policyObj != null) {
-					deletePolicy = Arrays.asList(policyObj.toString().split(","));
+				catch (NumberFormatException ignored) {
 				}
-
-				String kind = (String) parsed.get("kind");
-				String name = (String) metadata.get("name");
-				String namespace = (String) metadata.get("namespace");
-
-				hooks.add(HelmHook.builder()
-					.kind(kind)
-					.name(name)
-					.namespace(namespace)
-					.phases(phases)
-					.weight(weight)
-					.deletePolicy(deletePolicy)
-					.yaml(doc.trim())
-					.build());
 			}
-			catch (Exception ignored) {
+
+			List<String> deletePolicy = Collections.emptyList();
+			Object policyObj = annotations.get("helm.sh/hook-delete-policy");
+			if (policyObj != null) {
+				deletePolicy = Arrays.asList(policyObj.toString().split(","));
 			}
-		}
 
-		return hooks;
+			String kind = (String) parsed.get("kind");
+			String name = (String) metadata.get("name");
+			String namespace = (String) metadata.get("namespace");
+
+			return HelmHook.builder()
+				.kind(kind)
+				.name(name)
+				.namespace(namespace)
+				.phases(phases)
+				.weight(weight)
+				.deletePolicy(deletePolicy)
+				.yaml(doc.trim())
+				.build();
+		}
+		catch (Exception ignored) {
+			return null;
+		}
 	}
 
 	/**
@@ -107,16 +111,12 @@ public final class HookParser {
 			return manifest;
 		}
 
-		String[] docs = ManifestDocuments.split(manifest);
 		StringBuilder result = new StringBuilder();
-
-		for (String doc : docs) {
-			if (doc.isBlank() || doc.contains("helm.sh/hook")) {
-				continue;
+		ManifestDocuments.forEach(manifest, (start, end) -> {
+			if (!ManifestScanner.contains(manifest, "helm.sh/hook", start, end)) {
+				ManifestScanner.appendTrimmed(result.append("---\n"), manifest, start, end).append('\n');
 			}
-			result.append("---\n").append(doc.trim()).append('\n');
-		}
-
+		});
 		return result.toString();
 	}
 
@@ -134,19 +134,13 @@ public final class HookParser {
 			return manifest;
 		}
 
-		String[] docs = ManifestDocuments.split(manifest);
 		StringBuilder result = new StringBuilder();
-
-		for (String doc : docs) {
-			if (doc.isBlank()) {
-				continue;
+		ManifestDocuments.forEach(manifest, (start, end) -> {
+			if (!ManifestScanner.contains(manifest, "helm.sh/resource-policy", start, end)
+					|| !ManifestScanner.contains(manifest, "keep", start, end)) {
+				ManifestScanner.appendTrimmed(result.append("---\n"), manifest, start, end).append('\n');
 			}
-			if (doc.contains("helm.sh/resource-policy") && doc.contains("keep")) {
-				continue;
-			}
-			result.append("---\n").append(doc.trim()).append('\n');
-		}
-
+		});
 		return result.toString();
 	}
 
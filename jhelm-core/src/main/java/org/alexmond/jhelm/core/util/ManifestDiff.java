@@ -62,24 +62,21 @@ public final class ManifestDiff {
 			return resources;
 		}
 
-		String[] docs = ManifestDocuments.split(manifest);
-		for (String doc : docs) {
-			if (doc.isBlank()) {
-				continue;
-			}
+		ManifestDocuments.forEach(manifest, (start, end) -> {
+			String doc = manifest.substring(start, end);
 			try {
 				Map<String, Object> parsed = YAML_MAPPER.readValue(doc, Map.class);
 				if (parsed == null) {
-					continue;
+					return;
 				}
 				String kind = (String) parsed.get("kind");
 				if (kind == null) {
-					continue;
+					return;
 				}
 				Map<String, Object> metadata = (Map<String, Object>) parsed.get("metadata");
 				String name = (metadata != null) ? (String) metadata.get("name") : null;
 				if (name == null) {
-					continue;
+					return;
 				}
 				String apiVersion = (String) parsed.get("apiVersion");
 				String namespace = (metadata.get("namespace") != null) ? metadata.get("namespace").toString() : "";
@@ -88,7 +85,7 @@ public final class ManifestDiff {
 			}
 			catch (Exception ignored) {
 			}
-		}
+		});
 		return resources;
 	}
 
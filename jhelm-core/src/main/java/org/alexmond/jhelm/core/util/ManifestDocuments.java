@@ -1,6 +1,7 @@
 package org.alexmond.jhelm.core.util;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Splits a rendered multi-document YAML manifest into its individual documents.
@@ -12,8 +13,8 @@ public final class ManifestDocuments {
 	// match
 	// it inside content or a comment — e.g. a decorative `# ---- section ----` — and
 	// mangle
-	// the manifest into invalid fragments (issue #713). Anchor to a whole line.
-	private static final Pattern DOC_SEPARATOR = Pattern.compile("(?m)^---[ \\t]*(#.*)?$");
+	// the manifest into invalid fragments (issue #713). Anchor to a whole line; the
+	// scanning itself lives in ManifestScanner.
 
 	private ManifestDocuments() {
 	}
@@ -22,11 +23,38 @@ public final class ManifestDocuments {
 	 * Splits a manifest into its YAML documents on document-separator lines (a line that
 	 * is exactly {@code ---}, optionally with trailing whitespace or a comment). A
 	 * {@code ---} appearing inside document content or a comment is left intact.
+	 * Callers that only inspect documents should prefer {@link #forEach}, which copies
+	 * nothing.
 	 * @param manifest the rendered manifest (must be non-null)
 	 * @return the document chunks in order; some may be blank (callers skip those)
 	 */
 	public static String[] split(String manifest) {
-		return DOC_SEPARATOR.split(manifest);
+		List<String> docs = new ArrayList<>();
+		ManifestScanner.scan(manifest, (start, end) -> docs.add(manifest.substring(start, end)));
+		// Like Pattern.split: a manifest without separators is returned whole, and
+		// trailing empty chunks are dropped.
+		if (docs.size() == 1) {
+			return new String[] { manifest };
+		}
+		int size = docs.size();
+		while (size > 0 && docs.get(size - 1).isEmpty()) {
+			size--;
+		}
+		return docs.subList(0, size).toArray(new String[0]);
+	}
+
+	/**
+	 * Passes the bounds of each non-blank document of a manifest, split as
+	 * {@link #split} splits it, without copying any of them.
+	 * @param manifest the rendered manifest (must be non-null)
+	 * @param documents receives each document's bounds, in order
+	 */
+	public static void forEach(CharSequence manifest, ManifestScanner.Documents documents) {
+		ManifestScanner.scan(manifest, (start, end) -> {
+			if (!ManifestScanner.isBlank(manifest, start, end)) {
+				documents.accept(start, end);
+			}
+		});
 	}
 
 }
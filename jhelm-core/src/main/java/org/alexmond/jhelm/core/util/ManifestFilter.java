@@ -0,0 +1,62 @@
+package org.alexmond.jhelm.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Applies the {@code helm template} document filters ({@code --skip-tests},
+ * {@code --show-only}) to a stream of rendered documents, with the same result as
+ * {@link RenderedManifest#skipTests(String)} and
+ * {@link RenderedManifest#showOnly(String, List)} on the whole manifest. Without
+ * {@code showOnly} every kept document is passed straight on; with it only the matching
+ * documents are held, and they are passed on in request order by {@link #finish()}.
+ */
+public final class ManifestFilter implements Consumer<RenderedManifest.Document> {
+
+	private final boolean skipTests;
+
+	private final List<String> showOnly;
+
+	private final Consumer<RenderedManifest.Document> downstream;
+
+	private final List<RenderedManifest.Document> matches = new ArrayList<>();
+
+	/**
+	 * Creates a filter.
+	 * @param skipTests drop documents carrying a {@code helm.sh/hook: test} annotation
+	 * @param showOnly keep only documents from these template paths (empty or
+	 * {@code null} keeps all)
+	 * @param downstream receives the kept documents
+	 */
+	public ManifestFilter(boolean skipTests, List<String> showOnly, Consumer<RenderedManifest.Document> downstream) {
+		this.skipTests = skipTests;
+		this.showOnly = (showOnly != null) ? showOnly : List.of();
+		this.downstream = downstream;
+	}
+
+	@Override
+	public void accept(RenderedManifest.Document document) {
+		if (skipTests && RenderedManifest.isTestHook(document)) {
+			return;
+		}
+		if (showOnly.isEmpty()) {
+			downstream.accept(document);
+		}
+		else if (RenderedManifest.matchesAny(document, showOnly)) {
+			matches.add(document);
+		}
+	}
+
+	/**
+	 * Passes on the {@code showOnly} selection; a no-op without one. Call once, after
+	 * the last document.
+	 * @throws IllegalArgumentException if a requested template matched no document
+	 */
+	public void finish() {
+		if (!showOnly.isEmpty()) {
+			RenderedManifest.showOnly(matches, showOnly).forEach(downstream);
+		}
+	}
+
+}
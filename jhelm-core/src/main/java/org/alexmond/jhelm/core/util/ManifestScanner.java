@@ -0,0 +1,292 @@
+package org.alexmond.jhelm.core.util;
+
+/**
+ * Index-based scanning of multi-document YAML manifests. Every manifest consumer — the
+ * engine's document splitter, {@link ManifestDocuments}, {@link RenderedManifest},
+ * {@link HookParser} and {@link ManifestDiff} — finds document boundaries here as
+ * offsets into the one {@link CharSequence} it already holds, in a single pass and
+ * without a regex, so a manifest is never copied into per-document strings just to be
+ * inspected. Callers take a substring only for the documents they keep.
+ *
+ * <p>
+ * A line starts at offset 0 or after a line terminator, using the terminators Java's
+ * {@code (?m)^} recognises ({@code \n}, {@code \r}, U+0085, U+2028 and
+ * U+2029), so the boundaries are the ones the regexes they replace found.
+ */
+public final class ManifestScanner {
+
+	private ManifestScanner() {
+	}
+
+	/**
+	 * Receives the bounds of one document.
+	 */
+	@FunctionalInterface
+	public interface Documents {
+
+		/**
+		 * Accepts the next document.
+		 * @param start offset of its first character
+		 * @param end offset just past its last character
+		 */
+		void accept(int start, int end);
+
+	}
+
+	/**
+	 * Splits a manifest on separator lines: a line starting with {@code ---}, optionally
+	 * followed by spaces or tabs and a {@code #} comment, and nothing else. The
+	 * separator line itself (up to, not including, its line terminator) belongs to no
+	 * document, so a {@code ---} inside content or a comment (e.g. a decorative
+	 * {@code # ---- section ----}) is left intact. Every chunk between separators is
+	 * passed on, blank ones included.
+	 * @param manifest the manifest
+	 * @param documents receives each chunk's bounds, in order
+	 */
+	public static void scan(CharSequence manifest, Documents documents) {
+		int length = manifest.length();
+		int start = 0;
+		int at = 0;
+		while ((at = nextDashes(manifest, at, length, true)) >= 0) {
+			int lineEnd = separatorLineEnd(manifest, at, length);
+			if (lineEnd < 0) {
+				at += 3;
+				continue;
+			}
+			documents.accept(start, at);
+			start = lineEnd;
+			at = lineEnd;
+		}
+		documents.accept(start, length);
+	}
+
+	/**
+	 * Finds the next {@code ---} that starts a line.
+	 * @param text the text to search
+	 * @param from the first offset to consider
+	 * @param end the offset to stop at
+	 * @param lineStartAtZero whether offset 0 counts as the start of a line (false when
+	 * the text continues something already consumed)
+	 * @return the offset of the {@code ---}, or {@code -1}
+	 */
+	public static int nextDashes(CharSequence text, int from, int end, boolean lineStartAtZero) {
+		int i = from;
+		if (i == 0) {
+			if (lineStartAtZero && startsWithDashes(text, 0, end)) {
+				return 0;
+			}
+			i = 1;
+		}
+		for (; i + 3 <= end; i++) {
+			if (text.charAt(i) == '-' && isLineTerminator(text.charAt(i - 1)) && startsWithDashes(text, i, end)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Skips the spaces and tabs after a {@code ---} separator.
+	 * @param text the text
+	 * @param dashes the offset of the {@code ---}
+	 * @param end the offset to stop at
+	 * @return the offset just past the separator
+	 */
+	public static int skipSeparator(CharSequence text, int dashes, int end) {
+		int i = dashes + 3;
+		while (i < end && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Tells whether {@code c} ends a line.
+	 * @param c the character
+	 * @return whether it is a line terminator
+	 */
+	public static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	/**
+	 * @param text the text
+	 * @param start the range start
+	 * @param end the range end
+	 * @return the first offset in the range that is not whitespace, as
+	 * {@link String#strip()} judges it ({@code end} if there is none)
+	 */
+	public static int stripStart(CharSequence text, int start, int end) {
+		int i = start;
+		while (i < end && Character.isWhitespace(text.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * @param text the text
+	 * @param start the range start
+	 * @param end the range end
+	 * @return the offset just past the last character in the range that is not
+	 * whitespace, as {@link String#strip()} judges it ({@code start} if there is none)
+	 */
+	public static int stripEnd(CharSequence text, int start, int end) {
+		int i = end;
+		while (i > start && Character.isWhitespace(text.charAt(i - 1))) {
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * @param text the text
+	 * @param start the range start
+	 * @param end the range end
+	 * @return whether the range holds only whitespace, as {@link String#isBlank()} judges
+	 * it
+	 */
+	public static boolean isBlank(CharSequence text, int start, int end) {
+		return stripStart(text, start, end) == end;
+	}
+
+	/**
+	 * @param text the text
+	 * @param start the range start
+	 * @param end the range end
+	 * @return the range with leading and trailing characters up to {@code ' '} removed,
+	 * as {@link String#trim()} does
+	 */
+	public static String trimmed(CharSequence text, int start, int end) {
+		return appendTrimmed(new StringBuilder(), text, start, end).toString();
+	}
+
+	/**
+	 * Appends a range with leading and trailing characters up to {@code ' '} removed, as
+	 * {@link String#trim()} does, without copying it first.
+	 * @param out the builder to append to
+	 * @param text the text
+	 * @param start the range start
+	 * @param end the range end
+	 * @return {@code out}
+	 */
+	public static StringBuilder appendTrimmed(StringBuilder out, CharSequence text, int start, int end) {
+		int s = start;
+		int e = end;
+		while (s < e && text.charAt(s) <= ' ') {
+			s++;
+		}
+		while (e > s && text.charAt(e - 1) <= ' ') {
+			e--;
+		}
+		return out.append(text, s, e);
+	}
+
+	/**
+	 * @param text the text
+	 * @param needle the string to look for
+	 * @param start the range start
+	 * @param end the range end
+	 * @return whether the range contains {@code needle}
+	 */
+	public static boolean contains(CharSequence text, String needle, int start, int end) {
+		return indexOf(text, needle, start, end) >= 0;
+	}
+
+	/**
+	 * @param text the text
+	 * @param needle the string to look for
+	 * @param start the range start
+	 * @param end the range end
+	 * @return the offset of the first {@code needle} within the range, or {@code -1}
+	 */
+	public static int indexOf(CharSequence text, String needle, int start, int end) {
+		int n = needle.length();
+		if (n == 0) {
+			return start;
+		}
+		char first = needle.charAt(0);
+		for (int i = start; i + n <= end; i++) {
+			if (text.charAt(i) == first && regionMatches(text, i, needle)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Tells whether every non-blank line of a range is a YAML comment, so the document
+	 * carries no resource content. Lines are split on {@code \n} only.
+	 * @param text the text
+	 * @param start the range start
+	 * @param end the range end
+	 * @return whether the range holds nothing but comments and blank lines
+	 */
+	public static boolean isCommentOnly(CharSequence text, int start, int end) {
+		int line = start;
+		while (line <= end) {
+			int lineEnd = line;
+			while (lineEnd < end && text.charAt(lineEnd) != '\n') {
+				lineEnd++;
+			}
+			int content = stripStart(text, line, lineEnd);
+			if (content < lineEnd && text.charAt(content) != '#') {
+				return false;
+			}
+			line = lineEnd + 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the value of the first {@code # Source: <path>} marker line in a range.
+	 * @param text the text
+	 * @param start the range start
+	 * @param end the range end
+	 * @return the trimmed path, or {@code null} when the range has no marker line
+	 */
+	public static String sourceMarker(CharSequence text, int start, int end) {
+		String marker = "# Source: ";
+		int i = start;
+		while ((i = indexOf(text, marker, i, end)) >= 0) {
+			if (i == start || isLineTerminator(text.charAt(i - 1))) {
+				int valueStart = i + marker.length();
+				int valueEnd = valueStart;
+				while (valueEnd < end && !isLineTerminator(text.charAt(valueEnd))) {
+					valueEnd++;
+				}
+				if (valueEnd > valueStart) {
+					return trimmed(text, valueStart, valueEnd);
+				}
+			}
+			i++;
+		}
+		return null;
+	}
+
+	private static boolean regionMatches(CharSequence text, int at, String needle) {
+		for (int j = 1; j < needle.length(); j++) {
+			if (text.charAt(at + j) != needle.charAt(j)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean startsWithDashes(CharSequence text, int i, int end) {
+		return i + 3 <= end && text.charAt(i) == '-' && text.charAt(i + 1) == '-' && text.charAt(i + 2) == '-';
+	}
+
+	// The end of the separator line at dashes (the offset of its line terminator, or the
+	// text's end), or -1 when the rest of the line is neither blank nor a comment.
+	private static int separatorLineEnd(CharSequence text, int dashes, int end) {
+		int i = skipSeparator(text, dashes, end);
+		if (i < end && text.charAt(i) == '#') {
+			while (i < end && !isLineTerminator(text.charAt(i))) {
+				i++;
+			}
+		}
+		return (i == end || isLineTerminator(text.charAt(i))) ? i : -1;
+	}
+
+}
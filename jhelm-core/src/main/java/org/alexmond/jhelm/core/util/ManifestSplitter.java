@@ -0,0 +1,125 @@
+package org.alexmond.jhelm.core.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Cleans raw template output into manifest documents incrementally: output is appended
+ * one template at a time, and each document is handed on as soon as its closing
+ * separator has been seen. Fed the whole output at once it yields exactly the documents
+ * the engine has always produced — split the way Helm splits, each stripped, empty and
+ * comment-only documents dropped — so feeding it piecewise changes memory use, never
+ * the manifest.
+ *
+ * <p>
+ * Output is scanned once, by index, as it arrives ({@link ManifestScanner}); only the
+ * document in progress is buffered, and each kept document is copied out of the buffer
+ * exactly once, already stripped.
+ */
+public final class ManifestSplitter {
+
+	// Separators are split the way Helm splits: any "---" that starts a line (optionally
+	// followed by whitespace / an inline comment). Helm's splitter (regexp
+	// "(?:^|\\s*\\n)---\\s*") treats any line that begins with "---" as a separator
+	// and consumes the trailing whitespace, so an inline "--- # comment" (e.g.
+	// yugabyte's templates/secrets.yaml) is a separator whose comment becomes the next
+	// document's content — the preceding resource is terminated cleanly. The "---" must
+	// be at column 0; an indented "---" inside a block scalar is content, not a
+	// separator (Helm behaves the same).
+
+	private final Consumer<RenderedManifest.Document> documents;
+
+	// Output after the last separator: the start of a document whose end has not been
+	// appended yet.
+	private final StringBuilder pending = new StringBuilder();
+
+	// Template that produced the pending document's first content.
+	private String pendingSource;
+
+	// Whether pending starts the manifest (no separator seen yet). Otherwise it starts
+	// right after a separator, so a "---" at its very start continues that separator's
+	// line and is content.
+	private boolean atStart = true;
+
+	/**
+	 * Creates a splitter.
+	 * @param documents receives each cleaned document, in order
+	 */
+	public ManifestSplitter(Consumer<RenderedManifest.Document> documents) {
+		this.documents = documents;
+	}
+
+	/**
+	 * Cleans a complete manifest in one pass.
+	 * @param manifest the raw rendered output, or {@code null}
+	 * @return the documents joined with {@code ---} separators and a trailing newline,
+	 * or the input unchanged if it is {@code null} or empty
+	 */
+	public static String clean(String manifest) {
+		if (manifest == null || manifest.isEmpty()) {
+			return manifest;
+		}
+		StringBuilder cleaned = new StringBuilder(manifest.length());
+		ManifestSplitter splitter = new ManifestSplitter((document) -> {
+			if (!cleaned.isEmpty()) {
+				cleaned.append("---\n");
+			}
+			cleaned.append(document.text()).append('\n');
+		});
+		splitter.append(null, manifest);
+		splitter.finish();
+		return cleaned.toString();
+	}
+
+	/**
+	 * Appends the output of one template and emits every document it completes.
+	 * @param source the template path the output was rendered from, or {@code null}
+	 * @param output the raw output
+	 */
+	public void append(String source, String output) {
+		String docSource = ManifestScanner.isBlank(pending, 0, pending.length()) ? source : pendingSource;
+		// A separator may straddle the previous output and this one, so rescan the last
+		// few characters already seen.
+		int scanFrom = Math.max(0, pending.length() - 3);
+		pending.append(output);
+		if (atStart) {
+			// Like trimming the whole manifest: leading blanks are dropped, so a "---"
+			// right after them still counts as a separator.
+			int first = 0;
+			while (first < pending.length() && pending.charAt(first) <= ' ') {
+				first++;
+			}
+			pending.delete(0, first);
+			scanFrom = Math.max(0, scanFrom - first);
+		}
+		int end = pending.length();
+		int start = 0;
+		int dashes;
+		while ((dashes = ManifestScanner.nextDashes(pending, Math.max(scanFrom, start), end, atStart)) >= 0) {
+			emit(docSource, start, dashes);
+			start = ManifestScanner.skipSeparator(pending, dashes, end);
+			docSource = source;
+			atStart = false;
+		}
+		pending.delete(0, start);
+		pendingSource = docSource;
+	}
+
+	/**
+	 * Emits the last document. Call once, after the final {@link #append}.
+	 */
+	public void finish() {
+		emit(pendingSource, 0, pending.length());
+		pending.setLength(0);
+	}
+
+	private void emit(String source, int start, int end) {
+		int from = ManifestScanner.stripStart(pending, start, end);
+		int to = ManifestScanner.stripEnd(pending, from, end);
+		// Skip empty documents and comment-only documents (no resource content).
+		if (from == to || ManifestScanner.isCommentOnly(pending, from, to)) {
+			return;
+		}
+		documents.accept(new RenderedManifest.Document(source, pending.substring(from, to)));
+	}
+
+}
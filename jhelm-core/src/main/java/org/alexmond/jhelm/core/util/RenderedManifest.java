@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -17,25 +16,19 @@ import java.util.regex.Pattern;
  */
 public final class RenderedManifest {
 
-	private static final Pattern SOURCE = Pattern.compile("(?m)^# Source: (.+)$");
-
 	// Matches the test-hook annotation Helm's `--skip-tests` filters on: `helm.sh/hook:
 	// test`
 	// (and the legacy `test-success` / `test-failure` values), with optional quoting.
 	private static final Pattern TEST_HOOK = Pattern.compile("(?m)helm\\.sh/hook[\"']?\\s*:\\s*[\"']?\\s*test");
 
-	/**
-	 * Splits on a {@code ---} document separator alone on its own line (CRLF-tolerant).
-	 */
-	private static final Pattern DOC_SEPARATOR = Pattern.compile("\\r?\\n---\\r?\\n");
-
 	private RenderedManifest() {
 	}
 
 	/**
-	 * Splits a rendered manifest into documents on {@code ---} separators, attributing
-	 * each to its {@code # Source:} marker (a document without its own marker inherits
-	 * the previous one's).
+	 * Splits a rendered manifest into documents on {@code ---} separator lines (as
+	 * {@link ManifestDocuments} splits), attributing each to its {@code # Source:} marker
+	 * (a document without its own marker inherits the previous one's). The manifest is
+	 * scanned once by offset; only the kept documents are copied out of it.
 	 * @param manifest the rendered manifest, or {@code null}
 	 * @return the documents in order (empty if the manifest is blank)
 	 */
@@ -44,16 +37,15 @@ public final class RenderedManifest {
 		if (manifest == null || manifest.isBlank()) {
 			return docs;
 		}
-		String lastSource = null;
-		for (String chunk : DOC_SEPARATOR.split(manifest)) {
-			if (chunk.isBlank()) {
-				continue;
+		ManifestDocuments.forEach(manifest, (start, end) -> {
+			String source = ManifestScanner.sourceMarker(manifest, start, end);
+			if (source == null && !docs.isEmpty()) {
+				source = docs.get(docs.size() - 1).source();
 			}
-			Matcher matcher = SOURCE.matcher(chunk);
-			String source = matcher.find() ? matcher.group(1).trim() : lastSource;
-			lastSource = source;
-			docs.add(new Document(source, chunk.strip()));
-		}
+			int from = ManifestScanner.stripStart(manifest, start, end);
+			int to = ManifestScanner.stripEnd(manifest, from, end);
+			docs.add(new Document(source, manifest.substring(from, to)));
+		});
 		return docs;
 	}
 
@@ -88,7 +80,17 @@ public final class RenderedManifest {
 	 * document
 	 */
 	public static String showOnly(String manifest, List<String> templates) {
-		List<Document> docs = parse(manifest);
+		return join(showOnly(parse(manifest), templates));
+	}
+
+	/**
+	 * Document-list form of {@link #showOnly(String, List)}.
+	 * @param docs the rendered documents, in manifest order
+	 * @param templates the requested template paths
+	 * @return the selected documents, ordered by the request order
+	 * @throws IllegalArgumentException if a requested template matches no document
+	 */
+	public static List<Document> showOnly(List<Document> docs, List<String> templates) {
 		List<Document> selected = new ArrayList<>();
 		for (String request : templates) {
 			String normalized = request.replace('\\', '/').strip();
@@ -98,7 +100,23 @@ public final class RenderedManifest {
 			}
 			selected.addAll(matches);
 		}
-		return join(selected);
+		return selected;
+	}
+
+	/**
+	 * Tells whether {@link #showOnly(List, List)} could select a document, so a caller
+	 * streaming a manifest need only keep the documents that match.
+	 * @param doc the document
+	 * @param templates the requested template paths
+	 * @return {@code true} if the document's source matches any requested path
+	 */
+	public static boolean matchesAny(Document doc, List<String> templates) {
+		for (String request : templates) {
+			if (matchesSource(doc.source(), request.replace('\\', '/').strip())) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	private static boolean matchesSource(String source, String request) {
@@ -115,10 +133,20 @@ public final class RenderedManifest {
 	 * @return the manifest with test-hook documents removed
 	 */
 	public static String skipTests(String manifest) {
-		List<Document> kept = parse(manifest).stream().filter((doc) -> !TEST_HOOK.matcher(doc.text()).find()).toList();
+		List<Document> kept = parse(manifest).stream().filter((doc) -> !isTestHook(doc)).toList();
 		return join(kept);
 	}
 
+	/**
+	 * Tells whether a document carries a Helm test-hook annotation, the documents
+	 * {@link #skipTests(String)} drops.
+	 * @param doc the document
+	 * @return {@code true} for a chart test hook
+	 */
+	public static boolean isTestHook(Document doc) {
+		return TEST_HOOK.matcher(doc.text()).find();
+	}
+
 	/**
 	 * Groups the manifest's documents by source template path, preserving order, so each
 	 * group can be written to its own file under an output directory. Documents without a
@@ -146,6 +146,17 @@ public final class ValuesLoader {
 		return merged;
 	}
 
+	/**
+	 * Parses YAML values text, merging multi-document input as {@link #load(File)} does.
+	 * @param yaml the YAML text
+	 * @return merged values map (empty if the text has no non-null documents)
+	 */
+	public static Map<String, Object> parse(String yaml) {
+		Map<String, Object> merged = new LinkedHashMap<>();
+		mergeGatedDocuments(readDocuments(new StringReader(yaml)), ValuesProfiles.none(), merged);
+		return merged;
+	}
+
 	private static Iterable<Object> readDocuments(Reader reader) {
 		LoadSettings settings = LoadSettings.builder().setSchema(HELM_SCHEMA).build();
 		return new Load(settings).loadAllFromReader(reader);
@@ -344,6 +355,62 @@ public final class ValuesLoader {
 		}
 	}
 
+	/**
+	 * Deep-merges {@code override} over {@code base} without mutating either: only the
+	 * maps on a path both sides define are copied, every other subtree is shared with
+	 * the inputs. Use this instead of copying {@code base} and {@link #deepMerge deep
+	 * merging} into the copy, which writes into {@code base}'s nested maps.
+	 * @param base the lower-precedence values, or {@code null}
+	 * @param override the higher-precedence values, or {@code null}
+	 * @return a new merged map
+	 */
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> merge(Map<String, Object> base, Map<String, Object> override) {
+		Map<String, Object> merged = (base != null) ? new LinkedHashMap<>(base) : new LinkedHashMap<>();
+		if (override == null) {
+			return merged;
+		}
+		for (Map.Entry<String, Object> entry : override.entrySet()) {
+			Object overrideVal = entry.getValue();
+			Object baseVal = merged.get(entry.getKey());
+			if ((overrideVal instanceof Map) && (baseVal instanceof Map)) {
+				merged.put(entry.getKey(), merge((Map<String, Object>) baseVal, (Map<String, Object>) overrideVal));
+			}
+			else {
+				merged.put(entry.getKey(), overrideVal);
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Deep-copies a values tree: every nested map and list is copied, scalars are shared.
+	 * Use this before mutating values in place when the tree may be shared, as a cached
+	 * chart's defaults are.
+	 * @param values the values to copy, or {@code null}
+	 * @return a new map no part of which is shared with {@code values}, save its scalars
+	 */
+	public static Map<String, Object> copy(Map<String, Object> values) {
+		Map<String, Object> copy = new LinkedHashMap<>();
+		if (values != null) {
+			values.forEach((key, value) -> copy.put(key, copyValue(value)));
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object copyValue(Object value) {
+		if (value instanceof Map<?, ?> map) {
+			return copy((Map<String, Object>) map);
+		}
+		if (value instanceof List<?> list) {
+			List<Object> copy = new ArrayList<>(list.size());
+			list.forEach((item) -> copy.add(copyValue(item)));
+			return copy;
+		}
+		return value;
+	}
+
 	/**
 	 * Constructs a Boolean from a scalar the {@link #YAML11_BOOL} resolver tagged as
 	 * {@code !!bool} — handles the YAML 1.1 tokens (yes/no/on/off/y/n) in addition to
@@ -9,7 +9,9 @@ import java.util.Arrays;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.service.KubeService;
 
@@ -31,7 +33,8 @@ class HistoryActionTest {
 		Release v1 = Release.builder().name("myapp").version(1).build();
 		Release v2 = Release.builder().name("myapp").version(2).build();
 
-		when(kubeService.getReleaseHistory(anyString(), anyString())).thenReturn(Arrays.asList(v1, v2));
+		when(kubeService.getReleaseHistory(anyString(), anyString(), eq(DecodeProfile.SUMMARY)))
+			.thenReturn(Arrays.asList(v1, v2));
 
 		List<Release> result = historyAction.history("myapp", "default");
 
@@ -6,6 +6,7 @@ import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -34,6 +35,7 @@ import org.alexmond.jhelm.core.model.ReleaseContext;
 import org.alexmond.jhelm.core.model.ReleaseStatus;
 import org.alexmond.jhelm.core.service.Engine;
 import org.alexmond.jhelm.core.service.KubeService;
+import org.alexmond.jhelm.core.service.ValueEncryptor;
 import org.alexmond.jhelm.core.util.HookParser;
 
 class InstallActionTest {
@@ -445,6 +447,40 @@ class InstallActionTest {
 		verify(kubeService, never()).ensureNamespace(anyString());
 	}
 
+	@Test
+	void testInstallDecryptsWithoutWritingIntoTheChartOrTheOverrides() throws Exception {
+		ValueEncryptor encryptor = new ValueEncryptor("test-key", "deadbeef", true);
+		installAction.setValueEncryptor(encryptor);
+		String defaultToken = encryptor.encrypt("default-secret");
+		String overrideToken = encryptor.encrypt("override-secret");
+		Map<String, Object> defaults = new HashMap<>();
+		defaults.put("db", new HashMap<>(Map.of("password", defaultToken)));
+		Map<String, Object> overrides = new HashMap<>();
+		overrides.put("api", new HashMap<>(Map.of("token", overrideToken)));
+		ChartMetadata metadata = ChartMetadata.builder().name("mychart").version("1.0.0").build();
+		Chart chart = Chart.builder().metadata(metadata).values(defaults).build();
+		when(engine.render(any(Chart.class), anyMap(), any(ReleaseContext.class), any(Capabilities.class)))
+			.thenReturn("manifest");
+
+		Release release = installAction.install(InstallOptions.builder()
+			.chart(chart)
+			.releaseName("my-release")
+			.namespace("default")
+			.values(overrides)
+			.revision(1)
+			.build());
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+		verify(engine).render(any(Chart.class), captor.capture(), any(ReleaseContext.class), any(Capabilities.class));
+		assertEquals("default-secret", ((Map<?, ?>) captor.getValue().get("db")).get("password"));
+		assertEquals("override-secret", ((Map<?, ?>) captor.getValue().get("api")).get("token"));
+		// The chart may be cached and the overrides are persisted: both stay encrypted.
+		assertEquals(defaultToken, ((Map<?, ?>) chart.getValues().get("db")).get("password"));
+		assertEquals(overrideToken, ((Map<?, ?>) overrides.get("api")).get("token"));
+		assertEquals(overrideToken, ((Map<?, ?>) release.getConfig().getValues().get("api")).get("token"));
+	}
+
 	@Test
 	void testInstallRejectsLibraryChart() {
 		ChartMetadata metadata = ChartMetadata.builder().name("mylib").version("1.0.0").type("library").build();
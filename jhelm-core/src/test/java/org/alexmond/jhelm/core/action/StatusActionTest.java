@@ -11,7 +11,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
 import org.alexmond.jhelm.core.service.KubeService;
@@ -33,7 +35,8 @@ class StatusActionTest {
 	void testStatusReturnsRelease() throws Exception {
 		Release mockRelease = Release.builder().name("test-release").namespace("default").version(1).build();
 
-		when(kubeService.getRelease(anyString(), anyString())).thenReturn(Optional.of(mockRelease));
+		when(kubeService.getRelease(anyString(), anyString(), eq(DecodeProfile.MANIFEST)))
+			.thenReturn(Optional.of(mockRelease));
 
 		Optional<Release> result = statusAction.status("test-release", "default");
 
@@ -43,7 +46,7 @@ class StatusActionTest {
 
 	@Test
 	void testStatusReturnsEmpty() throws Exception {
-		when(kubeService.getRelease(anyString(), anyString())).thenReturn(Optional.empty());
+		when(kubeService.getRelease(anyString(), anyString(), eq(DecodeProfile.MANIFEST))).thenReturn(Optional.empty());
 
 		Optional<Release> result = statusAction.status("non-existent", "default");
 
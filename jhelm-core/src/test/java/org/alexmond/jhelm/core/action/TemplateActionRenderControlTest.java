@@ -2,16 +2,22 @@ package org.alexmond.jhelm.core.action;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.alexmond.jhelm.core.model.Chart;
 import org.alexmond.jhelm.core.service.ChartLoader;
 import org.alexmond.jhelm.core.service.Engine;
+import org.alexmond.jhelm.core.service.ValueEncryptor;
+import org.alexmond.jhelm.core.util.RenderedManifest;
 import org.alexmond.jhelm.core.util.ValuesProfiles;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -120,4 +126,57 @@ class TemplateActionRenderControlTest {
 		assertFalse(manifest.contains("kind: Pod"), manifest);
 	}
 
+	@Test
+	void testStreamingRenderMatchesStringRender() {
+		List<RenderedManifest.Document> docs = new ArrayList<>();
+		templateAction.render(chartDir.toString(), "r", "default", new HashMap<>(), ValuesProfiles.none(), null,
+				List.of(), false, true, docs::add);
+		assertEquals(render(false, true), RenderedManifest.join(docs));
+		assertEquals("crdchart/crds/widget.yaml", docs.get(0).source());
+	}
+
+	@Test
+	void testStreamingRenderWithControlsMatchesStringForm() {
+		List<String> showOnly = List.of("templates/svc.yaml", "templates/cm.yaml");
+		List<RenderedManifest.Document> docs = new ArrayList<>();
+		templateAction.renderWithControls(chartDir.toString(), "r", "default", new HashMap<>(), ValuesProfiles.none(),
+				null, List.of(), false, false, true, showOnly, docs::add);
+		assertEquals(templateAction.renderWithControls(chartDir.toString(), "r", "default", new HashMap<>(), false,
+				false, true, showOnly), RenderedManifest.join(docs));
+	}
+
+	@Test
+	void testLoadedChartRendersLikeItsDirectory() {
+		Chart chart = new ChartLoader().load(chartDir.toFile());
+		assertEquals(templateAction.renderWithControls(chartDir.toString(), "r", "default", new HashMap<>(), true,
+				true, true, List.of()),
+				templateAction.renderWithControls(chart, "r", "default", new HashMap<>(), true, true, true, List.of()));
+	}
+
+	@Test
+	void testRenderingDecryptsWithoutWritingIntoTheLoadedChart() throws Exception {
+		ValueEncryptor encryptor = new ValueEncryptor("test-key", "deadbeef", true);
+		String token = encryptor.encrypt("s3cret");
+		Files.writeString(chartDir.resolve("values.yaml"), "db:\n  password: \"" + token + "\"\n");
+		Files.writeString(chartDir.resolve("templates/secret.yaml"), """
+				apiVersion: v1
+				kind: Secret
+				metadata:
+				  name: db
+				stringData:
+				  password: {{ .Values.db.password }}
+				""");
+		TemplateAction action = new TemplateAction(new Engine(), new ChartLoader());
+		action.setValueEncryptor(encryptor);
+		Chart chart = new ChartLoader().load(chartDir.toFile());
+
+		for (int i = 0; i < 2; i++) {
+			String manifest = action.renderWithControls(chart, "r", "default", new HashMap<>(), false, false, false,
+					List.of("templates/secret.yaml"));
+			assertTrue(manifest.contains("password: s3cret"), manifest);
+		}
+		// A loaded chart may be cached and shared, so its defaults stay encrypted.
+		assertEquals(token, ((Map<?, ?>) chart.getValues().get("db")).get("password"));
+	}
+
 }
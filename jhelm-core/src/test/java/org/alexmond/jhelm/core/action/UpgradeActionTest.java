@@ -41,6 +41,7 @@ import org.alexmond.jhelm.core.model.ReleaseContext;
 import org.alexmond.jhelm.core.model.ReleaseStatus;
 import org.alexmond.jhelm.core.service.Engine;
 import org.alexmond.jhelm.core.service.KubeService;
+import org.alexmond.jhelm.core.service.ValueEncryptor;
 import org.alexmond.jhelm.core.util.HookParser;
 
 class UpgradeActionTest {
@@ -948,4 +949,33 @@ class UpgradeActionTest {
 		assertEquals("x", upgraded.getConfig().getValues().get("extra"));
 	}
 
+	@Test
+	void testUpgradeDecryptsWithoutWritingIntoTheChartOrTheOverrides() {
+		ValueEncryptor encryptor = new ValueEncryptor("test-key", "deadbeef", true);
+		upgradeAction.setValueEncryptor(encryptor);
+		String defaultToken = encryptor.encrypt("default-secret");
+		String overrideToken = encryptor.encrypt("override-secret");
+		Chart newChart = newChartWithChangedDefault();
+		newChart.getValues().put("db", new HashMap<>(Map.of("password", defaultToken)));
+		Map<String, Object> overrides = new HashMap<>();
+		overrides.put("api", new HashMap<>(Map.of("token", overrideToken)));
+		when(engine.render(any(Chart.class), anyMap(), any(ReleaseContext.class), any(Capabilities.class)))
+			.thenReturn("manifest");
+
+		Release upgraded = upgradeAction.upgrade(UpgradeOptions.builder()
+			.currentRelease(currentReleaseWithPrior())
+			.newChart(newChart)
+			.values(overrides)
+			.valueStrategy(UpgradeValueStrategy.DEFAULT)
+			.build());
+
+		Map<String, Object> rendered = renderValuesFor(upgraded);
+		assertEquals("default-secret", ((Map<?, ?>) rendered.get("db")).get("password"));
+		assertEquals("override-secret", ((Map<?, ?>) rendered.get("api")).get("token"));
+		// The chart may be cached and the overrides are persisted: both stay encrypted.
+		assertEquals(defaultToken, ((Map<?, ?>) newChart.getValues().get("db")).get("password"));
+		assertEquals(overrideToken, ((Map<?, ?>) overrides.get("api")).get("token"));
+		assertEquals(overrideToken, ((Map<?, ?>) upgraded.getConfig().getValues().get("api")).get("token"));
+	}
+
 }
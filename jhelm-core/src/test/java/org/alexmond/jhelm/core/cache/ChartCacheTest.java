@@ -0,0 +1,65 @@
+package org.alexmond.jhelm.core.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.service.ChartLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ChartCacheTest {
+
+	@TempDir
+	Path tempDir;
+
+	private Path chart(String name) throws IOException {
+		Path dir = Files.createDirectories(this.tempDir.resolve(name));
+		Files.writeString(dir.resolve("Chart.yaml"), "apiVersion: v2\nname: " + name + "\nversion: 1.0.0\n");
+		return dir;
+	}
+
+	@Test
+	void testLoadReturnsTheCachedChart() throws IOException {
+		ChartCache cache = new ChartCache(new ChartLoader(), 4);
+		Path dir = chart("nginx");
+
+		Chart first = cache.load(dir);
+		assertEquals("nginx", first.getMetadata().getName());
+		assertSame(first, cache.load(dir));
+		assertSame(first, cache.load(dir.resolve("../nginx")));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void testLeastRecentlyUsedChartIsEvicted() throws IOException {
+		ChartCache cache = new ChartCache(new ChartLoader(), 2);
+		Path a = chart("a");
+		Path b = chart("b");
+		Chart chartA = cache.load(a);
+		Chart chartB = cache.load(b);
+		cache.load(a);
+
+		cache.load(chart("c"));
+
+		assertEquals(2, cache.size());
+		assertSame(chartA, cache.load(a));
+		assertNotSame(chartB, cache.load(b));
+	}
+
+	@Test
+	void testClearDropsEveryChart() throws IOException {
+		ChartCache cache = new ChartCache(new ChartLoader(), 2);
+		Chart chart = cache.load(chart("nginx"));
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		assertNotSame(chart, cache.load(this.tempDir.resolve("nginx")));
+	}
+
+}
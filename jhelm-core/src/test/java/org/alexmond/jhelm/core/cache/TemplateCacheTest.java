@@ -1,9 +1,17 @@
 package org.alexmond.jhelm.core.cache;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.alexmond.gotmpl4j.parse.Node;
+import org.alexmond.jhelm.core.metrics.JhelmMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -11,6 +19,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TemplateCacheTest {
 
@@ -85,6 +95,106 @@ class TemplateCacheTest {
 		assertNotSame(original, cached);
 	}
 
+	@Test
+	void weightBound_evictsUntilWithinMaxWeight() {
+		TemplateCache weighted = new TemplateCache(100, 250, null);
+		Node node = new TestNode();
+
+		weighted.put("a", Map.of("n", node), 100);
+		weighted.put("b", Map.of("n", node), 100);
+		weighted.put("c", Map.of("n", node), 100);
+
+		assertEquals(2, weighted.size());
+		assertEquals(200, weighted.weightedSize());
+		assertEquals(1, weighted.evictionCount());
+		assertNull(weighted.get("a"));
+	}
+
+	@Test
+	void entryHeavierThanMaxWeight_isNotRetained() {
+		TemplateCache weighted = new TemplateCache(100, 50, null);
+		weighted.put("huge", Map.of("n", new TestNode()), 51);
+
+		assertNull(weighted.get("huge"));
+		assertEquals(0, weighted.weightedSize());
+	}
+
+	@Test
+	void admission_keepsFrequentlyUsedEntryOverOneOffs() {
+		TemplateCache small = new TemplateCache(3);
+		Node node = new TestNode();
+		small.put("hot", Map.of("n", node));
+		for (int i = 0; i < 5; i++) {
+			small.get("hot");
+		}
+		// A stream of one-off templates would flush "hot" from a plain LRU cache.
+		for (int i = 0; i < 20; i++) {
+			small.put("once" + i, Map.of("n", node));
+		}
+
+		assertNotNull(small.get("hot"));
+		assertEquals(3, small.size());
+	}
+
+	@Test
+	void put_replacingKeyKeepsWeightConsistent() {
+		TemplateCache weighted = new TemplateCache(10, 1000, null);
+		Node node = new TestNode();
+		weighted.put("k", Map.of("n", node), 300);
+		weighted.put("k", Map.of("n", node), 100);
+
+		assertEquals(1, weighted.size());
+		assertEquals(100, weighted.weightedSize());
+		assertEquals(0, weighted.evictionCount());
+	}
+
+	@Test
+	void load_storesLoaderResultAndRecordsMetrics() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		TemplateCache metered = new TemplateCache(1, 1000, new JhelmMetrics(registry));
+		Node node = new TestNode();
+
+		Map<String, Node> loaded = metered.load("a", 10, () -> Map.of("n", node));
+		metered.load("b", 20, () -> Map.of("n", node));
+
+		assertSame(node, loaded.get("n"));
+		assertEquals(2, registry.find("jhelm.cache.load").timer().count());
+		assertEquals(1.0, registry.find("jhelm.cache.evictions").counter().count());
+		assertEquals(1.0, registry.find("jhelm.cache.size").gauge().value());
+		assertEquals(metered.weightedSize(), registry.find("jhelm.cache.weight").gauge().value());
+	}
+
+	@Test
+	void concurrentAccess_staysWithinBounds() throws Exception {
+		TemplateCache shared = new TemplateCache(50, 5_000, null);
+		Node node = new TestNode();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int seed = t;
+				futures.add(pool.submit(() -> {
+					for (int i = 0; i < 2_000; i++) {
+						String key = "k" + ((i * 31 + seed) % 200);
+						if (shared.get(key) == null) {
+							shared.put(key, Map.of("n", node), 1 + (i % 150));
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			pool.shutdownNow();
+		}
+
+		assertTrue(shared.size() <= 50);
+		assertTrue(shared.weightedSize() <= 5_000);
+		assertTrue(shared.evictionCount() > 0);
+	}
+
 	// Minimal Node implementation for testing
 	private static final class TestNode implements Node {
 
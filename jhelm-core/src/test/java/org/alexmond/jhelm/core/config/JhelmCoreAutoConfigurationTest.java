@@ -143,6 +143,34 @@ class JhelmCoreAutoConfigurationTest {
 		});
 	}
 
+	@Test
+	void templateCacheMaxWeightApplied() {
+		contextRunner.withPropertyValues("jhelm.template-cache-max-weight=100").run((ctx) -> {
+			TemplateCache cache = ctx.getBean(TemplateCache.class);
+			cache.put("a", Map.of(), 60);
+			cache.put("b", Map.of(), 60);
+			assertEquals(1, cache.size());
+			assertEquals(60, cache.weightedSize());
+		});
+	}
+
+	@Test
+	void engineRenderThreadsDefaultToOne() {
+		contextRunner.run((ctx) -> assertEquals(1, ctx.getBean(Engine.class).getRenderThreads()));
+	}
+
+	@Test
+	void engineRenderThreadsApplied() {
+		contextRunner.withPropertyValues("jhelm.engine.render-threads=6")
+			.run((ctx) -> assertEquals(6, ctx.getBean(Engine.class).getRenderThreads()));
+	}
+
+	@Test
+	void engineSubchartThreadsApplied() {
+		contextRunner.withPropertyValues("jhelm.engine.subchart-threads=4")
+			.run((ctx) -> assertEquals(4, ctx.getBean(Engine.class).getSubchartThreads()));
+	}
+
 	@Test
 	void jhelmMetricsBeanCreatedWhenMeterRegistryPresent() {
 		contextRunner.withBean(SimpleMeterRegistry.class, SimpleMeterRegistry::new).run((ctx) -> {
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
@@ -75,6 +76,23 @@ class JhelmMetricsTest {
 		assertEquals(10.0, gauge.value());
 	}
 
+	@Test
+	void testCacheEvictionCounterAndLoadTimer() {
+		metrics.recordCacheEviction();
+		metrics.recordCacheLoad(2_000_000L);
+		assertEquals(1.0, registry.find("jhelm.cache.evictions").counter().count());
+		assertEquals(1, registry.find("jhelm.cache.load").timer().count());
+	}
+
+	@Test
+	void testCacheWeightGauge() {
+		AtomicInteger weight = new AtomicInteger(1024);
+		metrics.registerCacheWeightGauge(weight::get);
+		Gauge gauge = registry.find("jhelm.cache.weight").gauge();
+		assertNotNull(gauge);
+		assertEquals(1024.0, gauge.value());
+	}
+
 	@Test
 	void testKubeOperationTimer() {
 		Timer timer = metrics.kubeOperationTimer("apply");
@@ -130,6 +148,49 @@ class JhelmMetricsTest {
 				registry.find("jhelm.chart.pulls").tag("source", "oci").tag("outcome", "error").counter().count());
 	}
 
+	@Test
+	void testRecordIndexLookupsAndParse() {
+		metrics.recordIndexMiss();
+		metrics.recordIndexHit();
+		metrics.recordIndexHit();
+		metrics.recordIndexParse(5_000_000L);
+		assertEquals(2.0, registry.find("jhelm.repo.index.requests").tag("result", "hit").counter().count());
+		assertEquals(1.0, registry.find("jhelm.repo.index.requests").tag("result", "miss").counter().count());
+		assertEquals(1, registry.find("jhelm.repo.index.parse").timer().count());
+	}
+
+	@Test
+	void testRecordRepoUpdateTagsRepoAndOutcome() {
+		metrics.recordRepoUpdate("bitnami", "updated", 3_000_000L, 1024);
+		metrics.recordRepoUpdate("bitnami", "not-modified", 1_000_000L, 0);
+		assertEquals(1,
+				registry.find("jhelm.repo.update").tag("repo", "bitnami").tag("outcome", "updated").timer().count());
+		assertEquals(1,
+				registry.find("jhelm.repo.update").tag("repo", "bitnami").tag("outcome", "not-modified").timer().count());
+		assertEquals(1024.0, registry.find("jhelm.repo.update.bytes").tag("repo", "bitnami").summary().totalAmount());
+	}
+
+	@Test
+	void testRecordDependencyDownloadTagsOutcome() {
+		metrics.recordDependencyDownload("success", 2_000_000L);
+		metrics.recordDependencyDownload("success", 4_000_000L);
+		metrics.recordDependencyDownload("error", 1_000_000L);
+		assertEquals(2, registry.find("jhelm.dependency.download").tag("outcome", "success").timer().count());
+		assertEquals(1, registry.find("jhelm.dependency.download").tag("outcome", "error").timer().count());
+	}
+
+	@Test
+	void testRecordOciBlobTransferAndRetry() {
+		metrics.recordOciBlobTransfer("upload", 4096, 2_000_000L);
+		metrics.recordOciBlobTransfer("download", 1024, 1_000_000L);
+		metrics.recordOciBlobRetry("upload");
+		assertEquals(1, registry.find("jhelm.oci.blob.transfer").tag("direction", "upload").timer().count());
+		assertEquals(4096.0,
+				registry.find("jhelm.oci.blob.bytes").tag("direction", "upload").summary().totalAmount());
+		assertEquals(1.0, registry.find("jhelm.oci.blob.retries").tag("direction", "upload").counter().count());
+		assertNull(registry.find("jhelm.oci.blob.retries").tag("direction", "download").counter());
+	}
+
 	@Test
 	void testGetRegistry() {
 		assertEquals(registry, metrics.getRegistry());
@@ -1,5 +1,7 @@
 package org.alexmond.jhelm.core.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.Base64;
@@ -14,6 +16,7 @@ import tools.jackson.databind.node.ObjectNode;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -109,6 +112,15 @@ class ReleaseHelmInteropTest {
 				chart.get("schema").asString());
 	}
 
+	@Test
+	void templateDigestIsNotStored() {
+		Release release = sampleReleaseWithChart();
+		// Populate the lazily computed digest; it is an in-memory cache key only.
+		assertNotNull(release.getChart().getTemplates().get(0).getDigest());
+		ObjectNode root = (ObjectNode) this.mapper.readTree(new HelmReleaseCodec().toJson(release));
+		assertFalse(root.get("chart").get("templates").get(0).has("digest"), root.toString());
+	}
+
 	@Test
 	void roundTripsChartThroughHelmStorageFormat() {
 		HelmReleaseCodec codec = new HelmReleaseCodec();
@@ -122,6 +134,50 @@ class ReleaseHelmInteropTest {
 		assertEquals("{}", chart.getValuesSchema());
 	}
 
+	@Test
+	void summaryDecodeSkipsManifestAndChartContent() {
+		HelmReleaseCodec codec = new HelmReleaseCodec();
+		Release back = codec.fromJson(stream(codec.toJson(sampleReleaseWithChart())), DecodeProfile.SUMMARY);
+		Chart chart = back.getChart();
+		// what a release listing shows is kept
+		assertEquals("demo", chart.getMetadata().getName());
+		assertEquals(2, chart.getValues().get("replicaCount"));
+		assertEquals(ReleaseStatus.DEPLOYED, back.getInfo().getStatus());
+		// the manifest, templates, files and schema are never decoded
+		assertNull(back.getManifest());
+		assertTrue(chart.getTemplates().isEmpty(), chart.getTemplates().toString());
+		assertTrue(chart.getFiles().isEmpty(), chart.getFiles().toString());
+		assertNull(chart.getValuesSchema());
+	}
+
+	@Test
+	void manifestDecodeKeepsManifestButSkipsChartContent() {
+		HelmReleaseCodec codec = new HelmReleaseCodec();
+		Release back = codec.fromJson(stream(codec.toJson(sampleReleaseWithChart())), DecodeProfile.MANIFEST);
+		assertEquals("apiVersion: v1", back.getManifest());
+		assertEquals("demo", back.getChart().getMetadata().getName());
+		assertTrue(back.getChart().getTemplates().isEmpty());
+	}
+
+	@Test
+	void streamedDecodeSkipsSubchartContent() {
+		HelmReleaseCodec codec = new HelmReleaseCodec();
+		Chart parent = sampleReleaseWithChart().getChart();
+		Chart withSubchart = parent.toBuilder().dependencies(List.of(parent)).build();
+		byte[] json = codec.toJson(sampleRelease().toBuilder().chart(withSubchart).build());
+		Chart subchart = codec.fromJson(stream(json), DecodeProfile.SUMMARY).getChart().getDependencies().get(0);
+		assertEquals("demo", subchart.getMetadata().getName());
+		assertTrue(subchart.getTemplates().isEmpty());
+		assertTrue(subchart.getFiles().isEmpty());
+	}
+
+	@Test
+	void fullStreamedDecodeMatchesByteDecode() {
+		HelmReleaseCodec codec = new HelmReleaseCodec();
+		byte[] json = codec.toJson(sampleReleaseWithChart());
+		assertEquals(codec.fromJson(json), codec.fromJson(stream(json), DecodeProfile.FULL));
+	}
+
 	@Test
 	void readsAHelmShapedChartPayload() {
 		// A chart embedded as the Helm CLI writes it: base64 template/file data, files as
@@ -149,6 +205,10 @@ class ReleaseHelmInteropTest {
 		return Base64.getEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
 	}
 
+	private static InputStream stream(byte[] json) {
+		return new ByteArrayInputStream(json);
+	}
+
 	private Release sampleReleaseWithChart() {
 		Map<String, String> files = new LinkedHashMap<>();
 		files.put("NOTES.txt", "hello");
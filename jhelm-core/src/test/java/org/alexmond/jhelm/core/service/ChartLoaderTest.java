@@ -1,13 +1,23 @@
 package org.alexmond.jhelm.core.service;
 
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -16,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.alexmond.jhelm.core.exception.ChartLoadException;
 import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.util.ContentDigests;
 
 class ChartLoaderTest {
 
@@ -507,4 +518,195 @@ class ChartLoaderTest {
 		assertTrue(names.contains("NOTES.txt"), "NOTES.txt should be loaded");
 	}
 
+	@Test
+	void testTemplatesCarryContentDigest() throws Exception {
+		Path chartDir = tempDir.resolve("chart-digest");
+		Files.createDirectories(chartDir);
+		Files.writeString(chartDir.resolve("Chart.yaml"), """
+				apiVersion: v2
+				name: digest
+				version: 1.0.0
+				""");
+		Path tmplDir = Files.createDirectories(chartDir.resolve("templates"));
+		Files.writeString(tmplDir.resolve("configmap.yaml"), "kind: ConfigMap");
+
+		Chart chart = chartLoader.load(chartDir.toFile());
+
+		assertEquals(ContentDigests.sha256("kind: ConfigMap"), chart.getTemplates().get(0).getDigest());
+	}
+
+	@Test
+	void testLoadArchiveFromStream() throws Exception {
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		files.put("nginx/Chart.yaml", text("apiVersion: v2\nname: nginx\nversion: 1.2.3\n"));
+		files.put("nginx/values.yaml", text("replicaCount: 2\n"));
+		files.put("nginx/templates/deployment.yaml", text("kind: Deployment"));
+		files.put("nginx/crds/crd.yaml", text("kind: CustomResourceDefinition"));
+		files.put("nginx/files/config.txt", text("hello"));
+		ByteArrayInputStream in = new ByteArrayInputStream(tgz(files));
+
+		Chart chart = chartLoader.load(in);
+
+		assertEquals("nginx", chart.getMetadata().getName());
+		assertEquals("1.2.3", chart.getMetadata().getVersion());
+		assertEquals(2, chart.getValues().get("replicaCount"));
+		assertEquals(List.of("deployment.yaml"), chart.getTemplates().stream().map(Chart.Template::getName).toList());
+		assertEquals(1, chart.getCrds().size());
+		assertEquals("hello", chart.getFiles().get("files/config.txt"));
+	}
+
+	@Test
+	void testLoadArchiveWithPackagedSubchart() throws Exception {
+		Map<String, byte[]> sub = new LinkedHashMap<>();
+		sub.put("common/Chart.yaml", text("apiVersion: v2\nname: common\nversion: 2.0.0\n"));
+		sub.put("common/templates/_helpers.tpl", text("{{- define \"common.name\" -}}x{{- end -}}"));
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		files.put("app/Chart.yaml", text("apiVersion: v2\nname: app\nversion: 1.0.0\n"));
+		files.put("app/charts/common-2.0.0.tgz", tgz(sub));
+
+		Chart chart = chartLoader.load(ByteBuffer.wrap(tgz(files)));
+
+		assertEquals(1, chart.getDependencies().size());
+		Chart common = chart.getDependencies().get(0);
+		assertEquals("common", common.getMetadata().getName());
+		assertEquals("_helpers.tpl", common.getTemplates().get(0).getName());
+	}
+
+	@Test
+	void testPackagedChartLoadsTheSameSubchartsFromMemoryAndFromDisk() throws Exception {
+		Map<String, byte[]> common = new LinkedHashMap<>();
+		common.put("common/Chart.yaml", text("apiVersion: v2\nname: common\nversion: 2.0.0\n"));
+		common.put("common/templates/_helpers.tpl", text("{{- define \"common.name\" -}}x{{- end -}}"));
+		Map<String, byte[]> extra = new LinkedHashMap<>();
+		extra.put("extra/Chart.yaml", text("apiVersion: v2\nname: extra\nversion: 1.0.0\n"));
+		// What `dependency update` then `package` ship: common unpacked and archived, extra
+		// archived only.
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		files.put("app/Chart.yaml", text("apiVersion: v2\nname: app\nversion: 1.0.0\n"));
+		files.put("app/charts/common/Chart.yaml", common.get("common/Chart.yaml"));
+		files.put("app/charts/common/templates/_helpers.tpl", common.get("common/templates/_helpers.tpl"));
+		files.put("app/charts/common-2.0.0.tgz", tgz(common));
+		files.put("app/charts/extra-1.0.0.tgz", tgz(extra));
+		Path extracted = tempDir.resolve("packaged");
+		for (Map.Entry<String, byte[]> file : files.entrySet()) {
+			Path target = extracted.resolve(file.getKey());
+			Files.createDirectories(target.getParent());
+			Files.write(target, file.getValue());
+		}
+
+		Chart inMemory = chartLoader.load(ByteBuffer.wrap(tgz(files)));
+		Chart fromDisk = chartLoader.load(extracted.resolve("app").toFile());
+
+		List<String> expected = List.of("common", "extra");
+		assertEquals(expected, inMemory.getDependencies().stream().map((dep) -> dep.getMetadata().getName()).toList());
+		assertEquals(expected, fromDisk.getDependencies().stream().map((dep) -> dep.getMetadata().getName()).toList());
+	}
+
+	@Test
+	void testArchiveWithoutChartYamlFails() throws Exception {
+		byte[] archive = tgz(Map.of("nginx/values.yaml", text("a: 1\n")));
+		assertThrows(ChartLoadException.class, () -> chartLoader.load(new ByteArrayInputStream(archive)));
+	}
+
+	@Test
+	void testArchiveEntryOutsideChartFails() throws Exception {
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		files.put("nginx/Chart.yaml", text("apiVersion: v2\nname: nginx\nversion: 1.0.0\n"));
+		files.put("nginx/../../evil.txt", text("malicious"));
+		byte[] archive = tgz(files);
+		assertThrows(ChartLoadException.class, () -> chartLoader.load(new ByteArrayInputStream(archive)));
+	}
+
+	@Test
+	void testNonArchiveInputFails() {
+		byte[] notGzip = text("not a chart");
+		assertThrows(ChartLoadException.class, () -> chartLoader.load(new ByteArrayInputStream(notGzip)));
+	}
+
+	@Test
+	void testParallelAndSequentialLoadsAreIdentical() throws Exception {
+		Path umbrella = tempDir.resolve("umbrella");
+		Files.createDirectories(umbrella.resolve("templates"));
+		Files.writeString(umbrella.resolve("Chart.yaml"), "apiVersion: v2\nname: umbrella\nversion: 1.0.0\n");
+		Files.writeString(umbrella.resolve("values.yaml"), "global:\n  env: test\n");
+		for (String name : List.of("zeta", "alpha", "mid")) {
+			Files.writeString(umbrella.resolve("templates").resolve(name + ".yaml"), "kind: " + name);
+			Path sub = Files.createDirectories(umbrella.resolve("charts").resolve(name));
+			Files.writeString(sub.resolve("Chart.yaml"), "apiVersion: v2\nname: " + name + "\nversion: 1.0.0\n");
+			Files.writeString(Files.createDirectories(sub.resolve("templates")).resolve("cm.yaml"), "kind: ConfigMap");
+			Files.writeString(sub.resolve("data.txt"), name);
+		}
+
+		ChartLoader sequential = new ChartLoader();
+		sequential.setParallel(false);
+		Chart parallelChart = chartLoader.load(umbrella.toFile());
+		Chart sequentialChart = sequential.load(umbrella.toFile());
+
+		assertTrue(chartLoader.isParallel());
+		assertEquals(sequentialChart, parallelChart);
+		assertEquals(List.of("alpha.yaml", "mid.yaml", "zeta.yaml"),
+				parallelChart.getTemplates().stream().map(Chart.Template::getName).toList());
+		assertEquals(List.of("alpha", "mid", "zeta"),
+				parallelChart.getDependencies().stream().map((dep) -> dep.getMetadata().getName()).toList());
+	}
+
+	@Test
+	void testSubchartFailureFailsTheParallelLoad() throws Exception {
+		Path chartDir = tempDir.resolve("broken-umbrella");
+		Files.createDirectories(chartDir.resolve("charts/no-metadata"));
+		Files.writeString(chartDir.resolve("Chart.yaml"), "apiVersion: v2\nname: broken\nversion: 1.0.0\n");
+
+		ChartLoadException ex = assertThrows(ChartLoadException.class, () -> chartLoader.load(chartDir.toFile()));
+		assertTrue(ex.getMessage().contains("Chart.yaml not found"));
+	}
+
+	@Test
+	void testOversizedArchiveIsNotLoadedInMemory() throws Exception {
+		// A small gzip that expands to four times the in-memory limit.
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (GzipCompressorOutputStream gzos = new GzipCompressorOutputStream(baos);
+				TarArchiveOutputStream taos = new TarArchiveOutputStream(gzos)) {
+			byte[] chartYaml = text("apiVersion: v2\nname: bomb\nversion: 1.0.0\n");
+			TarArchiveEntry metadata = new TarArchiveEntry("bomb/Chart.yaml");
+			metadata.setSize(chartYaml.length);
+			taos.putArchiveEntry(metadata);
+			taos.write(chartYaml);
+			taos.closeArchiveEntry();
+			TarArchiveEntry padding = new TarArchiveEntry("bomb/files/zeros.bin");
+			padding.setSize(4 * ChartLoader.MAX_IN_MEMORY_ARCHIVE_BYTES);
+			taos.putArchiveEntry(padding);
+			byte[] zeros = new byte[1 << 20];
+			for (long written = 0; written < padding.getSize(); written += zeros.length) {
+				taos.write(zeros);
+			}
+			taos.closeArchiveEntry();
+		}
+		byte[] archive = baos.toByteArray();
+		ByteArrayInputStream in = new ByteArrayInputStream(archive);
+
+		assertTrue(chartLoader.loadInMemory(in).isEmpty());
+		// Reading stopped at the limit, well before the end of the archive.
+		assertTrue(in.available() > archive.length / 4, in.available() + " of " + archive.length + " bytes left");
+		assertThrows(ChartLoadException.class, () -> chartLoader.load(new ByteArrayInputStream(archive)));
+	}
+
+	private static byte[] text(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] tgz(Map<String, byte[]> files) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (GzipCompressorOutputStream gzos = new GzipCompressorOutputStream(baos);
+				TarArchiveOutputStream taos = new TarArchiveOutputStream(gzos)) {
+			for (Map.Entry<String, byte[]> file : files.entrySet()) {
+				TarArchiveEntry entry = new TarArchiveEntry(file.getKey());
+				entry.setSize(file.getValue().length);
+				taos.putArchiveEntry(entry);
+				taos.write(file.getValue());
+				taos.closeArchiveEntry();
+			}
+		}
+		return baos.toByteArray();
+	}
+
 }
@@ -7,15 +7,27 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import org.alexmond.jhelm.core.model.Chart;
 import org.alexmond.jhelm.core.model.ChartLock;
 import org.alexmond.jhelm.core.model.ChartMetadata;
@@ -506,4 +518,116 @@ class DependencyResolverTest {
 		assertEquals("common", lock.getDependencies().get(1).getName());
 	}
 
+	@Test
+	void testResolutionKeepsDeclarationOrder() throws IOException {
+		RepoManager repos = mock(RepoManager.class);
+		List<Dependency> deps = new ArrayList<>();
+		for (String name : List.of("redis", "postgresql", "mongodb", "kafka")) {
+			when(repos.getChartVersions("bitnami", name)).thenReturn(
+					List.of(new RepoManager.ChartVersion("bitnami/" + name, "1.2.0", null, null),
+							new RepoManager.ChartVersion("bitnami/" + name, "1.3.1", null, null)));
+			deps.add(Dependency.builder().name(name).version("^1.0.0").repository("@bitnami").build());
+		}
+		ChartMetadata metadata = ChartMetadata.builder().name("umbrella").version("1.0.0").dependencies(deps).build();
+
+		ChartLock lock = new DependencyResolver(repos).resolveDependencies(metadata, new HashMap<>(), null);
+
+		assertEquals(List.of("redis", "postgresql", "mongodb", "kafka"),
+				lock.getDependencies().stream().map(ChartLock.LockDependency::getName).toList());
+		assertTrue(lock.getDependencies().stream().allMatch((dep) -> "1.3.1".equals(dep.getVersion())));
+	}
+
+	@Test
+	void testAliasedChartIsDownloadedOnce() throws Exception {
+		RepoManager repos = mock(RepoManager.class);
+		stubPull(repos);
+		List<ChartLock.LockDependency> deps = List.of(lockDep("memcached", "6.0.0", "frontend"),
+				lockDep("memcached", "6.0.0", "chunks"), lockDep("redis", "17.0.0", "cache"));
+
+		new DependencyResolver(repos).downloadDependencies(tempDir, deps);
+
+		verify(repos, times(1)).pull(eq("memcached"), eq("bitnami"), eq("6.0.0"), anyString());
+		verify(repos, times(1)).pull(eq("redis"), eq("bitnami"), eq("17.0.0"), anyString());
+		Path charts = tempDir.toPath().resolve("charts");
+		// Several aliases share one directory; a single alias names its own.
+		assertTrue(Files.isRegularFile(charts.resolve("memcached/Chart.yaml")));
+		assertFalse(Files.exists(charts.resolve("frontend")));
+		assertTrue(Files.isRegularFile(charts.resolve("cache/Chart.yaml")));
+		assertTrue(Files.isRegularFile(charts.resolve("redis-17.0.0.tgz")));
+		try (var leftovers = Files.list(charts)) {
+			assertTrue(leftovers.noneMatch((p) -> p.getFileName().toString().startsWith(".download-")));
+		}
+	}
+
+	@Test
+	void testDownloadsAreStagedOutsideTheChart() throws Exception {
+		RepoManager repos = mock(RepoManager.class);
+		// A chart mounted into its own directory, say /chart, whose parent jhelm must not
+		// write to.
+		Path mount = Files.createDirectories(tempDir.toPath().resolve("mount"));
+		Path chartDir = Files.createDirectories(mount.resolve("chart"));
+		Path charts = chartDir.resolve("charts");
+		List<Path> stagings = Collections.synchronizedList(new ArrayList<>());
+		doAnswer((inv) -> {
+			Path dest = Path.of((String) inv.getArgument(3));
+			stagings.add(dest);
+			// Nothing the loader would pick up appears under charts/ mid-download.
+			try (var entries = Files.list(charts)) {
+				assertTrue(entries.findAny().isEmpty());
+			}
+			Path chart = Files.createDirectories(dest.resolve("redis"));
+			Files.writeString(chart.resolve("Chart.yaml"), "apiVersion: v2\nname: redis\nversion: 17.0.0\n");
+			return null;
+		}).when(repos).pull(anyString(), anyString(), anyString(), anyString());
+
+		new DependencyResolver(repos).downloadDependencies(chartDir.toFile(),
+				List.of(lockDep("redis", "17.0.0", null)));
+
+		assertEquals(1, stagings.size());
+		assertFalse(stagings.get(0).toAbsolutePath().startsWith(mount.toAbsolutePath()));
+		assertFalse(Files.exists(stagings.get(0)));
+		assertTrue(Files.isRegularFile(charts.resolve("redis/Chart.yaml")));
+		try (var entries = Files.list(mount)) {
+			assertEquals(List.of(chartDir), entries.toList());
+		}
+	}
+
+	@Test
+	void testFailedDownloadFailsTheBuildAfterTheOthersFinish() throws Exception {
+		RepoManager repos = mock(RepoManager.class);
+		stubPull(repos);
+		doThrow(new IOException("boom")).when(repos).pull(eq("broken"), anyString(), anyString(), anyString());
+		List<ChartLock.LockDependency> deps = List.of(lockDep("broken", "1.0.0", null),
+				lockDep("redis", "17.0.0", null));
+
+		IOException ex = assertThrows(IOException.class,
+				() -> new DependencyResolver(repos).downloadDependencies(tempDir, deps));
+
+		assertEquals("boom", ex.getMessage());
+		assertTrue(Files.isRegularFile(tempDir.toPath().resolve("charts/redis/Chart.yaml")));
+	}
+
+	private static ChartLock.LockDependency lockDep(String name, String version, String alias) {
+		return ChartLock.LockDependency.builder()
+			.name(name)
+			.version(version)
+			.repository("@bitnami")
+			.alias(alias)
+			.build();
+	}
+
+	// Simulates RepoManager.pull: the archive plus its extracted chart in the target dir.
+	private static void stubPull(RepoManager repos) throws IOException {
+		doAnswer((inv) -> {
+			String name = inv.getArgument(0);
+			String version = inv.getArgument(2);
+			Path dest = Path.of((String) inv.getArgument(3));
+			Files.writeString(dest.resolve(name + "-" + version + ".tgz"), "archive");
+			Path chart = Files.createDirectories(dest.resolve(name));
+			Files.writeString(chart.resolve("Chart.yaml"),
+					"apiVersion: v2\nname: " + name + "\nversion: " + version + "\n");
+			return null;
+		}).when(repos).pull(anyString(), anyString(), anyString(), anyString());
+	}
+
 }
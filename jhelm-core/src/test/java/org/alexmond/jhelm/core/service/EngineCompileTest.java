@@ -0,0 +1,91 @@
+package org.alexmond.jhelm.core.service;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.model.ReleaseContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EngineCompileTest {
+
+	private static final ReleaseContext RELEASE_INFO = ReleaseContext.builder()
+		.name("test-release")
+		.namespace("default")
+		.install(true)
+		.upgrade(false)
+		.revision(1)
+		.build();
+
+	private final ChartLoader chartLoader = new ChartLoader();
+
+	private Chart load(String name) throws Exception {
+		return chartLoader.load(new File("src/test/resources/test-charts/" + name));
+	}
+
+	@Test
+	void compile_recordsParsePlan() throws Exception {
+		Engine engine = new Engine();
+		Chart chart = load("define-order");
+
+		CompiledChart compiled = engine.compile(chart);
+
+		assertSame(chart, compiled.getChart());
+		assertTrue(compiled.getParseStepCount() > 0);
+	}
+
+	@Test
+	void renderCompiled_matchesUncompiledRender() throws Exception {
+		Engine engine = new Engine();
+		Chart chart = load("define-order");
+		CompiledChart compiled = engine.compile(chart);
+
+		String expected = engine.render(chart, Map.of(), RELEASE_INFO);
+
+		assertEquals(expected, engine.render(compiled, Map.of(), RELEASE_INFO));
+		// Replays are repeatable: the plan is never consumed.
+		assertEquals(expected, engine.render(compiled, Map.of(), RELEASE_INFO));
+	}
+
+	@Test
+	void renderCompiled_replaysWithoutParsing() throws Exception {
+		Engine engine = new Engine();
+		CompiledChart compiled = engine.compile(load("define-order"));
+		AtomicInteger parses = new AtomicInteger();
+		engine.setParseListenerForTest(parses::incrementAndGet);
+
+		engine.render(compiled, Map.of(), RELEASE_INFO);
+		assertEquals(0, parses.get());
+
+		engine.render(load("define-order"), Map.of(), RELEASE_INFO);
+		assertTrue(parses.get() > 0);
+	}
+
+	@Test
+	void renderCompiled_withDifferentSubchartSet_fallsBackToLiveParsing() throws Exception {
+		Engine engine = new Engine();
+		Chart chart = load("dependency-conditions");
+		CompiledChart compiled = engine.compile(chart);
+		// Enabling a subchart the compile render pruned changes the parse sequence.
+		Map<String, Object> values = Map.of("app", Map.of("monitoring", Map.of("enabled", true)));
+
+		String expected = engine.render(load("dependency-conditions"), values, RELEASE_INFO);
+
+		assertEquals(expected, engine.render(compiled, values, RELEASE_INFO));
+	}
+
+	@Test
+	void renderCompiled_rejectsChartCompiledByAnotherEngine() throws Exception {
+		CompiledChart compiled = new Engine().compile(load("minimal"));
+		Engine other = new Engine();
+
+		assertThrows(IllegalArgumentException.class, () -> other.render(compiled, Map.of(), RELEASE_INFO));
+	}
+
+}
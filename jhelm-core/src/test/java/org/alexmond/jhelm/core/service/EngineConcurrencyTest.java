@@ -0,0 +1,259 @@
+package org.alexmond.jhelm.core.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.alexmond.gotmpl4j.Function;
+import org.alexmond.jhelm.core.cache.TemplateCache;
+import org.alexmond.jhelm.core.exception.TemplateRenderException;
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.model.ChartMetadata;
+import org.alexmond.jhelm.core.model.ReleaseContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EngineConcurrencyTest {
+
+	private static final ReleaseContext RELEASE_INFO = ReleaseContext.builder()
+		.name("test-release")
+		.namespace("default")
+		.install(true)
+		.upgrade(false)
+		.revision(1)
+		.build();
+
+	// Same chart name and define name in every variant, different define body: a render
+	// that saw another render's define namespace would emit the wrong label.
+	private static Chart labelledChart(String label) {
+		return Chart.builder()
+			.metadata(ChartMetadata.builder().name("shared").version("1.0.0").build())
+			.templates(List.of(
+					Chart.Template.builder()
+						.name("_helpers.tpl")
+						.data("{{- define \"shared.label\" -}}" + label + "{{- end -}}")
+						.build(),
+					Chart.Template.builder()
+						.name("cm.yaml")
+						.data("apiVersion: v1\nkind: ConfigMap\nmetadata:\n  name: {{ include \"shared.label\" . }}\n"
+								+ "data:\n  replicas: {{ .Values.replicas | quote }}\n")
+						.build()))
+			.values(Map.of("replicas", 1))
+			.build();
+	}
+
+	private static Chart subchart(String name, String body) {
+		return Chart.builder()
+			.metadata(ChartMetadata.builder().name(name).version("1.0.0").build())
+			.templates(List.of(
+					Chart.Template.builder()
+						.name("_helpers.tpl")
+						.data("{{- define \"" + name + ".fullname\" -}}{{ .Release.Name }}-" + name + "{{- end -}}")
+						.build(),
+					Chart.Template.builder().name("cm.yaml").data(body).build()))
+			.values(Map.of("replicas", 1))
+			.build();
+	}
+
+	private static String configMap(String name) {
+		return "apiVersion: v1\nkind: ConfigMap\nmetadata:\n  name: {{ include \"" + name + ".fullname\" . }}\n"
+				+ "data:\n  replicas: {{ .Values.replicas | quote }}\n";
+	}
+
+	private static Chart umbrella(String parentBody, Chart... subcharts) {
+		return Chart.builder()
+			.metadata(ChartMetadata.builder().name("umbrella").version("1.0.0").build())
+			.templates(List.of(Chart.Template.builder().name("cm.yaml").data(parentBody).build()))
+			.dependencies(new ArrayList<>(List.of(subcharts)))
+			.values(Map.of("sub1", Map.of("replicas", 3)))
+			.build();
+	}
+
+	private static Chart fourSubcharts() {
+		return umbrella("apiVersion: v1\nkind: ConfigMap\nmetadata:\n  name: {{ .Release.Name }}-parent\n",
+				subchart("sub1", configMap("sub1")), subchart("sub2", configMap("sub2")),
+				subchart("sub3", configMap("sub3")), subchart("sub4", configMap("sub4")));
+	}
+
+	@Test
+	void subchartThreads_defaultsToOne() {
+		assertEquals(1, new Engine().getSubchartThreads());
+	}
+
+	@Test
+	void setSubchartThreads_rejectsNonPositive() {
+		Engine engine = new Engine();
+		assertThrows(IllegalArgumentException.class, () -> engine.setSubchartThreads(0));
+	}
+
+	@Test
+	void parallelSubcharts_matchSequentialOutput() {
+		String sequential = new Engine().render(fourSubcharts(), Map.of(), RELEASE_INFO);
+		Engine engine = new Engine();
+		engine.setSubchartThreads(4);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(sequential, engine.render(fourSubcharts(), Map.of(), RELEASE_INFO));
+		}
+		assertTrue(sequential.contains("name: test-release-sub4"));
+	}
+
+	@Test
+	void parallelSubcharts_reRenderSequentiallyWhenReleaseMutated() {
+		// The subchart renames the shared .Release before the parent renders; isolated
+		// parallel units would not see that, so the engine must fall back.
+		String sequential = new Engine().render(renamingUmbrella(), Map.of(), RELEASE_INFO);
+		assertTrue(sequential.contains("name: renamed-parent"));
+		Engine engine = new Engine();
+		engine.setSubchartThreads(2);
+		assertEquals(sequential, engine.render(renamingUmbrella(), Map.of(), RELEASE_INFO));
+	}
+
+	private static Chart renamingUmbrella() {
+		return umbrella("apiVersion: v1\nkind: ConfigMap\nmetadata:\n  name: {{ .Release.Name }}-parent\n",
+				subchart("sub1", "{{- $_ := set .Release \"Name\" \"renamed\" -}}\n" + configMap("sub1")));
+	}
+
+	@Test
+	void parallelSubcharts_failWithTheFirstErrorInRenderOrder() {
+		Engine engine = new Engine();
+		engine.setSubchartThreads(4);
+		Chart chart = umbrella("apiVersion: v1\nkind: ConfigMap\nmetadata:\n  name: parent\n",
+				subchart("sub1", configMap("sub1")),
+				subchart("sub2", "{{ required \"sub2 broke\" .Values.missing }}"),
+				subchart("sub3", "{{ required \"sub3 broke\" .Values.missing }}"));
+		TemplateRenderException ex = assertThrows(TemplateRenderException.class,
+				() -> engine.render(chart, Map.of(), RELEASE_INFO));
+		assertTrue(ex.getMessage().contains("sub2 broke"), ex.getMessage());
+	}
+
+	@Test
+	void parallelSubcharts_reportSchemaFailuresInRenderOrder() {
+		Engine engine = new Engine();
+		engine.setSubchartThreads(4);
+		Chart invalid = subchart("sub2", configMap("sub2")).toBuilder()
+			.valuesSchema("{\"properties\": {\"replicas\": {\"type\": \"string\"}}}")
+			.build();
+		Chart chart = umbrella("", subchart("sub1", configMap("sub1")), invalid,
+				subchart("sub3", "{{ required \"sub3 broke\" .Values.missing }}"));
+		TemplateRenderException ex = assertThrows(TemplateRenderException.class,
+				() -> engine.render(chart, Map.of(), RELEASE_INFO));
+		assertTrue(ex.getMessage().contains("Values schema validation failed"), ex.getMessage());
+	}
+
+	@Test
+	void parallelSubcharts_executeConcurrently() {
+		// Both subcharts must be inside template execution at the same time to pass the
+		// barrier; sequential subchart rendering would time out here.
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		Function rendezvous = (args) -> {
+			try {
+				barrier.await(10, TimeUnit.SECONDS);
+				return "met";
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException("subcharts did not overlap", ex);
+			}
+		};
+		Engine engine = new Engine();
+		engine.setSubchartThreads(2);
+		engine.setPluginFunctions(Map.of("rendezvous", rendezvous));
+		String body = "apiVersion: v1\nkind: ConfigMap\nmetadata:\n  name: {{ rendezvous }}\n";
+		String out = engine.render(umbrella("", subchart("sub1", body), subchart("sub2", body)), Map.of(),
+				RELEASE_INFO);
+		assertTrue(out.contains("name: met"));
+	}
+
+	@Test
+	void renderThreads_defaultsToOne() {
+		assertEquals(1, new Engine().getRenderThreads());
+	}
+
+	@Test
+	void setRenderThreads_growsAndShrinksPool() {
+		Engine engine = new Engine();
+		engine.setRenderThreads(8);
+		assertEquals(8, engine.getRenderThreads());
+		engine.setRenderThreads(2);
+		assertEquals(2, engine.getRenderThreads());
+	}
+
+	@Test
+	void setRenderThreads_rejectsNonPositive() {
+		Engine engine = new Engine();
+		assertThrows(IllegalArgumentException.class, () -> engine.setRenderThreads(0));
+	}
+
+	@Test
+	void concurrentRenders_keepDefineNamespacesIsolated() throws Exception {
+		Engine engine = new Engine(new TemplateCache(64), null);
+		engine.setRenderThreads(4);
+		List<String> labels = List.of("alpha", "beta", "gamma", "delta");
+		ExecutorService callers = Executors.newFixedThreadPool(labels.size());
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (String label : labels) {
+				Chart chart = labelledChart(label);
+				results.add(callers.submit(() -> {
+					for (int i = 0; i < 25; i++) {
+						String out = engine.render(chart, Map.of("replicas", i), RELEASE_INFO);
+						if (!out.contains("name: " + label) || !out.contains("replicas: \"" + i + "\"")) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get(60, TimeUnit.SECONDS), "a render observed another render's state");
+			}
+		}
+		finally {
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	void renders_runInParallelUpToPoolSize() throws Exception {
+		// Both renders must be inside template execution at the same time to pass the
+		// barrier; a serialised engine would time out here.
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		Function rendezvous = (args) -> {
+			try {
+				barrier.await(10, TimeUnit.SECONDS);
+				return "met";
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException("renders did not overlap", ex);
+			}
+		};
+		Engine engine = new Engine();
+		engine.setRenderThreads(2);
+		engine.setPluginFunctions(Map.of("rendezvous", rendezvous));
+		Chart chart = Chart.builder()
+			.metadata(ChartMetadata.builder().name("parallel").version("1.0.0").build())
+			.templates(List.of(Chart.Template.builder()
+				.name("cm.yaml")
+				.data("apiVersion: v1\nkind: ConfigMap\nmetadata:\n  name: {{ rendezvous }}\n")
+				.build()))
+			.build();
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> first = callers.submit(() -> engine.render(chart, Map.of(), RELEASE_INFO));
+			Future<String> second = callers.submit(() -> engine.render(chart, Map.of(), RELEASE_INFO));
+			assertTrue(first.get(30, TimeUnit.SECONDS).contains("name: met"));
+			assertTrue(second.get(30, TimeUnit.SECONDS).contains("name: met"));
+		}
+		finally {
+			callers.shutdownNow();
+		}
+	}
+
+}
@@ -16,6 +16,7 @@ import org.alexmond.jhelm.core.model.Dependency;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ReleaseContext;
 import org.alexmond.jhelm.core.model.ResourceStatus;
+import org.alexmond.jhelm.core.util.RenderedManifest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -78,6 +79,30 @@ class EngineTest {
 		assertTrue(result.contains("name: test"));
 	}
 
+	@Test
+	void testRenderToSinkMatchesStringRender() {
+		Chart chart = simpleChart("mychart", "1.0.0",
+				List.of(tmpl("a.yaml", "kind: A\n---\nkind: A2\n"), tmpl("b.yaml", "# only a comment\n"),
+						tmpl("c.yaml", "kind: C\n")),
+				Map.of());
+		List<RenderedManifest.Document> docs = new ArrayList<>();
+		engine.render(chart, Map.of(), releaseInfo(), Capabilities.DEFAULT, docs::add);
+
+		assertEquals(engine.render(chart, Map.of(), releaseInfo()), RenderedManifest.join(docs));
+		assertEquals(List.of("mychart/templates/c.yaml", "mychart/templates/a.yaml", "mychart/templates/a.yaml"),
+				docs.stream().map(RenderedManifest.Document::source).toList());
+	}
+
+	@Test
+	void testRenderToSinkPropagatesSinkFailureUnwrapped() {
+		Chart chart = simpleChart("mychart", "1.0.0", List.of(tmpl("a.yaml", "kind: A\n")), Map.of());
+		IllegalStateException ex = assertThrows(IllegalStateException.class,
+				() -> engine.render(chart, Map.of(), releaseInfo(), Capabilities.DEFAULT, (document) -> {
+					throw new IllegalStateException("sink closed");
+				}));
+		assertEquals("sink closed", ex.getMessage());
+	}
+
 	@Test
 	void testRenderTemplateWithValues() {
 		Chart chart = simpleChart("mychart", "1.0.0", List.of(tmpl("configmap.yaml", "name: {{ .Values.appName }}")),
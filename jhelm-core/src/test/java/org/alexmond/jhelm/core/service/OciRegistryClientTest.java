@@ -1,5 +1,8 @@
 package org.alexmond.jhelm.core.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.alexmond.jhelm.core.metrics.JhelmMetrics;
+import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.core5.http.ClassicHttpResponse;
@@ -12,10 +15,21 @@ import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.json.JsonMapper;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -154,6 +168,154 @@ class OciRegistryClientTest {
 				tempDir.resolve("b").toFile()));
 	}
 
+	@Test
+	void uploadBlobFromFileFitsInOnePut() throws Exception {
+		Path blob = Files.write(tempDir.resolve("chart.tgz"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		List<HttpUriRequest> seen = new ArrayList<>();
+		OciRegistryClient c = clientAnswering(seen, (request) -> switch (request.getMethod()) {
+			case "POST" -> locationResponse(202, "/v2/charts/mychart/blobs/uploads/1");
+			default -> jsonResponse(201, null);
+		});
+		c.uploadBlob("my.registry.io", "charts/mychart", "tok", "sha256:abc", blob);
+
+		assertEquals(List.of("POST", "PUT"), seen.stream().map(HttpUriRequest::getMethod).toList());
+		assertEquals("https://my.registry.io/v2/charts/mychart/blobs/uploads/1?digest=sha256:abc",
+				seen.get(1).getUri().toString());
+		assertEquals(10, ((HttpPut) seen.get(1)).getEntity().getContentLength());
+	}
+
+	@Test
+	void uploadBlobFromFileIsSentInChunks() throws Exception {
+		Path blob = Files.write(tempDir.resolve("chart.tgz"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		List<HttpUriRequest> seen = new ArrayList<>();
+		AtomicInteger patches = new AtomicInteger();
+		OciRegistryClient c = clientAnswering(seen, (request) -> switch (request.getMethod()) {
+			case "POST" -> locationResponse(202, "/v2/charts/mychart/blobs/uploads/1");
+			case "PATCH" ->
+				locationResponse(202, "/v2/charts/mychart/blobs/uploads/" + (patches.incrementAndGet() + 1));
+			default -> jsonResponse(201, null);
+		});
+		c.setChunkSizeForTest(4);
+		c.uploadBlob("my.registry.io", "charts/mychart", "tok", "sha256:abc", blob);
+
+		assertEquals(List.of("POST", "PATCH", "PATCH", "PATCH", "PUT"),
+				seen.stream().map(HttpUriRequest::getMethod).toList());
+		assertEquals(List.of("0-3", "4-7", "8-9"),
+				seen.subList(1, 4).stream().map((r) -> r.getFirstHeader("Content-Range").getValue()).toList());
+		// Each chunk goes to the Location the previous response named.
+		assertEquals("https://my.registry.io/v2/charts/mychart/blobs/uploads/4?digest=sha256:abc",
+				seen.get(4).getUri().toString());
+		assertNull(((HttpPut) seen.get(4)).getEntity());
+	}
+
+	@Test
+	void uploadBlobResumesAFailedChunkFromTheCommittedRange() throws Exception {
+		Path blob = Files.write(tempDir.resolve("chart.tgz"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		List<HttpUriRequest> seen = new ArrayList<>();
+		AtomicInteger patches = new AtomicInteger();
+		OciRegistryClient c = clientAnswering(seen, (request) -> switch (request.getMethod()) {
+			case "POST" -> locationResponse(202, "/v2/charts/mychart/blobs/uploads/1");
+			// The second chunk fails once; the registry reports bytes 0-3 committed.
+			case "PATCH" -> (patches.incrementAndGet() == 2) ? jsonResponse(500, null)
+					: locationResponse(202, "/v2/charts/mychart/blobs/uploads/1");
+			case "GET" -> rangeResponse("0-3");
+			default -> jsonResponse(201, null);
+		});
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		c.setMetrics(new JhelmMetrics(registry));
+		c.setChunkSizeForTest(4);
+		c.uploadBlob("my.registry.io", "charts/mychart", "tok", "sha256:abc", blob);
+
+		assertEquals(List.of("0-3", "4-7", "4-7", "8-9"),
+				seen.stream()
+					.filter((r) -> "PATCH".equals(r.getMethod()))
+					.map((r) -> r.getFirstHeader("Content-Range").getValue())
+					.toList());
+		assertEquals(1.0, registry.find("jhelm.oci.blob.retries").tag("direction", "upload").counter().count());
+		assertEquals(10.0,
+				registry.find("jhelm.oci.blob.bytes").tag("direction", "upload").summary().totalAmount());
+	}
+
+	@Test
+	void uploadBlobRestartsWhenTheFirstChunkFailsAndTheRangeIsEmpty() throws Exception {
+		Path blob = Files.write(tempDir.resolve("chart.tgz"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		List<HttpUriRequest> seen = new ArrayList<>();
+		AtomicInteger posts = new AtomicInteger();
+		AtomicInteger patches = new AtomicInteger();
+		OciRegistryClient c = clientAnswering(seen, (request) -> switch (request.getMethod()) {
+			case "POST" -> locationResponse(202, "/v2/charts/mychart/blobs/uploads/" + posts.incrementAndGet());
+			// The first chunk fails; the registry answers "0-0", as it does for an empty
+			// upload.
+			case "PATCH" -> (patches.incrementAndGet() == 1) ? jsonResponse(500, null)
+					: locationResponse(202, "/v2/charts/mychart/blobs/uploads/" + posts.get());
+			case "GET" -> rangeResponse("0-0");
+			default -> jsonResponse(201, null);
+		});
+		c.setChunkSizeForTest(4);
+		c.uploadBlob("my.registry.io", "charts/mychart", "tok", "sha256:abc", blob);
+
+		List<HttpUriRequest> chunks = seen.stream().filter((r) -> "PATCH".equals(r.getMethod())).toList();
+		assertEquals(List.of("0-3", "0-3", "4-7", "8-9"),
+				chunks.stream().map((r) -> r.getFirstHeader("Content-Range").getValue()).toList());
+		// The retried chunks go to a new upload session.
+		assertEquals("https://my.registry.io/v2/charts/mychart/blobs/uploads/2", chunks.get(1).getUri().toString());
+		assertEquals(2, posts.get());
+	}
+
+	@Test
+	void uploadBlobGivesUpAfterTheRetryLimit() throws Exception {
+		Path blob = Files.write(tempDir.resolve("chart.tgz"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		OciRegistryClient c = clientAnswering(new ArrayList<>(), (request) -> switch (request.getMethod()) {
+			case "POST" -> locationResponse(202, "/v2/charts/mychart/blobs/uploads/1");
+			case "GET" -> rangeResponse(null);
+			default -> jsonResponse(500, null);
+		});
+		c.setChunkSizeForTest(4);
+		assertThrows(IOException.class,
+				() -> c.uploadBlob("my.registry.io", "charts/mychart", "tok", "sha256:abc", blob));
+	}
+
+	@Test
+	void downloadBlobResumesWithARangeRequest() throws Exception {
+		List<HttpUriRequest> seen = new ArrayList<>();
+		OciRegistryClient c = clientAnswering(seen, (request) -> (seen.size() == 1)
+				? streamResponse(200, new SequenceInputStream(
+						new ByteArrayInputStream("01234".getBytes(StandardCharsets.UTF_8)), new InputStream() {
+							@Override
+							public int read() throws IOException {
+								throw new IOException("connection reset");
+							}
+						}))
+				: streamResponse(206, new ByteArrayInputStream("56789".getBytes(StandardCharsets.UTF_8))));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		c.setMetrics(new JhelmMetrics(registry));
+		File dest = tempDir.resolve("b").toFile();
+		c.downloadBlob("https://my.registry.io/v2/charts/mychart/blobs/sha256:abc", "tok", dest);
+
+		assertEquals("0123456789", Files.readString(dest.toPath()));
+		assertNull(seen.get(0).getFirstHeader("Range"));
+		assertEquals("bytes=5-", seen.get(1).getFirstHeader("Range").getValue());
+		assertEquals(1.0, registry.find("jhelm.oci.blob.retries").tag("direction", "download").counter().count());
+	}
+
+	@Test
+	void downloadBlobStartsOverWhenTheRangeIsIgnored() throws Exception {
+		List<HttpUriRequest> seen = new ArrayList<>();
+		OciRegistryClient c = clientAnswering(seen, (request) -> (seen.size() == 1)
+				? streamResponse(200, new SequenceInputStream(
+						new ByteArrayInputStream("01234".getBytes(StandardCharsets.UTF_8)), new InputStream() {
+							@Override
+							public int read() throws IOException {
+								throw new IOException("connection reset");
+							}
+						}))
+				: streamResponse(200, new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8))));
+		File dest = tempDir.resolve("b").toFile();
+		c.downloadBlob("https://my.registry.io/v2/charts/mychart/blobs/sha256:abc", "tok", dest);
+
+		assertEquals("0123456789", Files.readString(dest.toPath()));
+	}
+
 	@Test
 	void fetchTokenReturnsTokenFromSuccessBody() throws Exception {
 		OciRegistryClient c = clientReturning(jsonResponse(200, "{\"token\":\"secret-token\"}"));
@@ -195,6 +357,67 @@ class OciRegistryClientTest {
 		assertNull(c.fetchToken("my.registry.io", "charts/mychart", null, "pull"));
 	}
 
+	@Test
+	void fetchTokenIsCachedUntilItExpires() throws Exception {
+		OciRegistryClient c = clientReturningSequence(jsonResponse(200, "{\"token\":\"first\",\"expires_in\":70}"),
+				jsonResponse(200, "{\"token\":\"second\",\"expires_in\":70}"));
+		AtomicLong now = new AtomicLong();
+		c.setClockForTest(now::get);
+		assertEquals("first", c.fetchToken("my.registry.io", "charts/mychart", null, "pull"));
+		// Valid for expires_in minus the safety margin.
+		now.set(TimeUnit.SECONDS.toNanos(59));
+		assertEquals("first", c.fetchToken("my.registry.io", "charts/mychart", null, "pull"));
+		now.set(TimeUnit.SECONDS.toNanos(61));
+		assertEquals("second", c.fetchToken("my.registry.io", "charts/mychart", null, "pull"));
+	}
+
+	@Test
+	void fetchTokenIsCachedPerScope() throws Exception {
+		OciRegistryClient c = clientReturningSequence(jsonResponse(200, "{\"token\":\"pull-token\"}"),
+				jsonResponse(200, "{\"token\":\"push-token\"}"));
+		assertEquals("pull-token", c.fetchToken("my.registry.io", "charts/mychart", null, "pull"));
+		assertEquals("push-token", c.fetchToken("my.registry.io", "charts/mychart", null, "push,pull"));
+		assertEquals("pull-token", c.fetchToken("my.registry.io", "charts/mychart", null, "pull"));
+	}
+
+	@Test
+	void fetchManifestPrefersTheDigestHeader() throws Exception {
+		ClassicHttpResponse response = jsonResponse(200, "{\"schemaVersion\":2}");
+		when(response.getFirstHeader("Docker-Content-Digest"))
+			.thenReturn(new BasicHeader("Docker-Content-Digest", "sha256:served"));
+		OciRegistryClient c = clientReturning(response);
+		OciRegistryClient.Manifest manifest = c
+			.fetchManifest("https://my.registry.io/v2/charts/mychart/manifests/1.0.0", "bearer", null);
+		assertEquals("sha256:served", manifest.digest());
+		assertEquals(2, manifest.body().get("schemaVersion").asInt());
+	}
+
+	@Test
+	void fetchManifestComputesTheDigestWithoutHeader() throws Exception {
+		String body = "{\"schemaVersion\":2}";
+		OciRegistryClient c = clientReturning(jsonResponse(200, body));
+		OciRegistryClient.Manifest manifest = c
+			.fetchManifest("https://my.registry.io/v2/charts/mychart/manifests/1.0.0", "bearer", null);
+		byte[] sha = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+		assertEquals("sha256:" + HexFormat.of().formatHex(sha), manifest.digest());
+	}
+
+	@Test
+	void headManifestDigestReadsTheHeaderOn200() throws Exception {
+		ClassicHttpResponse response = jsonResponse(200, null);
+		when(response.getFirstHeader("Docker-Content-Digest"))
+			.thenReturn(new BasicHeader("Docker-Content-Digest", "sha256:abc"));
+		OciRegistryClient c = clientReturning(response);
+		assertEquals("sha256:abc",
+				c.headManifestDigest("https://my.registry.io/v2/charts/mychart/manifests/1.0.0", "bearer", null));
+	}
+
+	@Test
+	void headManifestDigestIsNullOnNon200() throws Exception {
+		OciRegistryClient c = clientReturning(jsonResponse(404, null));
+		assertNull(c.headManifestDigest("https://my.registry.io/v2/charts/mychart/manifests/1.0.0", null, null));
+	}
+
 	@Test
 	void getManifestParsesBodyWithTokenAndAccept() throws Exception {
 		OciRegistryClient c = clientReturning(jsonResponse(200, "{\"schemaVersion\":2}"));
@@ -340,6 +563,63 @@ class OciRegistryClientTest {
 		return new OciRegistryClient(http);
 	}
 
+	/** Picks the mocked response to a request. */
+	@FunctionalInterface
+	private interface Responder {
+
+		ClassicHttpResponse respond(HttpUriRequest request) throws Exception;
+
+	}
+
+	/**
+	 * Builds a client that records each request and answers it with the response
+	 * {@code responder} picks for it.
+	 */
+	@SuppressWarnings("unchecked")
+	private OciRegistryClient clientAnswering(List<HttpUriRequest> seen,
+			Responder responder) throws Exception {
+		CloseableHttpClient http = mock(CloseableHttpClient.class);
+		when(http.execute(any(HttpUriRequest.class), any(HttpClientResponseHandler.class))).thenAnswer((inv) -> {
+			HttpUriRequest request = inv.getArgument(0);
+			seen.add(request);
+			return inv.getArgument(1, HttpClientResponseHandler.class).handleResponse(responder.respond(request));
+		});
+		return new OciRegistryClient(http);
+	}
+
+	/** Builds a mocked response with the given status and {@code Location} header. */
+	private ClassicHttpResponse locationResponse(int code, String location) {
+		ClassicHttpResponse response = mock(ClassicHttpResponse.class);
+		when(response.getCode()).thenReturn(code);
+		when(response.getFirstHeader("Location")).thenReturn(new BasicHeader("Location", location));
+		return response;
+	}
+
+	/** Builds a mocked upload-status response reporting the committed {@code range}. */
+	private ClassicHttpResponse rangeResponse(String range) {
+		ClassicHttpResponse response = mock(ClassicHttpResponse.class);
+		when(response.getCode()).thenReturn(204);
+		if (range != null) {
+			when(response.getFirstHeader("Range")).thenReturn(new BasicHeader("Range", range));
+		}
+		return response;
+	}
+
+	/** Builds a mocked response whose body is read from {@code body}. */
+	private ClassicHttpResponse streamResponse(int code, InputStream body) {
+		try {
+			ClassicHttpResponse response = mock(ClassicHttpResponse.class);
+			when(response.getCode()).thenReturn(code);
+			HttpEntity entity = mock(HttpEntity.class);
+			when(entity.getContent()).thenReturn(body);
+			when(response.getEntity()).thenReturn(entity);
+			return response;
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
 	/** Builds a mocked response with the given status and optional JSON body. */
 	private ClassicHttpResponse jsonResponse(int code, String body) throws Exception {
 		ClassicHttpResponse response = mock(ClassicHttpResponse.class);
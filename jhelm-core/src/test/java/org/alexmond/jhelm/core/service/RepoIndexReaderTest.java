@@ -0,0 +1,95 @@
+package org.alexmond.jhelm.core.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepoIndexReaderTest {
+
+	private static final String INDEX = """
+			apiVersion: v1
+			serverInfo:
+			  contextPath: /charts
+			entries:
+			  nginx:
+			  - apiVersion: v2
+			    version: 1.10.0
+			    appVersion: "1.25"
+			    description: NGINX web server
+			    maintainers:
+			    - name: someone
+			      email: someone@example.com
+			    urls:
+			    - charts/nginx-1.10.0.tgz
+			    - https://mirror.example.com/nginx-1.10.0.tgz
+			    digest: 1e9a0c
+			  - version: 1.9.0
+			    appVersion: ~
+			    description:
+			    urls: []
+			  redis:
+			  - version: "7.2.4"
+			    dependencies:
+			    - {name: common, version: 2.x.x}
+			    urls:
+			    - charts/redis-7.2.4.tgz
+			  empty: []
+			generated: "2024-01-01T00:00:00Z"
+			""";
+
+	@TempDir
+	Path tempDir;
+
+	private File write(String yaml) throws IOException {
+		return Files.writeString(this.tempDir.resolve("index.yaml"), yaml).toFile();
+	}
+
+	@Test
+	void testReadStreamsEveryVersionInFileOrder() throws IOException {
+		List<String> seen = new ArrayList<>();
+		RepoIndexReader.read(write(INDEX), (chart, entry) -> seen.add(chart + ":" + entry.version()));
+		assertEquals(List.of("nginx:1.10.0", "nginx:1.9.0", "redis:7.2.4"), seen);
+	}
+
+	@Test
+	void testFieldsAreKeptAsWritten() throws IOException {
+		List<RepoIndex.Entry> nginx = RepoIndexReader.versions(write(INDEX), "nginx");
+		assertEquals(new RepoIndex.Entry("1.10.0", "1.25", "NGINX web server", "charts/nginx-1.10.0.tgz", "1e9a0c"),
+				nginx.get(0));
+		// Null scalars and an empty url list read as null.
+		assertEquals(new RepoIndex.Entry("1.9.0", null, null, null, null), nginx.get(1));
+	}
+
+	@Test
+	void testVersionsOfOneChart() throws IOException {
+		File index = write(INDEX);
+		assertEquals(List.of(new RepoIndex.Entry("7.2.4", null, null, "charts/redis-7.2.4.tgz", null)),
+				RepoIndexReader.versions(index, "redis"));
+		assertTrue(RepoIndexReader.versions(index, "empty").isEmpty());
+		assertTrue(RepoIndexReader.versions(index, "missing").isEmpty());
+	}
+
+	@Test
+	void testIndexWithoutEntriesIsEmpty() throws IOException {
+		assertTrue(RepoIndexReader.versions(write("apiVersion: v1\nentries:\n"), "nginx").isEmpty());
+		assertTrue(RepoIndexReader.versions(write(""), "nginx").isEmpty());
+	}
+
+	@Test
+	void testMalformedIndexIsAnIOException() throws IOException {
+		File index = write("entries:\n  nginx:\n  - version: [1.0\n");
+		assertThrows(IOException.class, () -> RepoIndexReader.read(index, (chart, entry) -> {
+		}));
+	}
+
+}
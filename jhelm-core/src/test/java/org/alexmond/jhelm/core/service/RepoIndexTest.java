@@ -0,0 +1,102 @@
+package org.alexmond.jhelm.core.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepoIndexTest {
+
+	@TempDir
+	Path tempDir;
+
+	private RepoIndex build(RepoIndex.Builder builder) throws IOException {
+		File source = this.tempDir.resolve("repo-index.yaml").toFile();
+		if (!source.exists()) {
+			Files.writeString(source.toPath(), "entries: {}\n");
+		}
+		Path target = this.tempDir.resolve("repo-index.idx");
+		builder.write(target, source);
+		return RepoIndex.open(target);
+	}
+
+	@Test
+	void testChartsAreSortedByNameAndVersionsNewestFirst() throws IOException {
+		RepoIndex index = build(new RepoIndex.Builder()
+			.add("redis", "1.2.0", "6.0", "Redis", "charts/redis-1.2.0.tgz", "sha256:a")
+			.add("nginx", "1.0.0", null, null, null, null)
+			.add("redis", "1.10.0", "7.0", "Redis", "charts/redis-1.10.0.tgz", "sha256:b")
+			.add("redis", "1.10.0-rc1", "7.0", "Redis", null, null));
+
+		assertEquals(2, index.chartCount());
+		assertEquals("nginx", index.chartName(0));
+		assertEquals("redis", index.chartName(1));
+		List<RepoIndex.Entry> redis = index.versions("redis");
+		assertEquals(List.of("1.10.0", "1.10.0-rc1", "1.2.0"),
+				redis.stream().map(RepoIndex.Entry::version).toList());
+		assertEquals(new RepoIndex.Entry("1.10.0", "7.0", "Redis", "charts/redis-1.10.0.tgz", "sha256:b"),
+				redis.get(0));
+		RepoIndex.Entry nginx = index.version(0, 0);
+		assertEquals("1.0.0", nginx.version());
+		assertNull(nginx.appVersion());
+		assertNull(nginx.url());
+	}
+
+	@Test
+	void testFindChartReturnsMinusOneForUnknownChart() throws IOException {
+		RepoIndex.Builder builder = new RepoIndex.Builder();
+		for (int i = 0; i < 50; i++) {
+			builder.add("chart-" + i, "1.0." + i, null, "ünïcode description", null, null);
+		}
+		RepoIndex index = build(builder);
+
+		for (int i = 0; i < 50; i++) {
+			int chart = index.findChart("chart-" + i);
+			assertEquals("chart-" + i, index.chartName(chart));
+			assertEquals("ünïcode description", index.version(chart, 0).description());
+		}
+		assertEquals(-1, index.findChart("chart-50"));
+		assertEquals(-1, index.findChart("a"));
+		assertTrue(index.versions("missing").isEmpty());
+	}
+
+	@Test
+	void testFindReturnsTheExactVersion() throws IOException {
+		RepoIndex index = build(new RepoIndex.Builder()
+			.add("redis", "1.2.0", null, null, "redis-1.2.0.tgz", "sha256:a")
+			.add("redis", "1.3.0", null, null, "redis-1.3.0.tgz", "sha256:b"));
+
+		assertEquals("sha256:a", index.find("redis", "1.2.0").digest());
+		assertEquals("redis-1.3.0.tgz", index.find("redis", "1.3.0").url());
+		assertNull(index.find("redis", "9.9.9"));
+		assertNull(index.find("nginx", "1.2.0"));
+	}
+
+	@Test
+	void testIsCurrentForTracksTheSourceFile() throws IOException {
+		RepoIndex index = build(new RepoIndex.Builder().add("nginx", "1.0.0", null, null, null, null));
+		File source = this.tempDir.resolve("repo-index.yaml").toFile();
+		assertTrue(index.isCurrentFor(source));
+
+		Files.writeString(source.toPath(), "entries:\n  nginx: []\n");
+		assertFalse(index.isCurrentFor(source));
+		assertFalse(index.isCurrentFor(this.tempDir.resolve("missing.yaml").toFile()));
+	}
+
+	@Test
+	void testOpenRejectsAFileThatIsNotAnIndex() throws IOException {
+		Path bogus = Files.writeString(this.tempDir.resolve("bogus.idx"), "entries: {}\n".repeat(8));
+		assertThrows(IOException.class, () -> RepoIndex.open(bogus));
+	}
+
+}
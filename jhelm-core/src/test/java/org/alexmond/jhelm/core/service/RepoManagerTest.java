@@ -8,6 +8,7 @@ import org.apache.hc.client5.http.classic.methods.HttpHead;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
@@ -24,6 +25,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,6 +36,13 @@ import java.util.ArrayList;
 import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -42,6 +52,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.ArgumentCaptor;
@@ -56,6 +67,8 @@ import java.util.Base64;
 @SuppressWarnings("unchecked")
 class RepoManagerTest {
 
+	private static final byte[] OCI_TOKEN = "{\"token\":\"t\",\"expires_in\":3600}".getBytes(StandardCharsets.UTF_8);
+
 	@TempDir
 	Path tempDir;
 
@@ -335,6 +348,164 @@ class RepoManagerTest {
 		assertFalse(dest.resolve("mychart-1.2.0.tgz").toFile().exists(), "the older version must not be pulled");
 	}
 
+	@Test
+	void testPullServesUrlAndDigestFromTheCachedIndex() throws Exception {
+		Path cache = tempDir.resolve("cache");
+		RepoManager rm = newRepoManagerWithCache(cache);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		rm.setMetrics(new JhelmMetrics(registry));
+		rm.addRepo(RepositoryConfig.Repository.builder().name("myrepo").url("https://charts.example.com").build(),
+				false, false);
+		writeIndex(cache, "myrepo", """
+				  mychart:
+				  - version: 1.5.0
+				    urls:
+				    - "https://mirror.example.com/mychart-1.5.0.tgz"
+				  other:
+				  - version: 2.0.0
+				    urls:
+				    - "other-2.0.0.tgz"
+				""");
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		byte[] tgz = createMinimalTgz();
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(httpAnswer(200, tgz));
+
+		Path dest = tempDir.resolve("dest");
+		Files.createDirectories(dest);
+		rm.pull("mychart", "myrepo", "1.5.0", dest.toString());
+		rm.pull("other", "myrepo", "2.0.0", dest.toString());
+
+		ArgumentCaptor<HttpGet> requests = ArgumentCaptor.forClass(HttpGet.class);
+		verify(mockClient, times(2)).execute(requests.capture(), any(HttpClientResponseHandler.class));
+		assertEquals("https://mirror.example.com/mychart-1.5.0.tgz",
+				requests.getAllValues().get(0).getUri().toString());
+		assertEquals("https://charts.example.com/other-2.0.0.tgz", requests.getAllValues().get(1).getUri().toString());
+		// The index is parsed once, by the first pull; the second is served from it.
+		assertEquals(1, registry.find("jhelm.repo.index.parse").timer().count());
+		assertEquals(1.0, registry.find("jhelm.repo.index.requests").tag("result", "miss").counter().count());
+		assertEquals(1.0, registry.find("jhelm.repo.index.requests").tag("result", "hit").counter().count());
+	}
+
+	@Test
+	void testPullCachedExtractsEachDigestOnce() throws Exception {
+		Path cache = tempDir.resolve("cache");
+		RepoManager rm = newRepoManagerWithCache(cache);
+		rm.addRepo(RepositoryConfig.Repository.builder().name("myrepo").url("https://charts.example.com").build(),
+				false, false);
+		byte[] tgz = createMinimalTgz();
+		writeIndex(cache, "myrepo", """
+				  minimal:
+				  - version: 0.1.0
+				    urls:
+				    - "minimal-0.1.0.tgz"
+				    digest: %s
+				""".formatted(sha256Hex(tgz)));
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(httpAnswer(200, tgz));
+
+		Path first = rm.pullCached("myrepo/minimal", "0.1.0").orElseThrow();
+		Path second = rm.pullCached("myrepo/minimal:0.1.0", null).orElseThrow();
+
+		assertEquals(first, second);
+		assertEquals(cache.resolve("charts/extracted/" + sha256Hex(tgz) + "/minimal"), first);
+		assertTrue(Files.exists(first.resolve("Chart.yaml")));
+		verify(mockClient, times(1)).execute(isA(HttpGet.class), any(HttpClientResponseHandler.class));
+	}
+
+	@Test
+	void testConcurrentPullCachedOfOneChartBothSucceed() throws Exception {
+		Path cache = tempDir.resolve("cache");
+		RepoManager rm = newRepoManagerWithCache(cache);
+		rm.addRepo(RepositoryConfig.Repository.builder().name("myrepo").url("https://charts.example.com").build(),
+				false, false);
+		byte[] tgz = createMinimalTgz();
+		writeIndex(cache, "myrepo", """
+				  minimal:
+				  - version: 0.1.0
+				    urls:
+				    - "minimal-0.1.0.tgz"
+				    digest: %s
+				""".formatted(sha256Hex(tgz)));
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		// Both downloads are held until both are in flight, so both extract and race to
+		// rename their copy into place.
+		CyclicBarrier bothDownloading = new CyclicBarrier(2);
+		Answer<Object> download = httpAnswer(200, tgz);
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class))).thenAnswer((inv) -> {
+			bothDownloading.await(10, TimeUnit.SECONDS);
+			return download.answer(inv);
+		});
+
+		List<Future<Optional<Path>>> pulls = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 2; i++) {
+				pulls.add(executor.submit(() -> rm.pullCached("myrepo/minimal", "0.1.0")));
+			}
+		}
+
+		Path expected = cache.resolve("charts/extracted/" + sha256Hex(tgz) + "/minimal");
+		assertEquals(expected, pulls.get(0).get().orElseThrow());
+		assertEquals(expected, pulls.get(1).get().orElseThrow());
+		assertTrue(Files.exists(expected.resolve("Chart.yaml")));
+		// The loser's staging copy is gone.
+		try (var extracted = Files.list(cache.resolve("charts/extracted"))) {
+			assertEquals(1, extracted.count());
+		}
+	}
+
+	@Test
+	void testPullCachedIsEmptyWithoutAnIndexedDigest() throws Exception {
+		Path cache = tempDir.resolve("cache");
+		RepoManager rm = newRepoManagerWithCache(cache);
+		rm.addRepo(RepositoryConfig.Repository.builder().name("myrepo").url("https://charts.example.com").build(),
+				false, false);
+		writeIndex(cache, "myrepo", """
+				  minimal:
+				  - version: 0.1.0
+				    urls:
+				    - "minimal-0.1.0.tgz"
+				  traversal:
+				  - version: 0.1.0
+				    urls:
+				    - "traversal-0.1.0.tgz"
+				    digest: ../../escape
+				""");
+
+		assertTrue(rm.pullCached("myrepo/minimal", "0.1.0").isEmpty());
+		assertTrue(rm.pullCached("myrepo/traversal", "0.1.0").isEmpty());
+		assertTrue(rm.pullCached("oci://registry.example.com/charts/minimal:0.1.0", null).isEmpty());
+	}
+
+	@Test
+	void testPullCachedRejectsAnArchiveThatDoesNotMatchItsDigest() throws Exception {
+		Path cache = tempDir.resolve("cache");
+		RepoManager rm = newRepoManagerWithCache(cache);
+		rm.addRepo(RepositoryConfig.Repository.builder().name("myrepo").url("https://charts.example.com").build(),
+				false, false);
+		writeIndex(cache, "myrepo", """
+				  minimal:
+				  - version: 0.1.0
+				    urls:
+				    - "minimal-0.1.0.tgz"
+				    digest: %s
+				""".formatted("0".repeat(64)));
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(httpAnswer(200, createMinimalTgz()));
+
+		assertThrows(IOException.class, () -> rm.pullCached("myrepo/minimal", "0.1.0"));
+		// Nothing is left behind under the digest, so a later call retries.
+		try (var extracted = Files.list(cache.resolve("charts/extracted"))) {
+			assertEquals(0, extracted.count());
+		}
+	}
+
 	@Test
 	void testPullUnknownChartWithoutVersionThrowsIllegalArgument() throws Exception {
 		Path cache = tempDir.resolve("cache");
@@ -581,6 +752,109 @@ class RepoManagerTest {
 		rm.updateRepo("testrepo");
 	}
 
+	@Test
+	void testUpdateRepoSkipsDownloadWhenIndexNotModified() throws IOException {
+		Path cache = tempDir.resolve("cache");
+		RepoManager rm = newRepoManagerWithCache(cache);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		rm.setMetrics(new JhelmMetrics(registry));
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		rm.addRepo(RepositoryConfig.Repository.builder().name("myrepo").url("https://charts.example.com").build(),
+				false, false);
+		byte[] indexContent = "apiVersion: v1\nentries:\n  nginx:\n  - version: 1.0.0\n"
+			.getBytes(StandardCharsets.UTF_8);
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(httpAnswerWithEtag(200, indexContent, "\"v1\""))
+			.thenAnswer(httpAnswer(304, null));
+
+		rm.updateRepo("myrepo");
+		rm.updateRepo("myrepo");
+
+		ArgumentCaptor<HttpGet> requests = ArgumentCaptor.forClass(HttpGet.class);
+		verify(mockClient, times(2)).execute(requests.capture(), any(HttpClientResponseHandler.class));
+		assertNull(requests.getAllValues().get(0).getFirstHeader("If-None-Match"));
+		assertEquals("\"v1\"", requests.getAllValues().get(1).getFirstHeader("If-None-Match").getValue());
+		assertEquals(1, rm.getChartVersions("myrepo", "nginx").size(), "the cached index is kept");
+		assertEquals(1, registry.find("jhelm.repo.index.parse").timer().count(), "a 304 is not re-parsed");
+		assertEquals(1,
+				registry.find("jhelm.repo.update").tag("repo", "myrepo").tag("outcome", "not-modified").timer().count());
+		assertEquals(indexContent.length,
+				registry.find("jhelm.repo.update.bytes").tag("repo", "myrepo").summary().totalAmount());
+	}
+
+	@Test
+	void testInterruptedIndexDownloadKeepsTheOldIndexAndForgetsItsValidators() throws IOException {
+		Path cache = tempDir.resolve("cache");
+		RepoManager rm = newRepoManagerWithCache(cache);
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		rm.addRepo(RepositoryConfig.Repository.builder().name("myrepo").url("https://charts.example.com").build(),
+				false, false);
+		byte[] indexContent = "apiVersion: v1\nentries:\n  nginx:\n  - version: 1.0.0\n"
+			.getBytes(StandardCharsets.UTF_8);
+		byte[] head = "apiVersion: v1\nent".getBytes(StandardCharsets.UTF_8);
+		InputStream truncated = new SequenceInputStream(new ByteArrayInputStream(head), new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connection reset");
+			}
+		});
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(httpAnswerWithEtag(200, indexContent, "\"v1\""))
+			.thenAnswer((inv) -> {
+				HttpClientResponseHandler<Object> handler = inv.getArgument(1);
+				ClassicHttpResponse resp = mock(ClassicHttpResponse.class);
+				when(resp.getCode()).thenReturn(200);
+				HttpEntity entity = mock(HttpEntity.class);
+				when(resp.getEntity()).thenReturn(entity);
+				when(entity.getContent()).thenReturn(truncated);
+				return handler.handleResponse(resp);
+			})
+			.thenAnswer(httpAnswer(200, indexContent));
+
+		rm.updateRepo("myrepo");
+		assertThrows(IOException.class, () -> rm.updateRepo("myrepo"));
+
+		assertArrayEquals(indexContent, Files.readAllBytes(cache.resolve("myrepo-index.yaml")));
+		assertFalse(Files.exists(cache.resolve("myrepo-index.validators")));
+		try (var files = Files.list(cache)) {
+			assertTrue(files.noneMatch((f) -> f.getFileName().toString().endsWith(".tmp")));
+		}
+		// The next update is unconditional, so it cannot be answered with a 304.
+		rm.updateRepo("myrepo");
+		ArgumentCaptor<HttpGet> requests = ArgumentCaptor.forClass(HttpGet.class);
+		verify(mockClient, times(3)).execute(requests.capture(), any(HttpClientResponseHandler.class));
+		assertNull(requests.getAllValues().get(2).getFirstHeader("If-None-Match"));
+	}
+
+	@Test
+	void testUpdateAllUpdatesEveryRepoAndSkipsFailures() throws IOException {
+		Path cache = tempDir.resolve("cache");
+		RepoManager rm = newRepoManagerWithCache(cache);
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		for (int i = 0; i < 12; i++) {
+			rm.addRepo(RepositoryConfig.Repository.builder()
+				.name("repo-" + i)
+				.url("https://charts" + i + ".example.com")
+				.build(), false, false);
+		}
+		byte[] indexContent = "apiVersion: v1\nentries: {}\n".getBytes(StandardCharsets.UTF_8);
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class))).thenAnswer((inv) -> {
+			HttpGet request = inv.getArgument(0);
+			boolean broken = request.getUri().getHost().startsWith("charts3.");
+			return httpAnswer(broken ? 500 : 200, broken ? null : indexContent).answer(inv);
+		});
+
+		rm.updateAll();
+
+		verify(mockClient, times(12)).execute(isA(HttpGet.class), any(HttpClientResponseHandler.class));
+		for (int i = 0; i < 12; i++) {
+			assertEquals(i != 3, Files.exists(cache.resolve("repo-" + i + "-index.yaml")), "repo-" + i);
+		}
+	}
+
 	@Test
 	void testPullFromUrl() throws Exception {
 		RepoManager rm = new RepoManager();
@@ -714,6 +988,82 @@ class RepoManagerTest {
 		assertTrue(tempDir.resolve("mychart-1.0.0.tgz").toFile().exists());
 	}
 
+	@Test
+	void testWarmOciPullSkipsTheRegistry() throws Exception {
+		RepoManager rm = new RepoManager();
+		rm.setRepositoryCacheOverride(tempDir.resolve("cache").toString());
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		byte[] tgz = createMinimalTgz();
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(httpAnswer(200, OCI_TOKEN))
+			.thenAnswer(httpAnswer(200, ociManifest(tgz)))
+			.thenAnswer(httpAnswer(200, tgz));
+
+		rm.pullOci("oci://test.registry.io/myorg/mychart:1.0.0", tempDir.resolve("a").toString(), "mychart.tgz");
+		rm.pullOci("oci://test.registry.io/myorg/mychart:1.0.0", tempDir.resolve("b").toString(), "mychart.tgz");
+
+		// Token, manifest and blob once; the second pull is answered from the tag and
+		// chart caches.
+		verify(mockClient, times(3)).execute(any(ClassicHttpRequest.class), any(HttpClientResponseHandler.class));
+		assertTrue(tempDir.resolve("b/mychart.tgz").toFile().exists());
+	}
+
+	@Test
+	void testExpiredOciTagIsRevalidatedWithOneHead() throws Exception {
+		RepoManager rm = new RepoManager();
+		rm.setRepositoryCacheOverride(tempDir.resolve("cache").toString());
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		AtomicLong now = new AtomicLong();
+		rm.setClockForTest(now::get);
+		byte[] tgz = createMinimalTgz();
+		byte[] manifest = ociManifest(tgz);
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(httpAnswer(200, OCI_TOKEN))
+			.thenAnswer(httpAnswer(200, manifest))
+			.thenAnswer(httpAnswer(200, tgz));
+		when(mockClient.execute(isA(HttpHead.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(headAnswer("sha256:" + sha256Hex(manifest)));
+
+		rm.pullOci("oci://test.registry.io/myorg/mychart:1.0.0", tempDir.resolve("a").toString(), "mychart.tgz");
+		now.addAndGet(RepoManager.OCI_TAG_TTL_NANOS + 1);
+		rm.pullOci("oci://test.registry.io/myorg/mychart:1.0.0", tempDir.resolve("b").toString(), "mychart.tgz");
+
+		// The token is still valid, so the warm pull is a single manifest HEAD.
+		verify(mockClient, times(3)).execute(isA(HttpGet.class), any(HttpClientResponseHandler.class));
+		verify(mockClient, times(1)).execute(isA(HttpHead.class), any(HttpClientResponseHandler.class));
+		assertTrue(tempDir.resolve("b/mychart.tgz").toFile().exists());
+	}
+
+	@Test
+	void testMovedOciTagIsFetchedAgain() throws Exception {
+		RepoManager rm = new RepoManager();
+		rm.setRepositoryCacheOverride(tempDir.resolve("cache").toString());
+		CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+		rm.setHttpClientForTest(mockClient);
+		AtomicLong now = new AtomicLong();
+		rm.setClockForTest(now::get);
+		byte[] tgz = createMinimalTgz();
+		byte[] manifest = ociManifest(tgz);
+		when(mockClient.execute(isA(HttpGet.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(httpAnswer(200, OCI_TOKEN))
+			.thenAnswer(httpAnswer(200, manifest))
+			.thenAnswer(httpAnswer(200, tgz))
+			.thenAnswer(httpAnswer(200, manifest));
+		when(mockClient.execute(isA(HttpHead.class), any(HttpClientResponseHandler.class)))
+			.thenAnswer(headAnswer("sha256:" + "0".repeat(64)));
+
+		rm.pullOci("oci://test.registry.io/myorg/mychart:1.0.0", tempDir.resolve("a").toString(), "mychart.tgz");
+		now.addAndGet(RepoManager.OCI_TAG_TTL_NANOS + 1);
+		rm.pullOci("oci://test.registry.io/myorg/mychart:1.0.0", tempDir.resolve("b").toString(), "mychart.tgz");
+
+		// The HEAD reports a new digest, so the manifest is fetched again; the blob is
+		// still served from the chart cache.
+		verify(mockClient, times(4)).execute(isA(HttpGet.class), any(HttpClientResponseHandler.class));
+		assertTrue(tempDir.resolve("b/mychart.tgz").toFile().exists());
+	}
+
 	@Test
 	void testPushOci() throws Exception {
 		RepoManager rm = new RepoManager();
@@ -873,6 +1223,26 @@ class RepoManagerTest {
 		}
 	}
 
+	private static byte[] ociManifest(byte[] tgz) throws Exception {
+		return """
+				{"schemaVersion":2,"layers":[
+				  {"mediaType":"application/vnd.cncf.helm.chart.content.v1.tar+gzip",
+				   "digest":"sha256:%s","size":%d}
+				]}""".formatted(sha256Hex(tgz), tgz.length).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static Answer<Object> headAnswer(String manifestDigest) {
+		return (inv) -> {
+			HttpClientResponseHandler<Object> handler = inv.getArgument(1);
+			ClassicHttpResponse resp = mock(ClassicHttpResponse.class);
+			when(resp.getCode()).thenReturn(200);
+			Header digestHeader = mock(Header.class);
+			when(digestHeader.getValue()).thenReturn(manifestDigest);
+			when(resp.getFirstHeader("Docker-Content-Digest")).thenReturn(digestHeader);
+			return handler.handleResponse(resp);
+		};
+	}
+
 	private static String sha256Hex(byte[] bytes) throws Exception {
 		byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
 		return HexFormat.of().formatHex(hash);
@@ -892,6 +1262,21 @@ class RepoManagerTest {
 		};
 	}
 
+	private static Answer<Object> httpAnswerWithEtag(int code, byte[] body, String etag) {
+		return (inv) -> {
+			HttpClientResponseHandler<Object> handler = inv.getArgument(1);
+			ClassicHttpResponse resp = mock(ClassicHttpResponse.class);
+			when(resp.getCode()).thenReturn(code);
+			HttpEntity entity = mock(HttpEntity.class);
+			when(resp.getEntity()).thenReturn(entity);
+			when(entity.getContent()).thenReturn(new ByteArrayInputStream(body));
+			Header etagHeader = mock(Header.class);
+			when(etagHeader.getValue()).thenReturn(etag);
+			when(resp.getFirstHeader("ETag")).thenReturn(etagHeader);
+			return handler.handleResponse(resp);
+		};
+	}
+
 	private static Answer<Object> httpPostAnswer(int code, String locationUrl) {
 		return (inv) -> {
 			HttpClientResponseHandler<Object> handler = inv.getArgument(1);
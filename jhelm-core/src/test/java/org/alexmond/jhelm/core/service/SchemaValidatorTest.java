@@ -1,5 +1,6 @@
 package org.alexmond.jhelm.core.service;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.alexmond.jhelm.core.exception.SchemaValidationException;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -169,4 +171,41 @@ class SchemaValidatorTest {
 		assertFalse(ex.getValidationErrors().isEmpty());
 	}
 
+	@Test
+	void validate_compilesEachSchemaOnce() {
+		String schema = "{\"properties\": {\"replicas\": {\"type\": \"integer\"}}}";
+		validator.validate("a", schema, Map.of("replicas", 1));
+		validator.validate("b", schema, Map.of("replicas", 2));
+		assertEquals(1, validator.cachedSchemas());
+		validator.validate("c", "{\"type\": \"object\"}", Map.of());
+		assertEquals(2, validator.cachedSchemas());
+	}
+
+	@Test
+	void validate_boundsTheCompiledSchemaCache() {
+		SchemaValidator small = new SchemaValidator(2);
+		for (int i = 0; i < 5; i++) {
+			small.validate("c", "{\"properties\": {\"k" + i + "\": {\"type\": \"string\"}}}", Map.of());
+		}
+		assertEquals(2, small.cachedSchemas());
+		assertThrows(IllegalArgumentException.class, () -> new SchemaValidator(0));
+	}
+
+	@Test
+	void validate_cachedMalformedSchemaStaysAbsent() {
+		validator.validate("c", "{not json", Map.of());
+		assertDoesNotThrow(() -> validator.validate("c", "{not json", Map.of("any", 1)));
+		assertEquals(1, validator.cachedSchemas());
+	}
+
+	@Test
+	void validate_readsIntegerKeysByTheirStringForm() {
+		String schema = "{\"properties\": {\"1\": {\"type\": \"string\"}}}";
+		Map<Object, Object> values = new HashMap<>();
+		values.put(1, 5);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> raw = (Map<String, Object>) (Map<?, ?>) values;
+		assertThrows(SchemaValidationException.class, () -> validator.validate("c", schema, raw));
+	}
+
 }
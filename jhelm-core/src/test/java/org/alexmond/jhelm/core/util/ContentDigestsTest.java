@@ -0,0 +1,40 @@
+package org.alexmond.jhelm.core.util;
+
+import org.alexmond.jhelm.core.model.Chart;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ContentDigestsTest {
+
+	@Test
+	void sha256_matchesKnownVector() {
+		assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", ContentDigests.sha256("abc"));
+	}
+
+	@Test
+	void sha256_separatesStringsWithEqualHashCode() {
+		// "Aa" and "BB" share a String.hashCode, the collision the digest key removes.
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		assertNotEquals(ContentDigests.sha256("Aa"), ContentDigests.sha256("BB"));
+	}
+
+	@Test
+	void templateDigest_isComputedLazilyAndResetOnDataChange() {
+		Chart.Template template = Chart.Template.builder().name("cm.yaml").data("Aa").build();
+		assertEquals(ContentDigests.sha256("Aa"), template.getDigest());
+
+		template.setData("BB");
+
+		assertEquals(ContentDigests.sha256("BB"), template.getDigest());
+	}
+
+	@Test
+	void templateDigest_doesNotAffectEquality() {
+		Chart.Template loaded = Chart.Template.builder().name("cm.yaml").data("x").digest("precomputed").build();
+		Chart.Template built = Chart.Template.builder().name("cm.yaml").data("x").build();
+		assertEquals(built, loaded);
+	}
+
+}
@@ -0,0 +1,133 @@
+package org.alexmond.jhelm.core.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CopyOnWriteValuesTest {
+
+	private static Map<String, Object> source() {
+		Map<String, Object> image = new LinkedHashMap<>();
+		image.put("repository", "nginx");
+		image.put("port", 8080);
+		List<Object> ports = new ArrayList<>();
+		ports.add(80);
+		ports.add(Map.of("name", "https", "port", 443L));
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("image", image);
+		values.put("ports", ports);
+		values.put("replicas", 3);
+		values.put("ratio", 0.5);
+		values.put("unset", null);
+		return values;
+	}
+
+	@Test
+	void readsThroughWithIntegersAsDouble() {
+		Map<String, Object> view = CopyOnWriteValues.view(source());
+		assertEquals(3.0, view.get("replicas"));
+		assertEquals(0.5, view.get("ratio"));
+		assertEquals(8080.0, ((Map<?, ?>) view.get("image")).get("port"));
+		List<?> ports = (List<?>) view.get("ports");
+		assertEquals(80.0, ports.get(0));
+		assertEquals(443.0, ((Map<?, ?>) ports.get(1)).get("port"));
+		assertTrue(view.containsKey("unset"));
+		assertNull(view.get("unset"));
+		assertEquals(List.of("image", "ports", "replicas", "ratio", "unset"), new ArrayList<>(view.keySet()));
+	}
+
+	@Test
+	void writesNeverReachTheSource() {
+		Map<String, Object> source = source();
+		Map<String, Object> view = CopyOnWriteValues.view(source);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> image = (Map<String, Object>) view.get("image");
+		image.put("tag", "1.27");
+		image.remove("repository");
+		@SuppressWarnings("unchecked")
+		List<Object> ports = (List<Object>) view.get("ports");
+		ports.add(8443);
+		view.put("replicas", 5);
+
+		assertEquals(Map.of("port", 8080, "repository", "nginx"), source.get("image"));
+		assertEquals(2, ((List<?>) source.get("ports")).size());
+		assertEquals(3, source.get("replicas"));
+		assertEquals(Map.of("port", 8080.0, "tag", "1.27"), image);
+		assertEquals(3, ports.size());
+		assertEquals(5, view.get("replicas"));
+	}
+
+	@Test
+	void nestedViewsAreStableSoWritesStayVisible() {
+		Map<String, Object> view = CopyOnWriteValues.view(source());
+		@SuppressWarnings("unchecked")
+		Map<String, Object> image = (Map<String, Object>) view.get("image");
+		image.put("tag", "1.27");
+		assertSame(image, view.get("image"));
+		assertEquals("1.27", ((Map<?, ?>) view.get("image")).get("tag"));
+		// Copying the parent keeps the child view it already handed out.
+		view.put("extra", true);
+		assertSame(image, view.get("image"));
+	}
+
+	@Test
+	void entrySetValueWritesThroughTheView() {
+		Map<String, Object> source = source();
+		Map<String, Object> view = CopyOnWriteValues.view(source);
+		for (Map.Entry<String, Object> entry : view.entrySet()) {
+			if ("replicas".equals(entry.getKey())) {
+				entry.setValue(1);
+			}
+		}
+		assertEquals(1, view.get("replicas"));
+		assertEquals(3, source.get("replicas"));
+	}
+
+	@Test
+	void equalsPlainMapWithTheSameContent() {
+		Map<String, Object> plain = new HashMap<>();
+		plain.put("a", Map.of("b", 1.0));
+		Map<String, Object> view = CopyOnWriteValues.view(Map.of("a", Map.of("b", 1)));
+		assertEquals(plain, view);
+		assertEquals(view, plain);
+		assertEquals(plain.hashCode(), view.hashCode());
+	}
+
+	@Test
+	void pruneDropsOnlyNullsThatDeleteADefault() {
+		Map<String, Object> defaults = Map.of("image", Map.of("registry", "docker.io"), "declared", "x");
+		Map<String, Object> image = new LinkedHashMap<>();
+		image.put("registry", null);
+		image.put("extra", null);
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("image", image);
+		values.put("declared", null);
+		values.put("standalone", null);
+
+		Map<String, Object> pruned = CopyOnWriteValues.pruneDeletedNulls(values, defaults);
+
+		assertFalse(pruned.containsKey("declared"));
+		assertTrue(pruned.containsKey("standalone"));
+		Map<?, ?> prunedImage = (Map<?, ?>) pruned.get("image");
+		assertFalse(prunedImage.containsKey("registry"));
+		assertTrue(prunedImage.containsKey("extra"));
+		assertTrue(image.containsKey("registry"), "input is not mutated");
+	}
+
+	@Test
+	void pruneSharesTheInputWhenNothingIsDropped() {
+		Map<String, Object> values = source();
+		assertSame(values, CopyOnWriteValues.pruneDeletedNulls(values, Map.of("image", Map.of())));
+	}
+
+}
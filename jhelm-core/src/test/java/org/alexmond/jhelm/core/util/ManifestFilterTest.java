@@ -0,0 +1,56 @@
+package org.alexmond.jhelm.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ManifestFilterTest {
+
+	private static final String MANIFEST = """
+			# Source: app/templates/cm.yaml
+			kind: ConfigMap
+			---
+			# Source: app/templates/svc.yaml
+			kind: Service
+			---
+			# Source: app/templates/tests/test.yaml
+			kind: Pod
+			metadata:
+			  annotations:
+			    "helm.sh/hook": test
+			""";
+
+	private static String filter(boolean skipTests, List<String> showOnly) {
+		List<RenderedManifest.Document> kept = new ArrayList<>();
+		ManifestFilter filter = new ManifestFilter(skipTests, showOnly, kept::add);
+		RenderedManifest.parse(MANIFEST).forEach(filter);
+		filter.finish();
+		return RenderedManifest.join(kept);
+	}
+
+	@Test
+	void skipTestsMatchesWholeManifestForm() {
+		assertEquals(RenderedManifest.skipTests(MANIFEST), filter(true, List.of()));
+	}
+
+	@Test
+	void showOnlyMatchesWholeManifestFormInRequestOrder() {
+		List<String> showOnly = List.of("templates/svc.yaml", "templates/cm.yaml");
+		assertEquals(RenderedManifest.showOnly(MANIFEST, showOnly), filter(false, showOnly));
+	}
+
+	@Test
+	void noFiltersPassEveryDocument() {
+		assertEquals(RenderedManifest.join(RenderedManifest.parse(MANIFEST)), filter(false, null));
+	}
+
+	@Test
+	void showOnlyWithoutMatchFailsOnFinish() {
+		assertThrows(IllegalArgumentException.class, () -> filter(false, List.of("templates/missing.yaml")));
+	}
+
+}
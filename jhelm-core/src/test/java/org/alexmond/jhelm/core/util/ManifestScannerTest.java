@@ -0,0 +1,61 @@
+package org.alexmond.jhelm.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ManifestScannerTest {
+
+	private static List<String> chunks(String manifest) {
+		List<String> chunks = new ArrayList<>();
+		ManifestScanner.scan(manifest, (start, end) -> chunks.add(manifest.substring(start, end)));
+		return chunks;
+	}
+
+	@Test
+	void scanSplitsOnlyOnWholeSeparatorLines() {
+		assertEquals(List.of("kind: A\n", "\nkind: B\n", "\nkind: C\n"),
+				chunks("kind: A\n---  \nkind: B\n--- # next\nkind: C\n"));
+		assertEquals(List.of("# ---- section ----\nx: a---b\n---x\n"), chunks("# ---- section ----\nx: a---b\n---x\n"));
+	}
+
+	@Test
+	void scanReportsLeadingAndTrailingChunks() {
+		assertEquals(List.of("", "\nkind: A\n", ""), chunks("---\nkind: A\n---"));
+		assertEquals(List.of("kind: A\r\n", "\r\nkind: B\r\n"), chunks("kind: A\r\n---\r\nkind: B\r\n"));
+	}
+
+	@Test
+	void nextDashesHonoursTheLineStartAtZero() {
+		assertEquals(0, ManifestScanner.nextDashes("---\n", 0, 4, true));
+		assertEquals(-1, ManifestScanner.nextDashes("---\n", 0, 4, false));
+		assertEquals(7, ManifestScanner.nextDashes("a\n ---\n---", 0, 10, false));
+	}
+
+	@Test
+	void rangeHelpersMatchTheirStringCounterparts() {
+		String text = "xx \n# a\n  # b\n\nyy";
+		assertEquals(4, ManifestScanner.stripStart(text, 2, text.length()));
+		assertEquals(13, ManifestScanner.stripEnd(text, 4, 15));
+		assertTrue(ManifestScanner.isCommentOnly(text, 4, 14));
+		assertFalse(ManifestScanner.isCommentOnly(text, 4, text.length()));
+		assertTrue(ManifestScanner.isBlank(text, 2, 4));
+		assertEquals("# a", ManifestScanner.trimmed(text, 2, 7));
+		assertTrue(ManifestScanner.contains(text, "# b", 4, 14));
+		assertFalse(ManifestScanner.contains(text, "# b", 4, 12));
+	}
+
+	@Test
+	void sourceMarkerReadsTheFirstMarkerLine() {
+		String doc = "x: \"# Source: no\"\n# Source: app/templates/a.yaml \r\nkind: A";
+		assertEquals("app/templates/a.yaml", ManifestScanner.sourceMarker(doc, 0, doc.length()));
+		assertNull(ManifestScanner.sourceMarker("kind: A\n# Source: \n", 0, 19));
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.alexmond.jhelm.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ManifestSplitterTest {
+
+	private static final String MANIFEST = "# Source: app/templates/a.yaml\nkind: A\n---\nkind: A2\n---\n"
+			+ "# Source: app/templates/b.yaml\n# only a comment\n---\n"
+			+ "# Source: app/templates/c.yaml\nkind: C\n--- # trailing\nkind: C2\n";
+
+	private static List<RenderedManifest.Document> split(String... chunks) {
+		List<RenderedManifest.Document> docs = new ArrayList<>();
+		ManifestSplitter splitter = new ManifestSplitter(docs::add);
+		for (String chunk : chunks) {
+			splitter.append("src", chunk);
+		}
+		splitter.finish();
+		return docs;
+	}
+
+	@Test
+	void cleanDropsEmptyAndCommentOnlyDocuments() {
+		assertEquals("# Source: app/templates/a.yaml\nkind: A\n---\nkind: A2\n---\n"
+				+ "# Source: app/templates/c.yaml\nkind: C\n---\n# trailing\nkind: C2\n",
+				ManifestSplitter.clean(MANIFEST));
+	}
+
+	@Test
+	void cleanKeepsNullAndEmptyInput() {
+		assertNull(ManifestSplitter.clean(null));
+		assertEquals("", ManifestSplitter.clean(""));
+	}
+
+	@Test
+	void piecewiseInputYieldsTheSameDocumentsAsWholeInput() {
+		List<String> whole = split(MANIFEST).stream().map(RenderedManifest.Document::text).toList();
+		for (int cut = 0; cut <= MANIFEST.length(); cut++) {
+			List<String> piecewise = split(MANIFEST.substring(0, cut), MANIFEST.substring(cut)).stream()
+				.map(RenderedManifest.Document::text)
+				.toList();
+			assertEquals(whole, piecewise, "split at " + cut);
+		}
+	}
+
+	@Test
+	void separatorOnlyCountsAtTheStartOfALine() {
+		// The second chunk's "---" continues the first chunk's line, so it is content.
+		List<RenderedManifest.Document> docs = split("kind: A\nvalue: x", "---\n");
+		assertEquals(1, docs.size());
+		assertEquals("kind: A\nvalue: x---", docs.get(0).text());
+	}
+
+	@Test
+	void documentsAreAttributedToTheTemplateThatStartedThem() {
+		List<RenderedManifest.Document> docs = new ArrayList<>();
+		ManifestSplitter splitter = new ManifestSplitter(docs::add);
+		splitter.append("a.yaml", "# Source: a.yaml\nkind: A\n---\n");
+		splitter.append("b.yaml", "# Source: b.yaml\nkind: B\n---\nkind: B2\n");
+		assertEquals(2, docs.size());
+		splitter.finish();
+		List<String> sources = docs.stream().map(RenderedManifest.Document::source).toList();
+		assertEquals(List.of("a.yaml", "b.yaml", "b.yaml"), sources);
+		assertTrue(docs.get(2).text().startsWith("kind: B2"));
+	}
+
+}
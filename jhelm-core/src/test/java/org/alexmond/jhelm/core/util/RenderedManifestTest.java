@@ -58,6 +58,16 @@ class RenderedManifestTest {
 		assertEquals("c/templates/multi.yaml", docs.get(1).source());
 	}
 
+	@Test
+	void testParseSplitsOnSeparatorLinesWithCommentsOrCrlf() {
+		String manifest = "---\r\n# Source: c/templates/a.yaml\r\nkind: A\r\n--- # b\r\nkind: B\r\n---\r\n";
+		List<RenderedManifest.Document> docs = RenderedManifest.parse(manifest);
+		assertEquals(2, docs.size());
+		assertEquals("# Source: c/templates/a.yaml\r\nkind: A", docs.get(0).text());
+		assertEquals("kind: B", docs.get(1).text());
+		assertEquals("c/templates/a.yaml", docs.get(1).source());
+	}
+
 	@Test
 	void testShowOnlyMatchesByTrailingPathSegment() {
 		String out = RenderedManifest.showOnly(MANIFEST, List.of("templates/deployment.yaml"));
@@ -20,6 +20,7 @@ import java.util.Set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -162,6 +163,24 @@ class ValuesLoaderTest {
 		assertEquals(2, mergedNested.get("b"));
 	}
 
+	@Test
+	void testMergeLeavesInputsUntouchedAndSharesUnchangedSubtrees() {
+		Map<String, Object> nested = new HashMap<>();
+		nested.put("a", 1);
+		Map<String, Object> untouched = new HashMap<>();
+		untouched.put("c", 3);
+		Map<String, Object> base = new HashMap<>();
+		base.put("nested", nested);
+		base.put("untouched", untouched);
+
+		Map<String, Object> merged = ValuesLoader.merge(base, Map.of("nested", Map.of("b", 2)));
+
+		assertEquals(Map.of("a", 1, "b", 2), merged.get("nested"));
+		assertEquals(Map.of("a", 1), nested, "base's nested map is not written to");
+		assertSame(untouched, merged.get("untouched"));
+		assertEquals(base, ValuesLoader.merge(base, null));
+	}
+
 	@Test
 	void testYamlAnchorAliasResolution() throws IOException {
 		File f = writeValues("""
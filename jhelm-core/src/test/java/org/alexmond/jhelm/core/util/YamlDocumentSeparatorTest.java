@@ -2,27 +2,18 @@ package org.alexmond.jhelm.core.util;
 
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Method;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import org.alexmond.jhelm.core.service.Engine;
 
 /**
- * Test for YAML document separator handling in Engine.cleanManifest() This is a recurring
- * issue - test various edge cases
+ * Test for YAML document separator handling in ManifestSplitter (the engine's manifest
+ * cleanup). This is a recurring issue - test various edge cases
  */
 class YamlDocumentSeparatorTest {
 
-	private final Engine engine = new Engine();
-
-	/**
-	 * Helper to call private cleanManifest method via reflection
-	 */
-	private String cleanManifest(String manifest) throws Exception {
-		Method method = Engine.class.getDeclaredMethod("cleanManifest", String.class);
-		method.setAccessible(true);
-		return (String) method.invoke(engine, manifest);
+	private String cleanManifest(String manifest) {
+		return ManifestSplitter.clean(manifest);
 	}
 
 	@Test
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.util.Config;
@@ -84,7 +85,8 @@ class ClientJavaKubeConfiguration {
 	 * applying the module-wide decorator chain (retry, metrics) owned by
 	 * {@link JhelmKubeAutoConfiguration}.
 	 * @param kubeClient the registered Kubernetes client wrapper
-	 * @param props the Kubernetes configuration properties, providing the retry settings
+	 * @param props the Kubernetes configuration properties, providing the retry settings,
+	 * the apply concurrency and the API discovery cache
 	 * @param metricsProvider provider for the optional metrics bean used to enable
 	 * operation timing and counting
 	 * @return the (possibly decorated) Kubernetes service
@@ -94,6 +96,9 @@ class ClientJavaKubeConfiguration {
 	KubeService kubeService(KubeClient kubeClient, JhelmKubernetesProperties props,
 			ObjectProvider<JhelmMetrics> metricsProvider) {
 		AsyncHelmKubeService base = new AsyncHelmKubeService(kubeClient);
+		base.setApplyConcurrency(props.getApplyConcurrency());
+		base.setDiscoveryCache(props.getDiscovery().getCacheDir(),
+				Duration.ofSeconds(props.getDiscovery().getTtlSeconds()));
 		return KubeServiceDecorators.decorate(base, props, metricsProvider);
 	}
 
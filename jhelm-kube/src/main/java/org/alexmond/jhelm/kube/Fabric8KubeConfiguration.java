@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 
 import io.fabric8.kubernetes.client.Config;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -76,7 +77,8 @@ class Fabric8KubeConfiguration {
 	 * chain (retry, metrics) owned by {@link JhelmKubeAutoConfiguration} — identical
 	 * decoration to the official-client backend.
 	 * @param client the Fabric8 client
-	 * @param props the Kubernetes configuration properties, providing the retry settings
+	 * @param props the Kubernetes configuration properties, providing the retry settings,
+	 * the apply concurrency and the API discovery cache
 	 * @param metricsProvider provider for the optional metrics bean
 	 * @return the (possibly decorated) Kubernetes service
 	 */
@@ -84,7 +86,11 @@ class Fabric8KubeConfiguration {
 	@ConditionalOnMissingBean(KubeService.class)
 	KubeService kubeService(KubernetesClient client, JhelmKubernetesProperties props,
 			ObjectProvider<JhelmMetrics> metricsProvider) {
-		return KubeServiceDecorators.decorate(new Fabric8AsyncKubeService(client), props, metricsProvider);
+		Fabric8AsyncKubeService base = new Fabric8AsyncKubeService(client);
+		base.setApplyConcurrency(props.getApplyConcurrency());
+		base.setDiscoveryCache(props.getDiscovery().getCacheDir(),
+				Duration.ofSeconds(props.getDiscovery().getTtlSeconds()));
+		return KubeServiceDecorators.decorate(base, props, metricsProvider);
 	}
 
 	private Config buildConfig(JhelmKubernetesProperties props) throws IOException {
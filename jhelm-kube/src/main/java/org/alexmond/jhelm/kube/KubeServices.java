@@ -1,5 +1,7 @@
 package org.alexmond.jhelm.kube;
 
+import java.time.Duration;
+
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.kubernetes.client.openapi.ApiClient;
 import org.alexmond.jhelm.core.metrics.JhelmMetrics;
@@ -50,13 +52,18 @@ public final class KubeServices {
 	 * Builds a decorated {@link KubeService} from a Fabric8 client with full control over
 	 * the decorator chain.
 	 * @param client the Fabric8 Kubernetes client to back the service
-	 * @param props the Kubernetes configuration properties, providing the retry settings
+	 * @param props the Kubernetes configuration properties, providing the retry settings,
+	 * the apply concurrency and the API discovery cache
 	 * @param metrics the metrics used to enable operation timing and counting, or
 	 * {@code null} to disable metrics
 	 * @return the (possibly decorated) Kubernetes service
 	 */
 	public static KubeService fabric8(KubernetesClient client, JhelmKubernetesProperties props, JhelmMetrics metrics) {
-		return KubeServiceDecorators.decorate(new Fabric8AsyncKubeService(client), props, metricsProvider(metrics));
+		Fabric8AsyncKubeService base = new Fabric8AsyncKubeService(client);
+		base.setApplyConcurrency(props.getApplyConcurrency());
+		base.setDiscoveryCache(props.getDiscovery().getCacheDir(),
+				Duration.ofSeconds(props.getDiscovery().getTtlSeconds()));
+		return KubeServiceDecorators.decorate(base, props, metricsProvider(metrics));
 	}
 
 	/**
@@ -73,13 +80,17 @@ public final class KubeServices {
 	 * Builds a decorated {@link KubeService} from an official-client {@link ApiClient}
 	 * with full control over the decorator chain.
 	 * @param apiClient the official Kubernetes Java client to back the service
-	 * @param props the Kubernetes configuration properties, providing the retry settings
+	 * @param props the Kubernetes configuration properties, providing the retry settings,
+	 * the apply concurrency and the API discovery cache
 	 * @param metrics the metrics used to enable operation timing and counting, or
 	 * {@code null} to disable metrics
 	 * @return the (possibly decorated) Kubernetes service
 	 */
 	public static KubeService clientJava(ApiClient apiClient, JhelmKubernetesProperties props, JhelmMetrics metrics) {
 		AsyncHelmKubeService base = new AsyncHelmKubeService(new KubeClient(apiClient));
+		base.setApplyConcurrency(props.getApplyConcurrency());
+		base.setDiscoveryCache(props.getDiscovery().getCacheDir(),
+				Duration.ofSeconds(props.getDiscovery().getTtlSeconds()));
 		return KubeServiceDecorators.decorate(base, props, metricsProvider(metrics));
 	}
 
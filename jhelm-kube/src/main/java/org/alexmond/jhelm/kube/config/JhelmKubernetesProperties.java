@@ -1,5 +1,6 @@
 package org.alexmond.jhelm.kube.config;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -65,6 +66,20 @@ public class JhelmKubernetesProperties {
 	 */
 	private List<String> releaseNamespaces = new ArrayList<>();
 
+	/**
+	 * Most resources applied at once during install and upgrade. A manifest is applied in
+	 * Helm's install order, one wave of kinds after another (namespaces, then
+	 * configuration and RBAC, then workloads, then webhooks, then custom resources), and
+	 * the resources of a wave are sent concurrently up to this cap. {@code 1} applies
+	 * them one at a time.
+	 */
+	private int applyConcurrency = 8;
+
+	/**
+	 * API discovery cache configuration.
+	 */
+	private Discovery discovery = new Discovery();
+
 	/**
 	 * Retry configuration for transient Kubernetes API failures.
 	 */
@@ -117,6 +132,38 @@ public class JhelmKubernetesProperties {
 
 	}
 
+	/**
+	 * API discovery cache configuration. The resources a cluster serves (their plurals
+	 * and scope, and the API versions reported as {@code .Capabilities.APIVersions}) are
+	 * read once and kept on disk per API server, like kubectl's discovery cache, so most
+	 * operations make no discovery calls. A kind missing from the cached document, such as
+	 * a custom resource whose CRD was just installed, triggers a refresh.
+	 */
+	@Getter
+	@Setter
+	public static class Discovery {
+
+		/**
+		 * Creates the discovery settings with default values.
+		 */
+		@SuppressWarnings("PMD.UnnecessaryConstructor")
+		public Discovery() {
+		}
+
+		/**
+		 * Directory of the discovery cache, one subdirectory per API server. When not
+		 * set, {@code ~/.kube/cache/jhelm/discovery} is used.
+		 */
+		private Path cacheDir;
+
+		/**
+		 * How long a cached discovery document is used before discovery runs again, in
+		 * seconds.
+		 */
+		private long ttlSeconds = 21600;
+
+	}
+
 	/**
 	 * Health indicator configuration for the Kubernetes integration. Controls whether the
 	 * {@code KubernetesHealthIndicator} — which probes the ambient client's cluster
@@ -0,0 +1,59 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * What API discovery reported for one cluster: the server version and every resource
+ * the server serves. Client-neutral, so both {@link HelmKubeService} and
+ * {@link Fabric8KubeService} can share {@link DiscoveryCache} and
+ * {@link ResourcePluralizer}; each backend has its own loader.
+ *
+ * @param gitVersion the server's {@code gitVersion} (e.g. {@code v1.31.2})
+ * @param resources the served resources, in discovery order (preferred versions first)
+ * @param fetchedAt when discovery ran, as epoch millis
+ */
+record ApiDiscovery(String gitVersion, List<Resource> resources, long fetchedAt) {
+
+	ApiDiscovery {
+		resources = (resources != null) ? List.copyOf(resources) : List.of();
+	}
+
+	/**
+	 * One served resource; subresources such as {@code pods/status} are not included.
+	 *
+	 * @param groupVersion the group/version, {@code v1} for the core group
+	 * @param kind the kind
+	 * @param plural the resource name in URLs
+	 * @param namespaced whether the resource is namespaced
+	 */
+	record Resource(String groupVersion, String kind, String plural, boolean namespaced) {
+	}
+
+	/**
+	 * Finds a resource by kind. When several groups or versions serve the kind, the first
+	 * in discovery order wins.
+	 * @param kind the kind
+	 * @return the resource, or empty when the server does not serve the kind
+	 */
+	Optional<Resource> find(String kind) {
+		return this.resources.stream().filter((r) -> r.kind().equals(kind)).findFirst();
+	}
+
+	/**
+	 * The API versions to advertise as {@code .Capabilities.APIVersions}: every
+	 * group/version, plus every group/version/kind, matching what Helm derives from
+	 * discovery.
+	 * @return the sorted API versions
+	 */
+	List<String> apiVersions() {
+		TreeSet<String> versions = new TreeSet<>();
+		for (Resource resource : this.resources) {
+			versions.add(resource.groupVersion());
+			versions.add(resource.groupVersion() + "/" + resource.kind());
+		}
+		return List.copyOf(versions);
+	}
+
+}
@@ -0,0 +1,168 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.VersionApi;
+import io.kubernetes.client.openapi.models.VersionInfo;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.alexmond.jhelm.core.exception.KubernetesOperationException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Runs API discovery through the official Kubernetes Java client. It asks {@code /api}
+ * and {@code /apis} for the aggregated discovery document (Kubernetes 1.26+), which lists
+ * every group, version and resource in two requests. An older server answers with the
+ * plain group lists instead; the resources of each group/version are then fetched
+ * concurrently, and a group whose API service is unavailable is skipped, as kubectl
+ * does.
+ */
+@Slf4j
+final class ClientJavaDiscoveryLoader {
+
+	private static final String AGGREGATED_ACCEPT = "application/json;g=apidiscovery.k8s.io;v=v2;"
+			+ "as=APIGroupDiscoveryList,application/json;g=apidiscovery.k8s.io;v=v2beta1;"
+			+ "as=APIGroupDiscoveryList,application/json";
+
+	private static final JsonMapper JSON = JsonMapper.builder().build();
+
+	private ClientJavaDiscoveryLoader() {
+	}
+
+	/**
+	 * Runs discovery.
+	 * @param apiClient the client of the cluster to discover
+	 * @return the discovery document
+	 * @throws ApiException if the version or group lists cannot be read
+	 * @throws IOException if a request fails
+	 */
+	static ApiDiscovery load(ApiClient apiClient) throws ApiException, IOException {
+		VersionInfo version = new VersionApi(apiClient).getCode().execute();
+		JsonNode core = get(apiClient, "/api");
+		JsonNode groups = get(apiClient, "/apis");
+		List<ApiDiscovery.Resource> resources = new ArrayList<>();
+		if (isAggregated(core) && isAggregated(groups)) {
+			addAggregated(core, resources);
+			addAggregated(groups, resources);
+		}
+		else {
+			addLegacy(apiClient, legacyPaths(core, groups), resources);
+		}
+		return new ApiDiscovery((version != null) ? version.getGitVersion() : null, resources,
+				System.currentTimeMillis());
+	}
+
+	static boolean isAggregated(JsonNode doc) {
+		return "APIGroupDiscoveryList".equals(doc.path("kind").asString());
+	}
+
+	/**
+	 * Adds the resources of an {@code APIGroupDiscoveryList}.
+	 * @param doc the aggregated discovery document of {@code /api} or {@code /apis}
+	 * @param resources receives the resources
+	 */
+	static void addAggregated(JsonNode doc, List<ApiDiscovery.Resource> resources) {
+		for (JsonNode group : doc.path("items")) {
+			String name = group.path("metadata").path("name").asString("");
+			for (JsonNode version : group.path("versions")) {
+				String groupVersion = name.isEmpty() ? version.path("version").asString()
+						: name + "/" + version.path("version").asString();
+				for (JsonNode resource : version.path("resources")) {
+					String kind = resource.path("responseKind").path("kind").asString("");
+					if (!kind.isEmpty()) {
+						String plural = resource.path("resource").asString();
+						boolean namespaced = "Namespaced".equals(resource.path("scope").asString());
+						resources.add(new ApiDiscovery.Resource(groupVersion, kind, plural, namespaced));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The resource-list paths of a server without aggregated discovery, preferred
+	 * versions first.
+	 * @param core the {@code APIVersions} of {@code /api}
+	 * @param groups the {@code APIGroupList} of {@code /apis}
+	 * @return paths such as {@code /api/v1} and {@code /apis/apps/v1}
+	 */
+	static List<String> legacyPaths(JsonNode core, JsonNode groups) {
+		List<String> paths = new ArrayList<>();
+		for (JsonNode version : core.path("versions")) {
+			paths.add("/api/" + version.asString());
+		}
+		for (JsonNode group : groups.path("groups")) {
+			for (JsonNode version : group.path("versions")) {
+				paths.add("/apis/" + version.path("groupVersion").asString());
+			}
+		}
+		return paths;
+	}
+
+	/**
+	 * Adds the resources of an {@code APIResourceList}, leaving out subresources.
+	 * @param doc the resource list of one group/version
+	 * @param resources receives the resources
+	 */
+	static void addResourceList(JsonNode doc, List<ApiDiscovery.Resource> resources) {
+		String groupVersion = doc.path("groupVersion").asString();
+		for (JsonNode resource : doc.path("resources")) {
+			String name = resource.path("name").asString("");
+			if (!name.isEmpty() && !name.contains("/")) {
+				resources.add(new ApiDiscovery.Resource(groupVersion, resource.path("kind").asString(), name,
+						resource.path("namespaced").asBoolean()));
+			}
+		}
+	}
+
+	private static void addLegacy(ApiClient apiClient, List<String> paths, List<ApiDiscovery.Resource> resources) {
+		List<Future<JsonNode>> futures = new ArrayList<>(paths.size());
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (String path : paths) {
+				futures.add(executor.submit(() -> get(apiClient, path)));
+			}
+		}
+		for (int i = 0; i < paths.size(); i++) {
+			try {
+				addResourceList(futures.get(i).get(), resources);
+			}
+			catch (ExecutionException ex) {
+				if (log.isDebugEnabled()) {
+					log.debug("Skipping {} in API discovery: {}", paths.get(i), ex.getCause().getMessage());
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new KubernetesOperationException("Interrupted during API discovery", ex);
+			}
+		}
+	}
+
+	private static JsonNode get(ApiClient apiClient, String path) throws ApiException, IOException {
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Accept", AGGREGATED_ACCEPT);
+		Call call = apiClient.buildCall(apiClient.getBasePath(), path, "GET", new ArrayList<>(), new ArrayList<>(),
+				null, headers, new HashMap<>(), new HashMap<>(), new String[] { "BearerToken" }, null);
+		try (Response response = call.execute()) {
+			ResponseBody body = response.body();
+			if (!response.isSuccessful() || body == null) {
+				throw new ApiException(response.code(), "GET " + path + " returned HTTP " + response.code());
+			}
+			return JSON.readTree(body.string());
+		}
+	}
+
+}
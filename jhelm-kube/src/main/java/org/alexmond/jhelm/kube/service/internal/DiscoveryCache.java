@@ -0,0 +1,235 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Caches one cluster's {@link ApiDiscovery}, in memory and optionally on disk, the way
+ * kubectl caches discovery under {@code ~/.kube/cache/discovery}. Discovery runs at most
+ * once per TTL, so resolving plurals and scope and building {@code .Capabilities} cost no
+ * API call on most operations, even across CLI invocations.
+ *
+ * <p>
+ * A kind the cached document does not know, typically a custom resource whose CRD was
+ * installed after discovery ran, forces a refresh. Concurrent callers share one refresh,
+ * and forced refreshes are at least {@value #MIN_REFRESH_INTERVAL_MS} ms apart. When
+ * discovery fails the last known document, even a stale one, keeps being served.
+ */
+@Slf4j
+final class DiscoveryCache {
+
+	/** How long a discovery document is used before it is fetched again. */
+	static final Duration DEFAULT_TTL = Duration.ofHours(6);
+
+	// Least time between two discovery runs, so a manifest full of unknown kinds,
+	// applied concurrently, or a cluster that fails discovery, is not hammered.
+	private static final long MIN_REFRESH_INTERVAL_MS = 1000;
+
+	private static final JsonMapper JSON = JsonMapper.builder().build();
+
+	/**
+	 * Runs discovery against the cluster.
+	 */
+	@FunctionalInterface
+	interface Loader {
+
+		/**
+		 * Reads the server version and served resources.
+		 * @return the discovery document
+		 * @throws Exception if the cluster cannot be reached or answers with an error
+		 */
+		ApiDiscovery load() throws Exception;
+
+	}
+
+	private final Loader loader;
+
+	private final Path file;
+
+	private final long ttlMillis;
+
+	private volatile ApiDiscovery current;
+
+	// Serializes loads. A lock rather than synchronized: a load runs discovery and file
+	// I/O, which would pin a virtual thread's carrier inside a monitor.
+	private final ReentrantLock loadLock = new ReentrantLock();
+
+	// Guarded by loadLock.
+	private long lastAttempt;
+
+	/**
+	 * Creates a cache.
+	 * @param loader runs discovery
+	 * @param file where the document is kept between runs, or {@code null} to cache in
+	 * memory only
+	 * @param ttl how long a document is used before discovery runs again
+	 */
+	DiscoveryCache(Loader loader, Path file, Duration ttl) {
+		this.loader = loader;
+		this.file = file;
+		this.ttlMillis = ttl.toMillis();
+	}
+
+	/**
+	 * The cache file for a cluster: {@code <directory>/<host>_<port>/discovery.json},
+	 * keyed like kubectl's discovery cache.
+	 * @param directory the cache root
+	 * @param serverUrl the API server URL
+	 * @return the cache file
+	 */
+	static Path file(Path directory, String serverUrl) {
+		URI uri = URI.create(serverUrl);
+		String host = (uri.getHost() != null) ? uri.getHost() : serverUrl;
+		String key = (uri.getPort() != -1) ? host + "_" + uri.getPort() : host;
+		return directory.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_")).resolve("discovery.json");
+	}
+
+	/**
+	 * The default cache root, {@code ~/.kube/cache/jhelm/discovery}.
+	 * @return the directory
+	 */
+	static Path defaultDirectory() {
+		return Path.of(System.getProperty("user.home"), ".kube", "cache", "jhelm", "discovery");
+	}
+
+	/**
+	 * Returns the discovery document, running discovery when none is cached or the cached
+	 * one has expired.
+	 * @return the document, or {@code null} when discovery has never succeeded
+	 */
+	ApiDiscovery get() {
+		ApiDiscovery snapshot = this.current;
+		if (snapshot != null && isFresh(snapshot)) {
+			return snapshot;
+		}
+		return load(snapshot, false);
+	}
+
+	/**
+	 * Finds a served resource by kind, refreshing the document once if the kind is not in
+	 * it.
+	 * @param kind the kind
+	 * @return the resource, or empty when the server does not serve the kind or discovery
+	 * is unavailable
+	 */
+	Optional<ApiDiscovery.Resource> find(String kind) {
+		ApiDiscovery snapshot = get();
+		Optional<ApiDiscovery.Resource> found = (snapshot != null) ? snapshot.find(kind) : Optional.empty();
+		if (found.isPresent()) {
+			return found;
+		}
+		ApiDiscovery refreshed = load(snapshot, true);
+		return (refreshed != null) ? refreshed.find(kind) : Optional.empty();
+	}
+
+	/**
+	 * Runs discovery again now, for use after the server rejected a path derived from the
+	 * cached document.
+	 * @return the refreshed document, or {@code null} when discovery is unavailable
+	 */
+	ApiDiscovery refresh() {
+		return load(this.current, true);
+	}
+
+	private ApiDiscovery load(ApiDiscovery seen, boolean force) {
+		loadLock.lock();
+		try {
+			ApiDiscovery snapshot = this.current;
+			if (snapshot != seen && snapshot != null) {
+				// Another caller reloaded while this one waited.
+				return snapshot;
+			}
+			if (!force) {
+				ApiDiscovery stored = read();
+				if (stored != null && isFresh(stored)) {
+					this.current = stored;
+					return stored;
+				}
+			}
+			long now = System.currentTimeMillis();
+			if (now - this.lastAttempt < MIN_REFRESH_INTERVAL_MS) {
+				return snapshot;
+			}
+			this.lastAttempt = now;
+			try {
+				ApiDiscovery loaded = this.loader.load();
+				this.current = loaded;
+				write(loaded);
+				if (log.isDebugEnabled()) {
+					log.debug("API discovery loaded {} resources", loaded.resources().size());
+				}
+				return loaded;
+			}
+			catch (Exception ex) {
+				if (log.isDebugEnabled()) {
+					log.debug("API discovery failed, using the last known document: {}", ex.getMessage());
+				}
+				if (snapshot == null) {
+					this.current = read();
+					return this.current;
+				}
+				return snapshot;
+			}
+		}
+		finally {
+			loadLock.unlock();
+		}
+	}
+
+	private boolean isFresh(ApiDiscovery discovery) {
+		return System.currentTimeMillis() - discovery.fetchedAt() < this.ttlMillis;
+	}
+
+	private ApiDiscovery read() {
+		if (this.file == null || !Files.isRegularFile(this.file)) {
+			return null;
+		}
+		try {
+			return JSON.readValue(Files.readAllBytes(this.file), ApiDiscovery.class);
+		}
+		catch (IOException | RuntimeException ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Ignoring unreadable discovery cache {}: {}", this.file, ex.getMessage());
+			}
+			return null;
+		}
+	}
+
+	private void write(ApiDiscovery discovery) {
+		if (this.file == null) {
+			return;
+		}
+		try {
+			Files.createDirectories(this.file.getParent());
+			Path tmp = Files.createTempFile(this.file.getParent(), "discovery", ".tmp");
+			try {
+				Files.write(tmp, JSON.writeValueAsBytes(discovery));
+				try {
+					Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			finally {
+				Files.deleteIfExists(tmp);
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Could not write discovery cache {}: {}", this.file, ex.getMessage());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.fabric8.kubernetes.api.model.APIGroup;
+import io.fabric8.kubernetes.api.model.APIResource;
+import io.fabric8.kubernetes.api.model.APIResourceList;
+import io.fabric8.kubernetes.api.model.GroupVersionForDiscovery;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.VersionInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.jhelm.core.exception.KubernetesOperationException;
+
+/**
+ * Runs API discovery through the Fabric8 client: the server version, the group list,
+ * then the resources of every group/version, fetched concurrently. A group whose API
+ * service is unavailable is skipped, as kubectl does.
+ */
+@Slf4j
+final class Fabric8DiscoveryLoader {
+
+	private Fabric8DiscoveryLoader() {
+	}
+
+	/**
+	 * Runs discovery.
+	 * @param client the client of the cluster to discover
+	 * @return the discovery document
+	 */
+	static ApiDiscovery load(KubernetesClient client) {
+		VersionInfo version = client.getKubernetesVersion();
+		List<String> groupVersions = new ArrayList<>();
+		groupVersions.add("v1");
+		for (APIGroup group : client.getApiGroups().getGroups()) {
+			for (GroupVersionForDiscovery groupVersion : group.getVersions()) {
+				groupVersions.add(groupVersion.getGroupVersion());
+			}
+		}
+		List<Future<APIResourceList>> futures = new ArrayList<>(groupVersions.size());
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (String groupVersion : groupVersions) {
+				futures.add(executor.submit(() -> client.getApiResources(groupVersion)));
+			}
+		}
+		List<ApiDiscovery.Resource> resources = new ArrayList<>();
+		for (int i = 0; i < groupVersions.size(); i++) {
+			try {
+				APIResourceList list = futures.get(i).get();
+				if (list != null) {
+					for (APIResource resource : list.getResources()) {
+						if (!resource.getName().contains("/")) {
+							resources.add(new ApiDiscovery.Resource(groupVersions.get(i), resource.getKind(),
+									resource.getName(), Boolean.TRUE.equals(resource.getNamespaced())));
+						}
+					}
+				}
+			}
+			catch (ExecutionException ex) {
+				if (log.isDebugEnabled()) {
+					log.debug("Skipping {} in API discovery: {}", groupVersions.get(i), ex.getCause().getMessage());
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new KubernetesOperationException("Interrupted during API discovery", ex);
+			}
+		}
+		return new ApiDiscovery((version != null) ? version.getGitVersion() : null, resources,
+				System.currentTimeMillis());
+	}
+
+}
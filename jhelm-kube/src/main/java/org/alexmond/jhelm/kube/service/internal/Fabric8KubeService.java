@@ -3,6 +3,9 @@ package org.alexmond.jhelm.kube.service.internal;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -13,6 +16,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -31,6 +36,9 @@ import io.fabric8.kubernetes.api.model.batch.v1.Job;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
 import io.fabric8.kubernetes.client.dsl.NamespaceableResource;
 import io.fabric8.kubernetes.client.dsl.base.PatchContext;
 import io.fabric8.kubernetes.client.dsl.base.PatchType;
@@ -39,6 +47,7 @@ import org.alexmond.jhelm.core.exception.KubernetesOperationException;
 import org.alexmond.jhelm.core.exception.ReleaseStorageException;
 import org.alexmond.jhelm.core.exception.WaitTimeoutException;
 import org.alexmond.jhelm.core.model.Capabilities;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.HelmReleaseCodec;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
@@ -98,9 +107,9 @@ public class Fabric8KubeService implements KubeService {
 
 	private static final Set<String> RESTARTABLE_KINDS = Set.of("Deployment", "StatefulSet", "DaemonSet");
 
-	// Cluster-scoped kinds get no namespace on apply/delete/read; everything else is
-	// treated as namespaced (matching the official-client backend's default for unknown
-	// kinds, which covers the common namespaced-CRD case).
+	// Cluster-scoped kinds get no namespace on apply/delete/read; any other kind is
+	// resolved like the official-client backend does: built-in tables, then API discovery
+	// for CRDs, else namespaced (the common namespaced-CRD case).
 	private static final Set<String> CLUSTER_SCOPED_KINDS = Set.of("Namespace", "Node", "PersistentVolume",
 			"ClusterRole", "ClusterRoleBinding", "StorageClass", "CustomResourceDefinition", "PriorityClass",
 			"MutatingWebhookConfiguration", "ValidatingWebhookConfiguration", "APIService", "CSIDriver", "CSINode",
@@ -114,12 +123,45 @@ public class Fabric8KubeService implements KubeService {
 
 	private final HelmReleaseCodec releaseCodec = new HelmReleaseCodec();
 
+	private ManifestApplier applier = new ManifestApplier(ManifestApplier.DEFAULT_CONCURRENCY);
+
+	private DiscoveryCache discovery;
+
+	private ResourcePluralizer pluralizer;
+
 	/**
-	 * Creates the service backed by the given Fabric8 client.
+	 * Creates the service backed by the given Fabric8 client. API discovery is cached in
+	 * memory only until {@link #setDiscoveryCache} is called.
 	 * @param client the configured Fabric8 Kubernetes client
 	 */
 	public Fabric8KubeService(KubernetesClient client) {
 		this.client = client;
+		this.discovery = new DiscoveryCache(() -> Fabric8DiscoveryLoader.load(this.client), null,
+				DiscoveryCache.DEFAULT_TTL);
+		this.pluralizer = new ResourcePluralizer(this.discovery);
+	}
+
+	/**
+	 * Sets how many resources of one install-order wave are applied at once.
+	 * @param concurrency the most concurrent apply requests, at least {@code 1}
+	 */
+	public void setApplyConcurrency(int concurrency) {
+		this.applier = new ManifestApplier(concurrency);
+	}
+
+	/**
+	 * Keeps the cluster's API discovery document on disk, so discovery runs at most once
+	 * per {@code ttl}, even across invocations.
+	 * @param directory the cache root, each API server getting its own subdirectory, or
+	 * {@code null} for {@code ~/.kube/cache/jhelm/discovery}
+	 * @param ttl how long a document is used before discovery runs again
+	 */
+	public void setDiscoveryCache(Path directory, Duration ttl) {
+		this.discovery = new DiscoveryCache(() -> Fabric8DiscoveryLoader.load(this.client),
+				DiscoveryCache.file((directory != null) ? directory : DiscoveryCache.defaultDirectory(),
+						this.client.getMasterUrl().toString()),
+				ttl);
+		this.pluralizer = new ResourcePluralizer(this.discovery);
 	}
 
 	// ---------------------------------------------------------------- release storage
@@ -174,8 +216,15 @@ public class Fabric8KubeService implements KubeService {
 
 	@Override
 	public Optional<Release> getRelease(String name, String namespace) {
+		return getRelease(name, namespace, DecodeProfile.FULL);
+	}
+
+	@Override
+	public Optional<Release> getRelease(String name, String namespace, DecodeProfile profile) {
 		List<Secret> secrets = listSecrets(namespace, ownerNameSelector(name), "get release " + name);
-		return secrets.stream().max(Comparator.comparingInt(Fabric8KubeService::versionOf)).map(this::decodeRelease);
+		return secrets.stream()
+			.max(Comparator.comparingInt(Fabric8KubeService::versionOf))
+			.map((secret) -> decodeRelease(secret, profile));
 	}
 
 	@Override
@@ -196,33 +245,33 @@ public class Fabric8KubeService implements KubeService {
 		return toLatestReleases(secrets);
 	}
 
+	// Fabric8 has no metadata-only list, so the Secrets arrive whole; still, only the
+	// newest revision of each release is decoded, and without its chart content.
 	private List<Release> toLatestReleases(List<Secret> secrets) {
-		Map<String, Secret> latest = new LinkedHashMap<>();
+		Map<String, Secret> byName = new HashMap<>();
+		List<ReleaseSecrets.Ref> refs = new ArrayList<>(secrets.size());
 		for (Secret secret : secrets) {
-			Map<String, String> labels = labelsOf(secret);
-			String key = secret.getMetadata().getNamespace() + "/" + labels.get(NAME_LABEL);
-			Secret current = latest.get(key);
-			if (current == null || versionOf(secret) > versionOf(current)) {
-				latest.put(key, secret);
+			String release = labelsOf(secret).get(NAME_LABEL);
+			if (release != null) {
+				byName.put(secret.getMetadata().getNamespace() + "/" + secret.getMetadata().getName(), secret);
+				refs.add(new ReleaseSecrets.Ref(secret.getMetadata().getNamespace(), secret.getMetadata().getName(),
+						release, versionOf(secret)));
 			}
 		}
-		List<Release> releases = new ArrayList<>();
-		for (Secret secret : latest.values()) {
-			try {
-				releases.add(decodeRelease(secret));
-			}
-			catch (ReleaseStorageException ex) {
-				log.warn("Skipping unreadable release secret {}: {}", secret.getMetadata().getName(), ex.getMessage());
-			}
-		}
-		return releases;
+		return ReleaseSecrets.read(ReleaseSecrets.latest(refs),
+				(ref) -> decodeRelease(byName.get(ref.namespace() + "/" + ref.secretName()), DecodeProfile.SUMMARY));
 	}
 
 	@Override
 	public List<Release> getReleaseHistory(String name, String namespace) {
+		return getReleaseHistory(name, namespace, DecodeProfile.FULL);
+	}
+
+	@Override
+	public List<Release> getReleaseHistory(String name, String namespace, DecodeProfile profile) {
 		return listSecrets(namespace, ownerNameSelector(name), "get release history for " + name).stream()
 			.sorted(Comparator.comparingInt(Fabric8KubeService::versionOf).reversed())
-			.map(this::decodeRelease)
+			.map((secret) -> decodeRelease(secret, profile))
 			.toList();
 	}
 
@@ -311,7 +360,9 @@ public class Fabric8KubeService implements KubeService {
 		return Base64.getEncoder().encodeToString(gzipped);
 	}
 
-	private Release decodeRelease(Secret secret) {
+	// Streams the JSON straight out of the gzip payload, so only what the profile keeps
+	// is materialized.
+	private Release decodeRelease(Secret secret, DecodeProfile profile) {
 		try {
 			// Fabric8 getData() returns the base64 wire string (client-java auto-decodes
 			// the
@@ -320,10 +371,11 @@ public class Fabric8KubeService implements KubeService {
 			String wire = secret.getData().get(RELEASE_DATA_KEY);
 			byte[] innerBase64 = Base64.getDecoder().decode(wire);
 			byte[] gzipped = Base64.getDecoder().decode(innerBase64);
-			byte[] json = gunzip(gzipped);
-			return this.releaseCodec.fromJson(json);
+			try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+				return this.releaseCodec.fromJson(json, profile);
+			}
 		}
-		catch (RuntimeException ex) {
+		catch (IOException | RuntimeException ex) {
 			throw new ReleaseStorageException("Failed to decode release from Secret: " + secret.getMetadata().getName(),
 					ex);
 		}
@@ -340,15 +392,6 @@ public class Fabric8KubeService implements KubeService {
 		return out.toByteArray();
 	}
 
-	private static byte[] gunzip(byte[] data) {
-		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
-			return gzip.readAllBytes();
-		}
-		catch (IOException ex) {
-			throw new ReleaseStorageException("Failed to gunzip release payload", ex);
-		}
-	}
-
 	// ---------------------------------------------------------------- namespace
 
 	@Override
@@ -380,11 +423,7 @@ public class Fabric8KubeService implements KubeService {
 
 	private void applyManifest(String namespace, String yamlContent, boolean serverDryRun) {
 		try {
-			for (Object doc : loadUnstructured(yamlContent)) {
-				if (doc instanceof Map<?, ?> map) {
-					applyResource(namespace, map, serverDryRun);
-				}
-			}
+			this.applier.apply(documents(yamlContent), (resource) -> applyResource(namespace, resource, serverDryRun));
 		}
 		catch (KubernetesClientException ex) {
 			throw new KubernetesOperationException("Failed to apply manifest", ex, ex.getCode());
@@ -426,13 +465,8 @@ public class Fabric8KubeService implements KubeService {
 		}
 		try {
 			Map<String, Map<String, Object>> previous = indexById(previousYaml);
-			for (Object doc : loadUnstructured(yamlContent)) {
-				if (doc instanceof Map<?, ?> map) {
-					@SuppressWarnings("unchecked")
-					Map<String, Object> resource = (Map<String, Object>) map;
-					applyResourceWithPrune(namespace, resource, previous.get(String.join("|", identify(resource))));
-				}
-			}
+			this.applier.apply(documents(yamlContent), (resource) -> applyResourceWithPrune(namespace, resource,
+					previous.get(String.join("|", identify(resource)))));
 		}
 		catch (KubernetesClientException ex) {
 			throw new KubernetesOperationException("Failed to apply manifest", ex, ex.getCode());
@@ -445,6 +479,21 @@ public class Fabric8KubeService implements KubeService {
 		}
 	}
 
+	// The manifest's resource documents, each checked for apiVersion/kind/name up front so
+	// a malformed one fails the apply before any resource is sent.
+	private static List<Map<String, Object>> documents(String yamlContent) {
+		List<Map<String, Object>> resources = new ArrayList<>();
+		for (Object doc : loadUnstructured(yamlContent)) {
+			if (doc instanceof Map<?, ?> map) {
+				@SuppressWarnings("unchecked")
+				Map<String, Object> resource = (Map<String, Object>) map;
+				identify(resource);
+				resources.add(resource);
+			}
+		}
+		return resources;
+	}
+
 	// Indexes a manifest's documents by "apiVersion|kind|name" so an upgrade can pair
 	// each
 	// new resource with how the previous release rendered it.
@@ -562,27 +611,29 @@ public class Fabric8KubeService implements KubeService {
 
 	// ---------------------------------------------------------------- wait for deleted
 
+	/**
+	 * Waits until every resource in the manifest is gone, following the ones still
+	 * present through one watch per kind; see {@link ResourceWaiter}.
+	 */
 	@Override
 	public void waitForDeleted(String namespace, String manifest, int timeoutSeconds) {
-		long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
 		List<Map<?, ?>> resources = parseResources(manifest);
-		while (true) {
-			List<String> remaining = stillPresent(namespace, resources);
-			if (remaining.isEmpty()) {
-				return;
-			}
-			long left = deadline - System.currentTimeMillis();
-			if (left <= 0) {
-				throw new WaitTimeoutException(
-						"Timeout waiting for resources to be deleted: " + String.join(", ", remaining), List.of());
-			}
-			remaining.forEach((res) -> log.info("Waiting for {} to be deleted", res));
-			sleep(Math.min(WAIT_DELETED_POLL_MS, left), "Interrupted while waiting for resources to be deleted");
+		List<ResourceStatus> remaining = new ResourceWaiter(() -> stillPresent(namespace, resources),
+				WAIT_DELETED_POLL_MS)
+			.await(timeoutSeconds, (kinds, waiter, deadline, watches) -> {
+				for (String kind : kinds) {
+					watches.add(watchDeletion(namespace, kind, resources, waiter));
+				}
+			});
+		if (!remaining.isEmpty()) {
+			throw new WaitTimeoutException("Timeout waiting for resources to be deleted: "
+					+ remaining.stream().map((s) -> s.getKind() + "/" + s.getName()).collect(Collectors.joining(", ")),
+					List.of());
 		}
 	}
 
-	private List<String> stillPresent(String namespace, List<Map<?, ?>> resources) {
-		List<String> present = new ArrayList<>();
+	private List<ResourceStatus> stillPresent(String namespace, List<Map<?, ?>> resources) {
+		List<ResourceStatus> present = new ArrayList<>();
 		for (Map<?, ?> resource : resources) {
 			String[] id = identify(resource);
 			GenericKubernetesResource gkr = toGeneric(resource);
@@ -591,7 +642,7 @@ public class Fabric8KubeService implements KubeService {
 			}
 			try {
 				if (this.client.resource(gkr).get() != null) {
-					present.add(id[1] + "/" + id[2]);
+					present.add(present(id[1], id[2], namespace));
 				}
 			}
 			catch (KubernetesClientException ex) {
@@ -602,6 +653,24 @@ public class Fabric8KubeService implements KubeService {
 		return present;
 	}
 
+	// Watches one kind for deletions, addressed by the manifest's first resource of it.
+	private Watch watchDeletion(String namespace, String kind, List<Map<?, ?>> resources, ResourceWaiter waiter) {
+		String apiVersion = resources.stream()
+			.map(Fabric8KubeService::identify)
+			.filter((id) -> id[1].equals(kind))
+			.findFirst()
+			.orElseThrow()[0];
+		Watcher<GenericKubernetesResource> watcher = watcher(kind, waiter,
+				(gkr) -> present(kind, gkr.getMetadata().getName(), namespace),
+				(name) -> status(kind, name, namespace, true, "deleted"));
+		var ofKind = this.client.genericKubernetesResources(apiVersion, kind);
+		return isNamespaced(kind) ? ofKind.inNamespace(namespace).watch(watcher) : ofKind.watch(watcher);
+	}
+
+	private static ResourceStatus present(String kind, String name, String namespace) {
+		return status(kind, name, namespace, false, "waiting to be deleted");
+	}
+
 	// ---------------------------------------------------------------- restart workloads
 
 	@Override
@@ -655,18 +724,20 @@ public class Fabric8KubeService implements KubeService {
 
 	@Override
 	public List<ResourceStatus> getResourceStatuses(String namespace, String manifest) {
-		List<ResourceStatus> statuses = new ArrayList<>();
-		Iterable<Object> docs;
+		List<Map<?, ?>> resources;
 		try {
-			docs = loadUnstructured(manifest);
+			resources = parseResources(manifest);
 		}
 		catch (RuntimeException ex) {
 			throw new KubernetesOperationException("Failed to parse manifest", ex);
 		}
-		for (Object doc : docs) {
-			if (doc instanceof Map<?, ?> map) {
-				statuses.add(checkResourceStatus(namespace, map));
-			}
+		return statusesOf(namespace, resources);
+	}
+
+	private List<ResourceStatus> statusesOf(String namespace, List<Map<?, ?>> resources) {
+		List<ResourceStatus> statuses = new ArrayList<>();
+		for (Map<?, ?> resource : resources) {
+			statuses.add(checkResourceStatus(namespace, resource));
 		}
 		return statuses;
 	}
@@ -705,9 +776,10 @@ public class Fabric8KubeService implements KubeService {
 
 	private ResourceStatus checkDeployment(String namespace, String name) {
 		Deployment dep = this.client.apps().deployments().inNamespace(namespace).withName(name).get();
-		if (dep == null) {
-			return notFound("Deployment", name, namespace);
-		}
+		return (dep != null) ? deploymentStatus(namespace, name, dep) : notFound("Deployment", name, namespace);
+	}
+
+	private static ResourceStatus deploymentStatus(String namespace, String name, Deployment dep) {
 		var spec = dep.getSpec();
 		var st = dep.getStatus();
 		int desired = ((spec != null) && (spec.getReplicas() != null)) ? spec.getReplicas() : 1;
@@ -724,9 +796,10 @@ public class Fabric8KubeService implements KubeService {
 
 	private ResourceStatus checkReplicaSet(String namespace, String name) {
 		ReplicaSet rs = this.client.apps().replicaSets().inNamespace(namespace).withName(name).get();
-		if (rs == null) {
-			return notFound("ReplicaSet", name, namespace);
-		}
+		return (rs != null) ? replicaSetStatus(namespace, name, rs) : notFound("ReplicaSet", name, namespace);
+	}
+
+	private static ResourceStatus replicaSetStatus(String namespace, String name, ReplicaSet rs) {
 		var spec = rs.getSpec();
 		var st = rs.getStatus();
 		int desired = ((spec != null) && (spec.getReplicas() != null)) ? spec.getReplicas() : 1;
@@ -741,9 +814,10 @@ public class Fabric8KubeService implements KubeService {
 
 	private ResourceStatus checkDaemonSet(String namespace, String name) {
 		DaemonSet ds = this.client.apps().daemonSets().inNamespace(namespace).withName(name).get();
-		if (ds == null) {
-			return notFound("DaemonSet", name, namespace);
-		}
+		return (ds != null) ? daemonSetStatus(namespace, name, ds) : notFound("DaemonSet", name, namespace);
+	}
+
+	private static ResourceStatus daemonSetStatus(String namespace, String name, DaemonSet ds) {
 		var st = ds.getStatus();
 		int desired = nz((st != null) ? st.getDesiredNumberScheduled() : null);
 		int updated = nz((st != null) ? st.getUpdatedNumberScheduled() : null);
@@ -757,9 +831,10 @@ public class Fabric8KubeService implements KubeService {
 
 	private ResourceStatus checkStatefulSet(String namespace, String name) {
 		StatefulSet ss = this.client.apps().statefulSets().inNamespace(namespace).withName(name).get();
-		if (ss == null) {
-			return notFound("StatefulSet", name, namespace);
-		}
+		return (ss != null) ? statefulSetStatus(namespace, name, ss) : notFound("StatefulSet", name, namespace);
+	}
+
+	private static ResourceStatus statefulSetStatus(String namespace, String name, StatefulSet ss) {
 		var spec = ss.getSpec();
 		var st = ss.getStatus();
 		int desired = ((spec != null) && (spec.getReplicas() != null)) ? spec.getReplicas() : 1;
@@ -771,9 +846,10 @@ public class Fabric8KubeService implements KubeService {
 
 	private ResourceStatus checkJob(String namespace, String name) {
 		Job job = this.client.batch().v1().jobs().inNamespace(namespace).withName(name).get();
-		if (job == null) {
-			return notFound("Job", name, namespace);
-		}
+		return (job != null) ? jobStatus(namespace, name, job) : notFound("Job", name, namespace);
+	}
+
+	private static ResourceStatus jobStatus(String namespace, String name, Job job) {
 		var spec = job.getSpec();
 		var st = job.getStatus();
 		int completions = ((spec != null) && (spec.getCompletions() != null)) ? spec.getCompletions() : 1;
@@ -788,9 +864,10 @@ public class Fabric8KubeService implements KubeService {
 
 	private ResourceStatus checkPod(String namespace, String name) {
 		Pod pod = this.client.pods().inNamespace(namespace).withName(name).get();
-		if (pod == null) {
-			return notFound("Pod", name, namespace);
-		}
+		return (pod != null) ? podStatus(namespace, name, pod) : notFound("Pod", name, namespace);
+	}
+
+	private static ResourceStatus podStatus(String namespace, String name, Pod pod) {
 		var st = pod.getStatus();
 		String phase = (st != null) ? st.getPhase() : null;
 		boolean readyCondition = (st != null) && (st.getConditions() != null)
@@ -817,38 +894,102 @@ public class Fabric8KubeService implements KubeService {
 		return "Succeeded".equals(phase) || ("Running".equals(phase) && readyCondition);
 	}
 
+	/**
+	 * Waits until all resources in the manifest are ready, following the pending
+	 * workloads through one watch per kind in the namespace; see {@link ResourceWaiter}.
+	 */
 	@Override
 	public void waitForReady(String namespace, String manifest, int timeoutSeconds) {
-		long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
-		while (true) {
-			List<ResourceStatus> statuses = getResourceStatuses(namespace, manifest);
-			if (statuses.stream().allMatch(ResourceStatus::isReady)) {
-				return;
-			}
-			List<ResourceStatus> failed = statuses.stream().filter((s) -> s.isTerminal() && !s.isReady()).toList();
-			if (!failed.isEmpty()) {
-				throw new WaitTimeoutException("Resource(s) terminally failed: " + describe(failed), failed);
-			}
-			long left = deadline - System.currentTimeMillis();
-			if (left <= 0) {
-				break;
-			}
-			statuses.stream()
-				.filter((s) -> !s.isReady())
-				.forEach((s) -> log.info("Waiting for {}/{}: {}", s.getKind(), s.getName(), s.getMessage()));
-			sleep(Math.min(WAIT_READY_POLL_MS, left), "Interrupted while waiting for resources to be ready");
-		}
-		List<ResourceStatus> notReady = getResourceStatuses(namespace, manifest).stream()
-			.filter((s) -> !s.isReady())
-			.toList();
+		List<Map<?, ?>> resources = parseResources(manifest);
+		List<ResourceStatus> notReady = new ResourceWaiter(() -> statusesOf(namespace, resources),
+				WAIT_READY_POLL_MS)
+			.await(timeoutSeconds, (kinds, waiter, deadline, watches) -> {
+				for (String kind : kinds) {
+					watches.add(watchReadiness(namespace, kind, waiter));
+				}
+			});
 		if (!notReady.isEmpty()) {
 			throw new WaitTimeoutException("Timeout waiting for resources to be ready: " + describe(notReady),
 					notReady);
 		}
 	}
 
+	// Watches one workload kind in the namespace for readiness changes.
+	private Watch watchReadiness(String namespace, String kind, ResourceWaiter waiter) {
+		Function<String, ResourceStatus> gone = (name) -> notFound(kind, name, namespace);
+		return switch (kind) {
+			case "Deployment" -> this.client.apps()
+				.deployments()
+				.inNamespace(namespace)
+				.watch(watcher(kind, waiter, (dep) -> deploymentStatus(namespace, dep.getMetadata().getName(), dep),
+						gone));
+			case "ReplicaSet" -> this.client.apps()
+				.replicaSets()
+				.inNamespace(namespace)
+				.watch(watcher(kind, waiter, (rs) -> replicaSetStatus(namespace, rs.getMetadata().getName(), rs),
+						gone));
+			case "DaemonSet" -> this.client.apps()
+				.daemonSets()
+				.inNamespace(namespace)
+				.watch(watcher(kind, waiter, (ds) -> daemonSetStatus(namespace, ds.getMetadata().getName(), ds),
+						gone));
+			case "StatefulSet" -> this.client.apps()
+				.statefulSets()
+				.inNamespace(namespace)
+				.watch(watcher(kind, waiter, (ss) -> statefulSetStatus(namespace, ss.getMetadata().getName(), ss),
+						gone));
+			case "Job" -> this.client.batch()
+				.v1()
+				.jobs()
+				.inNamespace(namespace)
+				.watch(watcher(kind, waiter, (job) -> jobStatus(namespace, job.getMetadata().getName(), job), gone));
+			case "Pod" -> this.client.pods()
+				.inNamespace(namespace)
+				.watch(watcher(kind, waiter, (pod) -> podStatus(namespace, pod.getMetadata().getName(), pod), gone));
+			default -> throw new IllegalArgumentException("No readiness watch for kind " + kind);
+		};
+	}
+
+	// Passes the events of one kind to the waiter. Fabric8 reconnects a dropped watch
+	// itself; onClose with a cause means it gave up, and the wait falls back to polling.
+	private static <T extends HasMetadata> Watcher<T> watcher(String kind, ResourceWaiter waiter,
+			Function<T, ResourceStatus> present, Function<String, ResourceStatus> gone) {
+		return new Watcher<>() {
+
+			@Override
+			public void eventReceived(Action action, T resource) {
+				if (resource == null || resource.getMetadata() == null) {
+					return;
+				}
+				String name = resource.getMetadata().getName();
+				switch (action) {
+					case ADDED, MODIFIED -> waiter.update(kind, name, present.apply(resource));
+					case DELETED -> waiter.update(kind, name, gone.apply(name));
+					default -> {
+					}
+				}
+			}
+
+			@Override
+			public void onClose(WatcherException cause) {
+				waiter.watchFailed(kind, cause);
+			}
+
+		};
+	}
+
+	/**
+	 * Reports the live cluster for {@code .Capabilities}: the server version and every
+	 * group/version (and group/version/kind) it serves, from the cached API discovery
+	 * document. Without discovery it reads just the server version, falling back to
+	 * {@link Capabilities#DEFAULT} when the cluster cannot be reached.
+	 */
 	@Override
 	public Capabilities getCapabilities() {
+		ApiDiscovery discovered = this.discovery.get();
+		if (discovered != null && discovered.gitVersion() != null && !discovered.gitVersion().isBlank()) {
+			return new Capabilities(discovered.gitVersion(), discovered.apiVersions());
+		}
 		try {
 			var version = this.client.getKubernetesVersion();
 			String gitVersion = (version != null) ? version.getGitVersion() : null;
@@ -887,8 +1028,8 @@ public class Fabric8KubeService implements KubeService {
 		return gkr.getMetadata();
 	}
 
-	private static boolean isNamespaced(String kind) {
-		return !CLUSTER_SCOPED_KINDS.contains(kind);
+	private boolean isNamespaced(String kind) {
+		return !CLUSTER_SCOPED_KINDS.contains(kind) && this.pluralizer.isNamespaced(kind);
 	}
 
 	private List<Map<?, ?>> parseResources(String manifest) {
@@ -950,14 +1091,4 @@ public class Fabric8KubeService implements KubeService {
 			.orElse("");
 	}
 
-	private static void sleep(long millis, String interruptMessage) {
-		try {
-			Thread.sleep(millis);
-		}
-		catch (InterruptedException ex) {
-			Thread.currentThread().interrupt();
-			throw new KubernetesOperationException(interruptMessage, ex);
-		}
-	}
-
 }
@@ -1,8 +1,10 @@
 package org.alexmond.jhelm.kube.service.internal;
 
 import java.io.IOException;
+import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.Pair;
 import io.kubernetes.client.custom.V1Patch;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
 import io.kubernetes.client.openapi.apis.BatchV1Api;
@@ -10,9 +12,13 @@ import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.apis.VersionApi;
 import io.kubernetes.client.openapi.models.V1ConfigMap;
 import io.kubernetes.client.openapi.models.V1DaemonSet;
+import io.kubernetes.client.openapi.models.V1DaemonSetList;
 import io.kubernetes.client.openapi.models.V1Deployment;
+import io.kubernetes.client.openapi.models.V1DeploymentList;
 import io.kubernetes.client.openapi.models.V1Job;
+import io.kubernetes.client.openapi.models.V1JobList;
 import io.kubernetes.client.openapi.models.V1ReplicaSet;
+import io.kubernetes.client.openapi.models.V1ReplicaSetList;
 import io.kubernetes.client.openapi.models.V1Namespace;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Pod;
@@ -20,14 +26,22 @@ import io.kubernetes.client.openapi.models.V1PodList;
 import io.kubernetes.client.openapi.models.V1Secret;
 import io.kubernetes.client.openapi.models.V1SecretList;
 import io.kubernetes.client.openapi.models.V1StatefulSet;
+import io.kubernetes.client.openapi.models.V1StatefulSetList;
 import io.kubernetes.client.openapi.models.VersionInfo;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
 import io.kubernetes.client.util.Yaml;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
 import io.kubernetes.client.util.generic.KubernetesApiResponse;
 import io.kubernetes.client.util.generic.dynamic.DynamicKubernetesApi;
 import io.kubernetes.client.util.generic.dynamic.DynamicKubernetesObject;
 import io.kubernetes.client.util.generic.options.DeleteOptions;
+import io.kubernetes.client.util.generic.options.ListOptions;
 import io.kubernetes.client.util.generic.options.PatchOptions;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.constructor.SafeConstructor;
@@ -37,6 +51,7 @@ import org.alexmond.jhelm.core.exception.WaitTimeoutException;
 import org.alexmond.jhelm.core.service.CascadePolicy;
 import org.alexmond.jhelm.core.service.KubeService;
 import org.alexmond.jhelm.core.model.Capabilities;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.HelmReleaseCodec;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
@@ -46,6 +61,7 @@ import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.node.ObjectNode;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
@@ -54,11 +70,15 @@ import java.util.zip.GZIPOutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Objects;
 import java.util.Comparator;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 
 /**
@@ -87,6 +107,16 @@ public class HelmKubeService implements KubeService {
 	// upgrade merge patch; unstructured only, so no custom modules are needed.
 	private static final JsonMapper JSON = JsonMapper.builder().build();
 
+	// Release listing asks for Secret metadata only, accepting a full list from servers
+	// that cannot project.
+	private static final String METADATA_LIST_ACCEPT = "application/json;as=PartialObjectMetadataList;v=v1;"
+			+ "g=meta.k8s.io,application/json";
+
+	// Poll intervals of waitForReady/waitForDeleted when no watch can be kept open.
+	private static final long WAIT_READY_POLL_MS = 5000;
+
+	private static final long WAIT_DELETED_POLL_MS = 2000;
+
 	/** Configured Kubernetes API client used for all cluster operations. */
 	private final ApiClient apiClient;
 
@@ -94,24 +124,60 @@ public class HelmKubeService implements KubeService {
 
 	private ResourcePluralizer pluralizer;
 
+	private ManifestApplier applier = new ManifestApplier(ManifestApplier.DEFAULT_CONCURRENCY);
+
+	private DiscoveryCache discovery;
+
 	/**
-	 * Creates a service backed by the given {@link KubeClient}.
+	 * Creates a service backed by the given {@link KubeClient}. API discovery is cached in
+	 * memory only until {@link #setDiscoveryCache} is called.
 	 * @param kubeClient the jhelm Kubernetes client wrapper holding the configured API
 	 * client
 	 */
 	public HelmKubeService(KubeClient kubeClient) {
 		this.apiClient = kubeClient.apiClient();
+		this.discovery = new DiscoveryCache(() -> ClientJavaDiscoveryLoader.load(this.apiClient), null,
+				DiscoveryCache.DEFAULT_TTL);
+	}
+
+	/**
+	 * Sets how many resources of one install-order wave are applied at once.
+	 * @param concurrency the most concurrent apply requests, at least {@code 1}
+	 */
+	public void setApplyConcurrency(int concurrency) {
+		this.applier = new ManifestApplier(concurrency);
 	}
 
 	/**
-	 * Reads the live server version so {@code .Capabilities.KubeVersion} reflects the
-	 * real target cluster during install/upgrade. Falls back to
-	 * {@link Capabilities#DEFAULT} (engine default version) when the server cannot be
-	 * reached, so a dry-run/offline path still renders. API versions are left at the
-	 * engine default set.
+	 * Keeps the cluster's API discovery document on disk, so discovery runs at most once
+	 * per {@code ttl}, even across invocations.
+	 * @param directory the cache root, each API server getting its own subdirectory, or
+	 * {@code null} for {@code ~/.kube/cache/jhelm/discovery}
+	 * @param ttl how long a document is used before discovery runs again
+	 */
+	public synchronized void setDiscoveryCache(Path directory, Duration ttl) {
+		this.discovery = new DiscoveryCache(() -> ClientJavaDiscoveryLoader.load(this.apiClient),
+				DiscoveryCache.file((directory != null) ? directory : DiscoveryCache.defaultDirectory(),
+						this.apiClient.getBasePath()),
+				ttl);
+		this.pluralizer = null;
+	}
+
+	/**
+	 * Reports the live cluster so {@code .Capabilities} reflects the real target during
+	 * install/upgrade: the server version, and every group/version (and
+	 * group/version/kind) it serves, CRDs included, advertised on top of the engine's
+	 * default API versions. Both come from the cached API discovery document, so this
+	 * usually costs no request. Without discovery it reads just the server version, and
+	 * falls back to {@link Capabilities#DEFAULT} when the server cannot be reached, so a
+	 * dry-run/offline path still renders.
 	 */
 	@Override
 	public Capabilities getCapabilities() {
+		ApiDiscovery discovered = this.discovery.get();
+		if (discovered != null && discovered.gitVersion() != null && !discovered.gitVersion().isBlank()) {
+			return new Capabilities(discovered.gitVersion(), discovered.apiVersions());
+		}
 		try {
 			VersionInfo info = new VersionApi(apiClient).getCode().execute();
 			String gitVersion = (info != null) ? info.getGitVersion() : null;
@@ -178,6 +244,11 @@ public class HelmKubeService implements KubeService {
 	 */
 	@Override
 	public Optional<Release> getRelease(String name, String namespace) {
+		return getRelease(name, namespace, DecodeProfile.FULL);
+	}
+
+	@Override
+	public Optional<Release> getRelease(String name, String namespace, DecodeProfile profile) {
 		CoreV1Api api = new CoreV1Api(apiClient);
 		String labelSelector = "owner=helm,name=" + name;
 
@@ -192,55 +263,75 @@ public class HelmKubeService implements KubeService {
 		if (latest.isEmpty()) {
 			return Optional.empty();
 		}
-		return Optional.of(decodeRelease(latest.get()));
+		return Optional.of(decodeRelease(latest.get(), profile));
 	}
 
 	/**
-	 * Retrieves all releases in a namespace.
+	 * Retrieves all releases in a namespace. Only the metadata of the release Secrets is
+	 * listed; the newest revision of each release is then read and decoded without its
+	 * chart templates and files (see {@link ReleaseSecrets}).
 	 */
 	@Override
 	public List<Release> listReleases(String namespace) {
-		CoreV1Api api = new CoreV1Api(apiClient);
-		V1SecretList list = listSecrets(api, namespace, "owner=helm", "list releases in " + namespace);
-		return toLatestReleases(list);
+		List<ReleaseSecrets.Ref> refs = listReleaseMetadata("/api/v1/namespaces/" + namespace + "/secrets", namespace,
+				"list releases in " + namespace);
+		return readLatestReleases(refs);
 	}
 
 	@Override
 	public List<Release> listAllReleases() {
-		CoreV1Api api = new CoreV1Api(apiClient);
-		V1SecretList list = listAllSecrets(api, "owner=helm", "list releases across all namespaces");
-		return toLatestReleases(list);
+		List<ReleaseSecrets.Ref> refs = listReleaseMetadata("/api/v1/secrets", null,
+				"list releases across all namespaces");
+		return readLatestReleases(refs);
 	}
 
-	// Groups release Secrets by namespace+name (a release name is unique only within a
-	// namespace) and keeps the highest revision of each, decoding it to a Release.
-	private List<Release> toLatestReleases(V1SecretList list) {
-		Map<String, List<V1Secret>> grouped = list.getItems()
-			.stream()
-			.collect(Collectors
-				.groupingBy((s) -> s.getMetadata().getNamespace() + "/" + s.getMetadata().getLabels().get("name")));
-
-		List<V1Secret> latestPerName = grouped.values()
-			.stream()
-			.map((secrets) -> secrets.stream()
-				.max(Comparator.comparingInt((s) -> Integer.parseInt(s.getMetadata().getLabels().get("version"))))
-				.orElse(null))
-			.filter(Objects::nonNull)
-			.toList();
-
-		List<Release> releases = new ArrayList<>();
-		for (V1Secret secret : latestPerName) {
+	private List<Release> readLatestReleases(List<ReleaseSecrets.Ref> refs) {
+		CoreV1Api api = new CoreV1Api(apiClient);
+		return ReleaseSecrets.read(ReleaseSecrets.latest(refs), (ref) -> {
 			try {
-				releases.add(decodeRelease(secret));
+				V1Secret secret = api.readNamespacedSecret(ref.secretName(), ref.namespace()).execute();
+				return decodeRelease(secret, DecodeProfile.SUMMARY);
+			}
+			catch (ApiException ex) {
+				if (ex.getCode() == 404) {
+					return null;
+				}
+				throw new KubernetesOperationException(
+						"Failed to read release " + ref.release() + describeApiFailure(ex), ex, ex.getCode());
 			}
-			catch (ReleaseStorageException ex) {
-				if (log.isWarnEnabled()) {
-					log.warn("Failed to decode release from Secret {}: {}", secret.getMetadata().getName(),
-							ex.getMessage());
+		});
+	}
+
+	/**
+	 * Lists the release Secrets at {@code path} as {@code PartialObjectMetadataList}, so
+	 * the API server returns their metadata without the (large) release payloads. A
+	 * server that cannot project falls back to a plain Secret list, which is read the
+	 * same way.
+	 */
+	private List<ReleaseSecrets.Ref> listReleaseMetadata(String path, String namespace, String operation) {
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Accept", METADATA_LIST_ACCEPT);
+		List<Pair> query = new ArrayList<>();
+		query.add(new Pair("labelSelector", "owner=helm"));
+		try {
+			Call call = apiClient.buildCall(apiClient.getBasePath(), path, "GET", query, new ArrayList<>(), null,
+					headers, new HashMap<>(), new HashMap<>(), new String[] { "BearerToken" }, null);
+			try (Response response = call.execute()) {
+				ResponseBody body = response.body();
+				String content = (body != null) ? body.string() : "";
+				if (!response.isSuccessful()) {
+					throw new ApiException(response.message(), response.code(), response.headers().toMultimap(),
+							content);
 				}
+				return ReleaseSecrets.refs(JSON.readTree(content), namespace);
 			}
 		}
-		return releases;
+		catch (ApiException ex) {
+			throw new KubernetesOperationException("Failed to " + operation + describeApiFailure(ex), ex, ex.getCode());
+		}
+		catch (IOException ex) {
+			throw new KubernetesOperationException("Failed to " + operation + ": " + ex.getMessage(), ex);
+		}
 	}
 
 	/**
@@ -248,6 +339,11 @@ public class HelmKubeService implements KubeService {
 	 */
 	@Override
 	public List<Release> getReleaseHistory(String name, String namespace) {
+		return getReleaseHistory(name, namespace, DecodeProfile.FULL);
+	}
+
+	@Override
+	public List<Release> getReleaseHistory(String name, String namespace, DecodeProfile profile) {
 		CoreV1Api api = new CoreV1Api(apiClient);
 		String labelSelector = "owner=helm,name=" + name;
 
@@ -262,7 +358,7 @@ public class HelmKubeService implements KubeService {
 
 		List<Release> history = new ArrayList<>();
 		for (V1Secret secret : sorted) {
-			history.add(decodeRelease(secret));
+			history.add(decodeRelease(secret, profile));
 		}
 		return history;
 	}
@@ -334,19 +430,6 @@ public class HelmKubeService implements KubeService {
 		}
 	}
 
-	/**
-	 * Lists release Secrets across all namespaces for a label selector, translating the
-	 * kubernetes-client {@link ApiException} into a {@link KubernetesOperationException}.
-	 */
-	private V1SecretList listAllSecrets(CoreV1Api api, String labelSelector, String operation) {
-		try {
-			return api.listSecretForAllNamespaces().labelSelector(labelSelector).execute();
-		}
-		catch (ApiException ex) {
-			throw new KubernetesOperationException("Failed to " + operation + describeApiFailure(ex), ex, ex.getCode());
-		}
-	}
-
 	/**
 	 * Builds a human-readable suffix describing an {@link ApiException}, appending the
 	 * client's message and, when present, the raw API response body so the cluster's own
@@ -423,13 +506,7 @@ public class HelmKubeService implements KubeService {
 
 	private void applyManifest(String namespace, String yamlContent, boolean serverDryRun) {
 		try {
-			for (Object doc : loadUnstructured(yamlContent)) {
-				if (doc instanceof Map<?, ?> map) {
-					@SuppressWarnings("unchecked")
-					Map<String, Object> resource = (Map<String, Object>) map;
-					applyResource(namespace, resource, serverDryRun);
-				}
-			}
+			this.applier.apply(documents(yamlContent), (resource) -> applyResource(namespace, resource, serverDryRun));
 		}
 		catch (ApiException ex) {
 			throw new KubernetesOperationException("Failed to apply manifest", ex, ex.getCode());
@@ -467,11 +544,22 @@ public class HelmKubeService implements KubeService {
 		// group);
 		// cluster-scoped kinds skip the namespace segment based on the kind, not the
 		// release ns.
+		KubernetesApiResponse<DynamicKubernetesObject> response = serverSideApply(group, version, plural, namespaced,
+				namespace, name, patch, options);
+		if (response.getHttpStatusCode() == 404 && !pluralizer().isBuiltIn(kind) && this.discovery.refresh() != null
+				&& (!plural.equals(inferPlural(kind)) || namespaced != inferNamespaced(kind))) {
+			// The cached discovery was out of date for this kind; retry with the fresh one.
+			response = serverSideApply(group, version, inferPlural(kind), inferNamespaced(kind), namespace, name, patch,
+					options);
+		}
+		response.throwsApiException();
+	}
+
+	private KubernetesApiResponse<DynamicKubernetesObject> serverSideApply(String group, String version, String plural,
+			boolean namespaced, String namespace, String name, V1Patch patch, PatchOptions options) {
 		DynamicKubernetesApi api = new DynamicKubernetesApi(group, version, plural, apiClient);
-		KubernetesApiResponse<DynamicKubernetesObject> response = namespaced
-				? api.patch(namespace, name, V1Patch.PATCH_FORMAT_APPLY_YAML, patch, options)
+		return namespaced ? api.patch(namespace, name, V1Patch.PATCH_FORMAT_APPLY_YAML, patch, options)
 				: api.patch(name, V1Patch.PATCH_FORMAT_APPLY_YAML, patch, options);
-		response.throwsApiException();
 	}
 
 	@Override
@@ -483,13 +571,8 @@ public class HelmKubeService implements KubeService {
 		}
 		try {
 			Map<String, Map<String, Object>> previous = indexById(previousYaml);
-			for (Object doc : loadUnstructured(yamlContent)) {
-				if (doc instanceof Map<?, ?> map) {
-					@SuppressWarnings("unchecked")
-					Map<String, Object> resource = (Map<String, Object>) map;
-					applyResourceWithPrune(namespace, resource, previous.get(String.join("|", identify(resource))));
-				}
-			}
+			this.applier.apply(documents(yamlContent), (resource) -> applyResourceWithPrune(namespace, resource,
+					previous.get(String.join("|", identify(resource)))));
 		}
 		catch (ApiException ex) {
 			throw new KubernetesOperationException("Failed to apply manifest", ex, ex.getCode());
@@ -502,6 +585,21 @@ public class HelmKubeService implements KubeService {
 		}
 	}
 
+	// The manifest's resource documents, each checked for apiVersion/kind/name up front so
+	// a malformed one fails the apply before any resource is sent.
+	private static List<Map<String, Object>> documents(String yamlContent) {
+		List<Map<String, Object>> resources = new ArrayList<>();
+		for (Object doc : loadUnstructured(yamlContent)) {
+			if (doc instanceof Map<?, ?> map) {
+				@SuppressWarnings("unchecked")
+				Map<String, Object> resource = (Map<String, Object>) map;
+				identify(resource);
+				resources.add(resource);
+			}
+		}
+		return resources;
+	}
+
 	// Indexes a manifest's documents by "apiVersion|kind|name" so an upgrade can pair
 	// each
 	// new resource with how the previous release rendered it.
@@ -650,50 +748,59 @@ public class HelmKubeService implements KubeService {
 	}
 
 	/**
-	 * Polls until every resource in the manifest is gone from the cluster or the timeout
-	 * elapses (Helm {@code uninstall --wait}).
+	 * Waits until every resource in the manifest is gone from the cluster or the timeout
+	 * elapses (Helm {@code uninstall --wait}). Resources still present after the first
+	 * check are followed through one watch per kind, so the wait ends on the last
+	 * deletion event; see {@link ResourceWaiter}.
 	 */
 	@Override
 	public void waitForDeleted(String namespace, String manifest, int timeoutSeconds) {
-		long deadline = System.currentTimeMillis() + (long) timeoutSeconds * 1000;
-		int pollIntervalMs = 2000;
-		List<Map<String, Object>> resources = new ArrayList<>();
-		for (Object doc : loadUnstructured(manifest)) {
-			if (doc instanceof Map<?, ?> map) {
-				@SuppressWarnings("unchecked")
-				Map<String, Object> resource = (Map<String, Object>) map;
-				resources.add(resource);
-			}
-		}
-		while (true) {
-			List<String> remaining = stillPresent(namespace, resources);
-			if (remaining.isEmpty()) {
-				return;
-			}
-			long left = deadline - System.currentTimeMillis();
-			if (left <= 0) {
-				throw new WaitTimeoutException(
-						"Timeout waiting for resources to be deleted: " + String.join(", ", remaining), List.of());
-			}
-			remaining.forEach((r) -> log.info("Waiting for {} to be deleted", r));
-			try {
-				Thread.sleep(Math.min(pollIntervalMs, left));
-			}
-			catch (InterruptedException ex) {
-				Thread.currentThread().interrupt();
-				throw new KubernetesOperationException("Interrupted while waiting for resources to be deleted", ex);
-			}
+		List<Map<String, Object>> resources = parseResources(manifest);
+		List<ResourceStatus> remaining = new ResourceWaiter(() -> stillPresent(namespace, resources),
+				WAIT_DELETED_POLL_MS)
+			.await(timeoutSeconds, (kinds, waiter, deadline, watches) -> {
+				for (String kind : kinds) {
+					watches.add(watchDeletion(namespace, kind, resources, waiter, deadline));
+				}
+			});
+		if (!remaining.isEmpty()) {
+			throw new WaitTimeoutException("Timeout waiting for resources to be deleted: "
+					+ remaining.stream().map((s) -> s.getKind() + "/" + s.getName()).collect(Collectors.joining(", ")),
+					List.of());
 		}
 	}
 
-	// Returns "kind/name" for each manifest resource still present in the cluster.
-	private List<String> stillPresent(String namespace, List<Map<String, Object>> resources) {
-		List<String> remaining = new ArrayList<>();
+	// Opens the watch reporting deletions of one kind, addressed like the manifest's
+	// first resource of that kind.
+	private AutoCloseable watchDeletion(String namespace, String kind, List<Map<String, Object>> resources,
+			ResourceWaiter waiter, long deadline) {
+		String[] id = resources.stream()
+			.map(HelmKubeService::identify)
+			.filter((r) -> r[1].equals(kind))
+			.findFirst()
+			.orElseThrow();
+		String group = id[0].contains("/") ? id[0].split("/")[0] : "";
+		String version = id[0].contains("/") ? id[0].split("/")[1] : id[0];
+		DynamicKubernetesApi api = new DynamicKubernetesApi(group, version, inferPlural(kind), apiClient);
+		return watch(api, inferNamespaced(kind) ? namespace : null, kind, waiter, deadline,
+				(obj) -> present(kind, obj.getMetadata().getName(), namespace),
+				(name) -> ResourceStatus.builder()
+					.kind(kind)
+					.name(name)
+					.namespace(namespace)
+					.ready(true)
+					.message("deleted")
+					.build());
+	}
+
+	// Returns a not-ready status for each manifest resource still present in the cluster.
+	private List<ResourceStatus> stillPresent(String namespace, List<Map<String, Object>> resources) {
+		List<ResourceStatus> remaining = new ArrayList<>();
 		try {
 			for (Map<String, Object> resource : resources) {
 				if (resourceExists(namespace, resource)) {
 					String[] id = identify(resource);
-					remaining.add(id[1] + "/" + id[2]);
+					remaining.add(present(id[1], id[2], namespace));
 				}
 			}
 		}
@@ -704,6 +811,16 @@ public class HelmKubeService implements KubeService {
 		return remaining;
 	}
 
+	private static ResourceStatus present(String kind, String name, String namespace) {
+		return ResourceStatus.builder()
+			.kind(kind)
+			.name(name)
+			.namespace(namespace)
+			.ready(false)
+			.message("waiting to be deleted")
+			.build();
+	}
+
 	private boolean resourceExists(String namespace, Map<String, Object> resource) throws ApiException {
 		String[] id = identify(resource);
 		String apiVersion = id[0];
@@ -774,22 +891,34 @@ public class HelmKubeService implements KubeService {
 	 */
 	@Override
 	public List<ResourceStatus> getResourceStatuses(String namespace, String manifest) {
+		return statusesOf(namespace, parseResources(manifest));
+	}
+
+	private List<ResourceStatus> statusesOf(String namespace, List<Map<String, Object>> resources) {
 		List<ResourceStatus> statuses = new ArrayList<>();
-		Iterable<Object> objects;
+		for (Map<String, Object> resource : resources) {
+			statuses.add(checkResourceStatus(namespace, resource));
+		}
+		return statuses;
+	}
+
+	// Parses the manifest's resource documents once, so a wait does not re-parse it on
+	// every status read.
+	private static List<Map<String, Object>> parseResources(String manifest) {
+		List<Map<String, Object>> resources = new ArrayList<>();
 		try {
-			objects = loadUnstructured(manifest);
+			for (Object obj : loadUnstructured(manifest)) {
+				if (obj instanceof Map<?, ?> map) {
+					@SuppressWarnings("unchecked")
+					Map<String, Object> resource = (Map<String, Object>) map;
+					resources.add(resource);
+				}
+			}
 		}
 		catch (Exception ex) {
 			throw new KubernetesOperationException("Failed to parse manifest", ex);
 		}
-		for (Object obj : objects) {
-			if (obj instanceof Map<?, ?> map) {
-				@SuppressWarnings("unchecked")
-				Map<String, Object> resource = (Map<String, Object>) map;
-				statuses.add(checkResourceStatus(namespace, resource));
-			}
-		}
-		return statuses;
+		return resources;
 	}
 
 	private ResourceStatus checkResourceStatus(String namespace, Map<String, Object> resource) {
@@ -826,7 +955,10 @@ public class HelmKubeService implements KubeService {
 
 	private ResourceStatus checkDeployment(String namespace, String name) throws ApiException {
 		AppsV1Api api = new AppsV1Api(apiClient);
-		V1Deployment dep = api.readNamespacedDeployment(name, namespace).execute();
+		return deploymentStatus(namespace, name, api.readNamespacedDeployment(name, namespace).execute());
+	}
+
+	private static ResourceStatus deploymentStatus(String namespace, String name, V1Deployment dep) {
 		int desired = (dep.getSpec().getReplicas() != null) ? dep.getSpec().getReplicas() : 1;
 		int ready = nz(dep.getStatus().getReadyReplicas());
 		int updated = nz(dep.getStatus().getUpdatedReplicas());
@@ -846,7 +978,10 @@ public class HelmKubeService implements KubeService {
 
 	private ResourceStatus checkReplicaSet(String namespace, String name) throws ApiException {
 		AppsV1Api api = new AppsV1Api(apiClient);
-		V1ReplicaSet rs = api.readNamespacedReplicaSet(name, namespace).execute();
+		return replicaSetStatus(namespace, name, api.readNamespacedReplicaSet(name, namespace).execute());
+	}
+
+	private static ResourceStatus replicaSetStatus(String namespace, String name, V1ReplicaSet rs) {
 		int desired = (rs.getSpec().getReplicas() != null) ? rs.getSpec().getReplicas() : 1;
 		int ready = nz(rs.getStatus().getReadyReplicas());
 		boolean observed = observedCurrent(generationOf(rs.getMetadata()), rs.getStatus().getObservedGeneration());
@@ -864,7 +999,10 @@ public class HelmKubeService implements KubeService {
 
 	private ResourceStatus checkDaemonSet(String namespace, String name) throws ApiException {
 		AppsV1Api api = new AppsV1Api(apiClient);
-		V1DaemonSet ds = api.readNamespacedDaemonSet(name, namespace).execute();
+		return daemonSetStatus(namespace, name, api.readNamespacedDaemonSet(name, namespace).execute());
+	}
+
+	private static ResourceStatus daemonSetStatus(String namespace, String name, V1DaemonSet ds) {
 		int desiredScheduled = nz(ds.getStatus().getDesiredNumberScheduled());
 		int updatedScheduled = nz(ds.getStatus().getUpdatedNumberScheduled());
 		int numberReady = nz(ds.getStatus().getNumberReady());
@@ -906,7 +1044,10 @@ public class HelmKubeService implements KubeService {
 
 	private ResourceStatus checkStatefulSet(String namespace, String name) throws ApiException {
 		AppsV1Api api = new AppsV1Api(apiClient);
-		V1StatefulSet sts = api.readNamespacedStatefulSet(name, namespace).execute();
+		return statefulSetStatus(namespace, name, api.readNamespacedStatefulSet(name, namespace).execute());
+	}
+
+	private static ResourceStatus statefulSetStatus(String namespace, String name, V1StatefulSet sts) {
 		int desired = (sts.getSpec().getReplicas() != null) ? sts.getSpec().getReplicas() : 1;
 		int ready = (sts.getStatus().getReadyReplicas() != null) ? sts.getStatus().getReadyReplicas() : 0;
 		boolean isReady = ready >= desired;
@@ -922,7 +1063,10 @@ public class HelmKubeService implements KubeService {
 
 	private ResourceStatus checkJob(String namespace, String name) throws ApiException {
 		BatchV1Api api = new BatchV1Api(apiClient);
-		V1Job job = api.readNamespacedJob(name, namespace).execute();
+		return jobStatus(namespace, name, api.readNamespacedJob(name, namespace).execute());
+	}
+
+	private static ResourceStatus jobStatus(String namespace, String name, V1Job job) {
 		int completions = (job.getSpec().getCompletions() != null) ? job.getSpec().getCompletions() : 1;
 		int succeeded = (job.getStatus().getSucceeded() != null) ? job.getStatus().getSucceeded() : 0;
 		int failed = (job.getStatus().getFailed() != null) ? job.getStatus().getFailed() : 0;
@@ -941,7 +1085,10 @@ public class HelmKubeService implements KubeService {
 
 	private ResourceStatus checkPod(String namespace, String name) throws ApiException {
 		CoreV1Api api = new CoreV1Api(apiClient);
-		V1Pod pod = api.readNamespacedPod(name, namespace).execute();
+		return podStatus(namespace, name, api.readNamespacedPod(name, namespace).execute());
+	}
+
+	private static ResourceStatus podStatus(String namespace, String name, V1Pod pod) {
 		String phase = pod.getStatus().getPhase();
 		// A completion-style pod (e.g. a `helm test` hook with restartPolicy: Never)
 		// terminates in Succeeded/Failed and never reaches Running, so treat the terminal
@@ -978,67 +1125,146 @@ public class HelmKubeService implements KubeService {
 	}
 
 	/**
-	 * Polls until all resources in the manifest are ready or the timeout elapses.
+	 * Waits until all resources in the manifest are ready or the timeout elapses. After
+	 * one status read, the pending workloads are followed through one watch per kind in
+	 * the namespace, so the wait ends as soon as the last one turns ready; see
+	 * {@link ResourceWaiter}.
 	 */
 	@Override
 	public void waitForReady(String namespace, String manifest, int timeoutSeconds) {
-		long deadline = System.currentTimeMillis() + (long) timeoutSeconds * 1000;
-		int pollIntervalMs = 5000;
+		List<Map<String, Object>> resources = parseResources(manifest);
+		List<ResourceStatus> notReady = new ResourceWaiter(() -> statusesOf(namespace, resources),
+				WAIT_READY_POLL_MS)
+			.await(timeoutSeconds, (kinds, waiter, deadline, watches) -> {
+				for (String kind : kinds) {
+					watches.add(watchReadiness(namespace, kind, waiter, deadline));
+				}
+			});
+		if (!notReady.isEmpty()) {
+			String msg = notReady.stream()
+				.map((s) -> s.getKind() + "/" + s.getName() + ": " + s.getMessage())
+				.collect(Collectors.joining(", "));
+			throw new WaitTimeoutException("Timeout waiting for resources to be ready: " + msg, notReady);
+		}
+	}
 
-		while (true) {
-			List<ResourceStatus> statuses = getResourceStatuses(namespace, manifest);
-			boolean allReady = statuses.stream().allMatch(ResourceStatus::isReady);
-			if (allReady) {
-				return;
-			}
+	// Opens the watch feeding readiness events for one workload kind.
+	private AutoCloseable watchReadiness(String namespace, String kind, ResourceWaiter waiter, long deadline) {
+		Function<String, ResourceStatus> gone = (name) -> notFound(kind, name, namespace);
+		return switch (kind) {
+			case "Deployment" -> watch(new GenericKubernetesApi<>(V1Deployment.class, V1DeploymentList.class, "apps",
+					"v1", "deployments", apiClient), namespace, kind, waiter, deadline,
+					(d) -> deploymentStatus(namespace, d.getMetadata().getName(), d), gone);
+			case "ReplicaSet" -> watch(new GenericKubernetesApi<>(V1ReplicaSet.class, V1ReplicaSetList.class, "apps",
+					"v1", "replicasets", apiClient), namespace, kind, waiter, deadline,
+					(rs) -> replicaSetStatus(namespace, rs.getMetadata().getName(), rs), gone);
+			case "DaemonSet" -> watch(new GenericKubernetesApi<>(V1DaemonSet.class, V1DaemonSetList.class, "apps",
+					"v1", "daemonsets", apiClient), namespace, kind, waiter, deadline,
+					(ds) -> daemonSetStatus(namespace, ds.getMetadata().getName(), ds), gone);
+			case "StatefulSet" -> watch(new GenericKubernetesApi<>(V1StatefulSet.class, V1StatefulSetList.class,
+					"apps", "v1", "statefulsets", apiClient), namespace, kind, waiter, deadline,
+					(sts) -> statefulSetStatus(namespace, sts.getMetadata().getName(), sts), gone);
+			case "Job" -> watch(new GenericKubernetesApi<>(V1Job.class, V1JobList.class, "batch", "v1", "jobs",
+					apiClient), namespace, kind, waiter, deadline,
+					(job) -> jobStatus(namespace, job.getMetadata().getName(), job), gone);
+			case "Pod" -> watch(new GenericKubernetesApi<>(V1Pod.class, V1PodList.class, "", "v1", "pods", apiClient),
+					namespace, kind, waiter, deadline, (pod) -> podStatus(namespace, pod.getMetadata().getName(), pod),
+					gone);
+			default -> throw new IllegalArgumentException("No readiness watch for kind " + kind);
+		};
+	}
 
-			// A resource in a terminal failure state (e.g. a Failed test/hook pod) will
-			// never
-			// become ready — fail fast instead of polling to the timeout.
-			List<ResourceStatus> failed = statuses.stream().filter((s) -> s.isTerminal() && !s.isReady()).toList();
-			if (!failed.isEmpty()) {
-				String msg = failed.stream()
-					.map((s) -> s.getKind() + "/" + s.getName() + ": " + s.getMessage())
-					.collect(Collectors.joining(", "));
-				throw new WaitTimeoutException("Resource(s) terminally failed: " + msg, failed);
+	// Follows one kind (across the namespace, or the cluster when namespace is null)
+	// through a watch on a virtual thread, passing each event to the waiter until the
+	// returned handle is closed. The server ends a watch after timeoutSeconds; it is
+	// reopened, replaying the current objects, while the wait goes on. An error event or
+	// a failed watch request hands the wait over to polling.
+	private <T extends KubernetesObject> AutoCloseable watch(GenericKubernetesApi<T, ?> api, String namespace,
+			String kind, ResourceWaiter waiter, long deadline, Function<T, ResourceStatus> present,
+			Function<String, ResourceStatus> gone) {
+		AtomicBoolean closed = new AtomicBoolean();
+		AtomicReference<Watchable<T>> current = new AtomicReference<>();
+		Thread thread = Thread.ofVirtual().name("jhelm-watch-" + kind).start(() -> {
+			while (!closed.get()) {
+				ListOptions options = new ListOptions();
+				options.setTimeoutSeconds((int) Math.max(1, (deadline - System.currentTimeMillis()) / 1000 + 1));
+				try (Watchable<T> events = (namespace != null) ? api.watch(namespace, options) : api.watch(options)) {
+					current.set(events);
+					while (!closed.get() && events.hasNext()) {
+						Watch.Response<T> event = events.next();
+						if ("ERROR".equals(event.type)) {
+							throw new ApiException((event.status != null) ? event.status.getMessage() : "watch error");
+						}
+						if (event.object == null || event.object.getMetadata() == null) {
+							continue;
+						}
+						String name = event.object.getMetadata().getName();
+						if ("DELETED".equals(event.type)) {
+							waiter.update(kind, name, gone.apply(name));
+						}
+						else if ("ADDED".equals(event.type) || "MODIFIED".equals(event.type)) {
+							waiter.update(kind, name, eventStatus(kind, name, namespace, event.object, present));
+						}
+					}
+				}
+				catch (Exception ex) {
+					if (!closed.get()) {
+						waiter.watchFailed(kind, ex);
+					}
+					return;
+				}
 			}
-
-			long remaining = deadline - System.currentTimeMillis();
-			if (remaining <= 0) {
-				break;
+		});
+		return () -> {
+			closed.set(true);
+			Watchable<T> events = current.get();
+			if (events != null) {
+				events.close();
 			}
+			thread.interrupt();
+		};
+	}
 
-			statuses.stream()
-				.filter((s) -> !s.isReady())
-				.forEach((s) -> log.info("Waiting for {}/{}: {}", s.getKind(), s.getName(), s.getMessage()));
-
-			try {
-				Thread.sleep(Math.min(pollIntervalMs, remaining));
-			}
-			catch (InterruptedException ex) {
-				Thread.currentThread().interrupt();
-				throw new KubernetesOperationException("Interrupted while waiting for resources to be ready", ex);
-			}
+	// Mirrors checkResourceStatus: an object the status rules cannot read is not ready.
+	private static <T> ResourceStatus eventStatus(String kind, String name, String namespace, T object,
+			Function<T, ResourceStatus> present) {
+		try {
+			return present.apply(object);
 		}
-
-		List<ResourceStatus> finalStatuses = getResourceStatuses(namespace, manifest);
-		List<ResourceStatus> notReady = finalStatuses.stream().filter((s) -> !s.isReady()).toList();
-		if (!notReady.isEmpty()) {
-			String msg = notReady.stream()
-				.map((s) -> s.getKind() + "/" + s.getName() + ": " + s.getMessage())
-				.collect(Collectors.joining(", "));
-			throw new WaitTimeoutException("Timeout waiting for resources to be ready: " + msg, notReady);
+		catch (RuntimeException ex) {
+			return ResourceStatus.builder()
+				.kind(kind)
+				.name(name)
+				.namespace(namespace)
+				.ready(false)
+				.message(ex.getMessage())
+				.build();
 		}
 	}
 
-	private Release decodeRelease(V1Secret secret) throws ReleaseStorageException {
+	private static ResourceStatus notFound(String kind, String name, String namespace) {
+		return ResourceStatus.builder()
+			.kind(kind)
+			.name(name)
+			.namespace(namespace)
+			.ready(false)
+			.message("not found")
+			.build();
+	}
+
+	/**
+	 * Decodes the release stored in a Secret, streaming the JSON straight out of the gzip
+	 * payload so only what {@code profile} keeps is materialized.
+	 */
+	private Release decodeRelease(V1Secret secret, DecodeProfile profile) throws ReleaseStorageException {
 		try {
 			byte[] raw = secret.getData().get("release");
 			// Helm stores release as: JSON → gzip → base64, then k8s base64-encodes again
 			// The k8s client auto-decodes the outer base64, so raw is the inner base64
 			byte[] gzipped = Base64.getDecoder().decode(raw);
-			byte[] json = gunzip(gzipped);
-			return releaseCodec.fromJson(json);
+			try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+				return releaseCodec.fromJson(json, profile);
+			}
 		}
 		catch (Exception ex) {
 			throw new ReleaseStorageException("Failed to decode release from Secret: " + secret.getMetadata().getName(),
@@ -1061,24 +1287,20 @@ public class HelmKubeService implements KubeService {
 		return bos.toByteArray();
 	}
 
-	private byte[] gunzip(byte[] data) throws IOException {
-		try (ByteArrayInputStream bis = new ByteArrayInputStream(data); GZIPInputStream gz = new GZIPInputStream(bis)) {
-			return gz.readAllBytes();
-		}
-	}
-
 	private String inferPlural(String kind) {
-		if (pluralizer == null) {
-			pluralizer = new ResourcePluralizer(apiClient);
-		}
-		return pluralizer.toPlural(kind);
+		return pluralizer().toPlural(kind);
 	}
 
 	private boolean inferNamespaced(String kind) {
+		return pluralizer().isNamespaced(kind);
+	}
+
+	// Created on first use; resources of one apply wave ask for it concurrently.
+	private synchronized ResourcePluralizer pluralizer() {
 		if (pluralizer == null) {
-			pluralizer = new ResourcePluralizer(apiClient);
+			pluralizer = new ResourcePluralizer(this.discovery);
 		}
-		return pluralizer.isNamespaced(kind);
+		return pluralizer;
 	}
 
 	/**
@@ -0,0 +1,234 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.jhelm.core.exception.KubernetesOperationException;
+
+/**
+ * Applies the documents of a rendered manifest in Helm's install order, one wave of
+ * kinds at a time, with the resources of a wave applied concurrently on virtual threads.
+ * Both {@link HelmKubeService} and {@link Fabric8KubeService} use it for {@code apply},
+ * {@code applyDryRun} and {@code applyWithPrune}; each supplies the call that applies a
+ * single resource.
+ *
+ * <p>
+ * A wave starts only once every resource of the previous one is applied: priority
+ * classes and namespaces first; then policies, service accounts, configuration, storage,
+ * CRDs, roles and services; then role bindings, once the roles they grant exist; then
+ * workloads and ingress; then admission webhooks, so they
+ * cannot intercept the release's own resources before the workloads serving them exist.
+ * Kinds Helm does not know, custom resources included, come last. At most
+ * {@code concurrency} requests of a wave are in flight. After the first failure no
+ * further resource is started, those in flight finish, and the failure is rethrown
+ * unchanged for the backend to translate. A 429 from API priority and fairness, or any
+ * other transient failure, therefore still reaches {@link RetryableKubeService}, which
+ * re-runs the apply; both server-side apply and the three-way prune patch are idempotent.
+ */
+@Slf4j
+final class ManifestApplier {
+
+	/** Resources of one wave applied at once unless configured otherwise. */
+	static final int DEFAULT_CONCURRENCY = 8;
+
+	// Helm's install order (releaseutil.InstallOrder), cut into waves whose kinds do not
+	// need each other to exist. Bindings wait for the roles they reference: without the
+	// bind verb, the API server only admits a binding whose role exists and whose rules
+	// the caller already holds (RBAC escalation check).
+	// @formatter:off
+	private static final List<List<String>> WAVES = List.of(
+		List.of("PriorityClass", "Namespace"),
+		List.of("NetworkPolicy", "ResourceQuota", "LimitRange", "PodSecurityPolicy", "PodDisruptionBudget",
+				"ServiceAccount", "Secret", "SecretList", "ConfigMap", "StorageClass", "PersistentVolume",
+				"PersistentVolumeClaim", "CustomResourceDefinition", "ClusterRole", "ClusterRoleList", "Role",
+				"RoleList", "Service"),
+		List.of("ClusterRoleBinding", "ClusterRoleBindingList", "RoleBinding", "RoleBindingList"),
+		List.of("DaemonSet", "Pod", "ReplicationController", "ReplicaSet", "Deployment", "HorizontalPodAutoscaler",
+				"StatefulSet", "Job", "CronJob", "IngressClass", "Ingress", "APIService"),
+		List.of("MutatingWebhookConfiguration", "ValidatingWebhookConfiguration")
+	);
+	// @formatter:on
+
+	// Kind -> [wave, position in the install order].
+	private static final Map<String, int[]> ORDER = new HashMap<>();
+
+	static {
+		int position = 0;
+		for (int wave = 0; wave < WAVES.size(); wave++) {
+			for (String kind : WAVES.get(wave)) {
+				ORDER.put(kind, new int[] { wave, position++ });
+			}
+		}
+	}
+
+	private static final int[] UNKNOWN = { WAVES.size(), Integer.MAX_VALUE };
+
+	/**
+	 * Applies one resource.
+	 *
+	 * @param <E> the checked exception the backend's client throws
+	 */
+	@FunctionalInterface
+	interface ResourceAction<E extends Exception> {
+
+		/**
+		 * Applies the resource.
+		 * @param resource the unstructured manifest document
+		 * @throws E if the API call fails
+		 */
+		void apply(Map<String, Object> resource) throws E;
+
+	}
+
+	private final int concurrency;
+
+	/**
+	 * Creates an applier.
+	 * @param concurrency the most resources of a wave applied at once; {@code 1} applies
+	 * them one by one, still in install order
+	 */
+	ManifestApplier(int concurrency) {
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("Apply concurrency must be at least 1, was " + concurrency);
+		}
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Applies every resource, wave by wave.
+	 * @param <E> the checked exception the backend's client throws
+	 * @param resources the manifest documents, in manifest order
+	 * @param action applies one resource
+	 * @throws E the first failure, in install order, of the wave that failed
+	 */
+	<E extends Exception> void apply(List<Map<String, Object>> resources, ResourceAction<E> action) throws E {
+		List<List<Map<String, Object>>> waves = waves(resources);
+		for (int i = 0; i < waves.size(); i++) {
+			applyWave(i + 1, waves.size(), waves.get(i), action);
+		}
+	}
+
+	/**
+	 * Groups resources into waves in install order. Within a wave resources are sorted
+	 * by kind in install order, keeping manifest order within a kind, so a low
+	 * concurrency still starts them in Helm's order.
+	 * @param resources the manifest documents, in manifest order
+	 * @return the non-empty waves, first to last
+	 */
+	static List<List<Map<String, Object>>> waves(List<Map<String, Object>> resources) {
+		List<Map<String, Object>> sorted = new ArrayList<>(resources);
+		sorted.sort(Comparator.comparingInt((Map<String, Object> r) -> order(r)[1]));
+		List<List<Map<String, Object>>> waves = new ArrayList<>();
+		int current = -1;
+		for (Map<String, Object> resource : sorted) {
+			int wave = order(resource)[0];
+			if (wave != current) {
+				waves.add(new ArrayList<>());
+				current = wave;
+			}
+			waves.get(waves.size() - 1).add(resource);
+		}
+		return waves;
+	}
+
+	private <E extends Exception> void applyWave(int number, int total, List<Map<String, Object>> wave,
+			ResourceAction<E> action) throws E {
+		long start = System.nanoTime();
+		if (wave.size() == 1 || this.concurrency == 1) {
+			// Nothing to overlap; stay on the caller's thread.
+			for (Map<String, Object> resource : wave) {
+				timed(action, resource);
+			}
+		}
+		else {
+			applyConcurrently(wave, action);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Applied wave {}/{} ({} resource(s)) in {} ms", number, total, wave.size(),
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+	}
+
+	private <E extends Exception> void applyConcurrently(List<Map<String, Object>> wave, ResourceAction<E> action)
+			throws E {
+		Semaphore permits = new Semaphore(this.concurrency);
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Future<Void>> futures = new ArrayList<>(wave.size());
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (Map<String, Object> resource : wave) {
+				futures.add(executor.submit(() -> {
+					permits.acquire();
+					try {
+						if (!failed.get()) {
+							timed(action, resource);
+						}
+						return null;
+					}
+					catch (Exception ex) {
+						failed.set(true);
+						throw ex;
+					}
+					finally {
+						permits.release();
+					}
+				}));
+			}
+		}
+		// Every task has finished once the executor is closed; report the earliest
+		// failure in install order.
+		for (Future<Void> future : futures) {
+			try {
+				future.get();
+			}
+			catch (ExecutionException ex) {
+				rethrow(ex.getCause());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new KubernetesOperationException("Interrupted while applying manifest", ex);
+			}
+		}
+	}
+
+	private static <E extends Exception> void timed(ResourceAction<E> action, Map<String, Object> resource)
+			throws E {
+		long start = System.nanoTime();
+		action.apply(resource);
+		if (log.isDebugEnabled()) {
+			log.debug("Applied {} {} in {} ms", resource.get("kind"), name(resource),
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E extends Exception> void rethrow(Throwable cause) throws E {
+		if (cause instanceof RuntimeException ex) {
+			throw ex;
+		}
+		if (cause instanceof Error err) {
+			throw err;
+		}
+		throw (E) cause;
+	}
+
+	private static int[] order(Map<String, Object> resource) {
+		Object kind = resource.get("kind");
+		return (kind instanceof String k) ? ORDER.getOrDefault(k, UNKNOWN) : UNKNOWN;
+	}
+
+	private static Object name(Map<String, Object> resource) {
+		return (resource.get("metadata") instanceof Map<?, ?> metadata) ? metadata.get("name") : null;
+	}
+
+}
@@ -5,6 +5,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import org.alexmond.jhelm.core.model.Capabilities;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
 import org.alexmond.jhelm.core.service.CascadePolicy;
@@ -55,6 +56,11 @@ public class NamespaceScopedReleasesKubeService implements KubeService {
 		return delegate.getRelease(name, namespace);
 	}
 
+	@Override
+	public Optional<Release> getRelease(String name, String namespace, DecodeProfile profile) {
+		return delegate.getRelease(name, namespace, profile);
+	}
+
 	@Override
 	public List<Release> listReleases(String namespace) {
 		return delegate.listReleases(namespace);
@@ -70,6 +76,11 @@ public class NamespaceScopedReleasesKubeService implements KubeService {
 		return delegate.getReleaseHistory(name, namespace);
 	}
 
+	@Override
+	public List<Release> getReleaseHistory(String name, String namespace, DecodeProfile profile) {
+		return delegate.getReleaseHistory(name, namespace, profile);
+	}
+
 	@Override
 	public void deleteReleaseHistory(String name, String namespace) {
 		delegate.deleteReleaseHistory(name, namespace);
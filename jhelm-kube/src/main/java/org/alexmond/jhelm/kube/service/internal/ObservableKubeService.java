@@ -8,6 +8,7 @@ import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.alexmond.jhelm.core.metrics.JhelmMetrics;
 import org.alexmond.jhelm.core.model.Capabilities;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
 import org.alexmond.jhelm.core.service.CascadePolicy;
@@ -68,6 +69,11 @@ public class ObservableKubeService implements KubeService {
 		return time(getTimer, () -> delegate.getRelease(name, namespace));
 	}
 
+	@Override
+	public Optional<Release> getRelease(String name, String namespace, DecodeProfile profile) {
+		return time(getTimer, () -> delegate.getRelease(name, namespace, profile));
+	}
+
 	@Override
 	public List<Release> listReleases(String namespace) {
 		return time(listTimer, () -> delegate.listReleases(namespace));
@@ -83,6 +89,11 @@ public class ObservableKubeService implements KubeService {
 		return time(historyTimer, () -> delegate.getReleaseHistory(name, namespace));
 	}
 
+	@Override
+	public List<Release> getReleaseHistory(String name, String namespace, DecodeProfile profile) {
+		return time(historyTimer, () -> delegate.getReleaseHistory(name, namespace, profile));
+	}
+
 	@Override
 	public void deleteReleaseHistory(String name, String namespace) {
 		timeVoid(deleteTimer, () -> delegate.deleteReleaseHistory(name, namespace));
@@ -0,0 +1,187 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.jhelm.core.exception.KubernetesOperationException;
+import org.alexmond.jhelm.core.exception.ReleaseStorageException;
+import org.alexmond.jhelm.core.model.Release;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Release listing from Secret metadata, shared by both backends. Helm labels every
+ * {@code sh.helm.release.v1.*} Secret with the release {@code name} and revision
+ * {@code version}, so the newest revision of each release is picked from the labels
+ * alone; only those Secrets are then read and decoded, concurrently. Older revisions,
+ * typically most of the release Secrets in a namespace, are never downloaded or
+ * inflated.
+ */
+@Slf4j
+final class ReleaseSecrets {
+
+	/** Most release Secrets read at once. */
+	static final int READ_CONCURRENCY = 16;
+
+	private ReleaseSecrets() {
+	}
+
+	/**
+	 * One release Secret, as known from its metadata.
+	 *
+	 * @param namespace the namespace of the Secret
+	 * @param secretName the Secret name
+	 * @param release the release name, from the {@code name} label
+	 * @param version the revision, from the {@code version} label
+	 */
+	record Ref(String namespace, String secretName, String release, int version) {
+	}
+
+	/**
+	 * Reads and decodes the release stored in one Secret.
+	 */
+	@FunctionalInterface
+	interface Reader {
+
+		/**
+		 * Reads a release.
+		 * @param ref the Secret to read
+		 * @return the release, or {@code null} when the Secret is gone
+		 * @throws Exception if the Secret cannot be read or decoded
+		 */
+		Release read(Ref ref) throws Exception;
+
+	}
+
+	// The outcome of one read, run inline or taken from its future.
+	@FunctionalInterface
+	private interface Result {
+
+		Release get() throws Exception;
+
+	}
+
+	/**
+	 * Builds the refs of a Secret list, or of its {@code PartialObjectMetadataList} form,
+	 * reading only {@code items[].metadata}. Secrets without a {@code name} label are
+	 * skipped.
+	 * @param list the list document
+	 * @param defaultNamespace the namespace of items that carry none, or {@code null}
+	 * @return the refs, in list order
+	 */
+	static List<Ref> refs(JsonNode list, String defaultNamespace) {
+		List<Ref> refs = new ArrayList<>();
+		for (JsonNode item : list.path("items")) {
+			JsonNode metadata = item.path("metadata");
+			JsonNode labels = metadata.path("labels");
+			String release = labels.path("name").asString(null);
+			if (release == null) {
+				continue;
+			}
+			refs.add(new Ref(metadata.path("namespace").asString(defaultNamespace), metadata.path("name").asString(),
+					release, version(labels.path("version").asString(null))));
+		}
+		return refs;
+	}
+
+	/**
+	 * Parses a {@code version} label.
+	 * @param label the label value, possibly {@code null}
+	 * @return the revision, or {@code 0} when the label is missing
+	 */
+	static int version(String label) {
+		return (label != null) ? Integer.parseInt(label) : 0;
+	}
+
+	/**
+	 * Keeps the newest revision of each release. A release name is unique only within a
+	 * namespace, so releases are keyed by namespace and name.
+	 * @param refs the release Secrets
+	 * @return the newest Secret of each release, in first-seen order
+	 */
+	static List<Ref> latest(List<Ref> refs) {
+		Map<String, Ref> latest = new LinkedHashMap<>();
+		for (Ref ref : refs) {
+			latest.merge(ref.namespace() + "/" + ref.release(), ref,
+					(current, candidate) -> (candidate.version() > current.version()) ? candidate : current);
+		}
+		return new ArrayList<>(latest.values());
+	}
+
+	/**
+	 * Reads the releases of the given Secrets, up to {@value #READ_CONCURRENCY} at once.
+	 * A Secret that cannot be decoded is logged and skipped, as is one deleted since it
+	 * was listed; any other failure is rethrown.
+	 * @param refs the Secrets to read
+	 * @param reader reads one Secret
+	 * @return the releases, in the order of {@code refs}
+	 */
+	static List<Release> read(List<Ref> refs, Reader reader) {
+		List<Release> releases = new ArrayList<>(refs.size());
+		if (refs.size() <= 1) {
+			for (Ref ref : refs) {
+				add(releases, ref, () -> reader.read(ref));
+			}
+			return releases;
+		}
+		Semaphore permits = new Semaphore(READ_CONCURRENCY);
+		List<Future<Release>> futures = new ArrayList<>(refs.size());
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (Ref ref : refs) {
+				futures.add(executor.submit(() -> {
+					permits.acquire();
+					try {
+						return reader.read(ref);
+					}
+					finally {
+						permits.release();
+					}
+				}));
+			}
+		}
+		for (int i = 0; i < refs.size(); i++) {
+			Future<Release> future = futures.get(i);
+			add(releases, refs.get(i), () -> {
+				try {
+					return future.get();
+				}
+				catch (ExecutionException ex) {
+					throw (ex.getCause() instanceof Exception cause) ? cause : ex;
+				}
+			});
+		}
+		return releases;
+	}
+
+	private static void add(List<Release> releases, Ref ref, Result result) {
+		try {
+			Release release = result.get();
+			if (release != null) {
+				releases.add(release);
+			}
+		}
+		catch (ReleaseStorageException ex) {
+			if (log.isWarnEnabled()) {
+				log.warn("Failed to decode release from Secret {}: {}", ref.secretName(), ex.getMessage());
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new KubernetesOperationException("Interrupted while reading releases", ex);
+		}
+		catch (RuntimeException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new KubernetesOperationException("Failed to read release Secret " + ref.secretName(), ex);
+		}
+	}
+
+}
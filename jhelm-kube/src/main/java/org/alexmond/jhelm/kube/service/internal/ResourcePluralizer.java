@@ -1,28 +1,16 @@
 package org.alexmond.jhelm.kube.service.internal;
 
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
-import io.kubernetes.client.openapi.ApiClient;
-import io.kubernetes.client.openapi.apis.AppsV1Api;
-import io.kubernetes.client.openapi.apis.AutoscalingV2Api;
-import io.kubernetes.client.openapi.apis.BatchV1Api;
-import io.kubernetes.client.openapi.apis.CoreV1Api;
-import io.kubernetes.client.openapi.apis.NetworkingV1Api;
-import io.kubernetes.client.openapi.apis.PolicyV1Api;
-import io.kubernetes.client.openapi.apis.RbacAuthorizationV1Api;
-import io.kubernetes.client.openapi.apis.StorageV1Api;
-import io.kubernetes.client.openapi.models.V1APIResource;
-import io.kubernetes.client.openapi.models.V1APIResourceList;
-import lombok.extern.slf4j.Slf4j;
-
 /**
- * Resolves Kubernetes resource kind names to their plural forms. Uses a combination of
- * well-known static mappings, API server discovery, and heuristic fallback.
+ * Resolves Kubernetes resource kind names to their plural forms and scope. Uses a
+ * combination of well-known static mappings, the cluster's cached API discovery, and
+ * heuristic fallback. It is client-neutral: {@link HelmKubeService} resolves plurals and
+ * scope with it, {@link Fabric8KubeService} only scope.
  */
-@Slf4j
 class ResourcePluralizer {
 
 	// @formatter:off
@@ -130,14 +118,15 @@ class ResourcePluralizer {
 	);
 	// @formatter:on
 
-	private final ApiClient apiClient;
-
-	private Map<String, String> discoveredPlurals;
-
-	private Map<String, Boolean> discoveredNamespaced;
+	private final DiscoveryCache discovery;
 
-	ResourcePluralizer(ApiClient apiClient) {
-		this.apiClient = apiClient;
+	/**
+	 * Creates a pluralizer.
+	 * @param discovery the cluster's discovery cache, or {@code null} to use only the
+	 * static tables and heuristics
+	 */
+	ResourcePluralizer(DiscoveryCache discovery) {
+		this.discovery = discovery;
 	}
 
 	/**
@@ -152,13 +141,12 @@ class ResourcePluralizer {
 			return known;
 		}
 
-		// 2. Check discovery cache (lazy-loaded)
-		if (discoveredPlurals == null) {
-			discoverResources();
-		}
-		String discovered = discoveredPlurals.get(kind);
-		if (discovered != null) {
-			return discovered;
+		// 2. Discovery — exact for CRDs
+		if (this.discovery != null) {
+			Optional<ApiDiscovery.Resource> discovered = this.discovery.find(kind);
+			if (discovered.isPresent()) {
+				return discovered.get().plural();
+			}
 		}
 
 		// 3. Heuristic fallback
@@ -183,51 +171,24 @@ class ResourcePluralizer {
 		if (WELL_KNOWN_PLURALS.containsKey(kind)) {
 			return true;
 		}
-		// 3. Discovery cache (lazy-loaded) — authoritative for CRDs
-		if (discoveredNamespaced == null) {
-			discoverResources();
-		}
-		Boolean namespaced = discoveredNamespaced.get(kind);
-		// 4. Default to namespaced for unknown kinds (the common case for CRDs)
-		return namespaced == null || namespaced;
-	}
-
-	private void discoverResources() {
-		discoveredPlurals = new HashMap<>();
-		discoveredNamespaced = new HashMap<>();
-		try {
-			addResourcesFrom(new CoreV1Api(apiClient).getAPIResources().execute());
-			addResourcesFrom(new AppsV1Api(apiClient).getAPIResources().execute());
-			addResourcesFrom(new BatchV1Api(apiClient).getAPIResources().execute());
-			addResourcesFrom(new NetworkingV1Api(apiClient).getAPIResources().execute());
-			addResourcesFrom(new PolicyV1Api(apiClient).getAPIResources().execute());
-			addResourcesFrom(new RbacAuthorizationV1Api(apiClient).getAPIResources().execute());
-			addResourcesFrom(new StorageV1Api(apiClient).getAPIResources().execute());
-			addResourcesFrom(new AutoscalingV2Api(apiClient).getAPIResources().execute());
-			if (log.isDebugEnabled()) {
-				log.debug("API discovery loaded {} resource kind-plural mappings", discoveredPlurals.size());
-			}
-		}
-		catch (Exception ex) {
-			if (log.isDebugEnabled()) {
-				log.debug("API discovery failed, relying on static mappings: {}", ex.getMessage());
+		// 3. Discovery — authoritative for CRDs
+		if (this.discovery != null) {
+			Optional<ApiDiscovery.Resource> discovered = this.discovery.find(kind);
+			if (discovered.isPresent()) {
+				return discovered.get().namespaced();
 			}
 		}
+		// 4. Default to namespaced for unknown kinds (the common case for CRDs)
+		return true;
 	}
 
-	private void addResourcesFrom(V1APIResourceList resourceList) {
-		if (resourceList == null || resourceList.getResources() == null) {
-			return;
-		}
-		for (V1APIResource resource : resourceList.getResources()) {
-			// Skip subresources (e.g., "pods/status", "deployments/scale")
-			if (resource.getName() != null && !resource.getName().contains("/") && resource.getKind() != null) {
-				discoveredPlurals.putIfAbsent(resource.getKind(), resource.getName());
-				if (resource.getNamespaced() != null) {
-					discoveredNamespaced.putIfAbsent(resource.getKind(), resource.getNamespaced());
-				}
-			}
-		}
+	/**
+	 * Reports whether a kind is answered from the static tables, without discovery.
+	 * @param kind the resource kind
+	 * @return {@code true} for a well-known built-in kind
+	 */
+	boolean isBuiltIn(String kind) {
+		return WELL_KNOWN_PLURALS.containsKey(kind);
 	}
 
 	static String heuristicPlural(String kind) {
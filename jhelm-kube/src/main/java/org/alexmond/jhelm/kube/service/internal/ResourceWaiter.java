@@ -0,0 +1,264 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.jhelm.core.exception.KubernetesOperationException;
+import org.alexmond.jhelm.core.exception.WaitTimeoutException;
+import org.alexmond.jhelm.core.model.ResourceStatus;
+
+/**
+ * Waits for the resources of a manifest to reach a state — ready, or deleted — driven by
+ * watch events rather than a fixed poll. Both {@link HelmKubeService} and
+ * {@link Fabric8KubeService} use it; each supplies a one-off status read and the
+ * watches for its own client.
+ *
+ * <p>
+ * The statuses are read once. If anything is pending, one watch per pending kind is
+ * opened in the namespace; the backend filters each event to the manifest's resources and
+ * reports it through {@link #update}. The waiter re-evaluates on every event, so it
+ * returns as soon as the last resource settles. A watch starts by replaying the objects
+ * that exist, which covers status changes between the first read and the watch; it
+ * never reports an object deleted in that gap, so once the watches are open the statuses
+ * are read once more and resources no longer found are dropped. If a watch cannot be
+ * opened or breaks, the wait falls back to polling the status read at the backend's old
+ * interval.
+ */
+@Slf4j
+final class ResourceWaiter {
+
+	/**
+	 * Opens the watches that feed a waiter.
+	 */
+	@FunctionalInterface
+	interface WatchOpener {
+
+		/**
+		 * Opens one watch per kind, adding each to {@code watches} as soon as it is open
+		 * so the waiter closes it even if a later one fails.
+		 * @param kinds the kinds that still have pending resources
+		 * @param waiter receives the events
+		 * @param deadlineMillis when the wait ends, as epoch millis
+		 * @param watches collects handles that close the watches
+		 */
+		void open(Set<String> kinds, ResourceWaiter waiter, long deadlineMillis, List<AutoCloseable> watches);
+
+	}
+
+	private final Supplier<List<ResourceStatus>> poll;
+
+	private final long pollIntervalMillis;
+
+	// Latest status per kind/name, in manifest order. Guarded by this.
+	private final Map<String, ResourceStatus> statuses = new LinkedHashMap<>();
+
+	private boolean watchBroken;
+
+	// Bumped on every status change, so a waiting thread cannot miss an event that
+	// arrived between its last check and its wait. Guarded by this.
+	private long changes;
+
+	/**
+	 * Creates a waiter.
+	 * @param poll reads the current status of every resource still tracked; a resource
+	 * left out of the result is no longer waited on
+	 * @param pollIntervalMillis the poll interval when no watch is available
+	 */
+	ResourceWaiter(Supplier<List<ResourceStatus>> poll, long pollIntervalMillis) {
+		this.poll = poll;
+		this.pollIntervalMillis = pollIntervalMillis;
+	}
+
+	/**
+	 * Waits until every resource is ready or the timeout elapses.
+	 * @param timeoutSeconds the timeout
+	 * @param opener opens the watches
+	 * @return the resources still not ready when the timeout elapsed, read afresh; empty
+	 * when all became ready
+	 * @throws WaitTimeoutException if a resource failed terminally
+	 */
+	List<ResourceStatus> await(int timeoutSeconds, WatchOpener opener) {
+		long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
+		replace(this.poll.get());
+		List<AutoCloseable> watches = null;
+		try {
+			while (true) {
+				long seen = changes();
+				List<ResourceStatus> pending = pending();
+				if (pending.isEmpty()) {
+					return pending;
+				}
+				long left = deadline - System.currentTimeMillis();
+				if (left <= 0) {
+					break;
+				}
+				if (watches == null && !isWatchBroken()) {
+					logWaiting(pending);
+					watches = open(opener, pending, deadline);
+					if (!isWatchBroken()) {
+						retainPresent(this.poll.get());
+					}
+					continue;
+				}
+				if (isWatchBroken()) {
+					logWaiting(pending);
+					sleep(Math.min(this.pollIntervalMillis, left));
+					replace(this.poll.get());
+				}
+				else {
+					awaitEvent(seen, left);
+				}
+			}
+		}
+		finally {
+			close(watches);
+		}
+		replace(this.poll.get());
+		return pending();
+	}
+
+	/**
+	 * Records the status an event reported. Statuses of resources the waiter does not
+	 * track are ignored, so a watch can pass on every object of its kind.
+	 * @param kind the resource kind
+	 * @param name the resource name
+	 * @param status the resource's status after the event
+	 */
+	synchronized void update(String kind, String name, ResourceStatus status) {
+		String key = key(kind, name);
+		ResourceStatus previous = this.statuses.get(key);
+		if (previous == null || previous.equals(status)) {
+			return;
+		}
+		this.statuses.put(key, status);
+		this.changes++;
+		if (!status.isReady() && log.isInfoEnabled()) {
+			log.info("Waiting for {}/{}: {}", kind, name, status.getMessage());
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Records that a watch has ended on its own; the wait continues by polling.
+	 * @param kind the kind the watch was for
+	 * @param cause why it ended
+	 */
+	synchronized void watchFailed(String kind, Exception cause) {
+		if (!this.watchBroken && log.isWarnEnabled()) {
+			log.warn("Watch on {} ended ({}); polling instead", kind, cause.getMessage());
+		}
+		this.watchBroken = true;
+		this.changes++;
+		notifyAll();
+	}
+
+	private List<AutoCloseable> open(WatchOpener opener, List<ResourceStatus> pending, long deadline) {
+		Set<String> kinds = pending.stream()
+			.map(ResourceStatus::getKind)
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+		List<AutoCloseable> watches = new ArrayList<>();
+		try {
+			opener.open(kinds, this, deadline, watches);
+		}
+		catch (RuntimeException ex) {
+			watchFailed(String.join(", ", kinds), ex);
+		}
+		return watches;
+	}
+
+	// Fails fast on a terminally failed resource, else returns those not ready yet.
+	private synchronized List<ResourceStatus> pending() {
+		List<ResourceStatus> failed = this.statuses.values()
+			.stream()
+			.filter((s) -> s.isTerminal() && !s.isReady())
+			.toList();
+		if (!failed.isEmpty()) {
+			String msg = failed.stream()
+				.map((s) -> s.getKind() + "/" + s.getName() + ": " + s.getMessage())
+				.collect(Collectors.joining(", "));
+			throw new WaitTimeoutException("Resource(s) terminally failed: " + msg, failed);
+		}
+		return this.statuses.values().stream().filter((s) -> !s.isReady()).toList();
+	}
+
+	private synchronized void replace(List<ResourceStatus> current) {
+		this.statuses.clear();
+		for (ResourceStatus status : current) {
+			this.statuses.put(key(status.getKind(), status.getName()), status);
+		}
+	}
+
+	// Drops the resources a fresh read no longer finds. Statuses are left to the watch
+	// events, which may be newer than the read.
+	private synchronized void retainPresent(List<ResourceStatus> current) {
+		Set<String> present = current.stream()
+			.map((status) -> key(status.getKind(), status.getName()))
+			.collect(Collectors.toSet());
+		this.statuses.keySet().retainAll(present);
+	}
+
+	private synchronized long changes() {
+		return this.changes;
+	}
+
+	private synchronized boolean isWatchBroken() {
+		return this.watchBroken;
+	}
+
+	// Blocks until an event changes a status, a watch breaks, or the time is up.
+	private synchronized void awaitEvent(long seen, long millis) {
+		try {
+			if (this.changes == seen) {
+				wait(millis);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new KubernetesOperationException("Interrupted while waiting for resources", ex);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new KubernetesOperationException("Interrupted while waiting for resources", ex);
+		}
+	}
+
+	private static void logWaiting(List<ResourceStatus> pending) {
+		if (log.isInfoEnabled()) {
+			pending.forEach((s) -> log.info("Waiting for {}/{}: {}", s.getKind(), s.getName(), s.getMessage()));
+		}
+	}
+
+	private static void close(List<AutoCloseable> watches) {
+		if (watches == null) {
+			return;
+		}
+		for (AutoCloseable watch : watches) {
+			try {
+				watch.close();
+			}
+			catch (Exception ex) {
+				if (log.isDebugEnabled()) {
+					log.debug("Failed to close watch: {}", ex.getMessage());
+				}
+			}
+		}
+	}
+
+	private static String key(String kind, String name) {
+		return kind + "/" + name;
+	}
+
+}
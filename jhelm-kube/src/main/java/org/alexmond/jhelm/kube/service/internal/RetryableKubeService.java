@@ -7,6 +7,7 @@ import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.alexmond.jhelm.core.exception.KubernetesOperationException;
 import org.alexmond.jhelm.core.model.Capabilities;
+import org.alexmond.jhelm.core.model.DecodeProfile;
 import org.alexmond.jhelm.core.model.Release;
 import org.alexmond.jhelm.core.model.ResourceStatus;
 import org.alexmond.jhelm.core.service.CascadePolicy;
@@ -65,6 +66,11 @@ public class RetryableKubeService implements KubeService {
 		return executeWithRetry("getRelease", () -> delegate.getRelease(name, namespace));
 	}
 
+	@Override
+	public Optional<Release> getRelease(String name, String namespace, DecodeProfile profile) {
+		return executeWithRetry("getRelease", () -> delegate.getRelease(name, namespace, profile));
+	}
+
 	@Override
 	public List<Release> listReleases(String namespace) {
 		return executeWithRetry("listReleases", () -> delegate.listReleases(namespace));
@@ -80,6 +86,11 @@ public class RetryableKubeService implements KubeService {
 		return executeWithRetry("getReleaseHistory", () -> delegate.getReleaseHistory(name, namespace));
 	}
 
+	@Override
+	public List<Release> getReleaseHistory(String name, String namespace, DecodeProfile profile) {
+		return executeWithRetry("getReleaseHistory", () -> delegate.getReleaseHistory(name, namespace, profile));
+	}
+
 	@Override
 	public void deleteReleaseHistory(String name, String namespace) {
 		executeWithRetry("deleteReleaseHistory", () -> {
@@ -0,0 +1,66 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientJavaDiscoveryLoaderTest {
+
+	private final JsonMapper objectMapper = JsonMapper.builder().build();
+
+	@Test
+	void testAggregatedDiscoveryIsParsed() {
+		JsonNode apis = this.objectMapper.readTree("""
+				{"kind": "APIGroupDiscoveryList", "items": [
+				  {"metadata": {"name": "apps"}, "versions": [{"version": "v1", "resources": [
+				    {"resource": "deployments", "responseKind": {"kind": "Deployment"}, "scope": "Namespaced"}]}]},
+				  {"metadata": {"name": "example.com"}, "versions": [{"version": "v1", "resources": [
+				    {"resource": "widgets", "responseKind": {"kind": "Widget"}, "scope": "Cluster"}]}]}]}
+				""");
+		JsonNode core = this.objectMapper.readTree("""
+				{"kind": "APIGroupDiscoveryList", "items": [
+				  {"metadata": {}, "versions": [{"version": "v1", "resources": [
+				    {"resource": "pods", "responseKind": {"kind": "Pod"}, "scope": "Namespaced"}]}]}]}
+				""");
+		List<ApiDiscovery.Resource> resources = new ArrayList<>();
+
+		assertTrue(ClientJavaDiscoveryLoader.isAggregated(apis));
+		ClientJavaDiscoveryLoader.addAggregated(core, resources);
+		ClientJavaDiscoveryLoader.addAggregated(apis, resources);
+
+		assertEquals(List.of(new ApiDiscovery.Resource("v1", "Pod", "pods", true),
+				new ApiDiscovery.Resource("apps/v1", "Deployment", "deployments", true),
+				new ApiDiscovery.Resource("example.com/v1", "Widget", "widgets", false)), resources);
+	}
+
+	@Test
+	void testLegacyDiscoveryPathsAndResourceLists() {
+		JsonNode core = this.objectMapper.readTree("""
+				{"kind": "APIVersions", "versions": ["v1"]}
+				""");
+		JsonNode groups = this.objectMapper.readTree("""
+				{"kind": "APIGroupList", "groups": [{"name": "apps", "versions": [{"groupVersion": "apps/v1"}]}]}
+				""");
+		JsonNode list = this.objectMapper.readTree("""
+				{"kind": "APIResourceList", "groupVersion": "apps/v1", "resources": [
+				  {"name": "deployments", "kind": "Deployment", "namespaced": true},
+				  {"name": "deployments/scale", "kind": "Scale", "namespaced": true}]}
+				""");
+		List<ApiDiscovery.Resource> resources = new ArrayList<>();
+
+		assertFalse(ClientJavaDiscoveryLoader.isAggregated(groups));
+		assertEquals(List.of("/api/v1", "/apis/apps/v1"), ClientJavaDiscoveryLoader.legacyPaths(core, groups));
+		ClientJavaDiscoveryLoader.addResourceList(list, resources);
+
+		// Subresources are left out.
+		assertEquals(List.of(new ApiDiscovery.Resource("apps/v1", "Deployment", "deployments", true)), resources);
+	}
+
+}
@@ -0,0 +1,133 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscoveryCacheTest {
+
+	private static final Duration TTL = Duration.ofHours(1);
+
+	@TempDir
+	Path tempDir;
+
+	private static ApiDiscovery discovery(long fetchedAt, ApiDiscovery.Resource... resources) {
+		return new ApiDiscovery("v1.31.2", List.of(resources), fetchedAt);
+	}
+
+	private static ApiDiscovery.Resource deployment() {
+		return new ApiDiscovery.Resource("apps/v1", "Deployment", "deployments", true);
+	}
+
+	private static ApiDiscovery.Resource widget() {
+		return new ApiDiscovery.Resource("example.com/v1", "Widget", "widgetz", false);
+	}
+
+	private Path seed(ApiDiscovery document) {
+		// Writing goes through a cache whose loader returns the document as is.
+		Path file = DiscoveryCache.file(this.tempDir, "https://10.0.0.1:6443");
+		new DiscoveryCache(() -> document, file, TTL).get();
+		return file;
+	}
+
+	@Test
+	void testDiscoveryRunsOncePerTtl() {
+		AtomicInteger loads = new AtomicInteger();
+		DiscoveryCache cache = new DiscoveryCache(() -> {
+			loads.incrementAndGet();
+			return discovery(System.currentTimeMillis(), deployment());
+		}, null, TTL);
+
+		cache.get();
+		cache.get();
+		cache.find("Deployment");
+
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void testFreshDocumentOnDiskIsUsedWithoutDiscovery() {
+		Path file = seed(discovery(System.currentTimeMillis(), deployment()));
+		AtomicInteger loads = new AtomicInteger();
+
+		ApiDiscovery read = new DiscoveryCache(() -> {
+			loads.incrementAndGet();
+			throw new IOException("unreachable");
+		}, file, TTL).get();
+
+		assertEquals(0, loads.get());
+		assertEquals("deployments", read.find("Deployment").orElseThrow().plural());
+	}
+
+	@Test
+	void testExpiredDocumentOnDiskIsReloaded() {
+		Path file = seed(discovery(0, deployment()));
+
+		ApiDiscovery read = new DiscoveryCache(() -> discovery(System.currentTimeMillis(), deployment(), widget()),
+				file, TTL)
+			.get();
+
+		assertTrue(read.find("Widget").isPresent());
+		// The reloaded document replaced the expired one on disk.
+		ApiDiscovery stored = new DiscoveryCache(() -> null, file, TTL).get();
+		assertTrue(stored.find("Widget").isPresent());
+	}
+
+	@Test
+	void testUnknownKindRefreshesTheDocument() {
+		Path file = seed(discovery(System.currentTimeMillis(), deployment()));
+		DiscoveryCache cache = new DiscoveryCache(() -> discovery(System.currentTimeMillis(), deployment(), widget()),
+				file, TTL);
+
+		ApiDiscovery.Resource found = cache.find("Widget").orElseThrow();
+
+		assertEquals("widgetz", found.plural());
+		assertFalse(found.namespaced());
+	}
+
+	@Test
+	void testFailedDiscoveryServesTheExpiredDocument() {
+		Path file = seed(discovery(0, deployment()));
+
+		ApiDiscovery read = new DiscoveryCache(() -> {
+			throw new IOException("connection refused");
+		}, file, TTL).get();
+
+		assertEquals("v1.31.2", read.gitVersion());
+	}
+
+	@Test
+	void testFailedDiscoveryWithoutDocumentReturnsNull() {
+		DiscoveryCache cache = new DiscoveryCache(() -> {
+			throw new IOException("connection refused");
+		}, null, TTL);
+
+		assertNull(cache.get());
+		assertTrue(cache.find("Deployment").isEmpty());
+	}
+
+	@Test
+	void testCacheFileIsKeyedByServer() {
+		assertEquals(this.tempDir.resolve("10.0.0.1_6443").resolve("discovery.json"),
+				DiscoveryCache.file(this.tempDir, "https://10.0.0.1:6443"));
+		assertEquals(this.tempDir.resolve("kube.example.com").resolve("discovery.json"),
+				DiscoveryCache.file(this.tempDir, "https://kube.example.com"));
+	}
+
+	@Test
+	void testApiVersionsListGroupVersionsAndKinds() {
+		assertEquals(List.of("apps/v1", "apps/v1/Deployment", "example.com/v1", "example.com/v1/Widget"),
+				discovery(0, widget(), deployment()).apiVersions());
+	}
+
+}
@@ -47,12 +47,19 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedConstruction;
 import org.mockito.MockitoAnnotations;
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -157,11 +164,46 @@ class HelmKubeServiceTest {
 		when(mock.listNamespacedSecret(anyString())).thenReturn(listReq);
 	}
 
-	private void setupListAllRequest(CoreV1Api mock, V1SecretList list) throws Exception {
-		var listReq = mock(CoreV1Api.APIlistSecretForAllNamespacesRequest.class);
-		when(listReq.labelSelector(anyString())).thenReturn(listReq);
-		when(listReq.execute()).thenReturn(list);
-		when(mock.listSecretForAllNamespaces()).thenReturn(listReq);
+	// Release listing: the metadata list goes through ApiClient.buildCall, then the
+	// newest Secret of each release is read through CoreV1Api.
+	private void setupReleaseListing(V1SecretList list) throws Exception {
+		List<Map<String, Object>> items = new ArrayList<>();
+		for (V1Secret secret : list.getItems()) {
+			Map<String, Object> metadata = new LinkedHashMap<>();
+			metadata.put("name", secret.getMetadata().getName());
+			if (secret.getMetadata().getNamespace() != null) {
+				metadata.put("namespace", secret.getMetadata().getNamespace());
+			}
+			metadata.put("labels", secret.getMetadata().getLabels());
+			items.add(Map.of("metadata", metadata));
+		}
+		stubMetadataList(200,
+				objectMapper.writeValueAsString(Map.of("kind", "PartialObjectMetadataList", "items", items)));
+		coreV1ApiConstruction = mockConstruction(CoreV1Api.class, (mock, ctx) -> {
+			mockCoreV1Api = mock;
+			when(mock.readNamespacedSecret(anyString(), any())).thenAnswer((inv) -> {
+				V1Secret secret = list.getItems()
+					.stream()
+					.filter((s) -> s.getMetadata().getName().equals(inv.getArgument(0)))
+					.findFirst()
+					.orElseThrow();
+				var readReq = mock(CoreV1Api.APIreadNamespacedSecretRequest.class);
+				when(readReq.execute()).thenReturn(secret);
+				return readReq;
+			});
+		});
+	}
+
+	private void stubMetadataList(int code, String body) throws Exception {
+		Call call = mock(Call.class);
+		when(call.execute()).thenReturn(new Response.Builder().request(new Request.Builder().url("https://k8s").build())
+			.protocol(Protocol.HTTP_1_1)
+			.code(code)
+			.message((code == 200) ? "OK" : "Error")
+			.body(ResponseBody.create(body, MediaType.get("application/json")))
+			.build());
+		when(apiClient.buildCall(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+			.thenReturn(call);
 	}
 
 	private void setupSsaMock() {
@@ -347,13 +389,17 @@ class HelmKubeServiceTest {
 		V1SecretList list = new V1SecretList().items(List.of(createSecretForRelease(app1v1),
 				createSecretForRelease(app1v2), createSecretForRelease(app2v1)));
 
-		coreV1ApiConstruction = mockConstruction(CoreV1Api.class, (mock, ctx) -> setupListRequest(mock, list));
+		setupReleaseListing(list);
 
 		List<Release> releases = kubeService.listReleases("default");
 		assertEquals(2, releases.size());
 		Release app1 = releases.stream().filter((r) -> "app1".equals(r.getName())).findFirst().orElse(null);
 		assertNotNull(app1);
 		assertEquals(2, app1.getVersion());
+		// Only the newest revision of each release is downloaded.
+		verify(mockCoreV1Api).readNamespacedSecret("sh.helm.release.v1.app1.v2", "default");
+		verify(mockCoreV1Api, never()).readNamespacedSecret("sh.helm.release.v1.app1.v1", "default");
+		verify(mockCoreV1Api, never()).listNamespacedSecret(anyString());
 	}
 
 	@Test
@@ -368,7 +414,7 @@ class HelmKubeServiceTest {
 
 		V1SecretList list = new V1SecretList().items(List.of(createSecretForRelease(good), badSecret));
 
-		coreV1ApiConstruction = mockConstruction(CoreV1Api.class, (mock, ctx) -> setupListRequest(mock, list));
+		setupReleaseListing(list);
 
 		// Should return only the good release, skipping the bad one
 		List<Release> releases = kubeService.listReleases("default");
@@ -380,7 +426,7 @@ class HelmKubeServiceTest {
 	void testListReleasesReturnsEmptyWhenNone() throws Exception {
 		V1SecretList list = new V1SecretList().items(List.of());
 
-		coreV1ApiConstruction = mockConstruction(CoreV1Api.class, (mock, ctx) -> setupListRequest(mock, list));
+		setupReleaseListing(list);
 
 		assertTrue(kubeService.listReleases("staging").isEmpty());
 	}
@@ -390,13 +436,7 @@ class HelmKubeServiceTest {
 		// A 401/403 listing releases must reach callers with the cluster's status code
 		// and the reason on the message (issue #797), not a bare "Failed to list
 		// releases".
-		coreV1ApiConstruction = mockConstruction(CoreV1Api.class, (mock, ctx) -> {
-			var listReq = mock(CoreV1Api.APIlistNamespacedSecretRequest.class);
-			when(listReq.labelSelector(anyString())).thenReturn(listReq);
-			when(listReq.execute())
-				.thenThrow(new ApiException("Forbidden", 403, null, "{\"reason\":\"Forbidden\",\"code\":403}"));
-			when(mock.listNamespacedSecret(anyString())).thenReturn(listReq);
-		});
+		stubMetadataList(403, "{\"reason\":\"Forbidden\",\"code\":403}");
 
 		KubernetesOperationException ex = assertThrows(KubernetesOperationException.class,
 				() -> kubeService.listReleases("default"));
@@ -411,13 +451,7 @@ class HelmKubeServiceTest {
 
 	@Test
 	void testListAllReleasesFailureKeepsStatusCodeAndReason() throws Exception {
-		coreV1ApiConstruction = mockConstruction(CoreV1Api.class, (mock, ctx) -> {
-			var listReq = mock(CoreV1Api.APIlistSecretForAllNamespacesRequest.class);
-			when(listReq.labelSelector(anyString())).thenReturn(listReq);
-			when(listReq.execute())
-				.thenThrow(new ApiException("Unauthorized", 401, null, "{\"reason\":\"Unauthorized\"}"));
-			when(mock.listSecretForAllNamespaces()).thenReturn(listReq);
-		});
+		stubMetadataList(401, "{\"reason\":\"Unauthorized\"}");
 
 		KubernetesOperationException ex = assertThrows(KubernetesOperationException.class,
 				() -> kubeService.listAllReleases());
@@ -435,7 +469,7 @@ class HelmKubeServiceTest {
 		V1SecretList list = new V1SecretList()
 			.items(List.of(createSecretForRelease(teamA), createSecretForRelease(teamB)));
 
-		coreV1ApiConstruction = mockConstruction(CoreV1Api.class, (mock, ctx) -> setupListAllRequest(mock, list));
+		setupReleaseListing(list);
 
 		List<Release> releases = kubeService.listAllReleases();
 		assertEquals(2, releases.size());
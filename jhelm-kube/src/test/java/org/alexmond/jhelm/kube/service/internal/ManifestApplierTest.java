@@ -0,0 +1,145 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ManifestApplierTest {
+
+	private static Map<String, Object> resource(String kind, String name) {
+		return Map.of("apiVersion", "v1", "kind", kind, "metadata", Map.of("name", name));
+	}
+
+	private static List<String> ids(List<Map<String, Object>> resources) {
+		return resources.stream()
+			.map((r) -> r.get("kind") + "/" + ((Map<?, ?>) r.get("metadata")).get("name"))
+			.toList();
+	}
+
+	@Test
+	void testWavesFollowHelmInstallOrder() {
+		List<Map<String, Object>> manifest = List.of(resource("Widget", "w"),
+				resource("ValidatingWebhookConfiguration", "hook"), resource("Deployment", "web"),
+				resource("Service", "web"), resource("ConfigMap", "cfg"), resource("ServiceAccount", "sa"),
+				resource("Namespace", "ns"));
+
+		List<List<Map<String, Object>>> waves = ManifestApplier.waves(manifest);
+
+		assertEquals(5, waves.size());
+		assertEquals(List.of("Namespace/ns"), ids(waves.get(0)));
+		// Sorted by kind in install order within the wave.
+		assertEquals(List.of("ServiceAccount/sa", "ConfigMap/cfg", "Service/web"), ids(waves.get(1)));
+		assertEquals(List.of("Deployment/web"), ids(waves.get(2)));
+		assertEquals(List.of("ValidatingWebhookConfiguration/hook"), ids(waves.get(3)));
+		// Unknown kinds, such as custom resources, come last.
+		assertEquals(List.of("Widget/w"), ids(waves.get(4)));
+	}
+
+	@Test
+	void testBindingsStartOnlyAfterTheirRolesAreApplied() throws Exception {
+		List<Map<String, Object>> manifest = List.of(resource("RoleBinding", "rb"),
+				resource("ClusterRoleBinding", "crb"), resource("Role", "r"), resource("ClusterRole", "cr"),
+				resource("ServiceAccount", "sa"));
+		AtomicInteger rolesApplied = new AtomicInteger();
+		List<Integer> rolesSeenByBindings = Collections.synchronizedList(new ArrayList<>());
+
+		new ManifestApplier(8).apply(manifest, (r) -> {
+			String kind = (String) r.get("kind");
+			if (kind.endsWith("RoleBinding")) {
+				rolesSeenByBindings.add(rolesApplied.get());
+			}
+			else if (kind.endsWith("Role")) {
+				Thread.sleep(50);
+				rolesApplied.incrementAndGet();
+			}
+		});
+
+		assertEquals(List.of(2, 2), rolesSeenByBindings);
+		List<List<Map<String, Object>>> waves = ManifestApplier.waves(manifest);
+		assertEquals(List.of("ServiceAccount/sa", "ClusterRole/cr", "Role/r"), ids(waves.get(0)));
+		assertEquals(List.of("ClusterRoleBinding/crb", "RoleBinding/rb"), ids(waves.get(1)));
+	}
+
+	@Test
+	void testManifestOrderIsKeptWithinAKind() {
+		List<Map<String, Object>> manifest = List.of(resource("ConfigMap", "b"), resource("ConfigMap", "a"),
+				resource("ConfigMap", "c"));
+
+		assertEquals(List.of("ConfigMap/b", "ConfigMap/a", "ConfigMap/c"), ids(ManifestApplier.waves(manifest).get(0)));
+	}
+
+	@Test
+	void testResourcesOfAWaveAreAppliedConcurrently() throws Exception {
+		CountDownLatch allStarted = new CountDownLatch(3);
+		List<String> applied = Collections.synchronizedList(new ArrayList<>());
+
+		new ManifestApplier(3).apply(List.of(resource("ConfigMap", "a"), resource("ConfigMap", "b"),
+				resource("ConfigMap", "c"), resource("Deployment", "web")), (r) -> {
+					if ("ConfigMap".equals(r.get("kind"))) {
+						allStarted.countDown();
+						// Returns only if all three ConfigMaps are in flight at once.
+						assertTrue(allStarted.await(10, TimeUnit.SECONDS));
+					}
+					applied.add((String) r.get("kind"));
+				});
+
+		assertEquals(4, applied.size());
+		// The next wave starts only after the previous one finished.
+		assertEquals("Deployment", applied.get(3));
+	}
+
+	@Test
+	void testConcurrencyIsCapped() throws Exception {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		List<Map<String, Object>> manifest = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			manifest.add(resource("Secret", "s" + i));
+		}
+
+		new ManifestApplier(2).apply(manifest, (r) -> {
+			peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Thread.sleep(20);
+			inFlight.decrementAndGet();
+		});
+
+		assertTrue(peak.get() <= 2, "peak " + peak.get());
+	}
+
+	@Test
+	void testFailureIsRethrownAndLaterWavesAreSkipped() {
+		IOException failure = new IOException("429 Too Many Requests");
+		List<String> applied = Collections.synchronizedList(new ArrayList<>());
+
+		IOException thrown = assertThrows(IOException.class,
+				() -> new ManifestApplier(4).apply(List.of(resource("ConfigMap", "a"), resource("ConfigMap", "b"),
+						resource("Deployment", "web")), (r) -> {
+							if ("b".equals(((Map<?, ?>) r.get("metadata")).get("name"))) {
+								throw failure;
+							}
+							applied.add((String) r.get("kind"));
+						}));
+
+		assertSame(failure, thrown);
+		assertFalse(applied.contains("Deployment"));
+	}
+
+	@Test
+	void testConcurrencyMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> new ManifestApplier(0));
+	}
+
+}
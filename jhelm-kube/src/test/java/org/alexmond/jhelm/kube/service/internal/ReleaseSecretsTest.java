@@ -0,0 +1,79 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.util.List;
+
+import org.alexmond.jhelm.core.exception.KubernetesOperationException;
+import org.alexmond.jhelm.core.exception.ReleaseStorageException;
+import org.alexmond.jhelm.core.model.Release;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReleaseSecretsTest {
+
+	private final JsonMapper objectMapper = JsonMapper.builder().build();
+
+	private static ReleaseSecrets.Ref ref(String namespace, String release, int version) {
+		return new ReleaseSecrets.Ref(namespace, "sh.helm.release.v1." + release + ".v" + version, release, version);
+	}
+
+	private static Release release(ReleaseSecrets.Ref ref) {
+		return Release.builder().name(ref.release()).namespace(ref.namespace()).version(ref.version()).build();
+	}
+
+	@Test
+	void testRefsAreReadFromMetadataOnly() {
+		List<ReleaseSecrets.Ref> refs = ReleaseSecrets.refs(this.objectMapper.readTree("""
+				{"kind": "PartialObjectMetadataList", "items": [
+				  {"metadata": {"name": "sh.helm.release.v1.web.v2", "namespace": "team-a",
+				    "labels": {"owner": "helm", "name": "web", "version": "2", "status": "deployed"}}},
+				  {"metadata": {"name": "sh.helm.release.v1.db.v1",
+				    "labels": {"owner": "helm", "name": "db", "version": "1"}}},
+				  {"metadata": {"name": "unlabelled", "labels": {"owner": "helm"}}}]}
+				"""), "default");
+
+		assertEquals(List.of(new ReleaseSecrets.Ref("team-a", "sh.helm.release.v1.web.v2", "web", 2),
+				new ReleaseSecrets.Ref("default", "sh.helm.release.v1.db.v1", "db", 1)), refs);
+	}
+
+	@Test
+	void testLatestKeepsNewestRevisionPerNamespaceAndName() {
+		List<ReleaseSecrets.Ref> latest = ReleaseSecrets.latest(List.of(ref("a", "web", 1), ref("a", "web", 3),
+				ref("b", "web", 1), ref("a", "web", 2), ref("a", "db", 1)));
+
+		assertEquals(List.of(ref("a", "web", 3), ref("b", "web", 1), ref("a", "db", 1)), latest);
+	}
+
+	@Test
+	void testReadKeepsOrderAndSkipsUnreadableAndDeletedSecrets() {
+		List<ReleaseSecrets.Ref> refs = List.of(ref("a", "web", 1), ref("a", "broken", 1), ref("a", "gone", 1),
+				ref("a", "db", 1));
+
+		List<Release> releases = ReleaseSecrets.read(refs, (ref) -> switch (ref.release()) {
+			case "broken" -> throw new ReleaseStorageException("Failed to decode release");
+			case "gone" -> null;
+			default -> release(ref);
+		});
+
+		assertEquals(List.of("web", "db"), releases.stream().map(Release::getName).toList());
+	}
+
+	@Test
+	void testReadRethrowsApiFailures() {
+		KubernetesOperationException failure = new KubernetesOperationException("Forbidden", null, 403);
+
+		KubernetesOperationException thrown = assertThrows(KubernetesOperationException.class,
+				() -> ReleaseSecrets.read(List.of(ref("a", "web", 1), ref("a", "db", 1)), (ref) -> {
+					if ("db".equals(ref.release())) {
+						throw failure;
+					}
+					return release(ref);
+				}));
+
+		assertSame(failure, thrown);
+	}
+
+}
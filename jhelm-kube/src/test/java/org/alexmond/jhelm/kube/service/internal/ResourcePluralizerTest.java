@@ -1,5 +1,7 @@
 package org.alexmond.jhelm.kube.service.internal;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -30,7 +32,7 @@ class ResourcePluralizerTest {
 
 	@Test
 	void testUnknownKindDefaultsToNamespaced() {
-		// An unknown CRD with no reachable cluster (null client) defaults to namespaced.
+		// An unknown CRD with no discovery defaults to namespaced.
 		assertTrue(new ResourcePluralizer(null).isNamespaced("WidgetThing"));
 	}
 
@@ -49,7 +51,7 @@ class ResourcePluralizerTest {
 			"RuntimeClass,runtimeclasses", "EndpointSlice,endpointslices", "Lease,leases", "CSIDriver,csidrivers",
 			"APIService,apiservices" })
 	void testWellKnownPlurals(String kind, String expectedPlural) {
-		// Construct with null apiClient — should still resolve from static map
+		// Construct without discovery — should still resolve from static map
 		ResourcePluralizer pluralizer = new ResourcePluralizer(null);
 		assertEquals(expectedPlural, pluralizer.toPlural(kind));
 	}
@@ -100,13 +102,26 @@ class ResourcePluralizerTest {
 	}
 
 	@Test
-	void testDiscoveryFailsGracefullyWithNullApiClient() {
-		// When apiClient is null, discovery will fail but toPlural should still work
-		// via static map and heuristics
+	void testResolvesWithoutDiscovery() {
+		// Without discovery, toPlural still works via static map and heuristics
 		ResourcePluralizer pluralizer = new ResourcePluralizer(null);
 		assertEquals("pods", pluralizer.toPlural("Pod"));
 		// Unknown kind uses heuristics
 		assertEquals("mywidgets", pluralizer.toPlural("MyWidget"));
 	}
 
+	@Test
+	void testCustomResourceResolvedFromDiscovery() {
+		ApiDiscovery discovered = new ApiDiscovery("v1.31.2",
+				List.of(new ApiDiscovery.Resource("example.com/v1", "Widget", "widgetz", false)),
+				System.currentTimeMillis());
+		ResourcePluralizer pluralizer = new ResourcePluralizer(
+				new DiscoveryCache(() -> discovered, null, DiscoveryCache.DEFAULT_TTL));
+
+		assertEquals("widgetz", pluralizer.toPlural("Widget"));
+		assertFalse(pluralizer.isNamespaced("Widget"));
+		// Built-in kinds never need discovery.
+		assertEquals("pods", pluralizer.toPlural("Pod"));
+	}
+
 }
@@ -0,0 +1,144 @@
+package org.alexmond.jhelm.kube.service.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alexmond.jhelm.core.exception.WaitTimeoutException;
+import org.alexmond.jhelm.core.model.ResourceStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourceWaiterTest {
+
+	// Long enough that a test finishing quickly proves it was not polling.
+	private static final long SLOW_POLL_MS = 60_000;
+
+	private static ResourceStatus status(String name, boolean ready) {
+		return ResourceStatus.builder()
+			.kind("Deployment")
+			.name(name)
+			.namespace("default")
+			.ready(ready)
+			.message(ready ? "ready" : "0/1 replicas ready")
+			.build();
+	}
+
+	@Test
+	void testReadyResourcesOpenNoWatch() {
+		ResourceWaiter waiter = new ResourceWaiter(() -> List.of(status("web", true)), SLOW_POLL_MS);
+		assertTrue(waiter.await(30, (kinds, w, deadline, watches) -> {
+			throw new AssertionError("no watch expected");
+		}).isEmpty());
+	}
+
+	@Test
+	void testReturnsOnTheEventThatMakesTheLastResourceReady() {
+		AtomicBoolean closed = new AtomicBoolean();
+		List<String> watchedKinds = new ArrayList<>();
+		ResourceWaiter waiter = new ResourceWaiter(() -> List.of(status("web", false), status("api", false)),
+				SLOW_POLL_MS);
+		long start = System.currentTimeMillis();
+
+		List<ResourceStatus> notReady = waiter.await(30, (kinds, w, deadline, watches) -> {
+			watchedKinds.addAll(kinds);
+			Thread.ofVirtual().start(() -> {
+				w.update("Deployment", "web", status("web", true));
+				// An object of the same kind outside the release is ignored.
+				w.update("Deployment", "other", status("other", false));
+				w.update("Deployment", "api", status("api", true));
+			});
+			watches.add(() -> closed.set(true));
+		});
+
+		assertTrue(notReady.isEmpty());
+		assertTrue(System.currentTimeMillis() - start < SLOW_POLL_MS);
+		assertEquals(List.of("Deployment"), watchedKinds);
+		assertTrue(closed.get());
+	}
+
+	@Test
+	void testResourceDeletedBeforeTheWatchOpensIsNotWaitedOn() {
+		AtomicInteger polls = new AtomicInteger();
+		// Present at the first read, gone by the time the watch opens; the watch replays
+		// nothing and never reports the deletion.
+		ResourceWaiter waiter = new ResourceWaiter(
+				() -> (polls.incrementAndGet() == 1) ? List.of(status("web", false)) : List.of(), SLOW_POLL_MS);
+		long start = System.currentTimeMillis();
+
+		List<ResourceStatus> pending = waiter.await(30, (kinds, w, deadline, watches) -> {
+		});
+
+		assertTrue(pending.isEmpty());
+		// Well before the 30 s timeout, whose final read would also find it gone.
+		assertTrue(System.currentTimeMillis() - start < 10_000);
+		assertEquals(2, polls.get());
+	}
+
+	@Test
+	void testTerminalEventFailsFast() {
+		ResourceWaiter waiter = new ResourceWaiter(() -> List.of(status("job-pod", false)), SLOW_POLL_MS);
+		ResourceStatus failed = ResourceStatus.builder()
+			.kind("Deployment")
+			.name("job-pod")
+			.namespace("default")
+			.terminal(true)
+			.message("Failed")
+			.build();
+
+		WaitTimeoutException ex = assertThrows(WaitTimeoutException.class,
+				() -> waiter.await(30, (kinds, w, deadline, watches) -> w.update("Deployment", "job-pod", failed)));
+		assertTrue(ex.getMessage().contains("terminally failed"));
+	}
+
+	@Test
+	void testBrokenWatchFallsBackToPolling() {
+		AtomicInteger polls = new AtomicInteger();
+		ResourceWaiter waiter = new ResourceWaiter(() -> List.of(status("web", polls.incrementAndGet() > 1)), 10);
+
+		List<ResourceStatus> notReady = waiter.await(30,
+				(kinds, w, deadline, watches) -> w.watchFailed("Deployment", new IllegalStateException("gone")));
+
+		assertTrue(notReady.isEmpty());
+		assertEquals(2, polls.get());
+	}
+
+	@Test
+	void testWatchThatCannotOpenFallsBackToPolling() {
+		AtomicInteger polls = new AtomicInteger();
+		AtomicBoolean closed = new AtomicBoolean();
+		ResourceWaiter waiter = new ResourceWaiter(() -> List.of(status("web", polls.incrementAndGet() > 1)), 10);
+
+		List<ResourceStatus> notReady = waiter.await(30, (kinds, w, deadline, watches) -> {
+			watches.add(() -> closed.set(true));
+			throw new IllegalArgumentException("no watch for kind");
+		});
+
+		assertTrue(notReady.isEmpty());
+		// A watch opened before the failure is still closed.
+		assertTrue(closed.get());
+	}
+
+	@Test
+	void testTimeoutReturnsTheResourcesStillPendingReadAfresh() {
+		AtomicInteger polls = new AtomicInteger();
+		ResourceWaiter waiter = new ResourceWaiter(() -> {
+			polls.incrementAndGet();
+			return List.of(status("web", false));
+		}, SLOW_POLL_MS);
+
+		List<ResourceStatus> notReady = waiter.await(0, (kinds, w, deadline, watches) -> {
+			throw new AssertionError("no watch expected");
+		});
+
+		assertEquals(1, notReady.size());
+		assertFalse(notReady.get(0).isReady());
+		assertEquals(2, polls.get());
+	}
+
+}
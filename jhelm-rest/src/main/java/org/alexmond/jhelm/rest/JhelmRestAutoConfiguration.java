@@ -17,6 +17,7 @@ import org.alexmond.jhelm.core.action.TemplateAction;
 import org.alexmond.jhelm.core.action.TestAction;
 import org.alexmond.jhelm.core.action.UninstallAction;
 import org.alexmond.jhelm.core.action.UpgradeAction;
+import org.alexmond.jhelm.core.cache.ChartCache;
 import org.alexmond.jhelm.core.service.ChartLoader;
 import org.alexmond.jhelm.core.service.DependencyResolver;
 import org.alexmond.jhelm.core.service.RepoManager;
@@ -210,15 +211,19 @@ public class JhelmRestAutoConfiguration {
 	 * @param createAction scaffolds new charts
 	 * @param showAction exposes chart information
 	 * @param repoManager pulls charts from repositories
+	 * @param chartLoader loads uploaded chart archives
 	 * @param properties REST module configuration
+	 * @param chartCache optional cache of loaded repository charts
 	 * @return the chart controller bean
 	 */
 	@Bean
 	@ConditionalOnMissingBean
 	@ConditionalOnBean({ TemplateAction.class, RepoManager.class })
 	public ChartController chartController(TemplateAction templateAction, CreateAction createAction,
-			ShowAction showAction, RepoManager repoManager, JhelmRestProperties properties) {
-		return new ChartController(templateAction, createAction, showAction, repoManager, properties);
+			ShowAction showAction, RepoManager repoManager, ChartLoader chartLoader, JhelmRestProperties properties,
+			ObjectProvider<ChartCache> chartCache) {
+		return new ChartController(templateAction, createAction, showAction, repoManager, chartLoader, properties,
+				chartCache.getIfAvailable());
 	}
 
 	/**
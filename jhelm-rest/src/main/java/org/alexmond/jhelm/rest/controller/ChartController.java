@@ -2,10 +2,11 @@ package org.alexmond.jhelm.rest.controller;
 
 import jakarta.validation.Valid;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +15,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.alexmond.jhelm.core.action.CreateAction;
 import org.alexmond.jhelm.core.action.ShowAction;
 import org.alexmond.jhelm.core.action.TemplateAction;
+import org.alexmond.jhelm.core.cache.ChartCache;
+import org.alexmond.jhelm.core.model.Chart;
 import org.alexmond.jhelm.core.service.ChartLoader;
 import org.alexmond.jhelm.core.service.RepoManager;
 import org.alexmond.jhelm.core.util.ValuesOverrides;
@@ -23,6 +26,7 @@ import org.alexmond.jhelm.rest.dto.CreateRequest;
 import org.alexmond.jhelm.rest.dto.TemplateRequest;
 import org.alexmond.jhelm.rest.dto.TemplateUploadRequest;
 import org.alexmond.jhelm.rest.util.ChartArchiveUtil;
+import org.alexmond.jhelm.rest.util.ChartSourceResolver;
 import org.alexmond.jhelm.rest.util.TempDir;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -55,23 +59,32 @@ public class ChartController {
 
 	private final RepoManager repoManager;
 
+	private final ChartLoader chartLoader;
+
 	private final JhelmRestProperties properties;
 
+	private final ChartCache chartCache;
+
 	/**
 	 * Creates the controller with the chart-related actions it delegates to.
 	 * @param templateAction renders chart templates
 	 * @param createAction scaffolds new charts
 	 * @param showAction exposes chart information
 	 * @param repoManager pulls charts from repositories
+	 * @param chartLoader loads uploaded chart archives
 	 * @param properties REST module configuration (temp directory, base path)
+	 * @param chartCache loaded repository charts reused across requests, or {@code null}
+	 * to pull and load every chart per request
 	 */
 	public ChartController(TemplateAction templateAction, CreateAction createAction, ShowAction showAction,
-			RepoManager repoManager, JhelmRestProperties properties) {
+			RepoManager repoManager, ChartLoader chartLoader, JhelmRestProperties properties, ChartCache chartCache) {
 		this.templateAction = templateAction;
 		this.createAction = createAction;
 		this.showAction = showAction;
 		this.repoManager = repoManager;
+		this.chartLoader = chartLoader;
 		this.properties = properties;
+		this.chartCache = chartCache;
 	}
 
 	/**
@@ -84,9 +97,15 @@ public class ChartController {
 	@Operation(summary = "Render templates",
 			description = "Render chart templates from a repository chart reference with optional value overrides")
 	public ResponseEntity<String> template(@Valid @RequestBody TemplateRequest request) throws IOException {
+		Map<String, Object> values = ValuesOverrides.safeValues(request.getValues());
+		Optional<Chart> cached = cachedChart(request.getChartRef(), request.getVersion());
+		if (cached.isPresent()) {
+			return ResponseEntity.ok(this.templateAction.renderWithControls(cached.get(), request.getReleaseName(),
+					request.getNamespace(), values, request.isUpgrade(), request.isIncludeCrds(), request.isSkipTests(),
+					request.getShowOnly()));
+		}
 		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-template-")) {
 			String chartPath = pullChart(request.getChartRef(), request.getVersion(), tempDir);
-			Map<String, Object> values = ValuesOverrides.safeValues(request.getValues());
 			String manifest = this.templateAction.renderWithControls(chartPath, request.getReleaseName(),
 					request.getNamespace(), values, request.isUpgrade(), request.isIncludeCrds(), request.isSkipTests(),
 					request.getShowOnly());
@@ -106,17 +125,13 @@ public class ChartController {
 			description = "Render chart templates from an uploaded .tgz chart archive")
 	public ResponseEntity<String> templateUpload(@RequestPart("chart") MultipartFile chart,
 			@RequestPart("request") TemplateUploadRequest request) throws IOException {
-		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-template-upload-")) {
-			File tgzFile = tempDir.path().resolve("upload.tgz").toFile();
-			chart.transferTo(tgzFile);
-			this.repoManager.untar(tgzFile, tempDir.path().toFile());
-			String chartPath = ChartLoader.findChartDir(tempDir.path()).toString();
-			Map<String, Object> values = ValuesOverrides.safeValues(request.getValues());
-			String manifest = this.templateAction.renderWithControls(chartPath, request.getReleaseName(),
-					request.getNamespace(), values, request.isUpgrade(), request.isIncludeCrds(), request.isSkipTests(),
-					request.getShowOnly());
-			return ResponseEntity.ok(manifest);
-		}
+		Chart loaded = ChartSourceResolver.fromUpload(chart, this.repoManager, this.chartLoader,
+				this.properties.getTempDir());
+		Map<String, Object> values = ValuesOverrides.safeValues(request.getValues());
+		String manifest = this.templateAction.renderWithControls(loaded, request.getReleaseName(),
+				request.getNamespace(), values, request.isUpgrade(), request.isIncludeCrds(), request.isSkipTests(),
+				request.getShowOnly());
+		return ResponseEntity.ok(manifest);
 	}
 
 	/**
@@ -153,10 +168,7 @@ public class ChartController {
 			@Parameter(description = "Chart reference (repo/chart or oci://...)") @RequestParam String chartRef,
 			@Parameter(description = "Chart version") @RequestParam(required = false) String version)
 			throws IOException {
-		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-show-")) {
-			String chartPath = pullChart(chartRef, version, tempDir);
-			return ResponseEntity.ok(this.showAction.showAll(chartPath));
-		}
+		return ResponseEntity.ok(show(chartRef, version, this.showAction::showAll, this.showAction::showAll));
 	}
 
 	/**
@@ -171,10 +183,7 @@ public class ChartController {
 			@Parameter(description = "Chart reference (repo/chart or oci://...)") @RequestParam String chartRef,
 			@Parameter(description = "Chart version") @RequestParam(required = false) String version)
 			throws IOException {
-		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-show-")) {
-			String chartPath = pullChart(chartRef, version, tempDir);
-			return ResponseEntity.ok(this.showAction.showValues(chartPath));
-		}
+		return ResponseEntity.ok(show(chartRef, version, this.showAction::showValues, this.showAction::showValues));
 	}
 
 	/**
@@ -189,10 +198,7 @@ public class ChartController {
 			@Parameter(description = "Chart reference (repo/chart or oci://...)") @RequestParam String chartRef,
 			@Parameter(description = "Chart version") @RequestParam(required = false) String version)
 			throws IOException {
-		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-show-")) {
-			String chartPath = pullChart(chartRef, version, tempDir);
-			return ResponseEntity.ok(this.showAction.showReadme(chartPath));
-		}
+		return ResponseEntity.ok(show(chartRef, version, this.showAction::showReadme, this.showAction::showReadme));
 	}
 
 	/**
@@ -207,10 +213,7 @@ public class ChartController {
 			@Parameter(description = "Chart reference (repo/chart or oci://...)") @RequestParam String chartRef,
 			@Parameter(description = "Chart version") @RequestParam(required = false) String version)
 			throws IOException {
-		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-show-")) {
-			String chartPath = pullChart(chartRef, version, tempDir);
-			return ResponseEntity.ok(this.showAction.showChart(chartPath));
-		}
+		return ResponseEntity.ok(show(chartRef, version, this.showAction::showChart, this.showAction::showChart));
 	}
 
 	/**
@@ -226,10 +229,34 @@ public class ChartController {
 			@Parameter(description = "Chart reference (repo/chart or oci://...)") @RequestParam String chartRef,
 			@Parameter(description = "Chart version") @RequestParam(required = false) String version)
 			throws IOException {
+		return ResponseEntity.ok(show(chartRef, version, this.showAction::showCrds, this.showAction::showCrds));
+	}
+
+	/**
+	 * Answers a show request from the cached chart when there is one, otherwise from a
+	 * chart pulled into a temp directory for this request.
+	 */
+	private String show(String chartRef, String version, Function<Chart, String> fromChart,
+			Function<String, String> fromPath) throws IOException {
+		Optional<Chart> cached = cachedChart(chartRef, version);
+		if (cached.isPresent()) {
+			return fromChart.apply(cached.get());
+		}
 		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-show-")) {
-			String chartPath = pullChart(chartRef, version, tempDir);
-			return ResponseEntity.ok(this.showAction.showCrds(chartPath));
+			return fromPath.apply(pullChart(chartRef, version, tempDir));
+		}
+	}
+
+	/**
+	 * Returns the loaded chart from the chart cache, pulling and extracting it into the
+	 * repository cache on first use. Empty when the cache is disabled or the chart has no
+	 * indexed digest to key it by (such as {@code oci://} charts).
+	 */
+	private Optional<Chart> cachedChart(String chartRef, String version) throws IOException {
+		if (this.chartCache == null) {
+			return Optional.empty();
 		}
+		return this.repoManager.pullCached(chartRef, version).map(this.chartCache::load);
 	}
 
 	/**
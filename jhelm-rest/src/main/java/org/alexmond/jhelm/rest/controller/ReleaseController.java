@@ -195,7 +195,7 @@ public class ReleaseController {
 	 * @param chart the uploaded chart archive
 	 * @param request the release name, namespace, values and dry-run flag
 	 * @return {@code 201} with the created release
-	 * @throws IOException if the upload cannot be extracted or installed
+	 * @throws IOException if the upload cannot be read or installed
 	 */
 	@PostMapping(path = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 	@MutatingOperation
@@ -203,21 +203,20 @@ public class ReleaseController {
 			description = "Install a new Helm release from an uploaded .tgz chart archive")
 	public ResponseEntity<Map<String, Object>> installUpload(@RequestPart("chart") MultipartFile chart,
 			@Valid @RequestPart("request") InstallUploadRequest request) throws IOException {
-		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-install-upload-")) {
-			Chart loaded = ChartSourceResolver.fromUpload(chart, this.repoManager, this.chartLoader, tempDir);
-			Map<String, Object> values = ValuesOverrides.safeValues(request.getValues());
-			Release release = this.installAction.install(InstallOptions.builder()
-				.chart(loaded)
-				.releaseName(request.getReleaseName())
-				.namespace(request.getNamespace())
-				.values(values)
-				.revision(1)
-				.dryRun(request.isDryRun())
-				.description(request.getDescription())
-				.labels((request.getLabels() != null) ? request.getLabels() : Map.of())
-				.build());
-			return ResponseEntity.status(HttpStatus.CREATED).body(OutputFormat.release(release));
-		}
+		Chart loaded = ChartSourceResolver.fromUpload(chart, this.repoManager, this.chartLoader,
+				this.properties.getTempDir());
+		Map<String, Object> values = ValuesOverrides.safeValues(request.getValues());
+		Release release = this.installAction.install(InstallOptions.builder()
+			.chart(loaded)
+			.releaseName(request.getReleaseName())
+			.namespace(request.getNamespace())
+			.values(values)
+			.revision(1)
+			.dryRun(request.isDryRun())
+			.description(request.getDescription())
+			.labels((request.getLabels() != null) ? request.getLabels() : Map.of())
+			.build());
+		return ResponseEntity.status(HttpStatus.CREATED).body(OutputFormat.release(release));
 	}
 
 	/**
@@ -260,7 +259,7 @@ public class ReleaseController {
 	 * @param chart the uploaded chart archive
 	 * @param request the values and dry-run flag
 	 * @return the upgraded release
-	 * @throws IOException if the upload cannot be extracted or the upgrade fails
+	 * @throws IOException if the upload cannot be read or the upgrade fails
 	 */
 	@PostMapping(path = "/{name}/upgrade/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 	@MutatingOperation
@@ -272,18 +271,17 @@ public class ReleaseController {
 			throws IOException {
 		Release current = this.getAction.getRelease(name, namespace)
 			.orElseThrow(() -> new NotFoundException("Release '" + name + "' not found"));
-		try (TempDir tempDir = new TempDir(this.properties.getTempDir(), "jhelm-upgrade-upload-")) {
-			Chart loaded = ChartSourceResolver.fromUpload(chart, this.repoManager, this.chartLoader, tempDir);
-			Map<String, Object> values = ValuesOverrides.safeValues(request.getValues());
-			Release upgraded = this.upgradeAction.upgrade(UpgradeOptions.builder()
-				.currentRelease(current)
-				.newChart(loaded)
-				.values(values)
-				.valueStrategy(resolveStrategy(request.getValueStrategy()))
-				.dryRun(request.isDryRun())
-				.build());
-			return OutputFormat.release(upgraded);
-		}
+		Chart loaded = ChartSourceResolver.fromUpload(chart, this.repoManager, this.chartLoader,
+				this.properties.getTempDir());
+		Map<String, Object> values = ValuesOverrides.safeValues(request.getValues());
+		Release upgraded = this.upgradeAction.upgrade(UpgradeOptions.builder()
+			.currentRelease(current)
+			.newChart(loaded)
+			.values(values)
+			.valueStrategy(resolveStrategy(request.getValueStrategy()))
+			.dryRun(request.isDryRun())
+			.build());
+		return OutputFormat.release(upgraded);
 	}
 
 	/**
@@ -2,7 +2,10 @@ package org.alexmond.jhelm.rest.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
 
 import org.alexmond.jhelm.core.model.Chart;
 import org.alexmond.jhelm.core.service.ChartLoader;
@@ -11,7 +14,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 /**
  * Resolves a chart source (repository reference or uploaded .tgz) to a loaded
- * {@link Chart} inside a {@link TempDir}.
+ * {@link Chart}. Repository charts are pulled into a {@link TempDir}; uploads are loaded
+ * in memory unless they are too large to.
  */
 public final class ChartSourceResolver {
 
@@ -36,21 +40,34 @@ public final class ChartSourceResolver {
 	}
 
 	/**
-	 * Extract an uploaded .tgz chart archive and load it.
+	 * Load an uploaded .tgz chart archive. Archives that expand to at most
+	 * {@link ChartLoader#MAX_IN_MEMORY_ARCHIVE_BYTES} are loaded straight from the upload;
+	 * larger ones are extracted into a {@link TempDir} under {@code tempBase} and loaded
+	 * from there, under the limits of {@link RepoManager#untar(File, File)}.
 	 * @param file the uploaded .tgz file
-	 * @param repoManager repository manager (for untar utility)
-	 * @param chartLoader loader to parse the chart directory
-	 * @param tempDir temporary directory to extract into
+	 * @param repoManager repository manager (for the untar fallback)
+	 * @param chartLoader loader to parse the chart archive or directory
+	 * @param tempBase base directory for the extraction fallback
 	 * @return the loaded chart
-	 * @throws IOException if the upload cannot be stored, extracted, located, or parsed
+	 * @throws IOException if the upload cannot be read, stored or extracted
 	 */
 	public static Chart fromUpload(MultipartFile file, RepoManager repoManager, ChartLoader chartLoader,
-			TempDir tempDir) throws IOException {
-		File tgzFile = tempDir.path().resolve("upload.tgz").toFile();
-		file.transferTo(tgzFile);
-		repoManager.untar(tgzFile, tempDir.path().toFile());
-		Path chartDir = ChartLoader.findChartDir(tempDir.path());
-		return chartLoader.load(chartDir.toFile());
+			Path tempBase) throws IOException {
+		try (InputStream in = file.getInputStream()) {
+			Optional<Chart> chart = chartLoader.loadInMemory(in);
+			if (chart.isPresent()) {
+				return chart.get();
+			}
+		}
+		try (TempDir tempDir = new TempDir(tempBase, "jhelm-upload-")) {
+			File tgzFile = tempDir.path().resolve("upload.tgz").toFile();
+			try (InputStream in = file.getInputStream()) {
+				Files.copy(in, tgzFile.toPath());
+			}
+			repoManager.untar(tgzFile, tempDir.path().toFile());
+			Path chartDir = ChartLoader.findChartDir(tempDir.path());
+			return chartLoader.load(chartDir.toFile());
+		}
 	}
 
 }
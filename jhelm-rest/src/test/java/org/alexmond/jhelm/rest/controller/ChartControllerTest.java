@@ -1,7 +1,9 @@
 package org.alexmond.jhelm.rest.controller;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -9,6 +11,9 @@ import org.alexmond.jhelm.core.action.CreateAction;
 
 import org.alexmond.jhelm.core.action.ShowAction;
 import org.alexmond.jhelm.core.action.TemplateAction;
+import org.alexmond.jhelm.core.cache.ChartCache;
+import org.alexmond.jhelm.core.model.Chart;
+import org.alexmond.jhelm.core.service.ChartLoader;
 import org.alexmond.jhelm.core.service.RepoManager;
 import org.alexmond.jhelm.rest.JhelmRestExceptionHandler;
 import org.alexmond.jhelm.rest.config.JhelmRestProperties;
@@ -29,6 +34,8 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
@@ -58,6 +65,12 @@ class ChartControllerTest {
 	@MockitoBean
 	private RepoManager repoManager;
 
+	@MockitoBean
+	private ChartLoader chartLoader;
+
+	@MockitoBean
+	private ChartCache chartCache;
+
 	@Test
 	void templateRendersManifest() throws Exception {
 		stubPull();
@@ -93,6 +106,24 @@ class ChartControllerTest {
 			.andExpect(content().string("apiVersion: apps/v1\nkind: Deployment"));
 	}
 
+	@Test
+	void templateRendersCachedChartWithoutPulling() throws Exception {
+		Chart chart = stubCachedChart();
+		when(this.templateAction.renderWithControls(eq(chart), eq("my-release"), eq("default"), anyMap(),
+				anyBoolean(), anyBoolean(), anyBoolean(), any()))
+			.thenReturn("apiVersion: v1\nkind: ConfigMap");
+
+		this.mockMvc
+			.perform(post("/api/v1/charts/template").contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.content("""
+						{"chartRef": "bitnami/nginx", "version": "18.3.1", "releaseName": "my-release"}
+						"""))
+			.andExpect(status().isOk())
+			.andExpect(content().string("apiVersion: v1\nkind: ConfigMap"));
+		verify(this.repoManager, never()).pull(anyString(), any(), anyString());
+	}
+
 	@Test
 	void templateRejectsMissingChartRef() throws Exception {
 		this.mockMvc
@@ -107,8 +138,9 @@ class ChartControllerTest {
 
 	@Test
 	void templateUploadRendersManifest() throws Exception {
-		stubUntar();
-		when(this.templateAction.renderWithControls(anyString(), eq("RELEASE-NAME"), eq("default"), anyMap(),
+		Chart chart = Chart.builder().build();
+		when(this.chartLoader.loadInMemory(any(InputStream.class))).thenReturn(Optional.of(chart));
+		when(this.templateAction.renderWithControls(eq(chart), eq("RELEASE-NAME"), eq("default"), anyMap(),
 				anyBoolean(), anyBoolean(), anyBoolean(), any()))
 			.thenReturn("apiVersion: v1\nkind: Service");
 
@@ -121,6 +153,32 @@ class ChartControllerTest {
 			.andExpect(content().string("apiVersion: v1\nkind: Service"));
 	}
 
+	@Test
+	void templateUploadExtractsArchiveTooLargeForMemory() throws Exception {
+		Chart chart = Chart.builder().build();
+		when(this.chartLoader.loadInMemory(any(InputStream.class))).thenReturn(Optional.empty());
+		doAnswer((invocation) -> {
+			File destDir = invocation.getArgument(1);
+			Path chartDir = destDir.toPath().resolve("nginx");
+			Files.createDirectories(chartDir);
+			Files.writeString(chartDir.resolve("Chart.yaml"), "name: nginx\nversion: 1.0.0");
+			return null;
+		}).when(this.repoManager).untar(any(File.class), any(File.class));
+		when(this.chartLoader.load(any(File.class))).thenReturn(chart);
+		when(this.templateAction.renderWithControls(eq(chart), eq("RELEASE-NAME"), eq("default"), anyMap(),
+				anyBoolean(), anyBoolean(), anyBoolean(), any()))
+			.thenReturn("apiVersion: v1\nkind: Service");
+
+		MockMultipartFile chartFile = new MockMultipartFile("chart", "nginx-1.0.0.tgz", "application/gzip",
+				new byte[] { 1, 2, 3 });
+		MockMultipartFile requestPart = new MockMultipartFile("request", "", "application/json", "{}".getBytes());
+
+		this.mockMvc.perform(multipart("/api/v1/charts/template/upload").file(chartFile).file(requestPart))
+			.andExpect(status().isOk())
+			.andExpect(content().string("apiVersion: v1\nkind: Service"));
+		verify(this.repoManager).untar(any(File.class), any(File.class));
+	}
+
 	@Test
 	void createReturnsArchiveDownload() throws Exception {
 		doAnswer((invocation) -> {
@@ -224,6 +282,20 @@ class ChartControllerTest {
 			.andExpect(content().string("apiVersion: apiextensions.k8s.io/v1\nkind: CRD"));
 	}
 
+	@Test
+	void showValuesServesCachedChart() throws Exception {
+		Chart chart = stubCachedChart();
+		when(this.showAction.showValues(chart)).thenReturn("replicas: 2");
+
+		this.mockMvc
+			.perform(get("/api/v1/charts/show/values").param("chartRef", "bitnami/nginx")
+				.param("version", "18.3.1")
+				.accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(content().string("replicas: 2"));
+		verify(this.repoManager, never()).pull(anyString(), any(), anyString());
+	}
+
 	@Test
 	void showWithoutVersionPulls() throws Exception {
 		stubPull();
@@ -272,14 +344,12 @@ class ChartControllerTest {
 		}).when(this.repoManager).pull(anyString(), any(), anyString());
 	}
 
-	private void stubUntar() throws Exception {
-		doAnswer((invocation) -> {
-			File destDir = invocation.getArgument(1);
-			Path chartDir = destDir.toPath().resolve("nginx");
-			Files.createDirectories(chartDir);
-			Files.writeString(chartDir.resolve("Chart.yaml"), "name: nginx\nversion: 1.0.0");
-			return null;
-		}).when(this.repoManager).untar(any(File.class), any(File.class));
+	private Chart stubCachedChart() throws Exception {
+		Path chartDir = Path.of("/cache/charts/extracted/abc/nginx");
+		Chart chart = Chart.builder().build();
+		when(this.repoManager.pullCached("bitnami/nginx", "18.3.1")).thenReturn(Optional.of(chartDir));
+		when(this.chartCache.load(chartDir)).thenReturn(chart);
+		return chart;
 	}
 
 }
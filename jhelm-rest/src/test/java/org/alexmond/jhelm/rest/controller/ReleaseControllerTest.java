@@ -1,6 +1,7 @@
 package org.alexmond.jhelm.rest.controller;
 
 import java.io.File;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.OffsetDateTime;
@@ -204,9 +205,8 @@ class ReleaseControllerTest {
 
 	@Test
 	void installUploadCreatesRelease() throws Exception {
-		stubUntar();
 		Chart chart = Chart.builder().metadata(ChartMetadata.builder().name("nginx").version("1.0.0").build()).build();
-		when(this.chartLoader.load(any(File.class))).thenReturn(chart);
+		when(this.chartLoader.loadInMemory(any(InputStream.class))).thenReturn(Optional.of(chart));
 		when(this.installAction.install(any(InstallOptions.class))).thenReturn(sampleRelease());
 
 		MockMultipartFile chartFile = new MockMultipartFile("chart", "nginx-1.0.0.tgz", "application/gzip",
@@ -306,9 +306,8 @@ class ReleaseControllerTest {
 	void upgradeUploadRelease() throws Exception {
 		Release current = sampleRelease();
 		when(this.getAction.getRelease("my-release", "default")).thenReturn(Optional.of(current));
-		stubUntar();
 		Chart chart = Chart.builder().metadata(ChartMetadata.builder().name("nginx").version("2.0.0").build()).build();
-		when(this.chartLoader.load(any(File.class))).thenReturn(chart);
+		when(this.chartLoader.loadInMemory(any(InputStream.class))).thenReturn(Optional.of(chart));
 		Release upgraded = sampleRelease().toBuilder().version(2).build();
 		when(this.upgradeAction.upgrade(any(UpgradeOptions.class))).thenReturn(upgraded);
 
@@ -454,14 +453,4 @@ class ReleaseControllerTest {
 		}).when(this.repoManager).pull(anyString(), any(), anyString());
 	}
 
-	private void stubUntar() throws Exception {
-		doAnswer((invocation) -> {
-			File destDir = invocation.getArgument(1);
-			Path chartDir = destDir.toPath().resolve("nginx");
-			Files.createDirectories(chartDir);
-			Files.writeString(chartDir.resolve("Chart.yaml"), "name: nginx\nversion: 1.0.0");
-			return null;
-		}).when(this.repoManager).untar(any(File.class), any(File.class));
-	}
-
 }